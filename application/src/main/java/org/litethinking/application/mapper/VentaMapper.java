@@ -1,8 +1,12 @@
 package org.litethinking.application.mapper;
 
 import org.litethinking.domain.model.supermercado.venta.ItemVenta;
+import org.litethinking.domain.model.supermercado.venta.TotalVentasPorDia;
+import org.litethinking.domain.model.supermercado.venta.TotalVentasPorGrupo;
 import org.litethinking.domain.model.supermercado.venta.Venta;
 import org.litethinking.shareddto.supermercado.venta.ItemVentaDto;
+import org.litethinking.shareddto.supermercado.venta.TotalVentasPorDiaDto;
+import org.litethinking.shareddto.supermercado.venta.TotalVentasPorGrupoDto;
 import org.litethinking.shareddto.supermercado.venta.VentaDto;
 
 import java.util.List;
@@ -108,4 +112,24 @@ public class VentaMapper {
             .subtotal(dto.subtotal())
             .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Converts a daily sales total to its DTO.
+     *
+     * @param total the domain model to convert
+     * @return the corresponding DTO
+     */
+    public static TotalVentasPorDiaDto toTotalPorDiaDto(TotalVentasPorDia total) {
+        return new TotalVentasPorDiaDto(total.getFecha(), total.getCantidadVentas(), total.getMontoTotal());
+    }
+
+    /**
+     * Converts a per-group sales total to its DTO.
+     *
+     * @param total the domain model to convert
+     * @return the corresponding DTO
+     */
+    public static TotalVentasPorGrupoDto toTotalPorGrupoDto(TotalVentasPorGrupo total) {
+        return new TotalVentasPorGrupoDto(total.getGrupo(), total.getCantidadVentas(), total.getMontoTotal());
+    }
+}
@@ -0,0 +1,92 @@
+package org.litethinking.application.service.paginacion;
+
+import org.litethinking.shareddto.paginacion.PaginaDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Shared helper for keyset (cursor) pagination on id.
+ * It resolves the page size, encodes and decodes the opaque cursor token
+ * and builds the resulting page.
+ * The services ask the repositories for one row more than the page size, so {@link #armarPagina}
+ * knows whether there is a next page without a count query. The repositories read a null cursor
+ * (the first page) as "after id 0": ids are generated starting at 1.
+ */
+@Component
+public class Paginador {
+
+    private final int tamanioPorDefecto;
+    private final int tamanioMaximo;
+
+    public Paginador(@Value("${app.paginacion.tamanio-por-defecto:50}") int tamanioPorDefecto,
+                     @Value("${app.paginacion.tamanio-maximo:500}") int tamanioMaximo) {
+        this.tamanioPorDefecto = tamanioPorDefecto;
+        this.tamanioMaximo = tamanioMaximo;
+    }
+
+    /**
+     * Resolve the page size to use, falling back to the default and capping it at the maximum.
+     *
+     * @param tamanioSolicitado the page size requested by the client, may be null
+     * @return the page size to use
+     */
+    public int resolverTamanio(Integer tamanioSolicitado) {
+        if (tamanioSolicitado == null || tamanioSolicitado <= 0) {
+            return tamanioPorDefecto;
+        }
+        return Math.min(tamanioSolicitado, tamanioMaximo);
+    }
+
+    /**
+     * Decode a cursor token into the id of the last element already returned.
+     *
+     * @param cursor the cursor token, may be null or blank for the first page
+     * @return the id to continue after, or null for the first page
+     * @throws IllegalArgumentException if the token is not a valid cursor
+     */
+    public Long decodificarCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            return Long.parseLong(valor);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor de paginación inválido: " + cursor, e);
+        }
+    }
+
+    /**
+     * Encode the id of the last element of a page as an opaque cursor token.
+     *
+     * @param id the id of the last element
+     * @return the cursor token
+     */
+    public String codificarCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.valueOf(id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Build a page from rows fetched with a limit of tamanio + 1.
+     * The extra row, if present, is only used to know that there is a next page.
+     *
+     * @param filas the fetched rows, at most tamanio + 1
+     * @param tamanio the page size
+     * @param extractorId function returning the id of a row
+     * @return the page with its next cursor
+     */
+    public <T> PaginaDto<T> armarPagina(List<T> filas, int tamanio, Function<T, Long> extractorId) {
+        if (filas.size() <= tamanio) {
+            return new PaginaDto<>(filas, null, tamanio);
+        }
+        List<T> elementos = filas.subList(0, tamanio);
+        String siguienteCursor = codificarCursor(extractorId.apply(elementos.get(tamanio - 1)));
+        return new PaginaDto<>(List.copyOf(elementos), siguienteCursor, tamanio);
+    }
+}
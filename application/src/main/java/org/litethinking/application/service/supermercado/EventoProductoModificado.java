@@ -0,0 +1,12 @@
+package org.litethinking.application.service.supermercado;
+
+/**
+ * Published by ServicioProducto after a product is created, updated or deleted,
+ * so whatever is derived from the whole catalog can be rebuilt. It is published inside the
+ * transaction of the write: listeners that read the catalog handle it after the commit.
+ *
+ * @param productoId the id of the product that changed
+ * @param version the catalog version of the change
+ */
+public record EventoProductoModificado(Long productoId, long version) {
+}
@@ -1,5 +1,6 @@
 package org.litethinking.application.service.supermercado;
 
+import org.litethinking.shareddto.paginacion.PaginaDto;
 import org.litethinking.shareddto.supermercado.CajeroDto;
 
 import java.util.List;
@@ -42,6 +43,16 @@ public interface ServicioCajero {
      */
     List<CajeroDto> obtenerTodosLosCajeros();
 
+    /**
+     * Get a page of cashiers ordered by id (keyset pagination).
+     *
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param tamanio the requested page size, or null for the default
+     * @return the page of cashiers with the cursor of the next page
+     * @throws IllegalArgumentException if the cursor is not valid
+     */
+    PaginaDto<CajeroDto> obtenerPaginaDeCajeros(String cursor, Integer tamanio);
+
     /**
      * Delete a cashier by its id.
      *
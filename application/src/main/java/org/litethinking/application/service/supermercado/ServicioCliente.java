@@ -1,5 +1,6 @@
 package org.litethinking.application.service.supermercado;
 
+import org.litethinking.shareddto.paginacion.PaginaDto;
 import org.litethinking.shareddto.supermercado.ClienteDto;
 
 import java.util.List;
@@ -42,6 +43,16 @@ public interface ServicioCliente {
      */
     List<ClienteDto> obtenerTodosLosClientes();
 
+    /**
+     * Get a page of customers ordered by id (keyset pagination).
+     *
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param tamanio the requested page size, or null for the default
+     * @return the page of customers with the cursor of the next page
+     * @throws IllegalArgumentException if the cursor is not valid
+     */
+    PaginaDto<ClienteDto> obtenerPaginaDeClientes(String cursor, Integer tamanio);
+
     /**
      * Delete a customer by its id.
      *
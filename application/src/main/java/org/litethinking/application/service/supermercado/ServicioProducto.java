@@ -1,10 +1,13 @@
 package org.litethinking.application.service.supermercado;
 
+import org.litethinking.shareddto.paginacion.PaginaDto;
+import org.litethinking.shareddto.supermercado.CambiosProductosDto;
 import org.litethinking.shareddto.supermercado.ProductoDto;
 
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Service interface for Producto operations.
@@ -43,6 +46,50 @@ public interface ServicioProducto {
      */
     List<ProductoDto> obtenerTodosLosProductos();
 
+    /**
+     * Get a page of products ordered by id (keyset pagination).
+     *
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param tamanio the requested page size, or null for the default
+     * @return the page of products with the cursor of the next page
+     * @throws IllegalArgumentException if the cursor is not valid
+     */
+    PaginaDto<ProductoDto> obtenerPaginaDeProductos(String cursor, Integer tamanio);
+
+    /**
+     * Walk through all products ordered by id, handing each one to the consumer
+     * as it is read, so large catalogs can be exported without holding them in memory.
+     *
+     * @param consumidor the callback that receives each product
+     */
+    void recorrerTodosLosProductos(Consumer<ProductoDto> consumidor);
+
+    /**
+     * Get the products created, updated or deleted after a catalog version.
+     *
+     * @param desde the last version the caller has, 0 for every recorded change
+     * @param tamanio the maximum number of changes, or null for the default
+     * @return the changes, with the version to ask from next time
+     * @throws IllegalArgumentException if desde is negative
+     * @throws IllegalStateException if desde is past the current catalog version
+     */
+    CambiosProductosDto obtenerCambiosDesde(long desde, Integer tamanio);
+
+    /**
+     * Get the current catalog version, the version of the last product write.
+     *
+     * @return the version, 0 if no product was written since the seed load
+     */
+    long obtenerVersionCatalogo();
+
+    /**
+     * Get the catalog epoch, which changes when the catalog database is recreated
+     * and its versions start again.
+     *
+     * @return the epoch
+     */
+    String obtenerEpocaCatalogo();
+
     /**
      * Delete a product by its id.
      *
@@ -1,9 +1,11 @@
 package org.litethinking.application.service.supermercado.impl;
 
 import org.litethinking.application.mapper.CajeroMapper;
+import org.litethinking.application.service.paginacion.Paginador;
 import org.litethinking.application.service.supermercado.ServicioCajero;
 import org.litethinking.domain.model.supermercado.Cajero;
 import org.litethinking.domain.repository.supermercado.RepositorioCajero;
+import org.litethinking.shareddto.paginacion.PaginaDto;
 import org.litethinking.shareddto.supermercado.CajeroDto;
 import org.springframework.stereotype.Service;
 
@@ -18,9 +20,11 @@ import java.util.stream.Collectors;
 public class ServicioCajeroImpl implements ServicioCajero {
 
     private final RepositorioCajero repositorioCajero;
+    private final Paginador paginador;
 
-    public ServicioCajeroImpl(RepositorioCajero repositorioCajero) {
+    public ServicioCajeroImpl(RepositorioCajero repositorioCajero, Paginador paginador) {
         this.repositorioCajero = repositorioCajero;
+        this.paginador = paginador;
     }
 
     @Override
@@ -56,6 +60,16 @@ public class ServicioCajeroImpl implements ServicioCajero {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public PaginaDto<CajeroDto> obtenerPaginaDeCajeros(String cursor, Integer tamanio) {
+        int tamanioPagina = paginador.resolverTamanio(tamanio);
+        Long despuesDeId = paginador.decodificarCursor(cursor);
+        List<CajeroDto> filas = repositorioCajero.findPage(despuesDeId, tamanioPagina + 1).stream()
+                .map(CajeroMapper::toDto)
+                .collect(Collectors.toList());
+        return paginador.armarPagina(filas, tamanioPagina, CajeroDto::id);
+    }
+
     @Override
     public void eliminarCajero(Long id) {
         repositorioCajero.deleteById(id);
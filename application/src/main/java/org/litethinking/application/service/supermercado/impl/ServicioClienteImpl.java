@@ -1,9 +1,11 @@
 package org.litethinking.application.service.supermercado.impl;
 
 import org.litethinking.application.mapper.ClienteMapper;
+import org.litethinking.application.service.paginacion.Paginador;
 import org.litethinking.application.service.supermercado.ServicioCliente;
 import org.litethinking.domain.model.supermercado.Cliente;
 import org.litethinking.domain.repository.supermercado.RepositorioCliente;
+import org.litethinking.shareddto.paginacion.PaginaDto;
 import org.litethinking.shareddto.supermercado.ClienteDto;
 import org.springframework.stereotype.Service;
 
@@ -18,9 +20,11 @@ import java.util.stream.Collectors;
 public class ServicioClienteImpl implements ServicioCliente {
 
     private final RepositorioCliente repositorioCliente;
+    private final Paginador paginador;
 
-    public ServicioClienteImpl(RepositorioCliente repositorioCliente) {
+    public ServicioClienteImpl(RepositorioCliente repositorioCliente, Paginador paginador) {
         this.repositorioCliente = repositorioCliente;
+        this.paginador = paginador;
     }
 
     @Override
@@ -56,6 +60,16 @@ public class ServicioClienteImpl implements ServicioCliente {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public PaginaDto<ClienteDto> obtenerPaginaDeClientes(String cursor, Integer tamanio) {
+        int tamanioPagina = paginador.resolverTamanio(tamanio);
+        Long despuesDeId = paginador.decodificarCursor(cursor);
+        List<ClienteDto> filas = repositorioCliente.findPage(despuesDeId, tamanioPagina + 1).stream()
+                .map(ClienteMapper::toDto)
+                .collect(Collectors.toList());
+        return paginador.armarPagina(filas, tamanioPagina, ClienteDto::id);
+    }
+
     @Override
     public void eliminarCliente(Long id) {
         repositorioCliente.deleteById(id);
@@ -1,15 +1,29 @@
 package org.litethinking.application.service.supermercado.impl;
 
 import org.litethinking.application.mapper.ProductoMapper;
+import org.litethinking.application.service.paginacion.Paginador;
+import org.litethinking.application.service.supermercado.EventoProductoModificado;
 import org.litethinking.application.service.supermercado.ServicioProducto;
+import org.litethinking.application.service.transaccion.PoolLectura;
+import org.litethinking.domain.model.supermercado.CambioProducto;
 import org.litethinking.domain.model.supermercado.Producto;
+import org.litethinking.domain.repository.supermercado.RepositorioCambioProducto;
 import org.litethinking.domain.repository.supermercado.RepositorioProducto;
+import org.litethinking.shareddto.paginacion.PaginaDto;
+import org.litethinking.shareddto.supermercado.CambiosProductosDto;
 import org.litethinking.shareddto.supermercado.ProductoDto;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -19,25 +33,38 @@ import java.util.stream.Collectors;
 public class ServicioProductoImpl implements ServicioProducto {
 
     private final RepositorioProducto repositorioProducto;
+    private final RepositorioCambioProducto repositorioCambioProducto;
+    private final Paginador paginador;
+    private final ApplicationEventPublisher eventos;
 
-    public ServicioProductoImpl(RepositorioProducto repositorioProducto) {
+    public ServicioProductoImpl(RepositorioProducto repositorioProducto,
+                                RepositorioCambioProducto repositorioCambioProducto,
+                                Paginador paginador,
+                                ApplicationEventPublisher eventos) {
         this.repositorioProducto = repositorioProducto;
+        this.repositorioCambioProducto = repositorioCambioProducto;
+        this.paginador = paginador;
+        this.eventos = eventos;
     }
 
     @Override
+    @Transactional
     public ProductoDto crearProducto(ProductoDto productoDto) {
         Producto producto = ProductoMapper.toDomain(productoDto);
         Producto productoGuardado = repositorioProducto.save(producto);
+        registrarCambio(productoGuardado.getId(), false);
         return ProductoMapper.toDto(productoGuardado);
     }
 
     @Override
+    @Transactional
     public ProductoDto actualizarProducto(Long id, ProductoDto productoDto) {
         Optional<Producto> productoExistente = repositorioProducto.findById(id);
         if (productoExistente.isPresent()) {
             Producto producto = ProductoMapper.toDomain(productoDto);
             producto.setId(id);
             Producto productoActualizado = repositorioProducto.save(producto);
+            registrarCambio(id, false);
             return ProductoMapper.toDto(productoActualizado);
         } else {
             throw new IllegalArgumentException("Producto no encontrado con ID: " + id);
@@ -51,6 +78,8 @@ public class ServicioProductoImpl implements ServicioProducto {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @PoolLectura
     public List<ProductoDto> obtenerTodosLosProductos() {
         return repositorioProducto.findAll().stream()
                 .map(ProductoMapper::toDto)
@@ -58,8 +87,88 @@ public class ServicioProductoImpl implements ServicioProducto {
     }
 
     @Override
+    public PaginaDto<ProductoDto> obtenerPaginaDeProductos(String cursor, Integer tamanio) {
+        int tamanioPagina = paginador.resolverTamanio(tamanio);
+        Long despuesDeId = paginador.decodificarCursor(cursor);
+        List<ProductoDto> filas = repositorioProducto.findPage(despuesDeId, tamanioPagina + 1).stream()
+                .map(ProductoMapper::toDto)
+                .collect(Collectors.toList());
+        return paginador.armarPagina(filas, tamanioPagina, ProductoDto::id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @PoolLectura
+    public void recorrerTodosLosProductos(Consumer<ProductoDto> consumidor) {
+        repositorioProducto.streamAll(producto -> consumidor.accept(ProductoMapper.toDto(producto)));
+    }
+
+    @Override
+    @Transactional
     public void eliminarProducto(Long id) {
         repositorioProducto.deleteById(id);
+        registrarCambio(id, true);
+    }
+
+    @Override
+    public CambiosProductosDto obtenerCambiosDesde(long desde, Integer tamanio) {
+        if (desde < 0) {
+            throw new IllegalArgumentException("La versión no puede ser negativa: " + desde);
+        }
+        // A version the catalog never reached means the client synced against another database
+        // (e.g. before an in-memory restart) and has to download the whole catalog again
+        long versionActual = repositorioCambioProducto.findLastVersion();
+        if (desde > versionActual) {
+            throw new IllegalStateException("La versión " + desde
+                    + " es posterior a la del catálogo (" + versionActual + "), descargue el catálogo completo");
+        }
+        int limite = paginador.resolverTamanio(tamanio);
+        // Fetch one extra change to know whether there are more
+        List<CambioProducto> cambios = repositorioCambioProducto.findLatestAfter(desde, limite + 1);
+        boolean hayMas = cambios.size() > limite;
+        if (hayMas) {
+            cambios = cambios.subList(0, limite);
+        }
+
+        List<Long> idsActualizados = new ArrayList<>();
+        List<Long> eliminados = new ArrayList<>();
+        for (CambioProducto cambio : cambios) {
+            (cambio.isEliminado() ? eliminados : idsActualizados).add(cambio.getProductoId());
+        }
+        Map<Long, Producto> productos = idsActualizados.isEmpty() ? Map.of()
+                : repositorioProducto.findAllById(idsActualizados).stream()
+                        .collect(Collectors.toMap(Producto::getId, Function.identity()));
+        // A product deleted after the change list was read is skipped here; its tombstone
+        // has a later version and comes with the next request
+        List<ProductoDto> actualizados = idsActualizados.stream()
+                .map(productos::get)
+                .filter(Objects::nonNull)
+                .map(ProductoMapper::toDto)
+                .collect(Collectors.toList());
+
+        long hasta = cambios.isEmpty() ? desde : cambios.get(cambios.size() - 1).getVersion();
+        return new CambiosProductosDto(repositorioCambioProducto.findEpoch(), desde, hasta, hayMas,
+                actualizados, eliminados);
+    }
+
+    @Override
+    public long obtenerVersionCatalogo() {
+        return repositorioCambioProducto.findLastVersion();
+    }
+
+    @Override
+    public String obtenerEpocaCatalogo() {
+        return repositorioCambioProducto.findEpoch();
+    }
+
+    /**
+     * Records the change last, in the transaction of the product write: the version it takes stays
+     * locked until the commit, so once a terminal has read up to version N no change below N can
+     * still show up.
+     */
+    private void registrarCambio(Long productoId, boolean eliminado) {
+        long version = repositorioCambioProducto.registerChange(productoId, eliminado).getVersion();
+        eventos.publishEvent(new EventoProductoModificado(productoId, version));
     }
 
     @Override
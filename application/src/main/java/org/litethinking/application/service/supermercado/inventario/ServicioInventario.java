@@ -2,9 +2,12 @@ package org.litethinking.application.service.supermercado.inventario;
 
 import org.litethinking.domain.model.supermercado.Producto;
 import org.litethinking.domain.model.supermercado.inventario.Inventario;
+import org.litethinking.domain.model.supermercado.inventario.LineaInventario;
+import org.litethinking.shareddto.paginacion.PaginaDto;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Service interface for Inventario operations.
@@ -42,6 +45,16 @@ public interface ServicioInventario {
      * @return the list of all inventory records
      */
     List<Inventario> obtenerTodoElInventario();
+
+    /**
+     * Get a page of inventory records ordered by id (keyset pagination).
+     *
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param tamanio the requested page size, or null for the default
+     * @return the page of inventory records with the cursor of the next page
+     * @throws IllegalArgumentException if the cursor is not valid
+     */
+    PaginaDto<Inventario> obtenerPaginaDeInventario(String cursor, Integer tamanio);
     
     /**
      * Delete an inventory record by its id.
@@ -81,4 +94,13 @@ public interface ServicioInventario {
      * @return the updated inventory
      */
     Inventario actualizarCantidadInventario(Long id, Integer cantidad);
+    
+    /**
+     * Walk through inventory lines for export, filtered in the database.
+     *
+     * @param ubicacion only include this location, or all locations if null
+     * @param soloBajoStock only include records at or below their minimum stock
+     * @param consumidor the callback that receives each line
+     */
+    void recorrerLineasInventario(String ubicacion, boolean soloBajoStock, Consumer<LineaInventario> consumidor);
 }
\ No newline at end of file
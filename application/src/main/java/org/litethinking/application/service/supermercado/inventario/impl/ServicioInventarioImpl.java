@@ -1,14 +1,20 @@
 package org.litethinking.application.service.supermercado.inventario.impl;
 
+import org.litethinking.application.service.paginacion.Paginador;
 import org.litethinking.application.service.supermercado.inventario.ServicioInventario;
+import org.litethinking.application.service.transaccion.PoolLectura;
 import org.litethinking.domain.model.supermercado.Producto;
 import org.litethinking.domain.model.supermercado.inventario.Inventario;
+import org.litethinking.domain.model.supermercado.inventario.LineaInventario;
 import org.litethinking.domain.repository.supermercado.inventario.RepositorioInventario;
+import org.litethinking.shareddto.paginacion.PaginaDto;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Implementation of ServicioInventario.
@@ -17,9 +23,11 @@ import java.util.Optional;
 public class ServicioInventarioImpl implements ServicioInventario {
 
     private final RepositorioInventario repositorioInventario;
+    private final Paginador paginador;
 
-    public ServicioInventarioImpl(RepositorioInventario repositorioInventario) {
+    public ServicioInventarioImpl(RepositorioInventario repositorioInventario, Paginador paginador) {
         this.repositorioInventario = repositorioInventario;
+        this.paginador = paginador;
     }
 
     @Override
@@ -44,10 +52,20 @@ public class ServicioInventarioImpl implements ServicioInventario {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @PoolLectura
     public List<Inventario> obtenerTodoElInventario() {
         return repositorioInventario.findAll();
     }
 
+    @Override
+    public PaginaDto<Inventario> obtenerPaginaDeInventario(String cursor, Integer tamanio) {
+        int tamanioPagina = paginador.resolverTamanio(tamanio);
+        Long despuesDeId = paginador.decodificarCursor(cursor);
+        List<Inventario> filas = repositorioInventario.findPage(despuesDeId, tamanioPagina + 1);
+        return paginador.armarPagina(filas, tamanioPagina, Inventario::getId);
+    }
+
     @Override
     public void eliminarInventario(Long id) {
         repositorioInventario.deleteById(id);
@@ -59,6 +77,8 @@ public class ServicioInventarioImpl implements ServicioInventario {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @PoolLectura
     public List<Inventario> obtenerInventarioConBajoStock() {
         return repositorioInventario.findBajoStock();
     }
@@ -79,4 +99,11 @@ public class ServicioInventarioImpl implements ServicioInventario {
             throw new IllegalArgumentException("Inventario no encontrado con ID: " + id);
         }
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    @PoolLectura
+    public void recorrerLineasInventario(String ubicacion, boolean soloBajoStock, Consumer<LineaInventario> consumidor) {
+        repositorioInventario.streamLineas(ubicacion, soloBajoStock, consumidor);
+    }
 }
@@ -1,8 +1,13 @@
 package org.litethinking.application.service.supermercado.venta;
 
+import org.litethinking.shareddto.paginacion.PaginaDto;
+import org.litethinking.shareddto.supermercado.venta.ResultadoVentaDto;
+import org.litethinking.shareddto.supermercado.venta.TotalVentasPorDiaDto;
+import org.litethinking.shareddto.supermercado.venta.TotalVentasPorGrupoDto;
 import org.litethinking.shareddto.supermercado.venta.VentaDto;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -13,13 +18,47 @@ import java.util.Optional;
 public interface ServicioVenta {
 
     /**
-     * Create a new sale.
+     * Create a new sale, taking the stock of every item in the same transaction.
      *
      * @param ventaDto the sale to create
      * @return the created sale
+     * @throws IllegalArgumentException if an item has no product or a non-positive quantity
+     * @throws IllegalStateException if there is not enough stock for one of the products
      */
     VentaDto crearVenta(VentaDto ventaDto);
 
+    /**
+     * Create a new sale and keep the idempotency key the client sent with it. The key is unique,
+     * so a second sale with the same key is refused by the database when the transaction commits.
+     *
+     * @param ventaDto the sale to create
+     * @param claveIdempotencia the key the client drew for this sale, or null
+     * @return the created sale
+     * @throws IllegalArgumentException if an item has no product or a non-positive quantity
+     * @throws IllegalStateException if there is not enough stock for one of the products
+     * @throws org.springframework.dao.DataIntegrityViolationException if a sale with the key already exists
+     */
+    VentaDto crearVenta(VentaDto ventaDto, String claveIdempotencia);
+
+    /**
+     * Get the sale created with an idempotency key, e.g. to answer a client that sends it again.
+     *
+     * @param claveIdempotencia the key the client sent with the sale
+     * @return the sale if found, empty otherwise
+     */
+    Optional<VentaDto> obtenerVentaPorClaveIdempotencia(String claveIdempotencia);
+
+    /**
+     * Create many sales at once, e.g. the backlog of a register that was offline.
+     * Sales are saved in chunks, each chunk in its own transaction with batched inserts.
+     * A sale without enough stock or with invalid data is reported and skipped;
+     * it does not stop the rest of the batch.
+     *
+     * @param ventasDto the sales to create
+     * @return the outcome of every sale, in the same order as the request
+     */
+    List<ResultadoVentaDto> crearVentas(List<VentaDto> ventasDto);
+
     /**
      * Update an existing sale.
      *
@@ -44,6 +83,16 @@ public interface ServicioVenta {
      */
     List<VentaDto> obtenerTodasLasVentas();
 
+    /**
+     * Get a page of sales ordered by id (keyset pagination).
+     *
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param tamanio the requested page size, or null for the default
+     * @return the page of sales with the cursor of the next page
+     * @throws IllegalArgumentException if the cursor is not valid
+     */
+    PaginaDto<VentaDto> obtenerPaginaDeVentas(String cursor, Integer tamanio);
+
     /**
      * Delete a sale by its id.
      *
@@ -83,4 +132,39 @@ public interface ServicioVenta {
      * @return the list of sales with the payment method
      */
     List<VentaDto> obtenerVentasPorMetodoPago(String metodoPago);
+
+    /**
+     * Get the number of sales and amount sold per day.
+     *
+     * @param desde the first day, or null for no lower bound
+     * @param hasta the last day (included), or null for no upper bound
+     * @return one total per day with sales, in date order
+     */
+    List<TotalVentasPorDiaDto> obtenerTotalesPorDia(LocalDate desde, LocalDate hasta);
+
+    /**
+     * Get the number of sales and amount sold per payment method.
+     *
+     * @param desde the first day, or null for no lower bound
+     * @param hasta the last day (included), or null for no upper bound
+     * @return one total per payment method, highest amount first
+     */
+    List<TotalVentasPorGrupoDto> obtenerTotalesPorMetodoPago(LocalDate desde, LocalDate hasta);
+
+    /**
+     * Get the amount sold per product category.
+     *
+     * @param desde the first day, or null for no lower bound
+     * @param hasta the last day (included), or null for no upper bound
+     * @return one total per category, highest amount first
+     */
+    List<TotalVentasPorGrupoDto> obtenerTotalesPorCategoria(LocalDate desde, LocalDate hasta);
+
+    /**
+     * Compute the daily sales rollup again from all the sales, e.g. after a bulk load
+     * that bypassed this service or to repair it.
+     *
+     * @return the number of rollup rows
+     */
+    int reconstruirResumenVentas();
 }
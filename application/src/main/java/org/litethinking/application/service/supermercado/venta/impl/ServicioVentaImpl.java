@@ -1,16 +1,34 @@
 package org.litethinking.application.service.supermercado.venta.impl;
 
 import org.litethinking.application.mapper.VentaMapper;
+import org.litethinking.application.service.paginacion.Paginador;
 import org.litethinking.application.service.supermercado.venta.ServicioVenta;
+import org.litethinking.application.service.transaccion.PoolLectura;
+import org.litethinking.domain.model.supermercado.venta.ItemVenta;
 import org.litethinking.domain.model.supermercado.venta.Venta;
+import org.litethinking.domain.repository.supermercado.inventario.RepositorioInventario;
+import org.litethinking.domain.repository.supermercado.venta.RepositorioResumenVentas;
 import org.litethinking.domain.repository.supermercado.venta.RepositorioVenta;
+import org.litethinking.shareddto.paginacion.PaginaDto;
+import org.litethinking.shareddto.supermercado.venta.ResultadoVentaDto;
+import org.litethinking.shareddto.supermercado.venta.TotalVentasPorDiaDto;
+import org.litethinking.shareddto.supermercado.venta.TotalVentasPorGrupoDto;
 import org.litethinking.shareddto.supermercado.venta.VentaDto;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 /**
@@ -20,26 +38,173 @@ import java.util.stream.Collectors;
 public class ServicioVentaImpl implements ServicioVenta {
 
     private final RepositorioVenta repositorioVenta;
+    private final RepositorioInventario repositorioInventario;
+    private final RepositorioResumenVentas repositorioResumenVentas;
+    private final Paginador paginador;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanioChunk;
 
-    public ServicioVentaImpl(RepositorioVenta repositorioVenta) {
+    public ServicioVentaImpl(RepositorioVenta repositorioVenta,
+                             RepositorioInventario repositorioInventario,
+                             RepositorioResumenVentas repositorioResumenVentas,
+                             Paginador paginador,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.ventas.lote.tamanio-chunk:50}") int tamanioChunk) {
         this.repositorioVenta = repositorioVenta;
+        this.repositorioInventario = repositorioInventario;
+        this.repositorioResumenVentas = repositorioResumenVentas;
+        this.paginador = paginador;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanioChunk = Math.max(1, tamanioChunk);
     }
 
     @Override
+    @Transactional
     public VentaDto crearVenta(VentaDto ventaDto) {
+        return crearVenta(ventaDto, null);
+    }
+
+    @Override
+    @Transactional
+    public VentaDto crearVenta(VentaDto ventaDto, String claveIdempotencia) {
         Venta venta = VentaMapper.toDomain(ventaDto);
+        venta.setClaveIdempotencia(claveIdempotencia);
+        Map<Long, Integer> cantidadesPorProducto = cantidadesPorProducto(venta);
+        Long productoSinStock = reservarStock(cantidadesPorProducto);
+        if (productoSinStock != null) {
+            throw new IllegalStateException(mensajeSinStock(productoSinStock, cantidadesPorProducto));
+        }
         Venta ventaCreada = repositorioVenta.save(venta);
+        repositorioResumenVentas.registerSale(ventaCreada);
         return VentaMapper.toDto(ventaCreada);
     }
 
+    /**
+     * Sales are processed in chunks of app.ventas.lote.tamanio-chunk, one transaction per chunk.
+     * Inside a chunk every sale reserves its stock first, then all the accepted sales are
+     * saved with a single saveAll so Hibernate can batch the inserts. If the chunk itself
+     * fails, its transaction is rolled back and only the sales of that chunk are marked ERROR.
+     */
+    @Override
+    public List<ResultadoVentaDto> crearVentas(List<VentaDto> ventasDto) {
+        ResultadoVentaDto[] resultados = new ResultadoVentaDto[ventasDto.size()];
+        for (int inicio = 0; inicio < ventasDto.size(); inicio += tamanioChunk) {
+            int desde = inicio;
+            int hasta = Math.min(inicio + tamanioChunk, ventasDto.size());
+            try {
+                transactionTemplate.executeWithoutResult(estado -> procesarChunk(ventasDto, desde, hasta, resultados));
+            } catch (RuntimeException e) {
+                for (int i = desde; i < hasta; i++) {
+                    resultados[i] = new ResultadoVentaDto(i, null, ResultadoVentaDto.Estado.ERROR, e.getMessage());
+                }
+            }
+        }
+        return Arrays.asList(resultados);
+    }
+
+    private void procesarChunk(List<VentaDto> ventasDto, int desde, int hasta, ResultadoVentaDto[] resultados) {
+        List<Venta> aceptadas = new ArrayList<>();
+        List<Integer> indices = new ArrayList<>();
+        for (int i = desde; i < hasta; i++) {
+            try {
+                Venta venta = VentaMapper.toDomain(ventasDto.get(i));
+                if (venta == null) {
+                    throw new IllegalArgumentException("La venta no puede ser nula");
+                }
+                Map<Long, Integer> cantidadesPorProducto = cantidadesPorProducto(venta);
+                Long productoSinStock = reservarStock(cantidadesPorProducto);
+                if (productoSinStock != null) {
+                    resultados[i] = new ResultadoVentaDto(i, null, ResultadoVentaDto.Estado.SIN_STOCK,
+                            mensajeSinStock(productoSinStock, cantidadesPorProducto));
+                    continue;
+                }
+                aceptadas.add(venta);
+                indices.add(i);
+            } catch (IllegalArgumentException e) {
+                resultados[i] = new ResultadoVentaDto(i, null, ResultadoVentaDto.Estado.INVALIDA, e.getMessage());
+            }
+        }
+        if (aceptadas.isEmpty()) {
+            return;
+        }
+        List<Venta> guardadas = repositorioVenta.saveAll(aceptadas);
+        for (int j = 0; j < guardadas.size(); j++) {
+            repositorioResumenVentas.registerSale(guardadas.get(j));
+            int indice = indices.get(j);
+            resultados[indice] = new ResultadoVentaDto(indice, guardadas.get(j).getId(),
+                    ResultadoVentaDto.Estado.CREADA, null);
+        }
+    }
+
+    /**
+     * Adds up the quantities of the sale per product, in id order so two concurrent sales
+     * always lock inventory rows in the same order.
+     */
+    private Map<Long, Integer> cantidadesPorProducto(Venta venta) {
+        Map<Long, Integer> cantidadesPorProducto = new TreeMap<>();
+        if (venta.getItems() == null) {
+            return cantidadesPorProducto;
+        }
+        for (ItemVenta item : venta.getItems()) {
+            if (item.getProducto() == null || item.getProducto().getId() == null) {
+                throw new IllegalArgumentException("Cada item de la venta debe tener un producto con ID");
+            }
+            if (item.getCantidad() == null || item.getCantidad() <= 0) {
+                throw new IllegalArgumentException("Cantidad inválida para el producto con ID: " + item.getProducto().getId());
+            }
+            cantidadesPorProducto.merge(item.getProducto().getId(), item.getCantidad(), Integer::sum);
+        }
+        return cantidadesPorProducto;
+    }
+
+    /**
+     * Takes the stock of every product with one conditional update per product, from one of its
+     * inventory records. When a product runs short, the stock already taken for this sale is given
+     * back to the records it came from, so a rejected sale inside a batch leaves the inventory
+     * untouched without rolling back the chunk.
+     *
+     * @return the id of the product without enough stock, or null if everything was reserved
+     */
+    private Long reservarStock(Map<Long, Integer> cantidadesPorProducto) {
+        // Inventory record id -> quantity taken from it
+        Map<Long, Integer> reservadas = new TreeMap<>();
+        for (Map.Entry<Long, Integer> entrada : cantidadesPorProducto.entrySet()) {
+            Optional<Long> inventarioId = repositorioInventario.reserveStock(entrada.getKey(), entrada.getValue());
+            if (inventarioId.isEmpty()) {
+                reservadas.forEach(repositorioInventario::releaseStock);
+                return entrada.getKey();
+            }
+            reservadas.put(inventarioId.get(), entrada.getValue());
+        }
+        return null;
+    }
+
+    private String mensajeSinStock(Long productoId, Map<Long, Integer> cantidadesPorProducto) {
+        return "No hay suficiente inventario para el producto con ID: " + productoId
+                + ". Solicitado: " + cantidadesPorProducto.get(productoId);
+    }
+
     @Override
+    @Transactional
     public VentaDto actualizarVenta(Long id, VentaDto ventaDto) {
         Venta venta = VentaMapper.toDomain(ventaDto);
         venta.setId(id);
+        // The rollup swaps the old version of the sale for the new one in the same transaction
+        Optional<Venta> anterior = repositorioVenta.findById(id);
+        anterior.ifPresent(repositorioResumenVentas::unregisterSale);
+        // The key stays with the sale, so a register sending it again still finds it
+        anterior.ifPresent(ventaAnterior -> venta.setClaveIdempotencia(ventaAnterior.getClaveIdempotencia()));
         Venta ventaActualizada = repositorioVenta.save(venta);
+        repositorioResumenVentas.registerSale(ventaActualizada);
         return VentaMapper.toDto(ventaActualizada);
     }
 
+    @Override
+    public Optional<VentaDto> obtenerVentaPorClaveIdempotencia(String claveIdempotencia) {
+        return repositorioVenta.findByIdempotencyKey(claveIdempotencia)
+                .map(VentaMapper::toDto);
+    }
+
     @Override
     public Optional<VentaDto> obtenerVentaPorId(Long id) {
         return repositorioVenta.findById(id)
@@ -47,6 +212,8 @@ public class ServicioVentaImpl implements ServicioVenta {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @PoolLectura
     public List<VentaDto> obtenerTodasLasVentas() {
         return repositorioVenta.findAll()
                 .stream()
@@ -55,11 +222,25 @@ public class ServicioVentaImpl implements ServicioVenta {
     }
 
     @Override
+    public PaginaDto<VentaDto> obtenerPaginaDeVentas(String cursor, Integer tamanio) {
+        int tamanioPagina = paginador.resolverTamanio(tamanio);
+        Long despuesDeId = paginador.decodificarCursor(cursor);
+        List<VentaDto> filas = repositorioVenta.findPage(despuesDeId, tamanioPagina + 1).stream()
+                .map(VentaMapper::toDto)
+                .collect(Collectors.toList());
+        return paginador.armarPagina(filas, tamanioPagina, VentaDto::id);
+    }
+
+    @Override
+    @Transactional
     public void eliminarVenta(Long id) {
+        repositorioVenta.findById(id).ifPresent(repositorioResumenVentas::unregisterSale);
         repositorioVenta.deleteById(id);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @PoolLectura
     public List<VentaDto> obtenerVentasPorNombreCliente(String nombreCliente) {
         return repositorioVenta.findByNombreCliente(nombreCliente)
                 .stream()
@@ -68,6 +249,8 @@ public class ServicioVentaImpl implements ServicioVenta {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @PoolLectura
     public List<VentaDto> obtenerVentasEntreFechas(LocalDateTime fechaInicio, LocalDateTime fechaFin) {
         return repositorioVenta.findByFechaVentaBetween(fechaInicio, fechaFin)
                 .stream()
@@ -76,6 +259,8 @@ public class ServicioVentaImpl implements ServicioVenta {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @PoolLectura
     public List<VentaDto> obtenerVentasPorMontoTotalMayorQue(BigDecimal montoMinimo) {
         return repositorioVenta.findByMontoTotalGreaterThan(montoMinimo)
                 .stream()
@@ -84,10 +269,56 @@ public class ServicioVentaImpl implements ServicioVenta {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @PoolLectura
     public List<VentaDto> obtenerVentasPorMetodoPago(String metodoPago) {
         return repositorioVenta.findByMetodoPago(metodoPago)
                 .stream()
                 .map(VentaMapper::toDto)
                 .collect(Collectors.toList());
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    @PoolLectura
+    public List<TotalVentasPorDiaDto> obtenerTotalesPorDia(LocalDate desde, LocalDate hasta) {
+        validarRango(desde, hasta);
+        return repositorioResumenVentas.sumByDia(desde, hasta)
+                .stream()
+                .map(VentaMapper::toTotalPorDiaDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @PoolLectura
+    public List<TotalVentasPorGrupoDto> obtenerTotalesPorMetodoPago(LocalDate desde, LocalDate hasta) {
+        validarRango(desde, hasta);
+        return repositorioResumenVentas.sumByMetodoPago(desde, hasta)
+                .stream()
+                .map(VentaMapper::toTotalPorGrupoDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @PoolLectura
+    public List<TotalVentasPorGrupoDto> obtenerTotalesPorCategoria(LocalDate desde, LocalDate hasta) {
+        validarRango(desde, hasta);
+        return repositorioResumenVentas.sumByCategoria(desde, hasta)
+                .stream()
+                .map(VentaMapper::toTotalPorGrupoDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public int reconstruirResumenVentas() {
+        return repositorioResumenVentas.rebuild();
+    }
+
+    private void validarRango(LocalDate desde, LocalDate hasta) {
+        if (desde != null && hasta != null && desde.isAfter(hasta)) {
+            throw new IllegalArgumentException("La fecha desde (" + desde + ") es posterior a la fecha hasta (" + hasta + ")");
+        }
+    }
 }
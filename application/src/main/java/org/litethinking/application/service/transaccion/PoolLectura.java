@@ -0,0 +1,18 @@
+package org.litethinking.application.service.transaccion;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read-only service method (reports, exports, full listings) whose transaction takes
+ * its connection from the read pool. Read-only transactions without it, such as the lookups
+ * of the checkout, stay on the write pool, and so does any method that is not read-only.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PoolLectura {
+}
@@ -0,0 +1,153 @@
+package org.litethinking.application.service.supermercado.venta.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.litethinking.application.service.paginacion.Paginador;
+import org.litethinking.domain.model.supermercado.venta.Venta;
+import org.litethinking.domain.repository.supermercado.inventario.RepositorioInventario;
+import org.litethinking.domain.repository.supermercado.venta.RepositorioResumenVentas;
+import org.litethinking.domain.repository.supermercado.venta.RepositorioVenta;
+import org.litethinking.shareddto.supermercado.ProductoDto;
+import org.litethinking.shareddto.supermercado.venta.ItemVentaDto;
+import org.litethinking.shareddto.supermercado.venta.ResultadoVentaDto;
+import org.litethinking.shareddto.supermercado.venta.VentaDto;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Checks the batch sale path with the repositories and the transaction manager mocked:
+ * the result of each sale, the stock given back by a rejected sale, and that a failed chunk
+ * only rolls back its own sales.
+ */
+class ServicioVentaImplTest {
+
+    private static final int TAMANIO_CHUNK = 2;
+
+    @Mock
+    private RepositorioVenta repositorioVenta;
+
+    @Mock
+    private RepositorioInventario repositorioInventario;
+
+    @Mock
+    private RepositorioResumenVentas repositorioResumenVentas;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ServicioVentaImpl servicioVenta;
+    private final AtomicLong siguienteId = new AtomicLong(1);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocacion -> new SimpleTransactionStatus());
+        // Product n is stocked in inventory record 100 + n
+        when(repositorioInventario.reserveStock(anyLong(), anyInt()))
+                .thenAnswer(invocacion -> Optional.of(100 + (Long) invocacion.getArgument(0)));
+        when(repositorioVenta.saveAll(anyList())).thenAnswer(invocacion -> {
+            List<Venta> ventas = invocacion.getArgument(0);
+            ventas.forEach(venta -> venta.setId(siguienteId.getAndIncrement()));
+            return ventas;
+        });
+        servicioVenta = new ServicioVentaImpl(repositorioVenta, repositorioInventario, repositorioResumenVentas,
+                new Paginador(50, 500), transactionManager, TAMANIO_CHUNK);
+    }
+
+    @Test
+    void crearVentasCreatesEverySaleInChunks() {
+        List<ResultadoVentaDto> resultados = servicioVenta.crearVentas(List.of(
+                venta(item(1L, 1)), venta(item(2L, 1)), venta(item(3L, 1))));
+
+        assertEquals(List.of(ResultadoVentaDto.Estado.CREADA, ResultadoVentaDto.Estado.CREADA,
+                ResultadoVentaDto.Estado.CREADA), estados(resultados));
+        assertEquals(List.of(0, 1, 2), resultados.stream().map(ResultadoVentaDto::indice).toList());
+        verify(transactionManager, times(2)).commit(any());
+        verify(repositorioResumenVentas, times(3)).registerSale(any());
+    }
+
+    @Test
+    void aSaleWithoutStockGivesBackWhatItReserved() {
+        when(repositorioInventario.reserveStock(2L, 5)).thenReturn(Optional.empty());
+
+        List<ResultadoVentaDto> resultados = servicioVenta.crearVentas(List.of(
+                venta(item(1L, 3), item(2L, 5)), venta(item(1L, 1))));
+
+        assertEquals(List.of(ResultadoVentaDto.Estado.SIN_STOCK, ResultadoVentaDto.Estado.CREADA),
+                estados(resultados));
+        assertNull(resultados.get(0).id());
+        // Given back to the record it was taken from
+        verify(repositorioInventario).releaseStock(101L, 3);
+        verify(repositorioInventario, times(1)).releaseStock(anyLong(), anyInt());
+        // Only the accepted sale is saved, and the chunk still commits
+        verify(repositorioVenta).saveAll(argThat(ventas -> ventas.size() == 1));
+        verify(transactionManager).commit(any());
+        verify(transactionManager, never()).rollback(any());
+    }
+
+    @Test
+    void anInvalidSaleIsReportedWithoutTouchingTheStock() {
+        List<ResultadoVentaDto> resultados = servicioVenta.crearVentas(List.of(
+                venta(item(1L, 0)), venta(item(2L, 1))));
+
+        assertEquals(List.of(ResultadoVentaDto.Estado.INVALIDA, ResultadoVentaDto.Estado.CREADA),
+                estados(resultados));
+        assertNotNull(resultados.get(0).mensaje());
+        verify(repositorioInventario, never()).reserveStock(eq(1L), anyInt());
+        verify(repositorioInventario).reserveStock(2L, 1);
+    }
+
+    @Test
+    void aFailedChunkOnlyRollsBackItsOwnSales() {
+        // The second chunk (sales 2 and 3) fails when it is saved
+        when(repositorioVenta.saveAll(anyList()))
+                .thenAnswer(invocacion -> guardar(invocacion.getArgument(0)))
+                .thenThrow(new IllegalStateException("Conexión perdida"))
+                .thenAnswer(invocacion -> guardar(invocacion.getArgument(0)));
+
+        List<ResultadoVentaDto> resultados = servicioVenta.crearVentas(List.of(
+                venta(item(1L, 1)), venta(item(1L, 1)),
+                venta(item(1L, 1)), venta(item(1L, 1)),
+                venta(item(1L, 1))));
+
+        assertEquals(List.of(ResultadoVentaDto.Estado.CREADA, ResultadoVentaDto.Estado.CREADA,
+                ResultadoVentaDto.Estado.ERROR, ResultadoVentaDto.Estado.ERROR,
+                ResultadoVentaDto.Estado.CREADA), estados(resultados));
+        assertEquals("Conexión perdida", resultados.get(2).mensaje());
+        verify(transactionManager, times(2)).commit(any());
+        verify(transactionManager, times(1)).rollback(any());
+        verify(repositorioResumenVentas, times(3)).registerSale(any());
+    }
+
+    private List<Venta> guardar(List<Venta> ventas) {
+        ventas.forEach(venta -> venta.setId(siguienteId.getAndIncrement()));
+        return ventas;
+    }
+
+    private static List<ResultadoVentaDto.Estado> estados(List<ResultadoVentaDto> resultados) {
+        return resultados.stream().map(ResultadoVentaDto::estado).toList();
+    }
+
+    private static VentaDto venta(ItemVentaDto... items) {
+        return new VentaDto(null, LocalDateTime.now(), "Cliente", List.of(items), new BigDecimal("10.00"), "Efectivo");
+    }
+
+    private static ItemVentaDto item(Long productoId, int cantidad) {
+        ProductoDto producto = new ProductoDto(productoId, "Producto " + productoId, null, new BigDecimal("5.00"),
+                "Lácteos", "P" + productoId);
+        return new ItemVentaDto(null, producto, cantidad, producto.precio(),
+                producto.precio().multiply(BigDecimal.valueOf(cantidad)));
+    }
+}
@@ -0,0 +1,61 @@
+package org.litethinking.benchmarks;
+
+import org.litethinking.application.mapper.VentaMapper;
+import org.litethinking.domain.model.supermercado.venta.Venta;
+import org.litethinking.infrastructure.persistence.adapter.supermercado.venta.AdaptadorRepositorioVenta;
+import org.litethinking.infrastructure.persistence.entity.supermercado.venta.EntidadJpaVenta;
+import org.litethinking.infrastructure.persistence.repository.supermercado.venta.RepositorioJpaVenta;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity <-> domain mapping of the sale adapter, without the database, measured through its port.
+ * The JPA repository is a stub that hands the entities straight back: findById only maps the entity
+ * to the domain, save maps the sale to an entity and back.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AdaptadorRepositorioVentaBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int items;
+
+    private AdaptadorRepositorioVenta adaptador;
+    private Venta venta;
+
+    @Setup
+    public void setUp() {
+        venta = VentaMapper.toDomain(Datos.venta(1L, items));
+        EntidadJpaVenta[] guardada = new EntidadJpaVenta[1];
+        RepositorioJpaVenta repositorio = (RepositorioJpaVenta) Proxy.newProxyInstance(
+                RepositorioJpaVenta.class.getClassLoader(), new Class<?>[]{RepositorioJpaVenta.class},
+                (proxy, metodo, argumentos) -> switch (metodo.getName()) {
+                    case "save" -> guardada[0] = (EntidadJpaVenta) argumentos[0];
+                    case "findById" -> Optional.ofNullable(guardada[0]);
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == argumentos[0];
+                    case "toString" -> "RepositorioJpaVenta stub";
+                    default -> throw new UnsupportedOperationException(metodo.getName());
+                });
+        adaptador = new AdaptadorRepositorioVenta(repositorio);
+        // Leaves the entity of the sale for findById
+        adaptador.save(venta);
+    }
+
+    @Benchmark
+    public Venta mapToDomain() {
+        return adaptador.findById(1L).orElseThrow();
+    }
+
+    @Benchmark
+    public Venta mapToEntityAndBack() {
+        return adaptador.save(venta);
+    }
+}
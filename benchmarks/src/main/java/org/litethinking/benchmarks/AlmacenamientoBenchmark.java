@@ -0,0 +1,91 @@
+package org.litethinking.benchmarks;
+
+import org.litethinking.domain.model.supermercado.Producto;
+import org.litethinking.domain.repository.supermercado.RepositorioProducto;
+import org.litethinking.restapi.RestApiApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Product inserts and lookups by id with the database in memory and on disk (the disco profile,
+ * H2 file with the MVStore settings of application-disco.properties).
+ * The product cache is off, so every lookup reaches the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AlmacenamientoBenchmark {
+
+    private static final int PRODUCTOS_PRECARGADOS = 10_000;
+    // Far above the ids the sequence hands out to the inserts of the run
+    private static final long PRIMER_ID_PRECARGADO = 100_000_000L;
+
+    @Param({"memoria", "disco"})
+    private String almacenamiento;
+
+    private final AtomicLong insertados = new AtomicLong();
+    private Path directorio;
+    private ConfigurableApplicationContext contexto;
+    private RepositorioProducto repositorioProducto;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directorio = Files.createTempDirectory("almacenamiento-benchmark");
+        contexto = SpringApplication.run(RestApiApplication.class,
+                // Without the disco profile the database is the in-memory one of application.properties
+                "--spring.profiles.active=" + ("disco".equals(almacenamiento) ? "disco" : "default"),
+                "--app.datos.directorio=" + directorio,
+                "--spring.main.web-application-type=none",
+                "--app.importacion.en-segundo-plano=false",
+                "--app.cache.productos.habilitada=false",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.org.litethinking=WARN",
+                "--logging.level.org.hibernate=WARN");
+        repositorioProducto = contexto.getBean(RepositorioProducto.class);
+        contexto.getBean(JdbcTemplate.class).update("""
+                INSERT INTO productos (id, nombre, descripcion, precio, categoria, codigo_barras)
+                SELECT X + ?, 'Producto ' || X, 'Producto precargado', 12.50, 'Lácteos', 'ALM-' || X
+                FROM SYSTEM_RANGE(0, ?)""", PRIMER_ID_PRECARGADO, PRODUCTOS_PRECARGADOS - 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        contexto.close();
+        try (Stream<Path> archivos = Files.walk(directorio)) {
+            archivos.sorted(Comparator.reverseOrder()).forEach(archivo -> archivo.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public Producto insertarProducto() {
+        long numero = insertados.incrementAndGet();
+        return repositorioProducto.save(Producto.builder()
+                .nombre("Producto benchmark " + numero)
+                .precio(new BigDecimal("5.00"))
+                .categoria(numero % 2 == 0 ? "Lácteos" : "Bebidas")
+                .codigoBarras("BENCH-" + numero)
+                .build());
+    }
+
+    @Benchmark
+    public Optional<Producto> buscarProducto() {
+        return repositorioProducto.findById(
+                PRIMER_ID_PRECARGADO + ThreadLocalRandom.current().nextInt(PRODUCTOS_PRECARGADOS));
+    }
+}
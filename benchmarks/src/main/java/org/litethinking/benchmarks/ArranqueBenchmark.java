@@ -0,0 +1,69 @@
+package org.litethinking.benchmarks;
+
+import org.litethinking.restapi.RestApiApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cold start of the REST API (without the web server) under each way of getting the schema:
+ * Hibernate building it with ddl-auto=update, the Flyway scripts with Hibernate validating them,
+ * and the Flyway scripts with no validation nor JDBC metadata reads, as the prod profile runs.
+ * Each fork is a fresh JVM and starts the application once, on its own in-memory database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class ArranqueBenchmark {
+
+    private static final AtomicInteger BASES_DE_DATOS = new AtomicInteger();
+
+    @Param({"hibernate-update", "flyway-validate", "flyway-none"})
+    private String esquema;
+
+    private ConfigurableApplicationContext contexto;
+
+    @Benchmark
+    public ConfigurableApplicationContext arrancar() {
+        contexto = SpringApplication.run(RestApiApplication.class, argumentos());
+        return contexto;
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        if (contexto != null) {
+            contexto.close();
+        }
+    }
+
+    private String[] argumentos() {
+        List<String> argumentos = new ArrayList<>(List.of(
+                "--spring.main.web-application-type=none",
+                "--spring.datasource.url=jdbc:h2:mem:arranque" + BASES_DE_DATOS.incrementAndGet(),
+                "--app.importacion.en-segundo-plano=false",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.org.litethinking=WARN",
+                "--logging.level.org.hibernate=WARN"));
+        switch (esquema) {
+            case "hibernate-update" -> {
+                argumentos.add("--spring.flyway.enabled=false");
+                argumentos.add("--spring.jpa.hibernate.ddl-auto=update");
+            }
+            case "flyway-validate" -> argumentos.add("--spring.jpa.hibernate.ddl-auto=validate");
+            case "flyway-none" -> {
+                argumentos.add("--spring.jpa.hibernate.ddl-auto=none");
+                argumentos.add("--spring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=false");
+            }
+            default -> throw new IllegalArgumentException("Unknown schema mode: " + esquema);
+        }
+        return argumentos.toArray(String[]::new);
+    }
+}
@@ -0,0 +1,27 @@
+package org.litethinking.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point for the benchmarks. Takes the usual JMH command line options,
+ * but writes the results as JSON (to jmh-result.json unless -rff says otherwise)
+ * so two runs can be diffed.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions opciones = new CommandLineOptions(args);
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(opciones);
+        if (!opciones.getResultFormat().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+        if (!opciones.getResult().hasValue()) {
+            builder.result("jmh-result.json");
+        }
+        new Runner(builder.build()).run();
+    }
+}
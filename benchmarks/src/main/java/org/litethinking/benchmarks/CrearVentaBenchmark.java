@@ -0,0 +1,101 @@
+package org.litethinking.benchmarks;
+
+import org.litethinking.application.service.supermercado.venta.ServicioVenta;
+import org.litethinking.domain.model.supermercado.Producto;
+import org.litethinking.domain.model.supermercado.inventario.Inventario;
+import org.litethinking.domain.repository.supermercado.RepositorioProducto;
+import org.litethinking.domain.repository.supermercado.inventario.RepositorioInventario;
+import org.litethinking.restapi.RestApiApplication;
+import org.litethinking.shareddto.supermercado.ProductoDto;
+import org.litethinking.shareddto.supermercado.venta.ItemVentaDto;
+import org.litethinking.shareddto.supermercado.venta.ResultadoVentaDto;
+import org.litethinking.shareddto.supermercado.venta.VentaDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The whole sale hot path (stock reservation, insert, rollup) against the embedded H2 database,
+ * one sale per call and in batches. Both report sales per second, so crearVentasEnLote over
+ * crearVenta is the speedup of the batch operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CrearVentaBenchmark {
+
+    private static final int TAMANIO_LOTE = 100;
+    private static final int ITEMS_POR_VENTA = 3;
+
+    private ConfigurableApplicationContext contexto;
+    private ServicioVenta servicioVenta;
+    private VentaDto venta;
+    private List<VentaDto> lote;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        contexto = SpringApplication.run(RestApiApplication.class,
+                "--spring.main.web-application-type=none",
+                "--app.importacion.en-segundo-plano=false",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.org.litethinking=WARN",
+                "--logging.level.org.hibernate=WARN");
+        servicioVenta = contexto.getBean(ServicioVenta.class);
+        RepositorioProducto repositorioProducto = contexto.getBean(RepositorioProducto.class);
+        RepositorioInventario repositorioInventario = contexto.getBean(RepositorioInventario.class);
+
+        List<ItemVentaDto> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS_POR_VENTA; i++) {
+            Producto producto = repositorioProducto.save(Producto.builder()
+                    .nombre("Producto benchmark " + i)
+                    .precio(new BigDecimal("5.00"))
+                    .categoria(i % 2 == 0 ? "Lácteos" : "Bebidas")
+                    .codigoBarras("BENCH-" + i)
+                    .build());
+            // Enough stock for every sale of the run
+            repositorioInventario.save(Inventario.builder()
+                    .producto(producto)
+                    .cantidad(Integer.MAX_VALUE / 2)
+                    .stockMinimo(0)
+                    .stockMaximo(Integer.MAX_VALUE)
+                    .fechaUltimaReposicion(LocalDate.now())
+                    .ubicacion("Benchmark")
+                    .build());
+            ProductoDto productoDto = new ProductoDto(producto.getId(), producto.getNombre(), null,
+                    producto.getPrecio(), producto.getCategoria(), producto.getCodigoBarras());
+            items.add(new ItemVentaDto(null, productoDto, 1, productoDto.precio(), productoDto.precio()));
+        }
+        venta = new VentaDto(null, LocalDateTime.now(), "Cliente benchmark", items,
+                new BigDecimal("5.00").multiply(BigDecimal.valueOf(ITEMS_POR_VENTA)), "Efectivo");
+        lote = new ArrayList<>(TAMANIO_LOTE);
+        for (int i = 0; i < TAMANIO_LOTE; i++) {
+            lote.add(venta);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public VentaDto crearVenta() {
+        return servicioVenta.crearVenta(venta);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TAMANIO_LOTE)
+    public List<ResultadoVentaDto> crearVentasEnLote() {
+        return servicioVenta.crearVentas(lote);
+    }
+}
@@ -0,0 +1,86 @@
+package org.litethinking.benchmarks;
+
+import org.litethinking.application.service.supermercado.ServicioProducto;
+import org.litethinking.application.service.supermercado.inventario.ServicioInventario;
+import org.litethinking.domain.model.supermercado.inventario.LineaInventario;
+import org.litethinking.restapi.controller.supermercado.ControladorProducto;
+import org.litethinking.restapi.controller.supermercado.inventario.ControladorInventario;
+import org.litethinking.shareddto.supermercado.ProductoDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * CSV generation of the product and inventory exports, with the services stubbed
+ * so only the formatting and writing is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvBenchmark {
+
+    @Param({"1000", "100000"})
+    public int filas;
+
+    private ControladorProducto controladorProducto;
+    private ControladorInventario controladorInventario;
+
+    @Setup
+    public void setUp() {
+        List<ProductoDto> productos = new ArrayList<>(filas);
+        List<LineaInventario> lineas = new ArrayList<>(filas);
+        for (int i = 0; i < filas; i++) {
+            productos.add(Datos.producto(i + 1));
+            lineas.add(new LineaInventario((long) i + 1, (long) i + 1, "Producto " + i, "750" + i,
+                    i % 100, 10, 200, LocalDate.of(2024, 1, 1), "Pasillo " + (i % 20)));
+        }
+
+        ServicioProducto servicioProducto = mock(ServicioProducto.class);
+        doAnswer(invocacion -> {
+            Consumer<ProductoDto> consumidor = invocacion.getArgument(0);
+            productos.forEach(consumidor);
+            return null;
+        }).when(servicioProducto).recorrerTodosLosProductos(any());
+        controladorProducto = new ControladorProducto(servicioProducto);
+
+        ServicioInventario servicioInventario = mock(ServicioInventario.class);
+        doAnswer(invocacion -> {
+            Consumer<LineaInventario> consumidor = invocacion.getArgument(2);
+            lineas.forEach(consumidor);
+            return null;
+        }).when(servicioInventario).recorrerLineasInventario(isNull(), anyBoolean(), any());
+        controladorInventario = new ControladorInventario(servicioInventario);
+    }
+
+    @Benchmark
+    public void csvProductos() throws IOException {
+        escribir(controladorProducto.generarCsvProductos().getBody());
+    }
+
+    @Benchmark
+    public void csvInventario() throws IOException {
+        escribir(controladorInventario.generarCsvInventario(null, false).getBody());
+    }
+
+    private static void escribir(StreamingResponseBody cuerpo) throws IOException {
+        try (OutputStream salida = OutputStream.nullOutputStream()) {
+            cuerpo.writeTo(salida);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package org.litethinking.benchmarks;
+
+import org.litethinking.shareddto.supermercado.ProductoDto;
+import org.litethinking.shareddto.supermercado.venta.ItemVentaDto;
+import org.litethinking.shareddto.supermercado.venta.VentaDto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sample data shared by the benchmarks.
+ */
+public final class Datos {
+
+    private Datos() {
+    }
+
+    public static ProductoDto producto(long id) {
+        return new ProductoDto(id, "Producto " + id, "Descripción del producto " + id,
+                new BigDecimal("12.50"), id % 2 == 0 ? "Lácteos" : "Bebidas", "750" + id);
+    }
+
+    public static VentaDto venta(Long id, int items) {
+        List<ItemVentaDto> itemsDto = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            ProductoDto producto = producto(i + 1);
+            itemsDto.add(new ItemVentaDto(id == null ? null : (long) i + 1, producto, 2,
+                    producto.precio(), producto.precio().multiply(BigDecimal.valueOf(2))));
+        }
+        BigDecimal montoTotal = itemsDto.stream()
+                .map(ItemVentaDto::subtotal)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return new VentaDto(id, LocalDateTime.of(2024, 1, 15, 10, 30), "Juan Pérez", itemsDto, montoTotal, "Efectivo");
+    }
+}
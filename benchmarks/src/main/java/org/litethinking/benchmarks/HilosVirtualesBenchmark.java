@@ -0,0 +1,132 @@
+package org.litethinking.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.litethinking.domain.model.supermercado.Producto;
+import org.litethinking.domain.model.supermercado.inventario.Inventario;
+import org.litethinking.domain.repository.supermercado.RepositorioProducto;
+import org.litethinking.domain.repository.supermercado.inventario.RepositorioInventario;
+import org.litethinking.restapi.RestApiApplication;
+import org.litethinking.shareddto.supermercado.ProductoDto;
+import org.litethinking.shareddto.supermercado.venta.ItemVentaDto;
+import org.litethinking.shareddto.supermercado.venta.VentaDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tomcat on platform threads against virtual threads (spring.threads.virtual.enabled): latency
+ * distribution of the product and sale endpoints under many concurrent clients, over HTTP on a
+ * random port. Each mode runs in its own fork, so each has its own in-memory database.
+ * 400 clients by default, more than the 200 threads of the platform pool; -t changes it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(400)
+@Fork(1)
+public class HilosVirtualesBenchmark {
+
+    @Param({"plataforma", "virtuales"})
+    private String hilos;
+
+    private ConfigurableApplicationContext contexto;
+    private HttpClient cliente;
+    private String base;
+    private ProductoDto producto;
+    private String venta;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        contexto = SpringApplication.run(RestApiApplication.class,
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + "virtuales".equals(hilos),
+                "--app.importacion.en-segundo-plano=false",
+                "--app.hilos-virtuales.diagnostico-pinning=false",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.org.litethinking=WARN",
+                "--logging.level.org.hibernate=WARN");
+        base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port");
+        cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        Producto guardado = contexto.getBean(RepositorioProducto.class).save(Producto.builder()
+                .nombre("Producto carga")
+                .precio(new BigDecimal("5.00"))
+                .categoria("Lácteos")
+                .codigoBarras("BENCH-CARGA")
+                .build());
+        // Enough stock for every sale of the run
+        contexto.getBean(RepositorioInventario.class).save(Inventario.builder()
+                .producto(guardado)
+                .cantidad(Integer.MAX_VALUE / 2)
+                .stockMinimo(0)
+                .stockMaximo(Integer.MAX_VALUE)
+                .fechaUltimaReposicion(LocalDate.now())
+                .ubicacion("Benchmark")
+                .build());
+        producto = new ProductoDto(guardado.getId(), guardado.getNombre(), null,
+                guardado.getPrecio(), guardado.getCategoria(), guardado.getCodigoBarras());
+        venta = contexto.getBean(ObjectMapper.class).writeValueAsString(new VentaDto(null, LocalDateTime.now(),
+                "Cliente carga", List.of(new ItemVentaDto(null, producto, 1, producto.precio(), producto.precio())),
+                producto.precio(), "Efectivo"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        cliente.close();
+        contexto.close();
+    }
+
+    @Benchmark
+    public int listarProductos() throws IOException, InterruptedException {
+        return enviar(get("/api/productos?tamanio=50"));
+    }
+
+    @Benchmark
+    public int buscarProducto() throws IOException, InterruptedException {
+        return enviar(get("/api/productos/" + producto.id()));
+    }
+
+    @Benchmark
+    public int crearVenta() throws IOException, InterruptedException {
+        return enviar(HttpRequest.newBuilder(URI.create(base + "/api/ventas"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(venta))
+                .build());
+    }
+
+    @Benchmark
+    public int listarVentas() throws IOException, InterruptedException {
+        return enviar(get("/api/ventas?tamanio=50"));
+    }
+
+    private HttpRequest get(String ruta) {
+        return HttpRequest.newBuilder(URI.create(base + ruta)).GET().build();
+    }
+
+    // A failed request would be timed as a fast one, so it stops the run instead
+    private int enviar(HttpRequest peticion) throws IOException, InterruptedException {
+        int estado = cliente.send(peticion, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (estado >= 400) {
+            throw new IllegalStateException(peticion.method() + " " + peticion.uri() + " answered " + estado);
+        }
+        return estado;
+    }
+}
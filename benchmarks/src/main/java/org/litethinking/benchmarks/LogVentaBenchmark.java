@@ -0,0 +1,105 @@
+package org.litethinking.benchmarks;
+
+import org.litethinking.domain.model.supermercado.Producto;
+import org.litethinking.domain.model.supermercado.inventario.Inventario;
+import org.litethinking.domain.repository.supermercado.RepositorioProducto;
+import org.litethinking.domain.repository.supermercado.inventario.RepositorioInventario;
+import org.litethinking.restapi.RestApiApplication;
+import org.litethinking.restapi.controller.supermercado.venta.ControladorVenta;
+import org.litethinking.shareddto.supermercado.ProductoDto;
+import org.litethinking.shareddto.supermercado.venta.ItemVentaDto;
+import org.litethinking.shareddto.supermercado.venta.VentaDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sale creation through the controller with the default logging setup (synchronous appenders,
+ * DEBUG for our code, SQL logging on) against the prod profile (async loggers, INFO, no SQL).
+ * Log files go to a temporary directory and the console is off, so the terminal speed
+ * does not decide the result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LogVentaBenchmark {
+
+    private static final int ITEMS_POR_VENTA = 3;
+
+    @Param({"desarrollo", "prod"})
+    public String perfil;
+
+    private PrintStream salidaOriginal;
+    private ConfigurableApplicationContext contexto;
+    private ControladorVenta controladorVenta;
+    private VentaDto venta;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        System.setProperty("app.log.dir", Files.createTempDirectory("log-benchmark").toString());
+        System.setProperty("app.log.consola.nivel", "OFF");
+        // Hibernate's show-sql prints straight to System.out
+        salidaOriginal = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        List<String> argumentos = new ArrayList<>(List.of(
+                "--spring.main.web-application-type=none",
+                "--app.importacion.en-segundo-plano=false"));
+        if ("prod".equals(perfil)) {
+            argumentos.add("--spring.profiles.active=prod");
+        }
+        contexto = SpringApplication.run(RestApiApplication.class, argumentos.toArray(String[]::new));
+        controladorVenta = contexto.getBean(ControladorVenta.class);
+        RepositorioProducto repositorioProducto = contexto.getBean(RepositorioProducto.class);
+        RepositorioInventario repositorioInventario = contexto.getBean(RepositorioInventario.class);
+
+        List<ItemVentaDto> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS_POR_VENTA; i++) {
+            Producto producto = repositorioProducto.save(Producto.builder()
+                    .nombre("Producto log " + i)
+                    .precio(new BigDecimal("5.00"))
+                    .categoria("Benchmark")
+                    .codigoBarras("LOG-" + i)
+                    .build());
+            repositorioInventario.save(Inventario.builder()
+                    .producto(producto)
+                    .cantidad(Integer.MAX_VALUE / 2)
+                    .stockMinimo(0)
+                    .stockMaximo(Integer.MAX_VALUE)
+                    .fechaUltimaReposicion(LocalDate.now())
+                    .ubicacion("Benchmark")
+                    .build());
+            ProductoDto productoDto = new ProductoDto(producto.getId(), producto.getNombre(), null,
+                    producto.getPrecio(), producto.getCategoria(), producto.getCodigoBarras());
+            items.add(new ItemVentaDto(null, productoDto, 1, productoDto.precio(), productoDto.precio()));
+        }
+        venta = new VentaDto(null, LocalDateTime.now(), "Cliente benchmark", items,
+                new BigDecimal("5.00").multiply(BigDecimal.valueOf(ITEMS_POR_VENTA)), "Efectivo");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexto.close();
+        System.setOut(salidaOriginal);
+    }
+
+    @Benchmark
+    public ResponseEntity<VentaDto> crearVenta() {
+        return controladorVenta.crearVenta(venta, null);
+    }
+}
@@ -0,0 +1,59 @@
+package org.litethinking.benchmarks;
+
+import org.litethinking.application.mapper.ProductoMapper;
+import org.litethinking.application.mapper.VentaMapper;
+import org.litethinking.domain.model.supermercado.Producto;
+import org.litethinking.domain.model.supermercado.venta.Venta;
+import org.litethinking.shareddto.supermercado.ProductoDto;
+import org.litethinking.shareddto.supermercado.venta.VentaDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DTO <-> domain mapping cost, paid on every request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int items;
+
+    private VentaDto ventaDto;
+    private Venta venta;
+    private ProductoDto productoDto;
+    private Producto producto;
+
+    @Setup
+    public void setUp() {
+        ventaDto = Datos.venta(1L, items);
+        venta = VentaMapper.toDomain(ventaDto);
+        productoDto = Datos.producto(1L);
+        producto = ProductoMapper.toDomain(productoDto);
+    }
+
+    @Benchmark
+    public VentaDto ventaToDto() {
+        return VentaMapper.toDto(venta);
+    }
+
+    @Benchmark
+    public Venta ventaToDomain() {
+        return VentaMapper.toDomain(ventaDto);
+    }
+
+    @Benchmark
+    public ProductoDto productoToDto() {
+        return ProductoMapper.toDto(producto);
+    }
+
+    @Benchmark
+    public Producto productoToDomain() {
+        return ProductoMapper.toDomain(productoDto);
+    }
+}
@@ -0,0 +1,81 @@
+package org.litethinking.benchmarks;
+
+import org.litethinking.restapi.RestApiApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Restart of the REST API (without the web server) on a database kept on disk with the disco
+ * profile, for catalogs of different sizes. The seed load is skipped because the tables already
+ * have rows, so the time should not grow with the number of products.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ReinicioBenchmark {
+
+    // Far above the ids the seed load takes
+    private static final long PRIMER_ID_PRODUCTO = 100_000_000L;
+
+    @Param({"1000", "100000"})
+    private int productos;
+
+    private Path directorio;
+    private ConfigurableApplicationContext contexto;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directorio = Files.createTempDirectory("reinicio-benchmark");
+        // The first start creates the schema and loads the seed; the catalog is then grown to its size
+        try (ConfigurableApplicationContext primerArranque = arrancar()) {
+            primerArranque.getBean(JdbcTemplate.class).update("""
+                    INSERT INTO productos (id, nombre, descripcion, precio, categoria, codigo_barras)
+                    SELECT X + ?, 'Producto ' || X, 'Producto del catálogo', 12.50, 'Lácteos', 'REI-' || X
+                    FROM SYSTEM_RANGE(0, ?)""", PRIMER_ID_PRODUCTO, productos - 1);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> archivos = Files.walk(directorio)) {
+            archivos.sorted(Comparator.reverseOrder()).forEach(archivo -> archivo.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public ConfigurableApplicationContext reiniciar() {
+        contexto = arrancar();
+        return contexto;
+    }
+
+    @TearDown(Level.Invocation)
+    public void cerrar() {
+        if (contexto != null) {
+            contexto.close();
+            contexto = null;
+        }
+    }
+
+    private ConfigurableApplicationContext arrancar() {
+        return SpringApplication.run(RestApiApplication.class,
+                "--spring.profiles.active=disco",
+                "--app.datos.directorio=" + directorio,
+                "--spring.main.web-application-type=none",
+                "--app.importacion.en-segundo-plano=false",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.org.litethinking=WARN",
+                "--logging.level.org.hibernate=WARN");
+    }
+}
@@ -0,0 +1,115 @@
+package org.litethinking.benchmarks;
+
+import org.litethinking.application.service.supermercado.venta.ServicioVenta;
+import org.litethinking.domain.model.supermercado.Producto;
+import org.litethinking.domain.model.supermercado.inventario.Inventario;
+import org.litethinking.domain.repository.supermercado.RepositorioProducto;
+import org.litethinking.domain.repository.supermercado.inventario.RepositorioInventario;
+import org.litethinking.restapi.RestApiApplication;
+import org.litethinking.shareddto.supermercado.ProductoDto;
+import org.litethinking.shareddto.supermercado.venta.ItemVentaDto;
+import org.litethinking.shareddto.supermercado.venta.VentaDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sale latency while 90-day sales reports run on other threads, with read-only transactions on their
+ * own pool (separadas) and with every transaction on the write pool (compartidas).
+ * Both pools have 4 connections and 8 threads run reports, so with a shared pool the sales queue
+ * behind the reports for a connection; with separate pools their latency should stay as without reports.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class VentaConReporteBenchmark {
+
+    private static final int VENTAS_HISTORICAS = 20_000;
+    // Far above the ids the sequence hands out to the sales of the run
+    private static final long PRIMER_ID_HISTORICO = 100_000_000L;
+
+    @Param({"separadas", "compartidas"})
+    private String lecturas;
+
+    private ConfigurableApplicationContext contexto;
+    private ServicioVenta servicioVenta;
+    private VentaDto venta;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        contexto = SpringApplication.run(RestApiApplication.class,
+                "--spring.main.web-application-type=none",
+                "--app.importacion.en-segundo-plano=false",
+                "--app.datasource.escritura.tamanio-maximo=4",
+                "--app.datasource.lectura.tamanio-maximo=4",
+                "--app.datasource.lectura.habilitada=" + "separadas".equals(lecturas),
+                "--spring.jpa.show-sql=false",
+                "--logging.level.org.litethinking=WARN",
+                "--logging.level.org.hibernate=WARN");
+        servicioVenta = contexto.getBean(ServicioVenta.class);
+
+        Producto producto = contexto.getBean(RepositorioProducto.class).save(Producto.builder()
+                .nombre("Producto benchmark")
+                .precio(new BigDecimal("5.00"))
+                .categoria("Lácteos")
+                .codigoBarras("BENCH-REPORTE")
+                .build());
+        // Enough stock for every sale of the run
+        contexto.getBean(RepositorioInventario.class).save(Inventario.builder()
+                .producto(producto)
+                .cantidad(Integer.MAX_VALUE / 2)
+                .stockMinimo(0)
+                .stockMaximo(Integer.MAX_VALUE)
+                .fechaUltimaReposicion(LocalDate.now())
+                .ubicacion("Benchmark")
+                .build());
+        ProductoDto productoDto = new ProductoDto(producto.getId(), producto.getNombre(), null,
+                producto.getPrecio(), producto.getCategoria(), producto.getCodigoBarras());
+        venta = new VentaDto(null, LocalDateTime.now(), "Cliente benchmark",
+                List.of(new ItemVentaDto(null, productoDto, 1, productoDto.precio(), productoDto.precio())),
+                productoDto.precio(), "Efectivo");
+
+        // 90 days of sales for the reports to read, one item each
+        JdbcTemplate jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("""
+                INSERT INTO ventas (id, fecha_venta, nombre_cliente, monto_total, metodo_pago)
+                SELECT X + ?, DATEADD('MINUTE', -MOD(X * 37, 129600), LOCALTIMESTAMP), 'Cliente ' || MOD(X, 500),
+                       5.00, CASE MOD(X, 3) WHEN 0 THEN 'Efectivo' WHEN 1 THEN 'Tarjeta' ELSE 'Transferencia' END
+                FROM SYSTEM_RANGE(0, ?)""", PRIMER_ID_HISTORICO, VENTAS_HISTORICAS - 1);
+        jdbcTemplate.update("""
+                INSERT INTO items_venta (id, producto_id, cantidad, precio_unitario, subtotal, venta_id)
+                SELECT X + ?, ?, 1, 5.00, 5.00, X + ?
+                FROM SYSTEM_RANGE(0, ?)""",
+                PRIMER_ID_HISTORICO, producto.getId(), PRIMER_ID_HISTORICO, VENTAS_HISTORICAS - 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    @Group("ventaConReporte")
+    @GroupThreads(1)
+    public VentaDto crearVenta() {
+        return servicioVenta.crearVenta(venta);
+    }
+
+    @Benchmark
+    @Group("ventaConReporte")
+    @GroupThreads(8)
+    public List<VentaDto> reporte90Dias() {
+        LocalDateTime ahora = LocalDateTime.now();
+        return servicioVenta.obtenerVentasEntreFechas(ahora.minusDays(90), ahora);
+    }
+}
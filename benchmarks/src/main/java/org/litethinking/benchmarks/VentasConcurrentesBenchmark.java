@@ -0,0 +1,103 @@
+package org.litethinking.benchmarks;
+
+import org.litethinking.application.service.supermercado.venta.ServicioVenta;
+import org.litethinking.domain.model.supermercado.Producto;
+import org.litethinking.domain.model.supermercado.inventario.Inventario;
+import org.litethinking.domain.repository.supermercado.RepositorioProducto;
+import org.litethinking.domain.repository.supermercado.inventario.RepositorioInventario;
+import org.litethinking.restapi.RestApiApplication;
+import org.litethinking.shareddto.supermercado.ProductoDto;
+import org.litethinking.shareddto.supermercado.venta.ItemVentaDto;
+import org.litethinking.shareddto.supermercado.venta.VentaDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Many registers selling at once, each one its own products, with the same day and payment
+ * method. The inventory rows are not shared, so the rows every sale updates in the daily
+ * rollup are the only ones the registers can wait on.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+public class VentasConcurrentesBenchmark {
+
+    private static final int ITEMS_POR_VENTA = 3;
+
+    @State(Scope.Benchmark)
+    public static class Aplicacion {
+
+        ConfigurableApplicationContext contexto;
+        ServicioVenta servicioVenta;
+        final AtomicInteger cajas = new AtomicInteger();
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            contexto = SpringApplication.run(RestApiApplication.class,
+                    "--spring.main.web-application-type=none",
+                    "--app.importacion.en-segundo-plano=false",
+                    "--spring.jpa.show-sql=false",
+                    "--logging.level.org.litethinking=WARN",
+                    "--logging.level.org.hibernate=WARN");
+            servicioVenta = contexto.getBean(ServicioVenta.class);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            contexto.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Caja {
+
+        VentaDto venta;
+
+        @Setup(Level.Trial)
+        public void setUp(Aplicacion aplicacion) {
+            int caja = aplicacion.cajas.incrementAndGet();
+            RepositorioProducto repositorioProducto = aplicacion.contexto.getBean(RepositorioProducto.class);
+            RepositorioInventario repositorioInventario = aplicacion.contexto.getBean(RepositorioInventario.class);
+            List<ItemVentaDto> items = new ArrayList<>();
+            for (int i = 0; i < ITEMS_POR_VENTA; i++) {
+                Producto producto = repositorioProducto.save(Producto.builder()
+                        .nombre("Producto caja " + caja + "-" + i)
+                        .precio(new BigDecimal("5.00"))
+                        .categoria(i % 2 == 0 ? "Lácteos" : "Bebidas")
+                        .codigoBarras("CAJA-" + caja + "-" + i)
+                        .build());
+                // Enough stock for every sale of the run
+                repositorioInventario.save(Inventario.builder()
+                        .producto(producto)
+                        .cantidad(Integer.MAX_VALUE / 2)
+                        .stockMinimo(0)
+                        .stockMaximo(Integer.MAX_VALUE)
+                        .fechaUltimaReposicion(LocalDate.now())
+                        .ubicacion("Caja " + caja)
+                        .build());
+                ProductoDto productoDto = new ProductoDto(producto.getId(), producto.getNombre(), null,
+                        producto.getPrecio(), producto.getCategoria(), producto.getCodigoBarras());
+                items.add(new ItemVentaDto(null, productoDto, 1, productoDto.precio(), productoDto.precio()));
+            }
+            venta = new VentaDto(null, LocalDateTime.now(), "Cliente caja " + caja, items,
+                    new BigDecimal("5.00").multiply(BigDecimal.valueOf(ITEMS_POR_VENTA)), "Efectivo");
+        }
+    }
+
+    @Benchmark
+    public VentaDto crearVenta(Aplicacion aplicacion, Caja caja) {
+        return aplicacion.servicioVenta.crearVenta(caja.venta);
+    }
+}
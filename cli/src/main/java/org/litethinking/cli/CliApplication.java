@@ -26,9 +26,10 @@ public class CliApplication implements CommandLineRunner {
     /**
      * Metodo principá pa arrancal la aplicasión
      * Ete e el punto de entrada del programa
+     * Cierra el contexto al salil del menú, que las tarea programada no dejan que la JVM se apague sola
      */
     public static void main(String[] args) {
-        SpringApplication.run(CliApplication.class, args);
+        System.exit(SpringApplication.exit(SpringApplication.run(CliApplication.class, args)));
     }
 
     /**
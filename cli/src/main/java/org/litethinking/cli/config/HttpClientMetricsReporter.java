@@ -0,0 +1,56 @@
+package org.litethinking.cli.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logs the latency of the calls to the API when the CLI exits, one line per endpoint,
+ * from the http.client.requests timer recorded by the RestTemplate.
+ */
+@Component
+public class HttpClientMetricsReporter {
+
+    private static final Logger log = LoggerFactory.getLogger(HttpClientMetricsReporter.class);
+
+    private static final String HTTP_CLIENT_TIMER = "http.client.requests";
+
+    private final MeterRegistry meterRegistry;
+
+    public HttpClientMetricsReporter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PreDestroy
+    public void logSummary() {
+        var timers = meterRegistry.find(HTTP_CLIENT_TIMER).timers();
+        if (timers.isEmpty()) {
+            return;
+        }
+        log.info("API call latency for this session:");
+        timers.stream()
+                .sorted(Comparator.comparingDouble((Timer timer) -> timer.totalTime(TimeUnit.MILLISECONDS)).reversed())
+                .forEach(this::logTimer);
+    }
+
+    private void logTimer(Timer timer) {
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        StringBuilder percentiles = new StringBuilder();
+        for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+            percentiles.append(String.format(", p%.0f %.1f ms", percentile.percentile() * 100,
+                    percentile.value(TimeUnit.MILLISECONDS)));
+        }
+        log.info("  {} {} [{}]: {} calls, mean {} ms, max {} ms{}",
+                timer.getId().getTag("method"), timer.getId().getTag("uri"), timer.getId().getTag("status"),
+                snapshot.count(), String.format("%.1f", snapshot.mean(TimeUnit.MILLISECONDS)),
+                String.format("%.1f", snapshot.max(TimeUnit.MILLISECONDS)), percentiles);
+    }
+}
@@ -0,0 +1,105 @@
+package org.litethinking.cli.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retries GET and HEAD requests that fail to connect, time out, or get a 502, 503 or 504,
+ * waiting a little longer before each attempt. A 503 with Retry-After (the API sends one
+ * while it loads its seed data) waits what the server asks, up to the maximum wait.
+ * Other methods are never retried: a repeated POST could save a sale twice.
+ * <p>
+ * Must be the last interceptor, so each attempt sends a new request.
+ */
+public class IdempotentRetryInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotentRetryInterceptor.class);
+
+    private static final Set<HttpMethod> RETRIED_METHODS = Set.of(HttpMethod.GET, HttpMethod.HEAD);
+    private static final Set<Integer> RETRIED_STATUSES = Set.of(502, 503, 504);
+
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+
+    /**
+     * @param maxAttempts attempts in total, including the first one
+     * @param initialBackoffMs wait before the second attempt; it doubles for each one after
+     * @param maxBackoffMs longest wait between two attempts
+     */
+    public IdempotentRetryInterceptor(int maxAttempts, long initialBackoffMs, long maxBackoffMs) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        if (!RETRIED_METHODS.contains(request.getMethod())) {
+            return execution.execute(request, body);
+        }
+        for (int attempt = 1; ; attempt++) {
+            long backoffMs;
+            try {
+                ClientHttpResponse response = execution.execute(request, body);
+                int status = response.getStatusCode().value();
+                if (attempt == maxAttempts || !RETRIED_STATUSES.contains(status)) {
+                    return response;
+                }
+                backoffMs = Math.min(maxBackoffMs,
+                        Math.max(backoff(attempt), retryAfterMs(response.getHeaders())));
+                response.close();
+                log.debug("GET {} answered {}, attempt {} of {}, retrying in {} ms",
+                        request.getURI(), status, attempt, maxAttempts, backoffMs);
+            } catch (IOException e) {
+                if (attempt == maxAttempts || Thread.currentThread().isInterrupted()) {
+                    throw e;
+                }
+                backoffMs = backoff(attempt);
+                log.debug("GET {} failed ({}), attempt {} of {}, retrying in {} ms",
+                        request.getURI(), e.toString(), attempt, maxAttempts, backoffMs);
+            }
+            sleep(backoffMs);
+        }
+    }
+
+    // Exponential with jitter, so terminals that lost the API together do not come back together
+    private long backoff(int attempt) {
+        long exponential = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+        return exponential / 2 + ThreadLocalRandom.current().nextLong(exponential / 2 + 1);
+    }
+
+    private static long retryAfterMs(HttpHeaders headers) {
+        String retryAfter = headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (retryAfter == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(retryAfter.trim()) * 1000;
+        } catch (NumberFormatException e) {
+            // An HTTP date: not worth parsing for a retry, use the normal backoff
+            return 0;
+        }
+    }
+
+    private static void sleep(long millis) throws IOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to retry");
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package org.litethinking.cli.service.local;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.litethinking.shareddto.supermercado.venta.VentaDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sales entered while the API could not be reached, saved one JSON per line in a local file
+ * and sent in order once the API answers again.
+ * Each sale keeps the idempotency key it was first sent with, so a sale the API saved without
+ * the register getting the answer is not saved twice when it is sent again.
+ * A sale the API rejects (no stock, invalid data), or that keeps failing on the API, is moved
+ * to a separate file for review instead of blocking the ones after it.
+ */
+@Service
+public class ColaVentasPendientes {
+
+    private static final Logger log = LoggerFactory.getLogger(ColaVentasPendientes.class);
+    public static final String CABECERA_CLAVE_IDEMPOTENCIA = "Idempotency-Key";
+    // The API, or the proxy in front of it, is down: not a problem of the sale, so it is not counted
+    private static final Set<Integer> API_NO_DISPONIBLE = Set.of(502, 503, 504);
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final String apiBaseUrl;
+    private final Path archivo;
+    private final Path archivoRechazadas;
+    private final int maxIntentos;
+    // Guards the file; the sales are sent outside of it so queuing a sale never waits for the network
+    private final ReentrantLock archivoLock = new ReentrantLock();
+    private final ReentrantLock envio = new ReentrantLock();
+
+    public ColaVentasPendientes(RestTemplate restTemplate,
+                                ObjectMapper objectMapper,
+                                @Value("${api.base-url}") String apiBaseUrl,
+                                @Value("${cli.datos-locales.directorio}") String directorio,
+                                @Value("${cli.ventas-pendientes.max-intentos:5}") int maxIntentos) {
+        this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
+        this.apiBaseUrl = apiBaseUrl;
+        this.archivo = Path.of(directorio, "ventas-pendientes.jsonl");
+        this.archivoRechazadas = Path.of(directorio, "ventas-rechazadas.jsonl");
+        this.maxIntentos = Math.max(1, maxIntentos);
+    }
+
+    /**
+     * Save a sale to send later. The line is synced to disk before returning,
+     * so the sale is not lost if the terminal goes down.
+     *
+     * @param venta the sale that could not be sent
+     * @param claveIdempotencia the key the sale was first sent with
+     */
+    public void encolar(VentaDto venta, String claveIdempotencia) {
+        String linea = aJson(new VentaPendiente(claveIdempotencia, 0, venta));
+        archivoLock.lock();
+        try {
+            agregarLinea(archivo, linea);
+        } finally {
+            archivoLock.unlock();
+        }
+        log.info("Sale for {} queued to send later ({} pending)", venta.nombreCliente(), pendientes());
+    }
+
+    /**
+     * Number of sales waiting to be sent.
+     */
+    public int pendientes() {
+        archivoLock.lock();
+        try {
+            return leerLineas().size();
+        } finally {
+            archivoLock.unlock();
+        }
+    }
+
+    /**
+     * Send the queued sales in order. Stops at the first one that cannot reach the API
+     * and leaves it, and the ones after it, for the next run. A sale that gets a server error
+     * is tried again on the next runs, up to cli.ventas-pendientes.max-intentos times in all,
+     * and then moved to the rejected file.
+     *
+     * @return the number of sales the API accepted
+     */
+    @Scheduled(fixedDelayString = "${cli.ventas-pendientes.intervalo-envio-ms:15000}")
+    public int enviarPendientes() {
+        if (!envio.tryLock()) {
+            return 0;
+        }
+        try {
+            List<String> lineas;
+            archivoLock.lock();
+            try {
+                lineas = leerLineas();
+            } finally {
+                archivoLock.unlock();
+            }
+            if (lineas.isEmpty()) {
+                return 0;
+            }
+
+            int procesadas = 0;
+            int enviadas = 0;
+            // The first sale left in the queue with one more failed attempt, if it got one
+            String conOtroIntento = null;
+            for (String linea : lineas) {
+                VentaPendiente pendiente;
+                try {
+                    pendiente = leer(linea);
+                } catch (JsonProcessingException e) {
+                    log.error("Unreadable queued sale, moved to {}: {}", archivoRechazadas, e.getMessage());
+                    agregarLinea(archivoRechazadas, linea);
+                    procesadas++;
+                    continue;
+                }
+                try {
+                    HttpHeaders headers = new HttpHeaders();
+                    headers.set(CABECERA_CLAVE_IDEMPOTENCIA, pendiente.claveIdempotencia());
+                    restTemplate.postForEntity(apiBaseUrl + "/ventas", new HttpEntity<>(pendiente.venta(), headers),
+                            VentaDto.class);
+                    enviadas++;
+                } catch (HttpClientErrorException e) {
+                    log.error("Queued sale rejected by the API ({}), moved to {}", e.getStatusCode(), archivoRechazadas);
+                    agregarLinea(archivoRechazadas, linea);
+                } catch (HttpServerErrorException e) {
+                    if (API_NO_DISPONIBLE.contains(e.getStatusCode().value())) {
+                        log.warn("API still unavailable ({}), {} sales remain queued", e.getStatusCode(),
+                                lineas.size() - procesadas);
+                        break;
+                    }
+                    VentaPendiente fallida = pendiente.conOtroIntento();
+                    if (fallida.intentos() < maxIntentos) {
+                        log.warn("Queued sale failed on the API ({}), attempt {} of {}, {} sales remain queued",
+                                e.getStatusCode(), fallida.intentos(), maxIntentos, lineas.size() - procesadas);
+                        conOtroIntento = aJson(fallida);
+                        break;
+                    }
+                    log.error("Queued sale failed on the API {} times ({}), moved to {}", fallida.intentos(),
+                            e.getStatusCode(), archivoRechazadas);
+                    agregarLinea(archivoRechazadas, aJson(fallida));
+                } catch (RestClientException e) {
+                    log.warn("API still unreachable, {} sales remain queued: {}", lineas.size() - procesadas,
+                            e.getMessage());
+                    break;
+                }
+                procesadas++;
+            }
+            actualizarCola(procesadas, conOtroIntento);
+            if (enviadas > 0) {
+                log.info("Sent {} queued sales", enviadas);
+            }
+            return enviadas;
+        } finally {
+            envio.unlock();
+        }
+    }
+
+    // Sales queued while sending went to the end of the file, so only the first lines are removed,
+    // and the one after them is replaced when it got one more failed attempt
+    private void actualizarCola(int quitadas, String siguiente) {
+        if (quitadas == 0 && siguiente == null) {
+            return;
+        }
+        archivoLock.lock();
+        try {
+            List<String> todas = leerLineas();
+            List<String> lineas = new ArrayList<>(todas.subList(quitadas, todas.size()));
+            if (siguiente != null) {
+                lineas.set(0, siguiente);
+            }
+            Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+            Files.write(temporal, lineas, StandardCharsets.UTF_8);
+            Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo actualizar la cola de ventas " + archivo, e);
+        } finally {
+            archivoLock.unlock();
+        }
+    }
+
+    // Lines queued before the sales had a key hold just the sale; their key comes from the line,
+    // so it stays the same on every attempt
+    private VentaPendiente leer(String linea) throws JsonProcessingException {
+        JsonNode nodo = objectMapper.readTree(linea);
+        if (nodo.has("venta")) {
+            return objectMapper.treeToValue(nodo, VentaPendiente.class);
+        }
+        String clave = UUID.nameUUIDFromBytes(linea.getBytes(StandardCharsets.UTF_8)).toString();
+        return new VentaPendiente(clave, 0, objectMapper.treeToValue(nodo, VentaDto.class));
+    }
+
+    private List<String> leerLineas() {
+        if (!Files.exists(archivo)) {
+            return List.of();
+        }
+        try {
+            return Files.readAllLines(archivo, StandardCharsets.UTF_8).stream()
+                    .filter(linea -> !linea.isBlank())
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer la cola de ventas " + archivo, e);
+        }
+    }
+
+    private void agregarLinea(Path destino, String linea) {
+        try {
+            Files.createDirectories(destino.getParent());
+            Files.writeString(destino, linea + System.lineSeparator(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo guardar la venta en " + destino, e);
+        }
+    }
+
+    private String aJson(VentaPendiente venta) {
+        try {
+            return objectMapper.writeValueAsString(venta);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("No se pudo convertir la venta a JSON", e);
+        }
+    }
+
+    /**
+     * A line of the queue: the sale, the key it is sent with and the server errors it got so far.
+     */
+    record VentaPendiente(String claveIdempotencia, int intentos, VentaDto venta) {
+
+        VentaPendiente conOtroIntento() {
+            return new VentaPendiente(claveIdempotencia, intentos + 1, venta);
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package org.litethinking.cli.service.local;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.litethinking.shareddto.supermercado.CambiosProductosDto;
+import org.litethinking.shareddto.supermercado.ProductoDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Local copy of the product catalog, kept in a file so it survives restarts.
+ * Sale entry and reports read products from here instead of calling the API for each one.
+ * The copy starts from the full catalog snapshot and then follows the changes with
+ * /productos/cambios, so a sync only downloads what changed. Versions are only followed within
+ * one catalog epoch: when the API answers with another epoch its database was recreated, and the
+ * whole catalog is downloaded again even if its versions caught up with ours.
+ */
+@Service
+public class EspejoProductos {
+
+    private static final Logger log = LoggerFactory.getLogger(EspejoProductos.class);
+
+    private static final String CABECERA_VERSION_CATALOGO = "X-Catalogo-Version";
+    private static final String CABECERA_EPOCA_CATALOGO = "X-Catalogo-Epoca";
+    private static final int CAMBIOS_POR_PETICION = 500;
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final String apiBaseUrl;
+    private final Path archivo;
+    private final Map<Long, ProductoDto> productos = new ConcurrentHashMap<>();
+    private final ReentrantLock sincronizacion = new ReentrantLock();
+    private volatile long version;
+    private volatile String epoca;
+    private volatile String etag;
+    private volatile boolean sincronizado;
+
+    public EspejoProductos(RestTemplate restTemplate,
+                           ObjectMapper objectMapper,
+                           @Value("${api.base-url}") String apiBaseUrl,
+                           @Value("${cli.datos-locales.directorio}") String directorio) {
+        this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
+        this.apiBaseUrl = apiBaseUrl;
+        this.archivo = Path.of(directorio, "productos.json");
+    }
+
+    /**
+     * Load the copy saved by the previous run, so products are available before the first sync.
+     */
+    @PostConstruct
+    public void cargar() {
+        if (!Files.exists(archivo)) {
+            log.info("No local product copy at {}, it will be downloaded on the first sync", archivo);
+            return;
+        }
+        try {
+            ArchivoEspejo guardado = objectMapper.readValue(archivo.toFile(), ArchivoEspejo.class);
+            reemplazar(guardado.productos());
+            version = guardado.version();
+            epoca = guardado.epoca();
+            etag = guardado.etag();
+            log.info("Loaded {} products from {} (catalog version {})", productos.size(), archivo, version);
+        } catch (IOException e) {
+            // A damaged copy is not worth stopping the CLI for: the next sync downloads everything
+            log.warn("Could not read the local product copy {}: {}", archivo, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cli.espejo-productos.intervalo-sincronizacion-ms:30000}")
+    public void sincronizarPeriodicamente() {
+        sincronizar();
+    }
+
+    /**
+     * Bring the copy up to date with the API. Runs on a schedule and before each report;
+     * if the API does not answer, the copy stays as it was and the next run tries again.
+     * Waiting for a sync already running on another thread can be interrupted, so a report that ran
+     * out of time is not held up by it: it gets the copy as it is.
+     *
+     * @return true if the copy is up to date with the API
+     */
+    public boolean sincronizar() {
+        try {
+            sincronizacion.lockInterruptibly();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return sincronizado;
+        }
+        try {
+            boolean cambio = productos.isEmpty() && version == 0 ? descargarCatalogo(false) : aplicarCambios();
+            if (cambio) {
+                guardar();
+            }
+            sincronizado = true;
+        } catch (RestClientException e) {
+            sincronizado = false;
+            log.warn("Product sync failed, working with the local copy (version {}): {}", version, e.getMessage());
+        } finally {
+            sincronizacion.unlock();
+        }
+        return sincronizado;
+    }
+
+    public Optional<ProductoDto> buscar(Long id) {
+        return Optional.ofNullable(productos.get(id));
+    }
+
+    public List<ProductoDto> todos() {
+        return new ArrayList<>(productos.values());
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getEpoca() {
+        return epoca;
+    }
+
+    /**
+     * Tells whether the last sync reached the API.
+     */
+    public boolean isSincronizado() {
+        return sincronizado;
+    }
+
+    /**
+     * Download the whole catalog; with the ETag of the last download the API answers 304
+     * when nothing changed. The RestTemplate asks for it gzip-compressed and decompresses it.
+     *
+     * @param sinEtag true to skip the ETag: the same products in a recreated catalog would get a 304
+     *                and leave the copy with the version and epoch of the old one
+     * @return true if the copy changed
+     */
+    private boolean descargarCatalogo(boolean sinEtag) {
+        ArchivoEspejo descargado = restTemplate.execute(apiBaseUrl + "/productos/catalogo", HttpMethod.GET,
+                peticion -> {
+                    if (etag != null && !sinEtag) {
+                        peticion.getHeaders().setIfNoneMatch(etag);
+                    }
+                },
+                respuesta -> {
+                    if (respuesta.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                        return null;
+                    }
+                    HttpHeaders cabeceras = respuesta.getHeaders();
+                    List<ProductoDto> lista = objectMapper.readValue(respuesta.getBody(),
+                            new TypeReference<List<ProductoDto>>() {});
+                    String versionCatalogo = cabeceras.getFirst(CABECERA_VERSION_CATALOGO);
+                    return new ArchivoEspejo(versionCatalogo == null ? 0 : Long.parseLong(versionCatalogo),
+                            cabeceras.getFirst(CABECERA_EPOCA_CATALOGO), cabeceras.getETag(), lista);
+                });
+        if (descargado == null) {
+            log.debug("Product catalog not modified since the last download");
+            return false;
+        }
+        reemplazar(descargado.productos());
+        version = descargado.version();
+        epoca = descargado.epoca();
+        etag = descargado.etag();
+        log.info("Downloaded the product catalog: {} products, version {}", productos.size(), version);
+        return true;
+    }
+
+    /**
+     * Apply the changes after the local version, page by page.
+     *
+     * @return true if the copy changed
+     */
+    private boolean aplicarCambios() {
+        boolean cambio = false;
+        CambiosProductosDto cambios;
+        do {
+            try {
+                cambios = restTemplate.getForObject(apiBaseUrl + "/productos/cambios?desde=" + version
+                        + "&tamanio=" + CAMBIOS_POR_PETICION, CambiosProductosDto.class);
+            } catch (HttpClientErrorException.Conflict e) {
+                // The API does not know our version (its database was reset): start over
+                log.info("Catalog version {} is unknown to the API, downloading the whole catalog", version);
+                return descargarCatalogo(true);
+            }
+            if (cambios == null) {
+                return cambio;
+            }
+            if (!Objects.equals(cambios.epoca(), epoca)) {
+                // Same versions, another database: nothing we hold can be matched against its changes
+                log.info("Catalog epoch changed from {} to {}, downloading the whole catalog", epoca, cambios.epoca());
+                return descargarCatalogo(true);
+            }
+            cambios.actualizados().forEach(producto -> productos.put(producto.id(), producto));
+            cambios.eliminados().forEach(productos::remove);
+            cambio |= cambios.hasta() != version;
+            version = cambios.hasta();
+            if (!cambios.actualizados().isEmpty() || !cambios.eliminados().isEmpty()) {
+                log.debug("Applied {} updated and {} deleted products, now at version {}",
+                        cambios.actualizados().size(), cambios.eliminados().size(), version);
+            }
+        } while (cambios.hayMas());
+        return cambio;
+    }
+
+    // Put the new products first and drop the missing ones after, so a sale being entered
+    // never finds the copy empty halfway through
+    private void reemplazar(List<ProductoDto> nuevos) {
+        Set<Long> ids = new HashSet<>();
+        nuevos.forEach(producto -> {
+            productos.put(producto.id(), producto);
+            ids.add(producto.id());
+        });
+        productos.keySet().retainAll(ids);
+    }
+
+    /**
+     * Write the copy to a temporary file and move it over the old one, so a crash in the middle
+     * never leaves a half-written copy behind.
+     */
+    private void guardar() {
+        try {
+            Files.createDirectories(archivo.getParent());
+            Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+            objectMapper.writeValue(temporal.toFile(), new ArchivoEspejo(version, epoca, etag, todos()));
+            Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not save the local product copy to {}: {}", archivo, e.getMessage());
+        }
+    }
+
+    /**
+     * What is saved in the local file.
+     *
+     * @param version the catalog version the copy is at
+     * @param epoca the catalog epoch the version belongs to, or null in a copy saved before epochs
+     * @param etag the ETag of the last full download, or null
+     * @param productos every product of the copy
+     */
+    record ArchivoEspejo(long version, String epoca, String etag, List<ProductoDto> productos) {
+    }
+}
@@ -1,10 +1,11 @@
 package org.litethinking.cli.service.report.impl;
 
+import org.litethinking.cli.service.local.EspejoProductos;
 import org.litethinking.cli.service.report.ReportGenerator;
 import org.litethinking.shareddto.supermercado.ProductoDto;
 import org.litethinking.shareddto.supermercado.inventario.InventarioDto;
-import org.litethinking.shareddto.supermercado.venta.ItemVentaDto;
-import org.litethinking.shareddto.supermercado.venta.VentaDto;
+import org.litethinking.shareddto.supermercado.venta.TotalVentasPorDiaDto;
+import org.litethinking.shareddto.supermercado.venta.TotalVentasPorGrupoDto;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpMethod;
@@ -13,11 +14,20 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -31,64 +41,135 @@ import java.util.stream.Collectors;
 @Service
 public class InventoryReportGenerator implements ReportGenerator {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int PAGE_SIZE = 500;
+
     private final RestTemplate restTemplate;
     private final String apiBaseUrl;
+    private final EspejoProductos espejoProductos;
+    private final long timeoutMs;
 
-    public InventoryReportGenerator(RestTemplate restTemplate, @Value("${api.base-url}") String apiBaseUrl) {
+    public InventoryReportGenerator(RestTemplate restTemplate, @Value("${api.base-url}") String apiBaseUrl,
+                                    EspejoProductos espejoProductos,
+                                    @Value("${cli.reportes.tiempo-maximo-ms:60000}") long timeoutMs) {
         this.restTemplate = restTemplate;
         this.apiBaseUrl = apiBaseUrl;
+        this.espejoProductos = espejoProductos;
+        this.timeoutMs = timeoutMs;
     }
 
     @Override
     public void generateReport() {
-        try {
-            // Get all products
-            ResponseEntity<List<ProductoDto>> productResponse = restTemplate.exchange(
-                    apiBaseUrl + "/productos",
-                    HttpMethod.GET,
-                    null,
-                    new ParameterizedTypeReference<List<ProductoDto>>() {}
-            );
-            List<ProductoDto> productos = productResponse.getBody();
-
-            // Get all inventory
-            ResponseEntity<List<InventarioDto>> inventoryResponse = restTemplate.exchange(
-                    apiBaseUrl + "/inventario",
-                    HttpMethod.GET,
-                    null,
-                    new ParameterizedTypeReference<List<InventarioDto>>() {}
-            );
-            List<InventarioDto> inventarios = inventoryResponse.getBody();
-
-            // Get all sales
-            ResponseEntity<List<VentaDto>> saleResponse = restTemplate.exchange(
-                    apiBaseUrl + "/ventas",
-                    HttpMethod.GET,
-                    null,
-                    new ParameterizedTypeReference<List<VentaDto>>() {}
-            );
-            List<VentaDto> ventas = saleResponse.getBody();
-
-            if (productos == null || inventarios == null || ventas == null) {
-                System.out.println("Error: Could not retrieve data for report.");
-                return;
+        // Each dataset is fetched on its own virtual thread; closing the executor guarantees
+        // no fetch outlives the report, and shutdownNow() interrupts the ones still running
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            // Products come from the local copy; syncing first only downloads what changed since the last sync
+            CompletableFuture<List<ProductoDto>> productos = fetchAsync(executor, () -> {
+                espejoProductos.sincronizar();
+                List<ProductoDto> copia = espejoProductos.todos();
+                return copia.isEmpty()
+                        ? fetchAllPages("/productos", new ParameterizedTypeReference<List<ProductoDto>>() {})
+                        : copia;
+            });
+            CompletableFuture<List<InventarioDto>> inventarios = fetchAsync(executor, () -> fetchAllPages(
+                    "/inventario", new ParameterizedTypeReference<List<InventarioDto>>() {}));
+
+            // Sales are aggregated by the server, one row per category / payment method / day
+            CompletableFuture<List<TotalVentasPorGrupoDto>> ventasPorCategoria = fetchAsync(executor, () -> fetchList(
+                    "/ventas/analytics/categorias", new ParameterizedTypeReference<List<TotalVentasPorGrupoDto>>() {}));
+            CompletableFuture<List<TotalVentasPorGrupoDto>> ventasPorMetodoPago = fetchAsync(executor, () -> fetchList(
+                    "/ventas/analytics/metodos-pago", new ParameterizedTypeReference<List<TotalVentasPorGrupoDto>>() {}));
+            CompletableFuture<List<TotalVentasPorDiaDto>> ventasPorDia = fetchAsync(executor, () -> fetchList(
+                    "/ventas/analytics/diario", new ParameterizedTypeReference<List<TotalVentasPorDiaDto>>() {}));
+
+            List<ReportSection> sections = List.of(
+                    new ReportSection(() -> generateInventoryValueReport(productos.join(), inventarios.join()),
+                            productos, inventarios),
+                    new ReportSection(() -> generateLowStockReport(inventarios.join()), inventarios),
+                    new ReportSection(() -> generateSalesByCategoryReport(ventasPorCategoria.join(),
+                            ventasPorMetodoPago.join()), ventasPorCategoria, ventasPorMetodoPago),
+                    new ReportSection(() -> generateSalesTrendReport(ventasPorDia.join()), ventasPorDia));
+
+            try {
+                renderAsReady(sections);
+            } finally {
+                // On a failure or a timeout, cancel the fetches still running
+                executor.shutdownNow();
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.out.println("Report interrupted.");
+        } catch (Exception e) {
+            System.out.println("Error generating report: " + e.getMessage());
+        }
+    }
 
-            // Generate inventory value report
-            generateInventoryValueReport(productos, inventarios);
-
-            // Generate low stock report
-            generateLowStockReport(inventarios);
+    private <T> CompletableFuture<List<T>> fetchAsync(ExecutorService executor, Supplier<List<T>> fetch) {
+        return CompletableFuture.supplyAsync(() -> {
+            List<T> elements = fetch.get();
+            if (elements == null) {
+                throw new MissingReportDataException();
+            }
+            return elements;
+        }, executor);
+    }
 
-            // Generate sales by category report
-            generateSalesByCategoryReport(ventas, productos);
+    /**
+     * Print each section as soon as its data has arrived, on the calling thread so sections never
+     * interleave. Stops at the first failed fetch, or when the whole report runs past its time limit.
+     */
+    private void renderAsReady(List<ReportSection> sections) throws InterruptedException, TimeoutException {
+        BlockingQueue<ReportSection> ready = new LinkedBlockingQueue<>();
+        sections.forEach(section -> CompletableFuture.allOf(section.data())
+                .whenComplete((ignored, error) -> ready.add(section)));
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        for (int rendered = 0; rendered < sections.size(); rendered++) {
+            ReportSection section = ready.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (section == null) {
+                throw new TimeoutException("the API did not send the report data within " + timeoutMs + " ms");
+            }
+            Throwable error = section.failure();
+            if (error instanceof MissingReportDataException) {
+                System.out.println("Error: Could not retrieve data for report.");
+                return;
+            }
+            if (error != null) {
+                System.out.println("Error generating report: " + error.getMessage());
+                return;
+            }
+            section.render().run();
+        }
+    }
 
-            // Generate sales trend report
-            generateSalesTrendReport(ventas);
+    /**
+     * Fetch every page of a paginated list endpoint, following the X-Next-Cursor header.
+     *
+     * @return all the elements, or null if any page came back without a body
+     */
+    private <T> List<T> fetchAllPages(String path, ParameterizedTypeReference<List<T>> responseType) {
+        List<T> elements = new ArrayList<>();
+        String cursor = null;
+        do {
+            String url = apiBaseUrl + path + "?tamanio=" + PAGE_SIZE + (cursor != null ? "&cursor=" + cursor : "");
+            ResponseEntity<List<T>> response = restTemplate.exchange(url, HttpMethod.GET, null, responseType);
+            if (response.getBody() == null) {
+                return null;
+            }
+            elements.addAll(response.getBody());
+            cursor = response.getHeaders().getFirst(NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+        return elements;
+    }
 
-        } catch (Exception e) {
-            System.out.println("Error generating report: " + e.getMessage());
-        }
+    /**
+     * Fetch a non-paginated list endpoint.
+     *
+     * @return the elements, or null if the response came back without a body
+     */
+    private <T> List<T> fetchList(String path, ParameterizedTypeReference<List<T>> responseType) {
+        ResponseEntity<List<T>> response = restTemplate.exchange(apiBaseUrl + path, HttpMethod.GET, null, responseType);
+        return response.getBody();
     }
 
     /**
@@ -99,15 +180,14 @@ public class InventoryReportGenerator implements ReportGenerator {
 
         Map<String, BigDecimal> categoryValues = new HashMap<>();
         BigDecimal totalValue = BigDecimal.ZERO;
+        Map<Long, ProductoDto> productosPorId = productos.stream()
+                .collect(Collectors.toMap(ProductoDto::id, Function.identity(), (a, b) -> a));
 
         for (InventarioDto inventario : inventarios) {
             ProductoDto producto = inventario.producto();
             if (producto != null) {
                 // Find the full product details
-                ProductoDto fullProducto = productos.stream()
-                        .filter(p -> p.id().equals(producto.id()))
-                        .findFirst()
-                        .orElse(null);
+                ProductoDto fullProducto = productosPorId.get(producto.id());
 
                 if (fullProducto != null) {
                     BigDecimal itemValue = fullProducto.precio().multiply(new BigDecimal(inventario.cantidad()));
@@ -159,43 +239,21 @@ public class InventoryReportGenerator implements ReportGenerator {
     /**
      * Generate a report showing sales by product category.
      */
-    private void generateSalesByCategoryReport(List<VentaDto> ventas, List<ProductoDto> productos) {
+    private void generateSalesByCategoryReport(List<TotalVentasPorGrupoDto> ventasPorCategoria,
+                                               List<TotalVentasPorGrupoDto> ventasPorMetodoPago) {
         System.out.println("\n===== SALES BY CATEGORY REPORT =====");
 
-        Map<String, BigDecimal> categorySales = new HashMap<>();
-        BigDecimal totalSales = BigDecimal.ZERO;
-
-        for (VentaDto venta : ventas) {
-            if (venta.items() != null) {
-                venta.items().forEach(item -> {
-                    ProductoDto producto = item.producto();
-                    if (producto != null) {
-                        // Find the full product details
-                        ProductoDto fullProducto = productos.stream()
-                                .filter(p -> p.id().equals(producto.id()))
-                                .findFirst()
-                                .orElse(null);
-
-                        if (fullProducto != null) {
-                            String categoria = fullProducto.categoria();
-                            if (categoria != null) {
-                                BigDecimal categorySale = categorySales.getOrDefault(categoria, BigDecimal.ZERO);
-                                categorySales.put(categoria, categorySale.add(item.subtotal()));
-                            }
-                        }
-                    }
-                });
-            }
-
-            totalSales = totalSales.add(venta.montoTotal());
-        }
-
         // Print category sales
         System.out.println("Sales by Category:");
-        for (Map.Entry<String, BigDecimal> entry : categorySales.entrySet()) {
-            System.out.printf("  %s: $%.2f%n", entry.getKey(), entry.getValue());
+        for (TotalVentasPorGrupoDto total : ventasPorCategoria) {
+            System.out.printf("  %s: $%.2f%n", total.grupo(), total.montoTotal());
         }
 
+        // Every sale has exactly one payment method, so these totals add up to all the sales
+        BigDecimal totalSales = ventasPorMetodoPago.stream()
+                .map(TotalVentasPorGrupoDto::montoTotal)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
         // Print total sales
         System.out.printf("Total Sales: $%.2f%n", totalSales);
     }
@@ -203,25 +261,33 @@ public class InventoryReportGenerator implements ReportGenerator {
     /**
      * Generate a report showing sales trends over time.
      */
-    private void generateSalesTrendReport(List<VentaDto> ventas) {
+    private void generateSalesTrendReport(List<TotalVentasPorDiaDto> ventasPorDia) {
         System.out.println("\n===== SALES TREND REPORT =====");
 
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        Map<String, BigDecimal> dailySales = new HashMap<>();
+        // Print daily sales (already in date order)
+        System.out.println("Daily Sales:");
+        ventasPorDia.forEach(total -> System.out.printf("  %s: $%.2f%n", total.fecha(), total.montoTotal()));
+    }
+
+    /**
+     * A report section and the datasets it needs.
+     */
+    private record ReportSection(Runnable render, CompletableFuture<?>... data) {
 
-        for (VentaDto venta : ventas) {
-            LocalDateTime fechaVenta = venta.fechaVenta();
-            if (fechaVenta != null) {
-                String dateStr = fechaVenta.format(formatter);
-                BigDecimal dailySale = dailySales.getOrDefault(dateStr, BigDecimal.ZERO);
-                dailySales.put(dateStr, dailySale.add(venta.montoTotal()));
+        Throwable failure() {
+            for (CompletableFuture<?> future : data) {
+                if (future.isCompletedExceptionally()) {
+                    Throwable error = future.exceptionNow();
+                    return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                }
             }
+            return null;
         }
+    }
 
-        // Print daily sales
-        System.out.println("Daily Sales:");
-        dailySales.entrySet().stream()
-                .sorted(Map.Entry.comparingByKey())
-                .forEach(entry -> System.out.printf("  %s: $%.2f%n", entry.getKey(), entry.getValue()));
+    /**
+     * An endpoint answered without a body.
+     */
+    private static class MissingReportDataException extends RuntimeException {
     }
 }
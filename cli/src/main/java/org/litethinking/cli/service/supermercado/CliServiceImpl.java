@@ -3,6 +3,8 @@ package org.litethinking.cli.service.supermercado;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.litethinking.cli.service.CliService;
+import org.litethinking.cli.service.local.ColaVentasPendientes;
+import org.litethinking.cli.service.local.EspejoProductos;
 import org.litethinking.cli.service.report.ReportGenerator;
 import org.litethinking.shareddto.supermercado.CajeroDto;
 import org.litethinking.shareddto.supermercado.ProductoDto;
@@ -11,11 +13,15 @@ import org.litethinking.shareddto.supermercado.venta.ItemVentaDto;
 import org.litethinking.shareddto.supermercado.venta.VentaDto;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
@@ -23,7 +29,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.Scanner;
+import java.util.UUID;
 
 /**
  * Implementación de la interfaz CliService.
@@ -38,9 +46,12 @@ import java.util.Scanner;
 public class CliServiceImpl implements CliService {
 
     private static final Logger logger = LoggerFactory.getLogger(CliServiceImpl.class);
+    private static final String CABECERA_SIGUIENTE_CURSOR = "X-Next-Cursor";
     private final RestTemplate restTemplate;
     private final String apiBaseUrl;
     private final ReportGenerator reportGenerator;
+    private final EspejoProductos espejoProductos;
+    private final ColaVentasPendientes colaVentasPendientes;
     private CajeroDto cajeroLogueado;
 
     /**
@@ -50,13 +61,19 @@ public class CliServiceImpl implements CliService {
      * @param restTemplate Cliente pa' hacer peticiones HTTP a la API
      * @param apiBaseUrl URL base de la API REST
      * @param reportGenerator Generador de reportes
+     * @param espejoProductos Copia local de los productos, pa' no ir a la API por cada producto
+     * @param colaVentasPendientes Ventas guardadas pa' mandarlas cuando vuelva la conexión
      */
     public CliServiceImpl(RestTemplate restTemplate, 
                          @Value("${api.base-url}") String apiBaseUrl,
-                         ReportGenerator reportGenerator) {
+                         ReportGenerator reportGenerator,
+                         EspejoProductos espejoProductos,
+                         ColaVentasPendientes colaVentasPendientes) {
         this.restTemplate = restTemplate;
         this.apiBaseUrl = apiBaseUrl;
         this.reportGenerator = reportGenerator;
+        this.espejoProductos = espejoProductos;
+        this.colaVentasPendientes = colaVentasPendientes;
         this.cajeroLogueado = null;
         logger.info("¡Servicio CLI inicializado y listo pa' trabajar con la API en: {}!", apiBaseUrl);
         logger.debug("Componentes inicializados: RestTemplate, ReportGenerator, URL base: {}", apiBaseUrl);
@@ -295,13 +312,8 @@ public class CliServiceImpl implements CliService {
         logger.info("Obteniendo lista de todos los productos");
         try {
             logger.debug("Enviando petición a la API: {}/productos", apiBaseUrl);
-            ResponseEntity<List<ProductoDto>> response = restTemplate.exchange(
-                    apiBaseUrl + "/productos",
-                    HttpMethod.GET,
-                    null,
-                    new ParameterizedTypeReference<List<ProductoDto>>() {}
-            );
-            List<ProductoDto> productos = response.getBody();
+            List<ProductoDto> productos = obtenerTodasLasPaginas("/productos",
+                    new ParameterizedTypeReference<List<ProductoDto>>() {});
 
             if (productos != null && !productos.isEmpty()) {
                 logger.info("¡Encontramo' {} productos en total!", productos.size());
@@ -615,13 +627,8 @@ public class CliServiceImpl implements CliService {
         logger.info("Obteniendo lista de todo el inventario");
         try {
             logger.debug("Enviando Request a la API: {}/inventario", apiBaseUrl);
-            ResponseEntity<List<InventarioDto>> response = restTemplate.exchange(
-                    apiBaseUrl + "/inventario",
-                    HttpMethod.GET,
-                    null,
-                    new ParameterizedTypeReference<List<InventarioDto>>() {}
-            );
-            List<InventarioDto> inventarios = response.getBody();
+            List<InventarioDto> inventarios = obtenerTodasLasPaginas("/inventario",
+                    new ParameterizedTypeReference<List<InventarioDto>>() {});
 
             if (inventarios != null && !inventarios.isEmpty()) {
                 logger.info("¡Encontramo' {} items de inventario en total!", inventarios.size());
@@ -932,13 +939,8 @@ public class CliServiceImpl implements CliService {
     private void listAllSales() {
         logger.info("¡Vamo' a buscar toas' las ventas que tenemo'!");
         try {
-            ResponseEntity<List<VentaDto>> response = restTemplate.exchange(
-                    apiBaseUrl + "/ventas",
-                    HttpMethod.GET,
-                    null,
-                    new ParameterizedTypeReference<List<VentaDto>>() {}
-            );
-            List<VentaDto> ventas = response.getBody();
+            List<VentaDto> ventas = obtenerTodasLasPaginas("/ventas",
+                    new ParameterizedTypeReference<List<VentaDto>>() {});
 
             if (ventas != null && !ventas.isEmpty()) {
                 logger.info("¡Encontramo' {} ventas en total!", ventas.size());
@@ -1050,18 +1052,14 @@ public class CliServiceImpl implements CliService {
                 Long productoId = Long.parseLong(scanner.nextLine());
                 logger.debug("Buscando producto con ID: {} pa' la venta", productoId);
 
-                ResponseEntity<ProductoDto> productoResponse = restTemplate.getForEntity(
-                        apiBaseUrl + "/productos/" + productoId,
-                        ProductoDto.class
-                );
-
-                if (!productoResponse.getStatusCode().is2xxSuccessful() || productoResponse.getBody() == null) {
+                Optional<ProductoDto> encontrado = buscarProductoParaVenta(productoId);
+                if (encontrado.isEmpty()) {
                     logger.warn("¡No encontramo' el producto con ID: {}!", productoId);
                     System.out.println("Producto no encontrado con ID: " + productoId);
                     continue;
                 }
 
-                ProductoDto producto = productoResponse.getBody();
+                ProductoDto producto = encontrado.get();
                 logger.debug("Producto encontrado: {}, Precio: ${}", producto.nombre(), producto.precio());
 
                 System.out.print("Cantidad: ");
@@ -1105,12 +1103,29 @@ public class CliServiceImpl implements CliService {
                     metodoPago
             );
 
+            // La misma clave va en cada envío de esta venta, así la API no la guarda dos veces
+            // si la guardó y la respuesta no llegó
+            String claveIdempotencia = UUID.randomUUID().toString();
+            HttpHeaders headers = new HttpHeaders();
+            headers.set(ColaVentasPendientes.CABECERA_CLAVE_IDEMPOTENCIA, claveIdempotencia);
+
             logger.info("¡Enviando la venta al servidor pa' guardarla!");
-            ResponseEntity<VentaDto> response = restTemplate.postForEntity(
-                    apiBaseUrl + "/ventas",
-                    nuevaVenta,
-                    VentaDto.class
-            );
+            ResponseEntity<VentaDto> response;
+            try {
+                response = restTemplate.postForEntity(
+                        apiBaseUrl + "/ventas",
+                        new HttpEntity<>(nuevaVenta, headers),
+                        VentaDto.class
+                );
+            } catch (ResourceAccessException | HttpServerErrorException e) {
+                // Sin conexión con la API, sin respuesta o la API caída (un 5xx): la venta se guarda con
+                // su clave y se manda sola cuando vuelva. Un 4xx no se guarda, porque la API la rechazaría otra vez
+                logger.warn("¡La API no responde! Guardando la venta pa' mandarla después: {}", e.getMessage());
+                colaVentasPendientes.encolar(nuevaVenta, claveIdempotencia);
+                System.out.println("Sin conexión con el servidor. La venta quedó guardada y se enviará "
+                        + "automáticamente cuando vuelva la conexión.");
+                return;
+            }
 
             if (response.getStatusCode().is2xxSuccessful()) {
                 Long ventaId = response.getBody().id();
@@ -1127,6 +1142,57 @@ public class CliServiceImpl implements CliService {
         }
     }
 
+    /**
+     * Busca el producto pa' la venta en la copia local, sin ir a la red.
+     * Si no está (un producto nuevo que todavía no llegó), se lo pide a la API;
+     * si la API tampoco responde, el producto se da por no encontrado.
+     *
+     * @param productoId el ID del producto escaneado
+     * @return el producto, o vacío si no se encontró
+     */
+    private Optional<ProductoDto> buscarProductoParaVenta(Long productoId) {
+        Optional<ProductoDto> local = espejoProductos.buscar(productoId);
+        if (local.isPresent()) {
+            return local;
+        }
+        try {
+            ResponseEntity<ProductoDto> productoResponse = restTemplate.getForEntity(
+                    apiBaseUrl + "/productos/" + productoId,
+                    ProductoDto.class
+            );
+            if (!productoResponse.getStatusCode().is2xxSuccessful()) {
+                return Optional.empty();
+            }
+            return Optional.ofNullable(productoResponse.getBody());
+        } catch (ResourceAccessException e) {
+            logger.warn("Producto {} no está en la copia local y la API no responde: {}", productoId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Trae todas las páginas de un listado de la API, siguiendo la cabecera X-Next-Cursor
+     * hasta la última. La primera página va sin parámetros, con el tamaño por defecto del servidor.
+     *
+     * @param ruta ruta del listado, relativa a la URL base
+     * @param tipo tipo de la lista que devuelve cada página
+     * @return todos los elementos, o null si alguna página llegó sin cuerpo
+     */
+    private <T> List<T> obtenerTodasLasPaginas(String ruta, ParameterizedTypeReference<List<T>> tipo) {
+        List<T> elementos = new ArrayList<>();
+        String cursor = null;
+        do {
+            String url = apiBaseUrl + ruta + (cursor != null ? "?cursor=" + cursor : "");
+            ResponseEntity<List<T>> response = restTemplate.exchange(url, HttpMethod.GET, null, tipo);
+            if (response.getBody() == null) {
+                return null;
+            }
+            elementos.addAll(response.getBody());
+            cursor = response.getHeaders().getFirst(CABECERA_SIGUIENTE_CURSOR);
+        } while (cursor != null);
+        return elementos;
+    }
+
     /**
      * Método auxiliar pa' obtener una opción numérica del usuario.
      * Convierte la entrada del usuario a un número entero.
@@ -0,0 +1,74 @@
+package org.litethinking.cli.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+public class GzipResponseInterceptorTest {
+
+    private static final String URL = "http://localhost:8080/api/productos";
+
+    private RestTemplate restTemplate;
+    private MockRestServiceServer servidor;
+
+    @BeforeEach
+    public void setup() {
+        restTemplate = new RestTemplate();
+        restTemplate.setInterceptors(List.of(new GzipResponseInterceptor()));
+        servidor = MockRestServiceServer.bindTo(restTemplate).build();
+    }
+
+    @Test
+    public void testRespuestaComprimidaSeDescomprime() throws Exception {
+        // Given
+        String json = "[{\"id\":1,\"nombre\":\"Producto 1\"}]";
+        HttpHeaders cabeceras = new HttpHeaders();
+        cabeceras.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        servidor.expect(requestTo(URL))
+                .andExpect(header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andRespond(withSuccess(gzip(json), MediaType.APPLICATION_JSON).headers(cabeceras));
+
+        // When
+        ResponseEntity<String> respuesta = restTemplate.getForEntity(URL, String.class);
+
+        // Then
+        servidor.verify();
+        assertEquals(json, respuesta.getBody());
+        assertFalse(respuesta.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    public void testRespuestaSinComprimirPasaTalCual() {
+        // Given
+        servidor.expect(requestTo(URL)).andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+
+        // When
+        String respuesta = restTemplate.getForObject(URL, String.class);
+
+        // Then
+        servidor.verify();
+        assertEquals("[]", respuesta);
+    }
+
+    private static byte[] gzip(String texto) throws Exception {
+        ByteArrayOutputStream comprimido = new ByteArrayOutputStream();
+        try (GZIPOutputStream salida = new GZIPOutputStream(comprimido)) {
+            salida.write(texto.getBytes(StandardCharsets.UTF_8));
+        }
+        return comprimido.toByteArray();
+    }
+}
@@ -0,0 +1,95 @@
+package org.litethinking.cli.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.ConnectException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+public class IdempotentRetryInterceptorTest {
+
+    private static final String URL = "http://localhost:8080/api/productos/1";
+
+    private RestTemplate restTemplate;
+    private MockRestServiceServer servidor;
+
+    @BeforeEach
+    public void setup() {
+        restTemplate = new RestTemplate();
+        restTemplate.setInterceptors(List.of(new IdempotentRetryInterceptor(3, 1, 10)));
+        servidor = MockRestServiceServer.bindTo(restTemplate).build();
+    }
+
+    @Test
+    public void testGetSeReintentaTrasUn503() {
+        // Given
+        HttpHeaders cabeceras = new HttpHeaders();
+        cabeceras.set(HttpHeaders.RETRY_AFTER, "5");
+        servidor.expect(requestTo(URL)).andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE).headers(cabeceras));
+        servidor.expect(requestTo(URL)).andRespond(withSuccess("ok", MediaType.TEXT_PLAIN));
+
+        // When
+        String respuesta = restTemplate.getForObject(URL, String.class);
+
+        // Then
+        servidor.verify();
+        assertEquals("ok", respuesta);
+    }
+
+    @Test
+    public void testGetSeReintentaTrasUnErrorDeConexion() {
+        // Given
+        servidor.expect(requestTo(URL)).andRespond(request -> {
+            throw new ConnectException("Connection refused");
+        });
+        servidor.expect(requestTo(URL)).andRespond(withSuccess("ok", MediaType.TEXT_PLAIN));
+
+        // When
+        String respuesta = restTemplate.getForObject(URL, String.class);
+
+        // Then
+        servidor.verify();
+        assertEquals("ok", respuesta);
+    }
+
+    @Test
+    public void testGetFallaAlAgotarLosIntentos() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            servidor.expect(requestTo(URL)).andRespond(request -> {
+                throw new ConnectException("Connection refused");
+            });
+        }
+
+        // When & Then
+        assertThrows(ResourceAccessException.class, () -> restTemplate.getForObject(URL, String.class));
+        servidor.verify();
+    }
+
+    @Test
+    public void testPostNoSeReintenta() {
+        // Given
+        servidor.expect(requestTo("http://localhost:8080/api/ventas"))
+                .andExpect(method(HttpMethod.POST))
+                .andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+
+        // When & Then
+        assertThrows(HttpServerErrorException.ServiceUnavailable.class,
+                () -> restTemplate.postForObject("http://localhost:8080/api/ventas", "{}", String.class));
+        servidor.verify();
+    }
+}
@@ -2,6 +2,8 @@ package org.litethinking.cli.service.impl;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.litethinking.cli.service.local.ColaVentasPendientes;
+import org.litethinking.cli.service.local.EspejoProductos;
 import org.litethinking.cli.service.report.ReportGenerator;
 import org.litethinking.cli.service.supermercado.CliServiceImpl;
 import org.litethinking.shareddto.supermercado.CajeroDto;
@@ -9,11 +11,16 @@ import org.litethinking.shareddto.supermercado.ProductoDto;
 import org.litethinking.shareddto.supermercado.inventario.InventarioDto;
 import org.litethinking.shareddto.supermercado.venta.ItemVentaDto;
 import org.litethinking.shareddto.supermercado.venta.VentaDto;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
 import java.io.ByteArrayInputStream;
@@ -25,6 +32,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import java.util.Scanner;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -39,6 +47,12 @@ public class CliServiceImplTest {
     @Mock
     private ReportGenerator reportGenerator;
 
+    @Mock
+    private EspejoProductos espejoProductos;
+
+    @Mock
+    private ColaVentasPendientes colaVentasPendientes;
+
     @InjectMocks
     private CliServiceImpl cliService;
 
@@ -149,6 +163,38 @@ public class CliServiceImplTest {
         );
     }
 
+    @Test
+    public void testProductMenu_ListAllProducts_SigueElCursor() {
+        // Given
+        String input = "1\n0\n";
+        Scanner scanner = new Scanner(new ByteArrayInputStream(input.getBytes()));
+
+        ProductoDto producto1 = new ProductoDto(1L, "Producto 1", "Descripción 1", new BigDecimal("10.99"), "Categoría 1", "P001");
+        ProductoDto producto2 = new ProductoDto(2L, "Producto 2", "Descripción 2", new BigDecimal("20.99"), "Categoría 2", "P002");
+        HttpHeaders cabeceras = new HttpHeaders();
+        cabeceras.add("X-Next-Cursor", "MQ");
+        when(restTemplate.exchange(
+                eq(apiBaseUrl + "/productos"),
+                eq(org.springframework.http.HttpMethod.GET),
+                any(),
+                any(org.springframework.core.ParameterizedTypeReference.class)
+        )).thenReturn(new ResponseEntity<>(List.of(producto1), cabeceras, HttpStatus.OK));
+        when(restTemplate.exchange(
+                eq(apiBaseUrl + "/productos?cursor=MQ"),
+                eq(org.springframework.http.HttpMethod.GET),
+                any(),
+                any(org.springframework.core.ParameterizedTypeReference.class)
+        )).thenReturn(new ResponseEntity<>(List.of(producto2), HttpStatus.OK));
+
+        // When
+        cliService.productMenu(scanner);
+
+        // Then
+        String output = outputStream.toString();
+        assertTrue(output.contains("Producto 1"));
+        assertTrue(output.contains("Producto 2"));
+    }
+
     @Test
     public void testProductMenu_FindProductById_Success() {
         // Given
@@ -495,7 +541,7 @@ public class CliServiceImplTest {
         ResponseEntity<VentaDto> ventaResponse = new ResponseEntity<>(nuevaVenta, HttpStatus.CREATED);
         when(restTemplate.postForEntity(
                 eq(apiBaseUrl + "/ventas"),
-                any(VentaDto.class),
+                any(HttpEntity.class),
                 eq(VentaDto.class)
         )).thenReturn(ventaResponse);
 
@@ -507,12 +553,112 @@ public class CliServiceImplTest {
         verify(restTemplate).getForEntity(eq(apiBaseUrl + "/productos/2"), eq(ProductoDto.class));
         verify(restTemplate).postForEntity(
                 eq(apiBaseUrl + "/ventas"),
-                any(VentaDto.class),
+                any(HttpEntity.class),
                 eq(VentaDto.class)
         );
         assertTrue(outputStream.toString().contains("Venta creada exitosamente"));
     }
 
+    @Test
+    public void testCreateNewSale_ProductosDesdeCopiaLocal() {
+        // Given
+        String input = "3\nCliente Test\n1\n2\nn\nEfectivo\n0\n";
+        Scanner scanner = new Scanner(new ByteArrayInputStream(input.getBytes()));
+
+        CajeroDto cajero = CajeroDto.builder()
+                .id(1L)
+                .nombre("Juan Pérez")
+                .codigo("CAJ001")
+                .turno("Mannana")
+                .build();
+
+        ProductoDto producto1 = new ProductoDto(1L, "Producto 1", "Descripción 1",
+                new BigDecimal("10.99"), "Categoría 1", "COD1");
+        when(espejoProductos.buscar(1L)).thenReturn(Optional.of(producto1));
+
+        VentaDto nuevaVenta = new VentaDto(1L, LocalDateTime.now(), "Cliente Test", new ArrayList<>(),
+                new BigDecimal("21.98"), "Efectivo");
+        when(restTemplate.postForEntity(
+                eq(apiBaseUrl + "/ventas"),
+                any(HttpEntity.class),
+                eq(VentaDto.class)
+        )).thenReturn(new ResponseEntity<>(nuevaVenta, HttpStatus.CREATED));
+
+        // When
+        cliService.saleMenu(scanner, cajero);
+
+        // Then
+        verify(restTemplate, never()).getForEntity(anyString(), eq(ProductoDto.class));
+        assertTrue(outputStream.toString().contains("Venta creada exitosamente"));
+    }
+
+    @Test
+    public void testCreateNewSale_SinConexionQuedaEnCola() {
+        // Given
+        String input = "3\nCliente Test\n1\n2\nn\nEfectivo\n0\n";
+        Scanner scanner = new Scanner(new ByteArrayInputStream(input.getBytes()));
+
+        CajeroDto cajero = CajeroDto.builder()
+                .id(1L)
+                .nombre("Juan Pérez")
+                .codigo("CAJ001")
+                .turno("Mannana")
+                .build();
+
+        ProductoDto producto1 = new ProductoDto(1L, "Producto 1", "Descripción 1",
+                new BigDecimal("10.99"), "Categoría 1", "COD1");
+        when(espejoProductos.buscar(1L)).thenReturn(Optional.of(producto1));
+        when(restTemplate.postForEntity(
+                eq(apiBaseUrl + "/ventas"),
+                any(HttpEntity.class),
+                eq(VentaDto.class)
+        )).thenThrow(new ResourceAccessException("Connection refused"));
+
+        // When
+        cliService.saleMenu(scanner, cajero);
+
+        // Then
+        ArgumentCaptor<HttpEntity<VentaDto>> enviada = ArgumentCaptor.forClass(HttpEntity.class);
+        verify(restTemplate).postForEntity(eq(apiBaseUrl + "/ventas"), enviada.capture(), eq(VentaDto.class));
+        String claveIdempotencia = enviada.getValue().getHeaders().getFirst("Idempotency-Key");
+        assertNotNull(claveIdempotencia);
+        // Queued with the key it was sent with, in case the API saved it before the connection dropped
+        verify(colaVentasPendientes).encolar(argThat(venta ->
+                venta.nombreCliente().equals("Cliente Test")
+                        && venta.montoTotal().compareTo(new BigDecimal("21.98")) == 0), eq(claveIdempotencia));
+        assertTrue(outputStream.toString().contains("La venta quedó guardada"));
+    }
+
+    @Test
+    public void testCreateNewSale_ErrorDelServidorQuedaEnCola() {
+        // Given
+        String input = "3\nCliente Test\n1\n2\nn\nEfectivo\n0\n";
+        Scanner scanner = new Scanner(new ByteArrayInputStream(input.getBytes()));
+
+        CajeroDto cajero = CajeroDto.builder()
+                .id(1L)
+                .nombre("Juan Pérez")
+                .codigo("CAJ001")
+                .turno("Mannana")
+                .build();
+
+        ProductoDto producto1 = new ProductoDto(1L, "Producto 1", "Descripción 1",
+                new BigDecimal("10.99"), "Categoría 1", "COD1");
+        when(espejoProductos.buscar(1L)).thenReturn(Optional.of(producto1));
+        when(restTemplate.postForEntity(
+                eq(apiBaseUrl + "/ventas"),
+                any(HttpEntity.class),
+                eq(VentaDto.class)
+        )).thenThrow(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE));
+
+        // When
+        cliService.saleMenu(scanner, cajero);
+
+        // Then
+        verify(colaVentasPendientes).encolar(argThat(venta -> venta.nombreCliente().equals("Cliente Test")), anyString());
+        assertTrue(outputStream.toString().contains("La venta quedó guardada"));
+    }
+
     @Test
     public void testErrorHandling_RestClientException() {
         // Given
@@ -0,0 +1,142 @@
+package org.litethinking.cli.service.local;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.litethinking.shareddto.supermercado.venta.VentaDto;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+
+public class ColaVentasPendientesTest {
+
+    private static final String API = "http://localhost:8080/api";
+    private static final int MAX_INTENTOS = 2;
+
+    @TempDir
+    Path directorio;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private RestTemplate restTemplate;
+    private MockRestServiceServer servidor;
+    private ColaVentasPendientes cola;
+
+    @BeforeEach
+    public void setup() {
+        restTemplate = new RestTemplate();
+        servidor = MockRestServiceServer.bindTo(restTemplate).build();
+        cola = new ColaVentasPendientes(restTemplate, objectMapper, API, directorio.toString(), MAX_INTENTOS);
+    }
+
+    @Test
+    public void testEnviaLaVentaConSuClave() {
+        // Given
+        cola.encolar(venta("Cliente 1"), "clave-1");
+        esperarVenta("clave-1", HttpStatus.CREATED);
+
+        // When
+        int enviadas = cola.enviarPendientes();
+
+        // Then
+        servidor.verify();
+        assertEquals(1, enviadas);
+        assertEquals(0, cola.pendientes());
+    }
+
+    @Test
+    public void testErrorDelServidorSeReintentaHastaElMaximoYLuegoSeRechaza() throws Exception {
+        // Given
+        cola.encolar(venta("Cliente 1"), "clave-1");
+        cola.encolar(venta("Cliente 2"), "clave-2");
+
+        // When: the first run fails on the first sale and keeps both
+        servidor.expect(requestTo(API + "/ventas")).andRespond(withServerError());
+        assertEquals(0, cola.enviarPendientes());
+        assertEquals(2, cola.pendientes());
+        servidor.verify();
+        servidor.reset();
+
+        // When: the second failure reaches the maximum, so the sale after it goes through
+        servidor.expect(requestTo(API + "/ventas")).andExpect(header("Idempotency-Key", "clave-1"))
+                .andRespond(withServerError());
+        esperarVenta("clave-2", HttpStatus.CREATED);
+        int enviadas = cola.enviarPendientes();
+
+        // Then
+        servidor.verify();
+        assertEquals(1, enviadas);
+        assertEquals(0, cola.pendientes());
+        List<String> rechazadas = Files.readAllLines(directorio.resolve("ventas-rechazadas.jsonl"));
+        assertEquals(1, rechazadas.size());
+        assertTrue(rechazadas.get(0).contains("clave-1"));
+    }
+
+    @Test
+    public void testApiNoDisponibleNoCuentaComoIntento() {
+        // Given
+        cola.encolar(venta("Cliente 1"), "clave-1");
+
+        // When
+        for (int i = 0; i < MAX_INTENTOS + 1; i++) {
+            servidor.expect(requestTo(API + "/ventas")).andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+            assertEquals(0, cola.enviarPendientes());
+            servidor.verify();
+            servidor.reset();
+        }
+
+        // Then
+        assertEquals(1, cola.pendientes());
+        assertFalse(Files.exists(directorio.resolve("ventas-rechazadas.jsonl")));
+    }
+
+    @Test
+    public void testVentaEncoladaSinClaveSeEnviaSiempreConLaMisma() throws Exception {
+        // Given: a line queued before the sales had a key
+        String linea = objectMapper.writeValueAsString(venta("Cliente 1"));
+        Files.writeString(directorio.resolve("ventas-pendientes.jsonl"), linea + System.lineSeparator());
+        String clave = UUID.nameUUIDFromBytes(linea.getBytes(StandardCharsets.UTF_8)).toString();
+
+        // When: the key survives the failed attempt written back to the queue
+        servidor.expect(requestTo(API + "/ventas")).andExpect(header("Idempotency-Key", clave))
+                .andRespond(withServerError());
+        cola.enviarPendientes();
+        servidor.verify();
+        servidor.reset();
+        esperarVenta(clave, HttpStatus.CREATED);
+        int enviadas = cola.enviarPendientes();
+
+        // Then
+        servidor.verify();
+        assertEquals(1, enviadas);
+    }
+
+    private void esperarVenta(String clave, HttpStatus estado) {
+        servidor.expect(requestTo(API + "/ventas"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(header("Idempotency-Key", clave))
+                .andRespond(withStatus(estado).contentType(MediaType.APPLICATION_JSON).body("{\"id\":1}"));
+    }
+
+    private VentaDto venta(String cliente) {
+        return new VentaDto(null, LocalDateTime.of(2024, 1, 1, 10, 0), cliente, List.of(),
+                new BigDecimal("10.00"), "Efectivo");
+    }
+}
@@ -0,0 +1,225 @@
+package org.litethinking.cli.service.local;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.litethinking.shareddto.supermercado.CambiosProductosDto;
+import org.litethinking.shareddto.supermercado.ProductoDto;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.headerDoesNotExist;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+public class EspejoProductosTest {
+
+    private static final String API = "http://localhost:8080/api";
+    private static final String EPOCA = "epoca-1";
+
+    @TempDir
+    Path directorio;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private RestTemplate restTemplate;
+    private MockRestServiceServer servidor;
+    private ProductoDto producto1;
+    private ProductoDto producto2;
+
+    @BeforeEach
+    public void setup() {
+        restTemplate = new RestTemplate();
+        servidor = MockRestServiceServer.bindTo(restTemplate).build();
+        producto1 = new ProductoDto(1L, "Producto 1", "Descripción 1", new BigDecimal("10.99"), "Categoría 1", "P001");
+        producto2 = new ProductoDto(2L, "Producto 2", "Descripción 2", new BigDecimal("20.99"), "Categoría 2", "P002");
+    }
+
+    @Test
+    public void testPrimeraSincronizacionDescargaElCatalogo() throws Exception {
+        // Given
+        EspejoProductos espejo = nuevoEspejo();
+        esperarCatalogo(List.of(producto1, producto2), 5);
+
+        // When
+        boolean sincronizado = espejo.sincronizar();
+
+        // Then
+        servidor.verify();
+        assertTrue(sincronizado);
+        assertEquals(5, espejo.getVersion());
+        assertEquals(producto2, espejo.buscar(2L).orElseThrow());
+    }
+
+    @Test
+    public void testSincronizacionAplicaSoloLosCambios() throws Exception {
+        // Given
+        EspejoProductos espejo = nuevoEspejo();
+        esperarCatalogo(List.of(producto1, producto2), 5);
+        espejo.sincronizar();
+        servidor.reset();
+
+        ProductoDto producto1Nuevo = new ProductoDto(1L, "Producto 1", "Descripción 1", new BigDecimal("9.99"),
+                "Categoría 1", "P001");
+        servidor.expect(requestTo(API + "/productos/cambios?desde=5&tamanio=500"))
+                .andRespond(withSuccess(objectMapper.writeValueAsString(
+                        new CambiosProductosDto(EPOCA, 5, 7, false, List.of(producto1Nuevo), List.of(2L))),
+                        MediaType.APPLICATION_JSON));
+
+        // When
+        espejo.sincronizar();
+
+        // Then
+        servidor.verify();
+        assertEquals(7, espejo.getVersion());
+        assertEquals(new BigDecimal("9.99"), espejo.buscar(1L).orElseThrow().precio());
+        assertTrue(espejo.buscar(2L).isEmpty());
+    }
+
+    @Test
+    public void testVersionDesconocidaVuelveADescargarTodo() throws Exception {
+        // Given
+        EspejoProductos espejo = nuevoEspejo();
+        esperarCatalogo(List.of(producto1, producto2), 5);
+        espejo.sincronizar();
+        servidor.reset();
+
+        servidor.expect(requestTo(API + "/productos/cambios?desde=5&tamanio=500"))
+                .andRespond(withStatus(HttpStatus.CONFLICT));
+        esperarCatalogo(List.of(producto2), 1);
+
+        // When
+        espejo.sincronizar();
+
+        // Then
+        servidor.verify();
+        assertEquals(1, espejo.getVersion());
+        assertEquals(List.of(producto2), espejo.todos());
+    }
+
+    @Test
+    public void testOtraEpocaVuelveADescargarTodo() throws Exception {
+        // Given
+        EspejoProductos espejo = nuevoEspejo();
+        esperarCatalogo(List.of(producto1, producto2), 5);
+        espejo.sincronizar();
+        servidor.reset();
+
+        // The API's database was recreated and its versions already caught up with ours
+        servidor.expect(requestTo(API + "/productos/cambios?desde=5&tamanio=500"))
+                .andRespond(withSuccess(objectMapper.writeValueAsString(
+                        new CambiosProductosDto("epoca-2", 5, 5, false, List.of(), List.of())),
+                        MediaType.APPLICATION_JSON));
+        esperarCatalogo(List.of(producto2), 5, "epoca-2");
+
+        // When
+        espejo.sincronizar();
+
+        // Then
+        servidor.verify();
+        assertEquals("epoca-2", espejo.getEpoca());
+        assertEquals(List.of(producto2), espejo.todos());
+    }
+
+    @Test
+    public void testCopiaGuardadaSeCargaAlArrancar() throws Exception {
+        // Given
+        esperarCatalogo(List.of(producto1, producto2), 5);
+        nuevoEspejo().sincronizar();
+
+        // When
+        EspejoProductos reiniciado = nuevoEspejo();
+        reiniciado.cargar();
+
+        // Then
+        assertEquals(5, reiniciado.getVersion());
+        assertEquals(EPOCA, reiniciado.getEpoca());
+        assertEquals(2, reiniciado.todos().size());
+        assertEquals(producto1, reiniciado.buscar(1L).orElseThrow());
+    }
+
+    @Test
+    public void testSinConexionSeMantieneLaCopia() throws Exception {
+        // Given
+        EspejoProductos espejo = nuevoEspejo();
+        esperarCatalogo(List.of(producto1), 5);
+        espejo.sincronizar();
+        servidor.reset();
+
+        servidor.expect(requestTo(API + "/productos/cambios?desde=5&tamanio=500"))
+                .andRespond(request -> {
+                    throw new java.net.ConnectException("Connection refused");
+                });
+
+        // When
+        boolean sincronizado = espejo.sincronizar();
+
+        // Then
+        assertFalse(sincronizado);
+        assertFalse(espejo.isSincronizado());
+        assertEquals(producto1, espejo.buscar(1L).orElseThrow());
+    }
+
+    @Test
+    public void testEsperarOtraSincronizacionSePuedeInterrumpir() throws Exception {
+        // Given
+        EspejoProductos espejo = nuevoEspejo();
+        CountDownLatch descargando = new CountDownLatch(1);
+        CountDownLatch terminar = new CountDownLatch(1);
+        servidor.expect(requestTo(API + "/productos/catalogo"))
+                .andRespond(request -> {
+                    descargando.countDown();
+                    try {
+                        terminar.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return withSuccess("[]", MediaType.APPLICATION_JSON).createResponse(request);
+                });
+        Thread programada = new Thread(espejo::sincronizar);
+        programada.start();
+        assertTrue(descargando.await(5, TimeUnit.SECONDS));
+
+        // When
+        Thread reporte = new Thread(espejo::sincronizar);
+        reporte.start();
+        reporte.interrupt();
+        reporte.join(5000);
+
+        // Then
+        assertFalse(reporte.isAlive());
+        terminar.countDown();
+        programada.join(5000);
+        assertFalse(programada.isAlive());
+    }
+
+    private EspejoProductos nuevoEspejo() {
+        return new EspejoProductos(restTemplate, objectMapper, API, directorio.toString());
+    }
+
+    private void esperarCatalogo(List<ProductoDto> productos, long version) throws Exception {
+        esperarCatalogo(productos, version, EPOCA);
+    }
+
+    private void esperarCatalogo(List<ProductoDto> productos, long version, String epoca) throws Exception {
+        HttpHeaders cabeceras = new HttpHeaders();
+        cabeceras.setETag("\"catalogo-" + version + "\"");
+        cabeceras.set("X-Catalogo-Version", String.valueOf(version));
+        cabeceras.set("X-Catalogo-Epoca", epoca);
+        servidor.expect(requestTo(API + "/productos/catalogo"))
+                .andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+                .andRespond(withSuccess(objectMapper.writeValueAsString(productos), MediaType.APPLICATION_JSON)
+                        .headers(cabeceras));
+    }
+}
@@ -0,0 +1,135 @@
+package org.litethinking.cli.service.report.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.litethinking.cli.service.local.EspejoProductos;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+public class InventoryReportGeneratorTest {
+
+    private static final String API = "http://localhost:8080/api";
+
+    @Mock
+    private EspejoProductos espejoProductos;
+
+    private RestTemplate restTemplate;
+    private MockRestServiceServer servidor;
+    private final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    private final PrintStream originalOut = System.out;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        restTemplate = new RestTemplate();
+        // The datasets are fetched concurrently, so the requests arrive in any order
+        servidor = MockRestServiceServer.bindTo(restTemplate).ignoreExpectOrder(true).build();
+        System.setOut(new PrintStream(outputStream));
+    }
+
+    @AfterEach
+    public void restore() {
+        System.setOut(originalOut);
+    }
+
+    @Test
+    public void testGenerateReport() {
+        // Given
+        esperarProductos();
+        esperarInventario();
+        esperar("/ventas/analytics/categorias", "[{\"grupo\":\"Categoría 1\",\"montoTotal\":21.98}]");
+        esperar("/ventas/analytics/metodos-pago", "[{\"grupo\":\"Efectivo\",\"montoTotal\":21.98}]");
+        esperar("/ventas/analytics/diario", "[{\"fecha\":\"2025-01-15\",\"montoTotal\":21.98}]");
+
+        // When
+        generador(60000).generateReport();
+
+        // Then
+        servidor.verify();
+        String salida = outputStream.toString();
+        assertTrue(salida.contains("INVENTORY VALUE REPORT"));
+        assertTrue(salida.contains("Total Inventory Value: $109.90"));
+        assertTrue(salida.contains("LOW STOCK REPORT"));
+        assertTrue(salida.contains("Categoría 1: $21.98"));
+        assertTrue(salida.contains("2025-01-15: $21.98"));
+    }
+
+    @Test
+    public void testGenerateReport_FallaUnDataset() {
+        // Given
+        esperarProductos();
+        esperarInventario();
+        servidor.expect(requestTo(API + "/ventas/analytics/categorias"))
+                .andRespond(withStatus(HttpStatus.INTERNAL_SERVER_ERROR));
+        esperar("/ventas/analytics/metodos-pago", "[]");
+        esperar("/ventas/analytics/diario", "[]");
+
+        // When
+        generador(60000).generateReport();
+
+        // Then
+        assertTrue(outputStream.toString().contains("Error generating report"));
+        assertFalse(outputStream.toString().contains("SALES BY CATEGORY REPORT"));
+    }
+
+    @Test
+    public void testGenerateReport_TiempoAgotado() {
+        // Given
+        CountDownLatch liberar = new CountDownLatch(1);
+        esperarProductos();
+        esperarInventario();
+        esperar("/ventas/analytics/categorias", "[]");
+        esperar("/ventas/analytics/metodos-pago", "[]");
+        servidor.expect(requestTo(API + "/ventas/analytics/diario")).andRespond(request -> {
+            try {
+                liberar.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new java.io.InterruptedIOException("cancelled");
+            }
+            return withSuccess("[]", MediaType.APPLICATION_JSON).createResponse(request);
+        });
+
+        // When
+        long inicio = System.nanoTime();
+        generador(300).generateReport();
+        liberar.countDown();
+
+        // Then
+        assertTrue(outputStream.toString().contains("did not send the report data within 300 ms"));
+        assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - inicio) < 10,
+                "the slow fetch is cancelled with the report");
+    }
+
+    private InventoryReportGenerator generador(long timeoutMs) {
+        return new InventoryReportGenerator(restTemplate, API, espejoProductos, timeoutMs);
+    }
+
+    // The local copy is empty (default mock), so products come from the API
+    private void esperarProductos() {
+        esperar("/productos?tamanio=500", "[{\"id\":1,\"nombre\":\"Producto 1\",\"precio\":10.99,"
+                + "\"categoria\":\"Categoría 1\",\"codigoBarras\":\"P001\"}]");
+    }
+
+    private void esperarInventario() {
+        esperar("/inventario?tamanio=500", "[{\"id\":1,\"producto\":{\"id\":1},\"cantidad\":10,\"stockMinimo\":20}]");
+    }
+
+    private void esperar(String ruta, String json) {
+        servidor.expect(requestTo(API + ruta)).andRespond(withSuccess(json, MediaType.APPLICATION_JSON));
+    }
+}
@@ -0,0 +1,24 @@
+package org.litethinking.domain.model.supermercado;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One write to the product catalog, numbered with a version that only grows,
+ * so terminals can ask for the changes after the last version they saw.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CambioProducto {
+    private Long version;
+    private Long productoId;
+    /** True when the product was deleted (a tombstone), false when it was created or updated. */
+    private boolean eliminado;
+    private LocalDateTime fecha;
+}
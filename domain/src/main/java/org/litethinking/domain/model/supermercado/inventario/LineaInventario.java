@@ -0,0 +1,29 @@
+package org.litethinking.domain.model.supermercado.inventario;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Flat, read-only view of an inventory record together with the product columns
+ * needed for exports. It is built straight from a projection query, so no
+ * Producto aggregate is loaded per row.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LineaInventario {
+    private Long id;
+    private Long productoId;
+    private String productoNombre;
+    private String productoCodigoBarras;
+    private Integer cantidad;
+    private Integer stockMinimo;
+    private Integer stockMaximo;
+    private LocalDate fechaUltimaReposicion;
+    private String ubicacion;
+}
@@ -0,0 +1,23 @@
+package org.litethinking.domain.model.supermercado.venta;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Number of sales and amount sold on one day.
+ * Built straight from an aggregate query, one row per day.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TotalVentasPorDia {
+    private LocalDate fecha;
+    private Long cantidadVentas;
+    private BigDecimal montoTotal;
+}
@@ -0,0 +1,22 @@
+package org.litethinking.domain.model.supermercado.venta;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Number of sales and amount sold for one group (a category, a payment method...).
+ * Built straight from an aggregate query, one row per group.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TotalVentasPorGrupo {
+    private String grupo;
+    private Long cantidadVentas;
+    private BigDecimal montoTotal;
+}
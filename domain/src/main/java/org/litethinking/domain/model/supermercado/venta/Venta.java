@@ -24,6 +24,7 @@ public class Venta {
     private List<ItemVenta> items;
     private BigDecimal montoTotal;
     private String metodoPago;
+    private String claveIdempotencia;
 
 
     // Getters
@@ -51,6 +52,10 @@ public class Venta {
         return metodoPago;
     }
 
+    public String getClaveIdempotencia() {
+        return claveIdempotencia;
+    }
+
     // Setters
     public void setId(Long id) {
         this.id = id;
@@ -76,6 +81,10 @@ public class Venta {
         this.metodoPago = metodoPago;
     }
 
+    public void setClaveIdempotencia(String claveIdempotencia) {
+        this.claveIdempotencia = claveIdempotencia;
+    }
+
     // equals, hashCode, and toString
     @Override
     public boolean equals(Object o) {
@@ -87,17 +96,19 @@ public class Venta {
                Objects.equals(nombreCliente, venta.nombreCliente) &&
                Objects.equals(items, venta.items) &&
                Objects.equals(montoTotal, venta.montoTotal) &&
-               Objects.equals(metodoPago, venta.metodoPago);
+               Objects.equals(metodoPago, venta.metodoPago) &&
+               Objects.equals(claveIdempotencia, venta.claveIdempotencia);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, fechaVenta, nombreCliente, items, montoTotal, metodoPago);
+        return Objects.hash(id, fechaVenta, nombreCliente, items, montoTotal, metodoPago, claveIdempotencia);
     }
 
     @Override
     public String toString() {
         return "Venta(id=" + id + ", fechaVenta=" + fechaVenta + ", nombreCliente=" + nombreCliente + 
-               ", items=" + items + ", montoTotal=" + montoTotal + ", metodoPago=" + metodoPago + ")";
+               ", items=" + items + ", montoTotal=" + montoTotal + ", metodoPago=" + metodoPago + 
+               ", claveIdempotencia=" + claveIdempotencia + ")";
     }
 }
@@ -33,6 +33,15 @@ public interface RepositorioCajero {
      */
     List<Cajero> findAll();
     
+    /**
+     * Find a page of cashiers ordered by id, starting right after the given id.
+     *
+     * @param afterId the id of the last element of the previous page, or null for the first page
+     * @param limit the maximum number of cashiers to return
+     * @return the page of cashiers
+     */
+    List<Cajero> findPage(Long afterId, int limit);
+    
     /**
      * Delete a cashier by its id.
      *
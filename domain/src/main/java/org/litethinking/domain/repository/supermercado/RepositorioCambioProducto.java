@@ -0,0 +1,47 @@
+package org.litethinking.domain.repository.supermercado;
+
+import org.litethinking.domain.model.supermercado.CambioProducto;
+
+import java.util.List;
+
+/**
+ * Repository interface for the product change log.
+ */
+public interface RepositorioCambioProducto {
+
+    /**
+     * Record a write to a product with the next version, in the transaction of that write.
+     * A change is visible only after every lower version is: the next change waits for this
+     * transaction to end.
+     *
+     * @param productoId the id of the product that changed
+     * @param eliminado true if the product was deleted
+     * @return the recorded change, with its version
+     */
+    CambioProducto registerChange(Long productoId, boolean eliminado);
+
+    /**
+     * Find the changes after a version, keeping only the latest change of each product.
+     *
+     * @param version only changes with a greater version are returned
+     * @param limit the maximum number of changes to return
+     * @return the changes ordered by version
+     */
+    List<CambioProducto> findLatestAfter(long version, int limit);
+
+    /**
+     * Find the version of the last recorded change.
+     *
+     * @return the last version, or 0 if nothing was recorded
+     */
+    long findLastVersion();
+
+    /**
+     * Find the epoch of the change log, an id drawn when the database was created.
+     * Versions start again from 0 in a new database, so a different epoch means
+     * the versions a client holds do not belong to this log.
+     *
+     * @return the epoch
+     */
+    String findEpoch();
+}
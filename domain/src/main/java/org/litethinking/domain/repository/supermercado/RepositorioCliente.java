@@ -33,6 +33,15 @@ public interface RepositorioCliente {
      */
     List<Cliente> findAll();
     
+    /**
+     * Find a page of customers ordered by id, starting right after the given id.
+     *
+     * @param afterId the id of the last element of the previous page, or null for the first page
+     * @param limit the maximum number of customers to return
+     * @return the page of customers
+     */
+    List<Cliente> findPage(Long afterId, int limit);
+    
     /**
      * Delete a customer by its id.
      *
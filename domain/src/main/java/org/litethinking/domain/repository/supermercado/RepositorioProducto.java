@@ -3,8 +3,10 @@ package org.litethinking.domain.repository.supermercado;
 import org.litethinking.domain.model.supermercado.Producto;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Repository interface for Producto entity.
@@ -34,6 +36,31 @@ public interface RepositorioProducto {
      */
     List<Producto> findAll();
     
+    /**
+     * Find the products with the given ids. Ids without a product are skipped.
+     *
+     * @param ids the ids of the products
+     * @return the products found, in no particular order
+     */
+    List<Producto> findAllById(Collection<Long> ids);
+    
+    /**
+     * Find a page of products ordered by id, starting right after the given id.
+     *
+     * @param afterId the id of the last element of the previous page, or null for the first page
+     * @param limit the maximum number of products to return
+     * @return the page of products
+     */
+    List<Producto> findPage(Long afterId, int limit);
+
+    /**
+     * Walk through all products ordered by id, one at a time,
+     * without loading the whole catalog in memory.
+     *
+     * @param consumer the callback that receives each product
+     */
+    void streamAll(Consumer<Producto> consumer);
+    
     /**
      * Delete a product by its id.
      *
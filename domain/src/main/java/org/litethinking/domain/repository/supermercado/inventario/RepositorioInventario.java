@@ -2,9 +2,11 @@ package org.litethinking.domain.repository.supermercado.inventario;
 
 import org.litethinking.domain.model.supermercado.Producto;
 import org.litethinking.domain.model.supermercado.inventario.Inventario;
+import org.litethinking.domain.model.supermercado.inventario.LineaInventario;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Repository interface for Inventario entity.
@@ -34,6 +36,15 @@ public interface RepositorioInventario {
      */
     List<Inventario> findAll();
     
+    /**
+     * Find a page of inventory records ordered by id, starting right after the given id.
+     *
+     * @param afterId the id of the last element of the previous page, or null for the first page
+     * @param limit the maximum number of inventory records to return
+     * @return the page of inventory records
+     */
+    List<Inventario> findPage(Long afterId, int limit);
+    
     /**
      * Delete an inventory record by its id.
      *
@@ -63,4 +74,34 @@ public interface RepositorioInventario {
      * @return the list of inventory records in the location
      */
     List<Inventario> findByUbicacion(String ubicacion);
-}
\ No newline at end of file
+    
+    /**
+     * Walk through inventory lines joined with their product, ordered by id,
+     * one at a time and without loading them all in memory.
+     *
+     * @param ubicacion only include this location, or all locations if null
+     * @param soloBajoStock only include records at or below their minimum stock
+     * @param consumer the callback that receives each line
+     */
+    void streamLineas(String ubicacion, boolean soloBajoStock, Consumer<LineaInventario> consumer);
+    
+    /**
+     * Atomically take stock of a product from one of its inventory records (one per location),
+     * only if that record has enough of it. The records are tried in id order and the quantity is
+     * never split between them. The check and the decrement happen in one conditional update,
+     * so concurrent callers can never drive a quantity below zero.
+     *
+     * @param productoId the id of the product
+     * @param cantidad the quantity to take, must be positive
+     * @return the id of the inventory record the stock was taken from, or empty if no record had enough
+     */
+    Optional<Long> reserveStock(Long productoId, int cantidad);
+    
+    /**
+     * Give back stock previously taken with reserveStock to the inventory record it came from.
+     *
+     * @param inventarioId the id of the inventory record returned by reserveStock
+     * @param cantidad the quantity to give back, must be positive
+     */
+    void releaseStock(Long inventarioId, int cantidad);
+}
@@ -0,0 +1,63 @@
+package org.litethinking.domain.repository.supermercado.venta;
+
+import org.litethinking.domain.model.supermercado.venta.TotalVentasPorDia;
+import org.litethinking.domain.model.supermercado.venta.TotalVentasPorGrupo;
+import org.litethinking.domain.model.supermercado.venta.Venta;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository interface for the daily sales rollup (day x payment method x category).
+ * It is kept up to date on every sale write, so the totals never need to scan the sales.
+ */
+public interface RepositorioResumenVentas {
+    
+    /**
+     * Add a saved sale to the rollup.
+     *
+     * @param venta the sale, with its date, payment method and items
+     */
+    void registerSale(Venta venta);
+    
+    /**
+     * Take a sale out of the rollup, before it is deleted or changed.
+     *
+     * @param venta the sale as it was registered
+     */
+    void unregisterSale(Venta venta);
+    
+    /**
+     * Add up the sales per day, in date order.
+     *
+     * @param desde the first day, or null for no lower bound
+     * @param hasta the last day (included), or null for no upper bound
+     * @return one row per day with sales
+     */
+    List<TotalVentasPorDia> sumByDia(LocalDate desde, LocalDate hasta);
+    
+    /**
+     * Add up the sales per payment method, highest amount first.
+     *
+     * @param desde the first day, or null for no lower bound
+     * @param hasta the last day (included), or null for no upper bound
+     * @return one row per payment method
+     */
+    List<TotalVentasPorGrupo> sumByMetodoPago(LocalDate desde, LocalDate hasta);
+    
+    /**
+     * Add up the sold items per product category, highest amount first.
+     *
+     * @param desde the first day, or null for no lower bound
+     * @param hasta the last day (included), or null for no upper bound
+     * @return one row per category, with the number of sales that include it
+     */
+    List<TotalVentasPorGrupo> sumByCategoria(LocalDate desde, LocalDate hasta);
+    
+    /**
+     * Throw the rollup away and compute it again from all the sales.
+     *
+     * @return the number of rollup rows
+     */
+    int rebuild();
+}
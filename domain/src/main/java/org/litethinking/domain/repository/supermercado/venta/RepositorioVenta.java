@@ -1,5 +1,7 @@
 package org.litethinking.domain.repository.supermercado.venta;
 
+import org.litethinking.domain.model.supermercado.venta.TotalVentasPorDia;
+import org.litethinking.domain.model.supermercado.venta.TotalVentasPorGrupo;
 import org.litethinking.domain.model.supermercado.venta.Venta;
 
 import java.math.BigDecimal;
@@ -20,6 +22,14 @@ public interface RepositorioVenta {
      */
     Venta save(Venta venta);
     
+    /**
+     * Save several sales at once, so the inserts can be batched.
+     *
+     * @param ventas the sales to save
+     * @return the saved sales, in the same order
+     */
+    List<Venta> saveAll(List<Venta> ventas);
+    
     /**
      * Find a sale by its id.
      *
@@ -28,6 +38,14 @@ public interface RepositorioVenta {
      */
     Optional<Venta> findById(Long id);
     
+    /**
+     * Find a sale by the idempotency key it was created with.
+     *
+     * @param claveIdempotencia the key the client sent with the sale
+     * @return the sale if found, empty otherwise
+     */
+    Optional<Venta> findByIdempotencyKey(String claveIdempotencia);
+    
     /**
      * Find all sales.
      *
@@ -35,6 +53,15 @@ public interface RepositorioVenta {
      */
     List<Venta> findAll();
     
+    /**
+     * Find a page of sales ordered by id, starting right after the given id.
+     *
+     * @param afterId the id of the last element of the previous page, or null for the first page
+     * @param limit the maximum number of sales to return
+     * @return the page of sales
+     */
+    List<Venta> findPage(Long afterId, int limit);
+    
     /**
      * Delete a sale by its id.
      *
@@ -74,4 +101,31 @@ public interface RepositorioVenta {
      * @return the list of sales with the payment method
      */
     List<Venta> findByMetodoPago(String metodoPago);
+    
+    /**
+     * Add up the sales per day, in date order.
+     *
+     * @param desde only sales at or after this moment, or null for no lower bound
+     * @param hasta only sales before this moment, or null for no upper bound
+     * @return one row per day with sales
+     */
+    List<TotalVentasPorDia> sumByDia(LocalDateTime desde, LocalDateTime hasta);
+    
+    /**
+     * Add up the sales per payment method, highest amount first.
+     *
+     * @param desde only sales at or after this moment, or null for no lower bound
+     * @param hasta only sales before this moment, or null for no upper bound
+     * @return one row per payment method
+     */
+    List<TotalVentasPorGrupo> sumByMetodoPago(LocalDateTime desde, LocalDateTime hasta);
+    
+    /**
+     * Add up the sold items per product category, highest amount first.
+     *
+     * @param desde only sales at or after this moment, or null for no lower bound
+     * @param hasta only sales before this moment, or null for no upper bound
+     * @return one row per category, with the number of sales that include it
+     */
+    List<TotalVentasPorGrupo> sumByCategoria(LocalDateTime desde, LocalDateTime hasta);
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import org.litethinking.domain.model.supermercado.Cajero;
 import org.litethinking.domain.repository.supermercado.RepositorioCajero;
 import org.litethinking.infrastructure.persistence.entity.supermercado.EntidadJpaCajero;
 import org.litethinking.infrastructure.persistence.repository.supermercado.RepositorioJpaCajero;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -41,6 +42,14 @@ public class AdaptadorRepositorioCajero implements RepositorioCajero {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<Cajero> findPage(Long afterId, int limit) {
+        Long desdeId = afterId == null ? 0L : afterId;
+        return repositorioJpaCajero.findByIdGreaterThanOrderByIdAsc(desdeId, Limit.of(limit)).stream()
+                .map(this::mapToDomain)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public void deleteById(Long id) {
         repositorioJpaCajero.deleteById(id);
@@ -0,0 +1,80 @@
+package org.litethinking.infrastructure.persistence.adapter.supermercado;
+
+import jakarta.persistence.EntityManager;
+import org.litethinking.domain.model.supermercado.CambioProducto;
+import org.litethinking.domain.repository.supermercado.RepositorioCambioProducto;
+import org.litethinking.infrastructure.persistence.entity.supermercado.EntidadJpaCambioProducto;
+import org.litethinking.infrastructure.persistence.repository.supermercado.RepositorioJpaCambioProducto;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Adapter implementation for RepositorioCambioProducto.
+ */
+@Repository
+public class AdaptadorRepositorioCambioProducto implements RepositorioCambioProducto {
+
+    private final RepositorioJpaCambioProducto repositorioJpaCambioProducto;
+    private final EntityManager entityManager;
+
+    public AdaptadorRepositorioCambioProducto(RepositorioJpaCambioProducto repositorioJpaCambioProducto,
+                                              EntityManager entityManager) {
+        this.repositorioJpaCambioProducto = repositorioJpaCambioProducto;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Runs in the transaction of the product write. The counter row it increments stays locked
+     * until that transaction ends, so versions commit in the order they are handed out and a
+     * rolled back write gives its version back; neither holds across several instances with a
+     * JVM lock or a sequence.
+     */
+    @Override
+    @Transactional
+    public CambioProducto registerChange(Long productoId, boolean eliminado) {
+        repositorioJpaCambioProducto.incrementarVersion();
+        EntidadJpaCambioProducto cambio = EntidadJpaCambioProducto.builder()
+                .version(repositorioJpaCambioProducto.leerVersion())
+                .productoId(productoId)
+                .eliminado(eliminado)
+                .fecha(LocalDateTime.now())
+                .build();
+        // persist instead of save: the key is assigned, so save would merge (one SELECT first)
+        entityManager.persist(cambio);
+        return mapToDomain(cambio);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CambioProducto> findLatestAfter(long version, int limit) {
+        return repositorioJpaCambioProducto.buscarUltimosDespuesDe(version, PageRequest.of(0, limit)).stream()
+                .map(this::mapToDomain)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long findLastVersion() {
+        return repositorioJpaCambioProducto.buscarUltimaVersion();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String findEpoch() {
+        return repositorioJpaCambioProducto.leerEpoca();
+    }
+
+    private CambioProducto mapToDomain(EntidadJpaCambioProducto entidad) {
+        return CambioProducto.builder()
+                .version(entidad.getVersion())
+                .productoId(entidad.getProductoId())
+                .eliminado(entidad.isEliminado())
+                .fecha(entidad.getFecha())
+                .build();
+    }
+}
@@ -4,6 +4,7 @@ import org.litethinking.domain.model.supermercado.Cliente;
 import org.litethinking.domain.repository.supermercado.RepositorioCliente;
 import org.litethinking.infrastructure.persistence.entity.supermercado.EntidadJpaCliente;
 import org.litethinking.infrastructure.persistence.repository.supermercado.RepositorioJpaCliente;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -41,6 +42,14 @@ public class AdaptadorRepositorioCliente implements RepositorioCliente {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<Cliente> findPage(Long afterId, int limit) {
+        Long desdeId = afterId == null ? 0L : afterId;
+        return repositorioJpaCliente.findByIdGreaterThanOrderByIdAsc(desdeId, Limit.of(limit)).stream()
+                .map(this::mapToDomain)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public void deleteById(Long id) {
         repositorioJpaCliente.deleteById(id);
@@ -1,15 +1,21 @@
 package org.litethinking.infrastructure.persistence.adapter.supermercado;
 
+import jakarta.persistence.EntityManager;
 import org.litethinking.domain.model.supermercado.Producto;
 import org.litethinking.domain.repository.supermercado.RepositorioProducto;
 import org.litethinking.infrastructure.persistence.entity.supermercado.EntidadJpaProducto;
 import org.litethinking.infrastructure.persistence.repository.supermercado.RepositorioJpaProducto;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Adapter implementation for RepositorioProducto.
@@ -18,9 +24,12 @@ import java.util.stream.Collectors;
 public class AdaptadorRepositorioProducto implements RepositorioProducto {
 
     private final RepositorioJpaProducto repositorioJpaProducto;
+    private final EntityManager entityManager;
 
-    public AdaptadorRepositorioProducto(RepositorioJpaProducto repositorioJpaProducto) {
+    public AdaptadorRepositorioProducto(RepositorioJpaProducto repositorioJpaProducto,
+                                        EntityManager entityManager) {
         this.repositorioJpaProducto = repositorioJpaProducto;
+        this.entityManager = entityManager;
     }
 
     @Override
@@ -42,6 +51,33 @@ public class AdaptadorRepositorioProducto implements RepositorioProducto {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<Producto> findAllById(Collection<Long> ids) {
+        return repositorioJpaProducto.findAllById(ids).stream()
+                .map(this::mapToDomain)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Producto> findPage(Long afterId, int limit) {
+        Long desdeId = afterId == null ? 0L : afterId;
+        return repositorioJpaProducto.findByIdGreaterThanOrderByIdAsc(desdeId, Limit.of(limit)).stream()
+                .map(this::mapToDomain)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<Producto> consumer) {
+        try (Stream<EntidadJpaProducto> entidades = repositorioJpaProducto.streamAll()) {
+            entidades.forEach(entidad -> {
+                consumer.accept(mapToDomain(entidad));
+                // Detach each row so the persistence context does not grow with the catalog
+                entityManager.detach(entidad);
+            });
+        }
+    }
+
     @Override
     public void deleteById(Long id) {
         repositorioJpaProducto.deleteById(id);
@@ -0,0 +1,202 @@
+package org.litethinking.infrastructure.persistence.adapter.supermercado;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.litethinking.application.service.supermercado.EventoProductoModificado;
+import org.litethinking.domain.model.supermercado.Producto;
+import org.litethinking.domain.repository.supermercado.RepositorioProducto;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Read-through cache in front of AdaptadorRepositorioProducto for the checkout lane lookups
+ * (by id and by barcode). Products are kept in a bounded LRU map by id; the barcode index
+ * only maps codigoBarras to id, so there is a single copy of each product to invalidate.
+ * Everything else (lists, pages, streaming) goes straight to the database.
+ * A write evicts the product when it is made and again once its transaction commits: until then
+ * other threads still read the old row from the database, and may put it back in the cache.
+ */
+@Repository
+@Primary
+@ConditionalOnProperty(name = "app.cache.productos.habilitada", havingValue = "true", matchIfMissing = true)
+public class AdaptadorRepositorioProductoEnCache implements RepositorioProducto {
+
+    private static final Logger logger = LogManager.getLogger(AdaptadorRepositorioProductoEnCache.class);
+
+    private final RepositorioProducto delegado;
+    private final CacheLru<Long, Producto> porId;
+    private final CacheLru<String, Long> porCodigoBarras;
+    // Bumped on every write and commit, so a read that raced with one does not cache the old row
+    private final AtomicLong generacion = new AtomicLong();
+    // Makes the generation check and the put of a read atomic with the bump and removes of a write
+    private final Object cambios = new Object();
+
+    public AdaptadorRepositorioProductoEnCache(
+            @Qualifier("adaptadorRepositorioProducto") RepositorioProducto delegado,
+            @Value("${app.cache.productos.tamanio-maximo:10000}") int tamanioMaximo) {
+        this.delegado = delegado;
+        this.porId = new CacheLru<>(tamanioMaximo);
+        this.porCodigoBarras = new CacheLru<>(tamanioMaximo);
+        logger.info("Product cache enabled with up to {} products", tamanioMaximo);
+    }
+
+    @Override
+    public Producto save(Producto producto) {
+        invalidar(producto.getId(), producto.getCodigoBarras());
+        Producto guardado = delegado.save(producto);
+        invalidar(guardado.getId(), guardado.getCodigoBarras());
+        return guardado;
+    }
+
+    @Override
+    public Optional<Producto> findById(Long id) {
+        Producto enCache = porId.get(id);
+        if (enCache != null) {
+            return Optional.of(copiar(enCache));
+        }
+        long generacionLeida = generacion.get();
+        Optional<Producto> producto = delegado.findById(id);
+        producto.ifPresent(p -> guardarEnCache(p, generacionLeida));
+        return producto;
+    }
+
+    @Override
+    public Optional<Producto> findByCodigoBarras(String codigoBarras) {
+        Long id = porCodigoBarras.get(codigoBarras);
+        if (id != null) {
+            Producto enCache = porId.get(id);
+            // The index can point to a product that was evicted or whose barcode changed
+            if (enCache != null && codigoBarras.equals(enCache.getCodigoBarras())) {
+                return Optional.of(copiar(enCache));
+            }
+        }
+        long generacionLeida = generacion.get();
+        Optional<Producto> producto = delegado.findByCodigoBarras(codigoBarras);
+        producto.ifPresent(p -> guardarEnCache(p, generacionLeida));
+        return producto;
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        invalidar(id, null);
+        delegado.deleteById(id);
+        invalidar(id, null);
+    }
+
+    /**
+     * Evicts the product again after the commit of the write. A read that ran between the write
+     * and the commit got the old row and may have cached it; the bump also stops a read still in
+     * flight from caching it. The barcode index needs no eviction: a lookup checks the barcode of
+     * the product it points to.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void productoModificado(EventoProductoModificado evento) {
+        invalidar(evento.productoId(), null);
+    }
+
+    @Override
+    public List<Producto> findAll() {
+        return delegado.findAll();
+    }
+
+    @Override
+    public List<Producto> findAllById(Collection<Long> ids) {
+        return delegado.findAllById(ids);
+    }
+
+    @Override
+    public List<Producto> findPage(Long afterId, int limit) {
+        return delegado.findPage(afterId, limit);
+    }
+
+    @Override
+    public void streamAll(Consumer<Producto> consumer) {
+        delegado.streamAll(consumer);
+    }
+
+    @Override
+    public List<Producto> findByCategoria(String categoria) {
+        return delegado.findByCategoria(categoria);
+    }
+
+    @Override
+    public List<Producto> findByPrecioBetween(BigDecimal precioMinimo, BigDecimal precioMaximo) {
+        return delegado.findByPrecioBetween(precioMinimo, precioMaximo);
+    }
+
+    /**
+     * Hit/miss/eviction counters of both maps, to tune app.cache.productos.tamanio-maximo.
+     */
+    public EstadisticasCache estadisticas() {
+        return new EstadisticasCache(
+                porId.aciertos(), porId.fallos(), porId.desalojos(), porId.size(),
+                porCodigoBarras.aciertos(), porCodigoBarras.fallos(), porCodigoBarras.desalojos(),
+                porCodigoBarras.size());
+    }
+
+    private void guardarEnCache(Producto producto, long generacionLeida) {
+        if (producto.getId() == null) {
+            return;
+        }
+        Producto copia = copiar(producto);
+        synchronized (cambios) {
+            if (generacion.get() != generacionLeida) {
+                return;
+            }
+            porId.put(copia.getId(), copia);
+            if (copia.getCodigoBarras() != null) {
+                porCodigoBarras.put(copia.getCodigoBarras(), copia.getId());
+            }
+        }
+    }
+
+    private void invalidar(Long id, String codigoBarras) {
+        synchronized (cambios) {
+            generacion.incrementAndGet();
+            if (id != null) {
+                porId.remove(id);
+            }
+            if (codigoBarras != null) {
+                porCodigoBarras.remove(codigoBarras);
+            }
+        }
+    }
+
+    // Producto is mutable, so callers never get the cached instance itself
+    private Producto copiar(Producto producto) {
+        return Producto.builder()
+                .id(producto.getId())
+                .nombre(producto.getNombre())
+                .descripcion(producto.getDescripcion())
+                .precio(producto.getPrecio())
+                .categoria(producto.getCategoria())
+                .codigoBarras(producto.getCodigoBarras())
+                .build();
+    }
+
+    /**
+     * Snapshot of the cache counters.
+     */
+    public record EstadisticasCache(
+            long aciertosPorId,
+            long fallosPorId,
+            long desalojosPorId,
+            int productosEnCache,
+            long aciertosPorCodigoBarras,
+            long fallosPorCodigoBarras,
+            long desalojosPorCodigoBarras,
+            int codigosBarrasEnCache
+    ) {
+    }
+}
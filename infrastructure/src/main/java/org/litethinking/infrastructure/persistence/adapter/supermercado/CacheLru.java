@@ -0,0 +1,80 @@
+package org.litethinking.infrastructure.persistence.adapter.supermercado;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Small bounded map that evicts the least recently used entry once it is full,
+ * and counts hits, misses and evictions so its size can be tuned.
+ */
+class CacheLru<K, V> {
+
+    private final LinkedHashMap<K, V> entradas;
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder desalojos = new LongAdder();
+
+    CacheLru(int tamanioMaximo) {
+        if (tamanioMaximo <= 0) {
+            throw new IllegalArgumentException("El tamaño máximo de la caché debe ser positivo: " + tamanioMaximo);
+        }
+        // Access order: every get moves the entry to the end, so the eldest is the least recently used
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if (size() > tamanioMaximo) {
+                    desalojos.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @return the cached value, or null on a miss
+     */
+    V get(K clave) {
+        V valor;
+        synchronized (entradas) {
+            valor = entradas.get(clave);
+        }
+        if (valor != null) {
+            aciertos.increment();
+        } else {
+            fallos.increment();
+        }
+        return valor;
+    }
+
+    void put(K clave, V valor) {
+        synchronized (entradas) {
+            entradas.put(clave, valor);
+        }
+    }
+
+    void remove(K clave) {
+        synchronized (entradas) {
+            entradas.remove(clave);
+        }
+    }
+
+    int size() {
+        synchronized (entradas) {
+            return entradas.size();
+        }
+    }
+
+    long aciertos() {
+        return aciertos.sum();
+    }
+
+    long fallos() {
+        return fallos.sum();
+    }
+
+    long desalojos() {
+        return desalojos.sum();
+    }
+}
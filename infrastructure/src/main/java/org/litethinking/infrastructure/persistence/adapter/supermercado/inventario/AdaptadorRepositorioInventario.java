@@ -2,15 +2,20 @@ package org.litethinking.infrastructure.persistence.adapter.supermercado.inventa
 
 import org.litethinking.domain.model.supermercado.Producto;
 import org.litethinking.domain.model.supermercado.inventario.Inventario;
+import org.litethinking.domain.model.supermercado.inventario.LineaInventario;
 import org.litethinking.domain.repository.supermercado.inventario.RepositorioInventario;
 import org.litethinking.infrastructure.persistence.entity.supermercado.EntidadJpaProducto;
 import org.litethinking.infrastructure.persistence.entity.supermercado.inventario.EntidadJpaInventario;
 import org.litethinking.infrastructure.persistence.repository.supermercado.inventario.RepositorioJpaInventario;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Adapter implementation for RepositorioInventario.
@@ -43,6 +48,14 @@ public class AdaptadorRepositorioInventario implements RepositorioInventario {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<Inventario> findPage(Long afterId, int limit) {
+        Long desdeId = afterId == null ? 0L : afterId;
+        return repositorioJpaInventario.findByIdGreaterThanOrderByIdAsc(desdeId, Limit.of(limit)).stream()
+                .map(this::mapToDomain)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public void deleteById(Long id) {
         repositorioJpaInventario.deleteById(id);
@@ -68,6 +81,33 @@ public class AdaptadorRepositorioInventario implements RepositorioInventario {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional
+    public Optional<Long> reserveStock(Long productoId, int cantidad) {
+        // Another sale can take the stock of a record between the read and the update;
+        // the update then changes nothing and the next record is tried
+        for (Long inventarioId : repositorioJpaInventario.buscarIdsConStock(productoId, cantidad)) {
+            if (repositorioJpaInventario.reservarStock(inventarioId, cantidad) == 1) {
+                return Optional.of(inventarioId);
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    @Transactional
+    public void releaseStock(Long inventarioId, int cantidad) {
+        repositorioJpaInventario.liberarStock(inventarioId, cantidad);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamLineas(String ubicacion, boolean soloBajoStock, Consumer<LineaInventario> consumer) {
+        try (Stream<LineaInventario> lineas = repositorioJpaInventario.streamLineas(ubicacion, soloBajoStock)) {
+            lineas.forEach(consumer);
+        }
+    }
+
     private Inventario mapToDomain(EntidadJpaInventario entidadJpaInventario) {
         return Inventario.builder()
                 .id(entidadJpaInventario.getId())
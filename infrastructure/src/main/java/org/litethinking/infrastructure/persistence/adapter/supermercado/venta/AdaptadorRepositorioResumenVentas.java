@@ -0,0 +1,147 @@
+package org.litethinking.infrastructure.persistence.adapter.supermercado.venta;
+
+import jakarta.persistence.EntityManager;
+import org.litethinking.domain.model.supermercado.venta.TotalVentasPorDia;
+import org.litethinking.domain.model.supermercado.venta.TotalVentasPorGrupo;
+import org.litethinking.domain.model.supermercado.venta.Venta;
+import org.litethinking.domain.repository.supermercado.venta.RepositorioResumenVentas;
+import org.litethinking.infrastructure.persistence.entity.supermercado.venta.EntidadJpaResumenVentaDiaria;
+import org.litethinking.infrastructure.persistence.repository.supermercado.venta.RepositorioJpaResumenVentaDiaria;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Adapter implementation for RepositorioResumenVentas.
+ * Every sale touches one row with its whole total plus one row per category of its items,
+ * all in the partition of its id.
+ */
+@Repository
+public class AdaptadorRepositorioResumenVentas implements RepositorioResumenVentas {
+
+    private static final int FILAS_POR_FLUSH = 500;
+
+    private final RepositorioJpaResumenVentaDiaria repositorioJpaResumenVentaDiaria;
+    private final EntityManager entityManager;
+
+    public AdaptadorRepositorioResumenVentas(RepositorioJpaResumenVentaDiaria repositorioJpaResumenVentaDiaria,
+                                            EntityManager entityManager) {
+        this.repositorioJpaResumenVentaDiaria = repositorioJpaResumenVentaDiaria;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional
+    public void registerSale(Venta venta) {
+        if (venta == null || venta.getId() == null) {
+            return;
+        }
+        repositorioJpaResumenVentaDiaria.fijarCategorias(venta.getId());
+        acumular(venta, 1);
+    }
+
+    @Override
+    @Transactional
+    public void unregisterSale(Venta venta) {
+        if (venta == null || venta.getId() == null) {
+            return;
+        }
+        acumular(venta, -1);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TotalVentasPorDia> sumByDia(LocalDate desde, LocalDate hasta) {
+        return repositorioJpaResumenVentaDiaria.sumarPorDia(desde, hasta);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TotalVentasPorGrupo> sumByMetodoPago(LocalDate desde, LocalDate hasta) {
+        return repositorioJpaResumenVentaDiaria.sumarPorMetodoPago(desde, hasta);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TotalVentasPorGrupo> sumByCategoria(LocalDate desde, LocalDate hasta) {
+        return repositorioJpaResumenVentaDiaria.sumarPorCategoria(desde, hasta);
+    }
+
+    @Override
+    @Transactional
+    public int rebuild() {
+        // The bulk delete and the clear below would otherwise drop sales still pending in the session
+        entityManager.flush();
+        repositorioJpaResumenVentaDiaria.deleteAllInBatch();
+        entityManager.clear();
+
+        List<EntidadJpaResumenVentaDiaria> filas = new ArrayList<>(repositorioJpaResumenVentaDiaria.calcularTotalesDesdeVentas());
+        filas.addAll(repositorioJpaResumenVentaDiaria.calcularCategoriasDesdeVentas());
+        // persist instead of saveAll: the key is assigned, so saveAll would merge (one SELECT per row)
+        for (int i = 0; i < filas.size(); i++) {
+            EntidadJpaResumenVentaDiaria fila = filas.get(i);
+            if (fila.getMontoTotal() == null) {
+                fila.setMontoTotal(BigDecimal.ZERO);
+            }
+            entityManager.persist(fila);
+            if ((i + 1) % FILAS_POR_FLUSH == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return filas.size();
+    }
+
+    private void acumular(Venta venta, int signo) {
+        if (venta.getFechaVenta() == null) {
+            return;
+        }
+        LocalDate fecha = venta.getFechaVenta().toLocalDate();
+        String metodoPago = venta.getMetodoPago() != null
+                ? venta.getMetodoPago()
+                : EntidadJpaResumenVentaDiaria.METODO_DESCONOCIDO;
+        int particion = (int) Math.floorMod(venta.getId(), (long) EntidadJpaResumenVentaDiaria.PARTICIONES);
+        BigDecimal montoTotal = venta.getMontoTotal() != null ? venta.getMontoTotal() : BigDecimal.ZERO;
+        List<String> categorias = new ArrayList<>();
+        categorias.add(EntidadJpaResumenVentaDiaria.TODAS);
+        repositorioJpaResumenVentaDiaria.acumular(fecha, metodoPago, EntidadJpaResumenVentaDiaria.TODAS,
+                particion, signo, conSigno(montoTotal, signo));
+
+        subtotalesPorCategoria(venta.getId()).forEach((categoria, subtotal) -> {
+            categorias.add(categoria);
+            repositorioJpaResumenVentaDiaria.acumular(fecha, metodoPago, categoria, particion,
+                    signo, conSigno(subtotal, signo));
+        });
+
+        if (signo < 0) {
+            // Only the rows the sale was just taken out of can have been left empty
+            categorias.forEach(categoria ->
+                    repositorioJpaResumenVentaDiaria.eliminarSiVacia(fecha, metodoPago, categoria, particion));
+        }
+    }
+
+    /**
+     * Adds up the item subtotals of the sale per the category stored on its lines, so a sale
+     * leaves the rollup from the same rows it entered even if a product changed category since.
+     */
+    private Map<String, BigDecimal> subtotalesPorCategoria(Long ventaId) {
+        // Category order: rows are always updated in the same order, so two sales never lock them crosswise
+        Map<String, BigDecimal> subtotales = new LinkedHashMap<>();
+        for (Object[] fila : repositorioJpaResumenVentaDiaria.sumarSubtotalesPorCategoria(ventaId)) {
+            subtotales.put((String) fila[0], fila[1] != null ? (BigDecimal) fila[1] : BigDecimal.ZERO);
+        }
+        return subtotales;
+    }
+
+    private BigDecimal conSigno(BigDecimal monto, int signo) {
+        return signo < 0 ? monto.negate() : monto;
+    }
+}
@@ -2,13 +2,17 @@ package org.litethinking.infrastructure.persistence.adapter.supermercado.venta;
 
 import org.litethinking.domain.model.supermercado.Producto;
 import org.litethinking.domain.model.supermercado.venta.ItemVenta;
+import org.litethinking.domain.model.supermercado.venta.TotalVentasPorDia;
+import org.litethinking.domain.model.supermercado.venta.TotalVentasPorGrupo;
 import org.litethinking.domain.model.supermercado.venta.Venta;
 import org.litethinking.domain.repository.supermercado.venta.RepositorioVenta;
 import org.litethinking.infrastructure.persistence.entity.supermercado.EntidadJpaProducto;
 import org.litethinking.infrastructure.persistence.entity.supermercado.venta.EntidadJpaItemVenta;
 import org.litethinking.infrastructure.persistence.entity.supermercado.venta.EntidadJpaVenta;
 import org.litethinking.infrastructure.persistence.repository.supermercado.venta.RepositorioJpaVenta;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -22,6 +26,11 @@ import java.util.stream.Collectors;
 @Repository
 public class AdaptadorRepositorioVenta implements RepositorioVenta {
 
+    // Open date bounds are sent as these instead of null, so the totals queries can range-scan
+    // the fecha_venta index instead of testing (:desde IS NULL OR ...) on every row
+    private static final LocalDateTime SIN_LIMITE_INFERIOR = LocalDateTime.of(1, 1, 1, 0, 0);
+    private static final LocalDateTime SIN_LIMITE_SUPERIOR = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
     private final RepositorioJpaVenta repositorioJpaVenta;
 
     public AdaptadorRepositorioVenta(RepositorioJpaVenta repositorioJpaVenta) {
@@ -29,6 +38,7 @@ public class AdaptadorRepositorioVenta implements RepositorioVenta {
     }
 
     @Override
+    @Transactional
     public Venta save(Venta venta) {
         EntidadJpaVenta entidadJpaVenta = mapToEntity(venta);
         EntidadJpaVenta savedEntity = repositorioJpaVenta.save(entidadJpaVenta);
@@ -36,23 +46,52 @@ public class AdaptadorRepositorioVenta implements RepositorioVenta {
     }
 
     @Override
+    @Transactional
+    public List<Venta> saveAll(List<Venta> ventas) {
+        List<EntidadJpaVenta> entidades = ventas.stream()
+                .map(this::mapToEntity)
+                .collect(Collectors.toList());
+        return repositorioJpaVenta.saveAll(entidades).stream()
+                .map(this::mapToDomain)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Optional<Venta> findById(Long id) {
         return repositorioJpaVenta.findById(id).map(this::mapToDomain);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Optional<Venta> findByIdempotencyKey(String claveIdempotencia) {
+        return repositorioJpaVenta.findByClaveIdempotencia(claveIdempotencia).map(this::mapToDomain);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<Venta> findAll() {
         return repositorioJpaVenta.findAll().stream()
                 .map(this::mapToDomain)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Venta> findPage(Long afterId, int limit) {
+        Long desdeId = afterId == null ? 0L : afterId;
+        return repositorioJpaVenta.findByIdGreaterThanOrderByIdAsc(desdeId, Limit.of(limit)).stream()
+                .map(this::mapToDomain)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public void deleteById(Long id) {
         repositorioJpaVenta.deleteById(id);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Venta> findByFechaVentaBetween(LocalDateTime fechaInicio, LocalDateTime fechaFin) {
         return repositorioJpaVenta.findByFechaVentaBetween(fechaInicio, fechaFin).stream()
                 .map(this::mapToDomain)
@@ -60,6 +99,7 @@ public class AdaptadorRepositorioVenta implements RepositorioVenta {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Venta> findByNombreCliente(String nombreCliente) {
         return repositorioJpaVenta.findByNombreCliente(nombreCliente).stream()
                 .map(this::mapToDomain)
@@ -67,6 +107,7 @@ public class AdaptadorRepositorioVenta implements RepositorioVenta {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Venta> findByMontoTotalGreaterThan(BigDecimal montoMinimo) {
         return repositorioJpaVenta.findByMontoTotalGreaterThan(montoMinimo).stream()
                 .map(this::mapToDomain)
@@ -74,12 +115,39 @@ public class AdaptadorRepositorioVenta implements RepositorioVenta {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Venta> findByMetodoPago(String metodoPago) {
         return repositorioJpaVenta.findByMetodoPago(metodoPago).stream()
                 .map(this::mapToDomain)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<TotalVentasPorDia> sumByDia(LocalDateTime desde, LocalDateTime hasta) {
+        return repositorioJpaVenta.sumarPorDia(limiteInferior(desde), limiteSuperior(hasta));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TotalVentasPorGrupo> sumByMetodoPago(LocalDateTime desde, LocalDateTime hasta) {
+        return repositorioJpaVenta.sumarPorMetodoPago(limiteInferior(desde), limiteSuperior(hasta));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TotalVentasPorGrupo> sumByCategoria(LocalDateTime desde, LocalDateTime hasta) {
+        return repositorioJpaVenta.sumarPorCategoria(limiteInferior(desde), limiteSuperior(hasta));
+    }
+
+    private static LocalDateTime limiteInferior(LocalDateTime desde) {
+        return desde == null ? SIN_LIMITE_INFERIOR : desde;
+    }
+
+    private static LocalDateTime limiteSuperior(LocalDateTime hasta) {
+        return hasta == null ? SIN_LIMITE_SUPERIOR : hasta;
+    }
+
     private Venta mapToDomain(EntidadJpaVenta entidadJpaVenta) {
         List<ItemVenta> items = entidadJpaVenta.getItems().stream()
                 .map(this::mapItemToDomain)
@@ -92,6 +160,7 @@ public class AdaptadorRepositorioVenta implements RepositorioVenta {
                 .items(items)
                 .montoTotal(entidadJpaVenta.getMontoTotal())
                 .metodoPago(entidadJpaVenta.getMetodoPago())
+                .claveIdempotencia(entidadJpaVenta.getClaveIdempotencia())
                 .build();
     }
 
@@ -102,6 +171,7 @@ public class AdaptadorRepositorioVenta implements RepositorioVenta {
                 .nombreCliente(venta.getNombreCliente())
                 .montoTotal(venta.getMontoTotal())
                 .metodoPago(venta.getMetodoPago())
+                .claveIdempotencia(venta.getClaveIdempotencia())
                 .build();
         
         if (venta.getItems() != null) {
@@ -0,0 +1,197 @@
+package org.litethinking.infrastructure.persistence.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.litethinking.application.service.transaccion.PoolLectura;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.Map;
+
+/**
+ * HikariCP pools of the application, tuned from app.datasource.* instead of the Hikari defaults:
+ * sized from the cores unless a size is given, fixed size, with leak detection and the driver's
+ * statement cache. With the actuator on the classpath Spring Boot publishes its hikaricp.* metrics
+ * (wait for a connection, time held, active, idle, pending), tagged with the pool name.
+ * There are two pools: lectura serves the read-only transactions of the methods marked with
+ * {@link PoolLectura} (reports, exports, full listings), so a long report cannot take the connections
+ * the checkout needs; escritura serves everything else, including the read-only transactions
+ * Spring Data opens on its own for the checkout lookups.
+ */
+@Configuration
+public class ConfiguracionPoolConexiones {
+
+    private static final Logger logger = LogManager.getLogger(ConfiguracionPoolConexiones.class);
+
+    public static final String POOL_ESCRITURA = "escritura";
+    public static final String POOL_LECTURA = "lectura";
+
+    /**
+     * The pool of the write path. It is built unstarted from DataSourceProperties, so Spring Boot can
+     * still attach its Micrometer metrics tracker before the first connection opens the pool.
+     *
+     * @param tamanioMaximo         connections in the pool; 0 derives it from the cores
+     * @param conexionesPorNucleo   connections per core when the size is derived
+     * @param conexionesAdicionales connections added to the derived size
+     * @param esperaConexionMs      time to wait for a free connection before failing
+     * @param deteccionFugasMs      a connection held longer than this is logged with the stack that took it; 0 turns it off
+     * @param cacheSentencias       statements cached per connection by the driver (H2 only)
+     */
+    @Bean
+    public HikariDataSource poolEscritura(DataSourceProperties propiedades,
+                                          @Value("${app.datasource.escritura.tamanio-maximo:0}") int tamanioMaximo,
+                                          @Value("${app.datasource.escritura.conexiones-por-nucleo:2}") int conexionesPorNucleo,
+                                          @Value("${app.datasource.escritura.conexiones-adicionales:1}") int conexionesAdicionales,
+                                          @Value("${app.datasource.escritura.espera-conexion-ms:5000}") long esperaConexionMs,
+                                          @Value("${app.datasource.escritura.deteccion-fugas-ms:0}") long deteccionFugasMs,
+                                          @Value("${app.datasource.escritura.cache-sentencias:64}") int cacheSentencias) {
+        return crearPool(POOL_ESCRITURA, propiedades,
+                tamanioPool(tamanioMaximo, Runtime.getRuntime().availableProcessors(),
+                        conexionesPorNucleo, conexionesAdicionales),
+                esperaConexionMs, deteccionFugasMs, cacheSentencias);
+    }
+
+    /**
+     * The pool of the read path. It uses the database of spring.datasource.url unless
+     * app.datasource.lectura.url points it to a replica, with the same user and password.
+     * The parameters mean the same as in {@link #poolEscritura}.
+     */
+    @Bean
+    public HikariDataSource poolLectura(DataSourceProperties propiedades,
+                                        @Value("${app.datasource.lectura.url:}") String url,
+                                        @Value("${app.datasource.lectura.tamanio-maximo:0}") int tamanioMaximo,
+                                        @Value("${app.datasource.lectura.conexiones-por-nucleo:1}") int conexionesPorNucleo,
+                                        @Value("${app.datasource.lectura.conexiones-adicionales:0}") int conexionesAdicionales,
+                                        @Value("${app.datasource.lectura.espera-conexion-ms:30000}") long esperaConexionMs,
+                                        @Value("${app.datasource.lectura.deteccion-fugas-ms:0}") long deteccionFugasMs,
+                                        @Value("${app.datasource.lectura.cache-sentencias:64}") int cacheSentencias) {
+        HikariDataSource pool = crearPool(POOL_LECTURA, propiedades,
+                tamanioPool(tamanioMaximo, Runtime.getRuntime().availableProcessors(),
+                        conexionesPorNucleo, conexionesAdicionales),
+                esperaConexionMs, deteccionFugasMs, cacheSentencias);
+        if (!url.isBlank()) {
+            pool.setJdbcUrl(url);
+        }
+        pool.setReadOnly(true);
+        return pool;
+    }
+
+    // Set while a method marked with @PoolLectura runs on this thread
+    private static final ThreadLocal<Boolean> EN_POOL_LECTURA = new ThreadLocal<>();
+
+    /**
+     * Runs the methods marked with {@link PoolLectura} with the read pool selected on their thread.
+     * It wraps their transaction, so the mark is in place before the first statement takes a connection.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor asesorPoolLectura() {
+        DefaultPointcutAdvisor asesor = new DefaultPointcutAdvisor(
+                AnnotationMatchingPointcut.forMethodAnnotation(PoolLectura.class),
+                (MethodInterceptor) invocacion -> enPoolLectura(invocacion::proceed));
+        asesor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return asesor;
+    }
+
+    /**
+     * The DataSource JPA, Flyway and JdbcTemplate use. It only takes a connection on the first statement,
+     * once the transaction is known to be read-only or not. Read-only transactions of a {@link PoolLectura}
+     * method take it from the read pool, every other one from the write pool.
+     *
+     * @param separarLecturas false sends every transaction to the write pool, as with a single pool
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("poolEscritura") HikariDataSource poolEscritura,
+                                 @Qualifier("poolLectura") HikariDataSource poolLectura,
+                                 @Value("${app.datasource.lectura.habilitada:true}") boolean separarLecturas) {
+        return enrutador(poolEscritura, separarLecturas ? poolLectura : null);
+    }
+
+    static LazyConnectionDataSourceProxy enrutador(DataSource escritura, DataSource lectura) {
+        LazyConnectionDataSourceProxy enrutador = new LazyConnectionDataSourceProxy(escritura);
+        if (lectura != null) {
+            // Only asked for the connections of read-only transactions
+            AbstractRoutingDataSource soloLectura = new AbstractRoutingDataSource() {
+                @Override
+                protected Object determineCurrentLookupKey() {
+                    return EN_POOL_LECTURA.get() != null ? POOL_LECTURA : POOL_ESCRITURA;
+                }
+            };
+            soloLectura.setTargetDataSources(Map.of(POOL_ESCRITURA, escritura, POOL_LECTURA, lectura));
+            soloLectura.setDefaultTargetDataSource(escritura);
+            soloLectura.afterPropertiesSet();
+            enrutador.setReadOnlyDataSource(soloLectura);
+        }
+        // Given here, so the proxy does not open a connection at startup to find them out
+        enrutador.setDefaultAutoCommit(true);
+        enrutador.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return enrutador;
+    }
+
+    /**
+     * Runs the call with the read pool selected for the read-only transactions it starts on this thread.
+     */
+    static Object enPoolLectura(LlamadaPoolLectura llamada) throws Throwable {
+        boolean yaSeleccionado = EN_POOL_LECTURA.get() != null;
+        EN_POOL_LECTURA.set(Boolean.TRUE);
+        try {
+            return llamada.ejecutar();
+        } finally {
+            if (!yaSeleccionado) {
+                EN_POOL_LECTURA.remove();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface LlamadaPoolLectura {
+        Object ejecutar() throws Throwable;
+    }
+
+    static HikariDataSource crearPool(String nombre, DataSourceProperties propiedades, int tamanio,
+                                      long esperaConexionMs, long deteccionFugasMs, int cacheSentencias) {
+        HikariDataSource pool = propiedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName(nombre);
+        // Fixed size: no connection is opened under load, when it costs the most
+        pool.setMaximumPoolSize(tamanio);
+        pool.setMinimumIdle(tamanio);
+        pool.setConnectionTimeout(esperaConexionMs);
+        pool.setLeakDetectionThreshold(deteccionFugasMs);
+        if (pool.getJdbcUrl() != null && pool.getJdbcUrl().startsWith("jdbc:h2:")) {
+            // H2 reads its settings from the connection properties; other drivers name their statement cache differently
+            pool.addDataSourceProperty("QUERY_CACHE_SIZE", String.valueOf(cacheSentencias));
+        }
+        logger.info("Connection pool {}: {} connections, {} ms wait, leak detection at {} ms",
+                nombre, tamanio, esperaConexionMs, deteccionFugasMs);
+        return pool;
+    }
+
+    /**
+     * The configured size, or cores * connections per core + additional connections.
+     * A connection only works while a core runs its query: more than a few per core just queue
+     * inside the database instead of in the pool, where the wait is measured.
+     */
+    static int tamanioPool(int tamanioMaximo, int nucleos, int conexionesPorNucleo, int conexionesAdicionales) {
+        if (tamanioMaximo > 0) {
+            return tamanioMaximo;
+        }
+        return Math.max(1, nucleos * conexionesPorNucleo + conexionesAdicionales);
+    }
+}
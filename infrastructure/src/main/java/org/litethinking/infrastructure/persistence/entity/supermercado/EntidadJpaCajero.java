@@ -10,15 +10,17 @@ import lombok.NoArgsConstructor;
  * JPA entity for Cajero.
  */
 @Entity
-@Table(name = "cajeros")
+@Table(name = "cajeros", indexes = @Index(name = "idx_cajeros_turno", columnList = "turno"))
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class EntidadJpaCajero {
     
+    // Pooled sequence instead of IDENTITY so the bulk seed import can batch the inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cajeros_seq")
+    @SequenceGenerator(name = "cajeros_seq", sequenceName = "cajeros_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -0,0 +1,36 @@
+package org.litethinking.infrastructure.persistence.entity.supermercado;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * JPA entity for the product change log: one row per product write, keyed by its version.
+ * There is no foreign key to productos, the row of a deleted product is the tombstone.
+ */
+@Entity
+@Table(name = "cambios_productos",
+        indexes = @Index(name = "idx_cambios_productos_producto_version", columnList = "producto_id, version"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntidadJpaCambioProducto {
+
+    // Assigned from the contador_cambios_productos row, not generated: versions must commit in order
+    @Id
+    private Long version;
+
+    @Column(name = "producto_id", nullable = false)
+    private Long productoId;
+
+    @Column(nullable = false)
+    private boolean eliminado;
+
+    @Column(nullable = false)
+    private LocalDateTime fecha;
+}
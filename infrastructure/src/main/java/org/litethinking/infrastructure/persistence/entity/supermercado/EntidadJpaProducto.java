@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 import java.math.BigDecimal;
 
@@ -12,15 +13,21 @@ import java.math.BigDecimal;
  * JPA entity for Producto.
  */
 @Entity
-@Table(name = "productos")
+@Table(name = "productos", indexes = {
+        @Index(name = "idx_productos_categoria", columnList = "categoria"),
+        @Index(name = "idx_productos_precio", columnList = "precio")
+})
+@BatchSize(size = 50)
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class EntidadJpaProducto {
     
+    // Pooled sequence instead of IDENTITY so the bulk seed import can batch the inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "productos_seq")
+    @SequenceGenerator(name = "productos_seq", sequenceName = "productos_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
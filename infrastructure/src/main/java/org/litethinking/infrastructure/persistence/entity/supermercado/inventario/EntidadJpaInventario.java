@@ -13,15 +13,20 @@ import java.time.LocalDate;
  * JPA entity for Inventario.
  */
 @Entity
-@Table(name = "inventarios")
+@Table(name = "inventarios", indexes = {
+        @Index(name = "idx_inventarios_producto", columnList = "producto_id"),
+        @Index(name = "idx_inventarios_ubicacion", columnList = "ubicacion")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class EntidadJpaInventario {
     
+    // Pooled sequence instead of IDENTITY so the bulk seed import can batch the inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventarios_seq")
+    @SequenceGenerator(name = "inventarios_seq", sequenceName = "inventarios_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne
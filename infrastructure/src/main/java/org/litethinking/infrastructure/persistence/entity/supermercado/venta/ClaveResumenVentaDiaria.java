@@ -0,0 +1,21 @@
+package org.litethinking.infrastructure.persistence.entity.supermercado.venta;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Primary key of EntidadJpaResumenVentaDiaria.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClaveResumenVentaDiaria implements Serializable {
+    private LocalDate fecha;
+    private String metodoPago;
+    private String categoria;
+    private Integer particion;
+}
@@ -13,18 +13,23 @@ import java.math.BigDecimal;
  * JPA entity for ItemVenta.
  */
 @Entity
-@Table(name = "items_venta")
+@Table(name = "items_venta", indexes = {
+        @Index(name = "idx_items_venta_venta", columnList = "venta_id"),
+        @Index(name = "idx_items_venta_producto", columnList = "producto_id")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class EntidadJpaItemVenta {
     
+    // Pooled sequence instead of IDENTITY so Hibernate can batch the inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_venta_seq")
+    @SequenceGenerator(name = "items_venta_seq", sequenceName = "items_venta_seq", allocationSize = 50)
     private Long id;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "producto_id", nullable = false)
     private EntidadJpaProducto producto;
     
@@ -36,8 +41,13 @@ public class EntidadJpaItemVenta {
     
     @Column(nullable = false)
     private BigDecimal subtotal;
+
+    // Category of the product when the sale entered the sales rollup, so the sale leaves it
+    // from the same rows even if the product changes category later
+    @Column(name = "categoria")
+    private String categoria;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "venta_id")
     private EntidadJpaVenta venta;
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -15,15 +16,24 @@ import java.util.List;
  * JPA entity for Venta.
  */
 @Entity
-@Table(name = "ventas")
+// fechaVenta leads the composite index: it serves the date range finder and, with metodoPago and
+// montoTotal in it, the per-day and per-payment-method totals without touching the table
+@Table(name = "ventas", indexes = {
+        @Index(name = "idx_ventas_fecha_venta_metodo_pago", columnList = "fechaVenta, metodoPago, montoTotal"),
+        @Index(name = "idx_ventas_metodo_pago", columnList = "metodoPago"),
+        @Index(name = "idx_ventas_nombre_cliente", columnList = "nombreCliente"),
+        @Index(name = "idx_ventas_monto_total", columnList = "montoTotal")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class EntidadJpaVenta {
     
+    // Pooled sequence instead of IDENTITY so Hibernate can batch the inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ventas_seq")
+    @SequenceGenerator(name = "ventas_seq", sequenceName = "ventas_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -31,7 +41,10 @@ public class EntidadJpaVenta {
     
     private String nombreCliente;
     
+    // Batch size bounds the item queries when sales are loaded without a fetch join (e.g. paged reads)
     @OneToMany(mappedBy = "venta", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 50)
+    @Builder.Default
     private List<EntidadJpaItemVenta> items = new ArrayList<>();
     
     @Column(nullable = false)
@@ -39,6 +52,10 @@ public class EntidadJpaVenta {
     
     private String metodoPago;
     
+    // Sent by the register with the sale; null for sales created without one
+    @Column(unique = true, length = 64)
+    private String claveIdempotencia;
+    
     public void addItem(EntidadJpaItemVenta item) {
         items.add(item);
         item.setVenta(this);
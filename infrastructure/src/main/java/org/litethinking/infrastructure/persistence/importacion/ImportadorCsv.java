@@ -0,0 +1,315 @@
+package org.litethinking.infrastructure.persistence.importacion;
+
+import jakarta.persistence.EntityManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.litethinking.infrastructure.persistence.entity.supermercado.EntidadJpaCajero;
+import org.litethinking.infrastructure.persistence.entity.supermercado.EntidadJpaCliente;
+import org.litethinking.infrastructure.persistence.entity.supermercado.EntidadJpaProducto;
+import org.litethinking.infrastructure.persistence.entity.supermercado.inventario.EntidadJpaInventario;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Bulk loader for the seed CSV files.
+ * Rows are streamed from the file and persisted in lotes, one transaction per lote, so the
+ * persistence context stays small and Hibernate sends the inserts as JDBC batches.
+ * A row that cannot be parsed or stored is rejected with its line number; the rest of the file goes on.
+ * Each method is safe to run in parallel with the others, except inventario, which needs the productos.
+ */
+@Component
+public class ImportadorCsv {
+
+    private static final Logger logger = LogManager.getLogger(ImportadorCsv.class);
+
+    // Only the first diagnostics are kept, a broken file with millions of rows must not fill the heap
+    static final int MAXIMO_ERRORES = 100;
+
+    // For the imports whose rows nobody looks up later
+    private static final BiConsumer<List<String>, Object> NINGUNO = (campos, entidad) -> { };
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int filasPorLote;
+
+    public ImportadorCsv(EntityManager entityManager,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${app.importacion.filas-por-lote:1000}") int filasPorLote) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.filasPorLote = Math.max(1, filasPorLote);
+    }
+
+    /**
+     * Columns: id,nombre,codigo,turno
+     */
+    public ResultadoImportacion importarCajeros(InputStream entrada) {
+        return importar("cajeros", entrada, 4, NINGUNO, campos -> EntidadJpaCajero.builder()
+                .nombre(requerido(campos, 1, "nombre"))
+                .codigo(requerido(campos, 2, "codigo"))
+                .turno(requerido(campos, 3, "turno"))
+                .build());
+    }
+
+    /**
+     * Columns: id,nombre,email,telefono,direccion
+     */
+    public ResultadoImportacion importarClientes(InputStream entrada) {
+        return importar("clientes", entrada, 5, NINGUNO, campos -> EntidadJpaCliente.builder()
+                .nombre(requerido(campos, 1, "nombre"))
+                .email(requerido(campos, 2, "email"))
+                .telefono(opcional(campos, 3))
+                .direccion(opcional(campos, 4))
+                .build());
+    }
+
+    /**
+     * Columns: id,nombre,descripcion,precio,categoria,codigoBarras
+     */
+    public ResultadoImportacion importarProductos(InputStream entrada) {
+        return importarProductos(entrada, new HashMap<>());
+    }
+
+    /**
+     * Same as {@link #importarProductos(InputStream)}, and records the database id each stored product got.
+     * The ids do not follow the file: a lote retried row by row or an earlier load takes ids out of order.
+     *
+     * @param idsProductos filled with the id column of the file -> id in the database, for {@link #importarInventario(InputStream, Map)}
+     */
+    public ResultadoImportacion importarProductos(InputStream entrada, Map<Long, Long> idsProductos) {
+        BiConsumer<List<String>, EntidadJpaProducto> registrarId = (campos, producto) -> {
+            Long idArchivo = idArchivo(campos);
+            if (idArchivo != null) {
+                idsProductos.put(idArchivo, producto.getId());
+            }
+        };
+        return importar("productos", entrada, 6, registrarId, campos -> EntidadJpaProducto.builder()
+                .nombre(requerido(campos, 1, "nombre"))
+                .descripcion(opcional(campos, 2))
+                .precio(new BigDecimal(requerido(campos, 3, "precio").trim()))
+                .categoria(opcional(campos, 4))
+                .codigoBarras(opcional(campos, 5))
+                .build());
+    }
+
+    /**
+     * Columns: id,producto_id,cantidad,stockMinimo,stockMaximo,fechaUltimaReposicion,ubicacion.
+     * producto_id is the database id of the product, for products that are already stored.
+     * Rows pointing to a missing product are rejected by the foreign key.
+     */
+    public ResultadoImportacion importarInventario(InputStream entrada) {
+        return importarInventario(entrada, campos -> entero(campos, 1, "producto_id", Long::valueOf));
+    }
+
+    /**
+     * Same as {@link #importarInventario(InputStream)}, with producto_id being the id column of the
+     * productos file imported just before. Rows pointing to a product that was not imported are rejected.
+     *
+     * @param idsProductos the ids recorded by {@link #importarProductos(InputStream, Map)}
+     */
+    public ResultadoImportacion importarInventario(InputStream entrada, Map<Long, Long> idsProductos) {
+        return importarInventario(entrada, campos -> {
+            Long idArchivo = entero(campos, 1, "producto_id", Long::valueOf);
+            Long id = idsProductos.get(idArchivo);
+            if (id == null) {
+                throw new IllegalArgumentException("el producto " + idArchivo + " no se importó");
+            }
+            return id;
+        });
+    }
+
+    private ResultadoImportacion importarInventario(InputStream entrada, Function<List<String>, Long> productoId) {
+        return importar("inventario", entrada, 7, NINGUNO, campos -> EntidadJpaInventario.builder()
+                .producto(EntidadJpaProducto.builder().id(productoId.apply(campos)).build())
+                .cantidad(entero(campos, 2, "cantidad", Integer::valueOf))
+                .stockMinimo(enteroOpcional(campos, 3))
+                .stockMaximo(enteroOpcional(campos, 4))
+                .fechaUltimaReposicion(fecha(campos, 5))
+                .ubicacion(opcional(campos, 6))
+                .build());
+    }
+
+    /**
+     * Tells whether the table an import fills already has rows, as happens when the database
+     * is kept on disk and an earlier run loaded the seed.
+     *
+     * @param entidad the entity name the import reports (cajeros, clientes, productos, inventario)
+     */
+    public boolean tieneDatos(String entidad) {
+        Class<?> tipo = switch (entidad) {
+            case "cajeros" -> EntidadJpaCajero.class;
+            case "clientes" -> EntidadJpaCliente.class;
+            case "productos" -> EntidadJpaProducto.class;
+            case "inventario" -> EntidadJpaInventario.class;
+            default -> throw new IllegalArgumentException("Entidad desconocida: " + entidad);
+        };
+        // Stops at the first row, the answer does not depend on the size of the table
+        return !entityManager.createQuery("select e.id from " + tipo.getSimpleName() + " e", Long.class)
+                .setMaxResults(1)
+                .getResultList()
+                .isEmpty();
+    }
+
+    private <E> ResultadoImportacion importar(String entidad, InputStream entrada, int columnas,
+                                              BiConsumer<List<String>, ? super E> alGuardar,
+                                              Function<List<String>, E> conversor) {
+        long inicio = System.nanoTime();
+        Conteo conteo = new Conteo();
+        List<Fila<E>> lote = new ArrayList<>(filasPorLote);
+
+        try (LectorCsv lector = new LectorCsv(entrada)) {
+            // Skip header
+            lector.siguienteFila();
+            List<String> campos;
+            while ((campos = lector.siguienteFila()) != null) {
+                if (campos.size() == 1 && campos.get(0).isBlank()) {
+                    continue;
+                }
+                conteo.leidas++;
+                long linea = lector.getLineaFila();
+                if (campos.size() < columnas) {
+                    conteo.rechazar(linea, "se esperaban " + columnas + " columnas y hay " + campos.size());
+                    continue;
+                }
+                try {
+                    lote.add(new Fila<>(linea, campos, conversor.apply(campos)));
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    conteo.rechazar(linea, e.getMessage());
+                    continue;
+                }
+                if (lote.size() == filasPorLote) {
+                    guardar(lote, conversor, alGuardar, conteo);
+                    lote.clear();
+                }
+            }
+            guardar(lote, conversor, alGuardar, conteo);
+        } catch (IOException e) {
+            // The rest of the file cannot be read: keep the rows parsed so far and report where it stopped
+            guardar(lote, conversor, alGuardar, conteo);
+            conteo.rechazar(0, "lectura interrumpida: " + e.getMessage());
+        }
+
+        ResultadoImportacion resultado = new ResultadoImportacion(entidad, conteo.leidas, conteo.importadas,
+                conteo.rechazadas, List.copyOf(conteo.errores), Duration.ofNanos(System.nanoTime() - inicio));
+        logger.info("Imported {} {} rows in {} ms ({} rows/s), {} rejected",
+                resultado.filasImportadas(), entidad, resultado.duracion().toMillis(),
+                Math.round(resultado.filasPorSegundo()), resultado.filasRechazadas());
+        resultado.errores().forEach(error -> logger.warn("Rejected {} row, {}", entidad, error));
+        return resultado;
+    }
+
+    /**
+     * Stores a lote in one transaction and hands every stored row to alGuardar once it is committed.
+     */
+    private <E> void guardar(List<Fila<E>> lote, Function<List<String>, E> conversor,
+                             BiConsumer<List<String>, ? super E> alGuardar, Conteo conteo) {
+        if (lote.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                lote.forEach(fila -> entityManager.persist(fila.entidad()));
+                entityManager.flush();
+                entityManager.clear();
+            });
+            conteo.importadas += lote.size();
+            lote.forEach(fila -> alGuardar.accept(fila.campos(), fila.entidad()));
+        } catch (RuntimeException e) {
+            // One bad row rolls the whole lote back: store it again row by row to keep the good ones
+            // and name the bad ones. The entities are rebuilt, the failed attempt already gave them ids.
+            logger.debug("Lote of {} rows failed, retrying row by row: {}", lote.size(), causa(e));
+            for (Fila<E> fila : lote) {
+                try {
+                    E entidad = conversor.apply(fila.campos());
+                    transactionTemplate.executeWithoutResult(status -> entityManager.persist(entidad));
+                    conteo.importadas++;
+                    alGuardar.accept(fila.campos(), entidad);
+                } catch (RuntimeException ex) {
+                    conteo.rechazar(fila.linea(), causa(ex));
+                }
+            }
+        }
+    }
+
+    // The id column of a row, or null if it has none
+    private static Long idArchivo(List<String> campos) {
+        String valor = opcional(campos, 0);
+        try {
+            return valor == null ? null : Long.valueOf(valor.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String requerido(List<String> campos, int indice, String nombre) {
+        String valor = campos.get(indice);
+        if (valor == null || valor.isBlank()) {
+            throw new IllegalArgumentException("el campo " + nombre + " es obligatorio");
+        }
+        return valor;
+    }
+
+    private static String opcional(List<String> campos, int indice) {
+        String valor = campos.get(indice);
+        return valor == null || valor.isBlank() ? null : valor;
+    }
+
+    private static <N> N entero(List<String> campos, int indice, String nombre, Function<String, N> parser) {
+        String valor = requerido(campos, indice, nombre).trim();
+        try {
+            return parser.apply(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("valor no numérico en " + nombre + ": " + valor);
+        }
+    }
+
+    private static Integer enteroOpcional(List<String> campos, int indice) {
+        String valor = opcional(campos, indice);
+        return valor == null ? null : Integer.valueOf(valor.trim());
+    }
+
+    private static LocalDate fecha(List<String> campos, int indice) {
+        String valor = opcional(campos, indice);
+        return valor == null ? null : LocalDate.parse(valor.trim());
+    }
+
+    private static String causa(Throwable e) {
+        Throwable raiz = e;
+        while (raiz.getCause() != null && raiz.getCause() != raiz) {
+            raiz = raiz.getCause();
+        }
+        return raiz.getMessage() != null ? raiz.getMessage() : raiz.getClass().getSimpleName();
+    }
+
+    private record Fila<E>(long linea, List<String> campos, E entidad) {
+    }
+
+    private static final class Conteo {
+        private long leidas;
+        private long importadas;
+        private long rechazadas;
+        private final List<String> errores = new ArrayList<>();
+
+        private void rechazar(long linea, String motivo) {
+            rechazadas++;
+            if (errores.size() < MAXIMO_ERRORES) {
+                errores.add(linea > 0 ? "línea " + linea + ": " + motivo : motivo);
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package org.litethinking.infrastructure.persistence.importacion;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming CSV reader (RFC 4180): returns one row at a time, so the file is never held in memory.
+ * Supports quoted fields with embedded commas, line breaks and doubled quotes, CRLF or LF line ends
+ * and a leading UTF-8 BOM.
+ */
+public class LectorCsv implements Closeable {
+
+    private static final char SEPARADOR = ',';
+    private static final char COMILLA = '"';
+    private static final char BOM = '\uFEFF';
+
+    private final PushbackReader reader;
+    private long lineaActual = 1;
+    private long lineaFila;
+    private boolean inicio = true;
+
+    public LectorCsv(Reader reader) {
+        this.reader = new PushbackReader(new BufferedReader(reader), 1);
+    }
+
+    public LectorCsv(InputStream entrada) {
+        this(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads the next row.
+     *
+     * @return the fields of the row, or null at the end of the file
+     * @throws IOException if the file cannot be read or ends inside a quoted field
+     */
+    public List<String> siguienteFila() throws IOException {
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+        boolean leyoAlgo = false;
+        lineaFila = lineaActual;
+
+        int c;
+        while ((c = leer()) != -1) {
+            leyoAlgo = true;
+            char caracter = (char) c;
+            if (entreComillas) {
+                if (caracter == COMILLA) {
+                    int siguiente = leer();
+                    if (siguiente == COMILLA) {
+                        campo.append(COMILLA);
+                    } else {
+                        entreComillas = false;
+                        if (siguiente != -1) {
+                            reader.unread(siguiente);
+                        }
+                    }
+                } else {
+                    if (caracter == '\n') {
+                        lineaActual++;
+                    }
+                    campo.append(caracter);
+                }
+            } else if (caracter == COMILLA && campo.isEmpty()) {
+                entreComillas = true;
+            } else if (caracter == SEPARADOR) {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (caracter == '\r' || caracter == '\n') {
+                if (caracter == '\r') {
+                    int siguiente = leer();
+                    if (siguiente != '\n' && siguiente != -1) {
+                        reader.unread(siguiente);
+                    }
+                }
+                lineaActual++;
+                campos.add(campo.toString());
+                return campos;
+            } else {
+                campo.append(caracter);
+            }
+        }
+
+        if (entreComillas) {
+            throw new IOException("Unterminated quoted field in the row starting at line " + lineaFila);
+        }
+        if (!leyoAlgo) {
+            return null;
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+
+    /**
+     * Line of the file where the last row returned by {@link #siguienteFila()} starts (1-based).
+     */
+    public long getLineaFila() {
+        return lineaFila;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private int leer() throws IOException {
+        int c = reader.read();
+        if (inicio) {
+            inicio = false;
+            if (c == BOM) {
+                c = reader.read();
+            }
+        }
+        return c;
+    }
+}
@@ -0,0 +1,29 @@
+package org.litethinking.infrastructure.persistence.importacion;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Outcome of importing one CSV file.
+ *
+ * @param entidad          name of the imported entity (cajeros, productos...)
+ * @param filasLeidas      data rows read, header excluded
+ * @param filasImportadas  rows stored in the database
+ * @param filasRechazadas  rows skipped because they could not be parsed or stored
+ * @param errores          diagnostics of the first rejected rows ("line N: reason")
+ * @param duracion         wall-clock time of the import
+ */
+public record ResultadoImportacion(
+        String entidad,
+        long filasLeidas,
+        long filasImportadas,
+        long filasRechazadas,
+        List<String> errores,
+        Duration duracion
+) {
+
+    public double filasPorSegundo() {
+        long nanos = duracion.toNanos();
+        return nanos == 0 ? filasImportadas : filasImportadas * 1_000_000_000.0 / nanos;
+    }
+}
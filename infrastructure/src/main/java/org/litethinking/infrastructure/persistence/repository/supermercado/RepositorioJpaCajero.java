@@ -1,6 +1,7 @@
 package org.litethinking.infrastructure.persistence.repository.supermercado;
 
 import org.litethinking.infrastructure.persistence.entity.supermercado.EntidadJpaCajero;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
@@ -26,4 +27,13 @@ public interface RepositorioJpaCajero extends JpaRepository<EntidadJpaCajero, Lo
      * @return the list of cashiers in the shift
      */
     List<EntidadJpaCajero> findByTurno(String turno);
+
+    /**
+     * Find the next page of cashiers ordered by id (keyset pagination).
+     *
+     * @param id only cashiers with an id greater than this one are returned
+     * @param limit the maximum number of cashiers to return
+     * @return the page of cashiers
+     */
+    List<EntidadJpaCajero> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 }
@@ -0,0 +1,66 @@
+package org.litethinking.infrastructure.persistence.repository.supermercado;
+
+import org.litethinking.infrastructure.persistence.entity.supermercado.EntidadJpaCambioProducto;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+/**
+ * JPA repository for EntidadJpaCambioProducto.
+ */
+public interface RepositorioJpaCambioProducto extends JpaRepository<EntidadJpaCambioProducto, Long> {
+
+    /**
+     * Find the changes after a version that are the latest change of their product,
+     * so a product written many times is sent once. The subquery walks the
+     * (producto_id, version) index.
+     *
+     * @param version only changes with a greater version are returned
+     * @param pagina the first page, sized to the maximum number of changes to return
+     * @return the changes ordered by version
+     */
+    @Query("SELECT c FROM EntidadJpaCambioProducto c "
+            + "WHERE c.version > :version "
+            + "AND c.version = (SELECT MAX(u.version) FROM EntidadJpaCambioProducto u WHERE u.productoId = c.productoId) "
+            + "ORDER BY c.version")
+    List<EntidadJpaCambioProducto> buscarUltimosDespuesDe(@Param("version") long version, Pageable pagina);
+
+    /**
+     * The version of the last change.
+     *
+     * @return the greatest version, or 0 if the log is empty
+     */
+    @Query("SELECT COALESCE(MAX(c.version), 0) FROM EntidadJpaCambioProducto c")
+    long buscarUltimaVersion();
+
+    /**
+     * Take the next version from the counter row. The row stays locked until the transaction ends,
+     * so the next change waits for this one to commit or roll back.
+     *
+     * @return the number of updated rows
+     */
+    @Modifying
+    @Query(value = "UPDATE contador_cambios_productos SET ultima_version = ultima_version + 1 WHERE id = 1",
+            nativeQuery = true)
+    int incrementarVersion();
+
+    /**
+     * The last version taken from the counter row.
+     *
+     * @return the version, including one taken by the current transaction
+     */
+    @Query(value = "SELECT ultima_version FROM contador_cambios_productos WHERE id = 1", nativeQuery = true)
+    long leerVersion();
+
+    /**
+     * The epoch of the change log, drawn when the database was created.
+     *
+     * @return the epoch
+     */
+    @Query(value = "SELECT epoca FROM contador_cambios_productos WHERE id = 1", nativeQuery = true)
+    String leerEpoca();
+}
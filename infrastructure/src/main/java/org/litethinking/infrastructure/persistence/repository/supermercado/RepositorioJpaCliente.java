@@ -1,6 +1,7 @@
 package org.litethinking.infrastructure.persistence.repository.supermercado;
 
 import org.litethinking.infrastructure.persistence.entity.supermercado.EntidadJpaCliente;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
@@ -26,4 +27,13 @@ public interface RepositorioJpaCliente extends JpaRepository<EntidadJpaCliente,
      * @return the list of customers with matching names
      */
     List<EntidadJpaCliente> findByNombreContaining(String nombre);
+
+    /**
+     * Find the next page of customers ordered by id (keyset pagination).
+     *
+     * @param id only customers with an id greater than this one are returned
+     * @param limit the maximum number of customers to return
+     * @return the page of customers
+     */
+    List<EntidadJpaCliente> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 }
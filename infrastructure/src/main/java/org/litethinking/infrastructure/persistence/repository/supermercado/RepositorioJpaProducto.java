@@ -1,11 +1,17 @@
 package org.litethinking.infrastructure.persistence.repository.supermercado;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.litethinking.infrastructure.persistence.entity.supermercado.EntidadJpaProducto;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * JPA repository for EntidadJpaProducto.
@@ -36,4 +42,27 @@ public interface RepositorioJpaProducto extends JpaRepository<EntidadJpaProducto
      * @return the product if found, empty otherwise
      */
     Optional<EntidadJpaProducto> findByCodigoBarras(String codigoBarras);
+
+    /**
+     * Stream all products ordered by id through a forward-only cursor.
+     * The caller must consume the stream inside a transaction and close it.
+     *
+     * @return a stream over every product
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT p FROM EntidadJpaProducto p ORDER BY p.id")
+    Stream<EntidadJpaProducto> streamAll();
+
+    /**
+     * Find the next page of products ordered by id (keyset pagination).
+     *
+     * @param id only products with an id greater than this one are returned
+     * @param limit the maximum number of products to return
+     * @return the page of products
+     */
+    List<EntidadJpaProducto> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 }
@@ -1,12 +1,20 @@
 package org.litethinking.infrastructure.persistence.repository.supermercado.inventario;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.litethinking.domain.model.supermercado.inventario.LineaInventario;
 import org.litethinking.infrastructure.persistence.entity.supermercado.EntidadJpaProducto;
 import org.litethinking.infrastructure.persistence.entity.supermercado.inventario.EntidadJpaInventario;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * JPA repository for EntidadJpaInventario.
@@ -36,4 +44,70 @@ public interface RepositorioJpaInventario extends JpaRepository<EntidadJpaInvent
      * @return the list of inventory records in the location
      */
     List<EntidadJpaInventario> findByUbicacion(String ubicacion);
+
+    /**
+     * Stream inventory lines joined with their product in a single projection query.
+     * The caller must consume the stream inside a transaction and close it.
+     *
+     * @param ubicacion only include this location, or all locations if null
+     * @param soloBajoStock only include records at or below their minimum stock
+     * @return a stream over the matching inventory lines ordered by id
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new org.litethinking.domain.model.supermercado.inventario.LineaInventario("
+            + "i.id, p.id, p.nombre, p.codigoBarras, i.cantidad, i.stockMinimo, i.stockMaximo, "
+            + "i.fechaUltimaReposicion, i.ubicacion) "
+            + "FROM EntidadJpaInventario i JOIN i.producto p "
+            + "WHERE (:ubicacion IS NULL OR i.ubicacion = :ubicacion) "
+            + "AND (:soloBajoStock = false OR i.cantidad <= i.stockMinimo) "
+            + "ORDER BY i.id")
+    Stream<LineaInventario> streamLineas(@Param("ubicacion") String ubicacion,
+                                         @Param("soloBajoStock") boolean soloBajoStock);
+
+    /**
+     * Find the next page of inventory records ordered by id (keyset pagination).
+     *
+     * @param id only inventory records with an id greater than this one are returned
+     * @param limit the maximum number of inventory records to return
+     * @return the page of inventory records
+     */
+    List<EntidadJpaInventario> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Find the inventory records of a product that hold at least a quantity, in id order.
+     *
+     * @param productoId the id of the product
+     * @param cantidad the quantity needed
+     * @return the ids of the inventory records
+     */
+    @Query("SELECT i.id FROM EntidadJpaInventario i "
+            + "WHERE i.producto.id = :productoId AND i.cantidad >= :cantidad ORDER BY i.id")
+    List<Long> buscarIdsConStock(@Param("productoId") Long productoId, @Param("cantidad") int cantidad);
+
+    /**
+     * Decrement the stock of an inventory record only if there is enough of it.
+     * Runs as a single UPDATE, so it only takes the row lock of that inventory record.
+     *
+     * @param id the id of the inventory record
+     * @param cantidad the quantity to take
+     * @return the number of updated rows, 0 if there was not enough stock
+     */
+    @Modifying
+    @Query("UPDATE EntidadJpaInventario i SET i.cantidad = i.cantidad - :cantidad "
+            + "WHERE i.id = :id AND i.cantidad >= :cantidad")
+    int reservarStock(@Param("id") Long id, @Param("cantidad") int cantidad);
+
+    /**
+     * Increment the stock of an inventory record.
+     *
+     * @param id the id of the inventory record
+     * @param cantidad the quantity to add
+     * @return the number of updated rows
+     */
+    @Modifying
+    @Query("UPDATE EntidadJpaInventario i SET i.cantidad = i.cantidad + :cantidad WHERE i.id = :id")
+    int liberarStock(@Param("id") Long id, @Param("cantidad") int cantidad);
 }
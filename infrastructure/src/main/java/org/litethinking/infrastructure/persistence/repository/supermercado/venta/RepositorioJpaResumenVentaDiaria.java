@@ -0,0 +1,178 @@
+package org.litethinking.infrastructure.persistence.repository.supermercado.venta;
+
+import org.litethinking.domain.model.supermercado.venta.TotalVentasPorDia;
+import org.litethinking.domain.model.supermercado.venta.TotalVentasPorGrupo;
+import org.litethinking.infrastructure.persistence.entity.supermercado.venta.ClaveResumenVentaDiaria;
+import org.litethinking.infrastructure.persistence.entity.supermercado.venta.EntidadJpaResumenVentaDiaria;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * JPA repository for EntidadJpaResumenVentaDiaria.
+ * Dashboard queries read this table instead of ventas, so they touch at most
+ * days x payment methods x categories x partitions rows, whatever the size of the sales history.
+ */
+public interface RepositorioJpaResumenVentaDiaria
+        extends JpaRepository<EntidadJpaResumenVentaDiaria, ClaveResumenVentaDiaria> {
+
+    /**
+     * Add (or subtract, with negative values) to one rollup row, creating it if it does not exist.
+     * Standard SQL MERGE, so the read-modify-write happens in one statement.
+     *
+     * @return the number of affected rows
+     */
+    @Modifying
+    @Query(value = "MERGE INTO resumen_ventas_diarias r "
+            + "USING (SELECT CAST(:fecha AS DATE) AS fecha, CAST(:metodoPago AS VARCHAR(255)) AS metodo_pago, "
+            + "CAST(:categoria AS VARCHAR(255)) AS categoria, CAST(:particion AS INTEGER) AS particion, "
+            + "CAST(:cantidadVentas AS BIGINT) AS cantidad_ventas, CAST(:montoTotal AS NUMERIC(38, 2)) AS monto_total) d "
+            + "ON r.fecha = d.fecha AND r.metodo_pago = d.metodo_pago AND r.categoria = d.categoria "
+            + "AND r.particion = d.particion "
+            + "WHEN MATCHED THEN UPDATE SET cantidad_ventas = r.cantidad_ventas + d.cantidad_ventas, "
+            + "monto_total = r.monto_total + d.monto_total "
+            + "WHEN NOT MATCHED THEN INSERT (fecha, metodo_pago, categoria, particion, por_categoria, "
+            + "cantidad_ventas, monto_total) "
+            + "VALUES (d.fecha, d.metodo_pago, d.categoria, d.particion, "
+            + "d.categoria <> '" + EntidadJpaResumenVentaDiaria.TODAS + "', d.cantidad_ventas, d.monto_total)",
+            nativeQuery = true)
+    int acumular(@Param("fecha") LocalDate fecha,
+                 @Param("metodoPago") String metodoPago,
+                 @Param("categoria") String categoria,
+                 @Param("particion") int particion,
+                 @Param("cantidadVentas") long cantidadVentas,
+                 @Param("montoTotal") BigDecimal montoTotal);
+
+    /**
+     * Remove one rollup row, by its primary key, if it was left without sales after a sale was
+     * deleted or changed.
+     *
+     * @return the number of deleted rows
+     */
+    @Modifying
+    @Query("DELETE FROM EntidadJpaResumenVentaDiaria r "
+            + "WHERE r.fecha = :fecha AND r.metodoPago = :metodoPago AND r.categoria = :categoria "
+            + "AND r.particion = :particion AND r.cantidadVentas <= 0")
+    int eliminarSiVacia(@Param("fecha") LocalDate fecha,
+                        @Param("metodoPago") String metodoPago,
+                        @Param("categoria") String categoria,
+                        @Param("particion") int particion);
+
+    /**
+     * Copy the current category of their products to the lines of a sale that do not have one yet.
+     *
+     * @param ventaId the sale id
+     * @return the number of updated lines
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE EntidadJpaItemVenta i SET i.categoria = COALESCE("
+            + "(SELECT p.categoria FROM EntidadJpaProducto p WHERE p.id = i.producto.id), "
+            + "'" + EntidadJpaResumenVentaDiaria.SIN_CATEGORIA + "') "
+            + "WHERE i.venta.id = :ventaId AND i.categoria IS NULL")
+    int fijarCategorias(@Param("ventaId") Long ventaId);
+
+    /**
+     * Item subtotals of a sale per the category stored on its lines.
+     *
+     * @param ventaId the sale id
+     * @return pairs of [category, subtotal], in category order
+     */
+    @Query("SELECT COALESCE(i.categoria, p.categoria, '" + EntidadJpaResumenVentaDiaria.SIN_CATEGORIA + "'), "
+            + "SUM(i.subtotal) "
+            + "FROM EntidadJpaItemVenta i LEFT JOIN i.producto p "
+            + "WHERE i.venta.id = :ventaId "
+            + "GROUP BY COALESCE(i.categoria, p.categoria, '" + EntidadJpaResumenVentaDiaria.SIN_CATEGORIA + "') "
+            + "ORDER BY 1")
+    List<Object[]> sumarSubtotalesPorCategoria(@Param("ventaId") Long ventaId);
+
+    /**
+     * Sales per day from the rollup.
+     *
+     * @param desde first day (inclusive), or null
+     * @param hasta last day (inclusive), or null
+     * @return one row per day, in date order
+     */
+    @Query("SELECT new org.litethinking.domain.model.supermercado.venta.TotalVentasPorDia("
+            + "r.fecha, SUM(r.cantidadVentas), SUM(r.montoTotal)) "
+            + "FROM EntidadJpaResumenVentaDiaria r "
+            + "WHERE r.porCategoria = false "
+            + "AND (:desde IS NULL OR r.fecha >= :desde) "
+            + "AND (:hasta IS NULL OR r.fecha <= :hasta) "
+            + "GROUP BY r.fecha "
+            + "ORDER BY r.fecha")
+    List<TotalVentasPorDia> sumarPorDia(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    /**
+     * Sales per payment method from the rollup.
+     *
+     * @param desde first day (inclusive), or null
+     * @param hasta last day (inclusive), or null
+     * @return one row per payment method, highest amount first
+     */
+    @Query("SELECT new org.litethinking.domain.model.supermercado.venta.TotalVentasPorGrupo("
+            + "r.metodoPago, SUM(r.cantidadVentas), SUM(r.montoTotal)) "
+            + "FROM EntidadJpaResumenVentaDiaria r "
+            + "WHERE r.porCategoria = false "
+            + "AND (:desde IS NULL OR r.fecha >= :desde) "
+            + "AND (:hasta IS NULL OR r.fecha <= :hasta) "
+            + "GROUP BY r.metodoPago "
+            + "ORDER BY SUM(r.montoTotal) DESC")
+    List<TotalVentasPorGrupo> sumarPorMetodoPago(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    /**
+     * Item subtotals per category from the rollup.
+     *
+     * @param desde first day (inclusive), or null
+     * @param hasta last day (inclusive), or null
+     * @return one row per category, highest amount first
+     */
+    @Query("SELECT new org.litethinking.domain.model.supermercado.venta.TotalVentasPorGrupo("
+            + "r.categoria, SUM(r.cantidadVentas), SUM(r.montoTotal)) "
+            + "FROM EntidadJpaResumenVentaDiaria r "
+            + "WHERE r.porCategoria = true "
+            + "AND (:desde IS NULL OR r.fecha >= :desde) "
+            + "AND (:hasta IS NULL OR r.fecha <= :hasta) "
+            + "GROUP BY r.categoria "
+            + "ORDER BY SUM(r.montoTotal) DESC")
+    List<TotalVentasPorGrupo> sumarPorCategoria(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    /**
+     * Rollup rows with the whole-sale totals, computed from scratch from the ventas table.
+     *
+     * @return one row per day, payment method and partition
+     */
+    @Query("SELECT new org.litethinking.infrastructure.persistence.entity.supermercado.venta.EntidadJpaResumenVentaDiaria("
+            + "CAST(v.fechaVenta AS LocalDate), "
+            + "COALESCE(v.metodoPago, '" + EntidadJpaResumenVentaDiaria.METODO_DESCONOCIDO + "'), "
+            + "'" + EntidadJpaResumenVentaDiaria.TODAS + "', "
+            + "CAST(MOD(v.id, " + EntidadJpaResumenVentaDiaria.PARTICIONES + ") AS Integer), false, COUNT(v), SUM(v.montoTotal)) "
+            + "FROM EntidadJpaVenta v "
+            + "GROUP BY CAST(v.fechaVenta AS LocalDate), "
+            + "COALESCE(v.metodoPago, '" + EntidadJpaResumenVentaDiaria.METODO_DESCONOCIDO + "'), "
+            + "CAST(MOD(v.id, " + EntidadJpaResumenVentaDiaria.PARTICIONES + ") AS Integer)")
+    List<EntidadJpaResumenVentaDiaria> calcularTotalesDesdeVentas();
+
+    /**
+     * Rollup rows with the item subtotals per category, computed from scratch from the items_venta table.
+     * Lines keep the category they were registered with; lines never registered take the product's.
+     *
+     * @return one row per day, payment method, category and partition
+     */
+    @Query("SELECT new org.litethinking.infrastructure.persistence.entity.supermercado.venta.EntidadJpaResumenVentaDiaria("
+            + "CAST(v.fechaVenta AS LocalDate), "
+            + "COALESCE(v.metodoPago, '" + EntidadJpaResumenVentaDiaria.METODO_DESCONOCIDO + "'), "
+            + "COALESCE(i.categoria, p.categoria, '" + EntidadJpaResumenVentaDiaria.SIN_CATEGORIA + "'), "
+            + "CAST(MOD(v.id, " + EntidadJpaResumenVentaDiaria.PARTICIONES + ") AS Integer), true, "
+            + "COUNT(DISTINCT v.id), SUM(i.subtotal)) "
+            + "FROM EntidadJpaItemVenta i JOIN i.venta v JOIN i.producto p "
+            + "GROUP BY CAST(v.fechaVenta AS LocalDate), "
+            + "COALESCE(v.metodoPago, '" + EntidadJpaResumenVentaDiaria.METODO_DESCONOCIDO + "'), "
+            + "COALESCE(i.categoria, p.categoria, '" + EntidadJpaResumenVentaDiaria.SIN_CATEGORIA + "'), "
+            + "CAST(MOD(v.id, " + EntidadJpaResumenVentaDiaria.PARTICIONES + ") AS Integer)")
+    List<EntidadJpaResumenVentaDiaria> calcularCategoriasDesdeVentas();
+}
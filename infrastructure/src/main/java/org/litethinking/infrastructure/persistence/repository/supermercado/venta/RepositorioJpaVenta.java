@@ -1,17 +1,54 @@
 package org.litethinking.infrastructure.persistence.repository.supermercado.venta;
 
+import org.litethinking.domain.model.supermercado.venta.TotalVentasPorDia;
+import org.litethinking.domain.model.supermercado.venta.TotalVentasPorGrupo;
 import org.litethinking.infrastructure.persistence.entity.supermercado.venta.EntidadJpaVenta;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * JPA repository for EntidadJpaVenta.
+ * The finders load the whole sale graph (items and their products) in a single
+ * query through an entity graph, instead of one query per sale and per item.
  */
 public interface RepositorioJpaVenta extends JpaRepository<EntidadJpaVenta, Long> {
 
+    /**
+     * Find all sales with their items and products.
+     *
+     * @return the list of all sales
+     */
+    @Override
+    @EntityGraph(attributePaths = {"items", "items.producto"})
+    List<EntidadJpaVenta> findAll();
+
+    /**
+     * Find a sale by its id with its items and products.
+     *
+     * @param id the id of the sale
+     * @return the sale if found, empty otherwise
+     */
+    @Override
+    @EntityGraph(attributePaths = {"items", "items.producto"})
+    Optional<EntidadJpaVenta> findById(Long id);
+
+    /**
+     * Find a sale by its idempotency key with its items and products.
+     *
+     * @param claveIdempotencia the key the client sent with the sale
+     * @return the sale if found, empty otherwise
+     */
+    @EntityGraph(attributePaths = {"items", "items.producto"})
+    Optional<EntidadJpaVenta> findByClaveIdempotencia(String claveIdempotencia);
+
     /**
      * Find sales by date range.
      *
@@ -19,6 +56,7 @@ public interface RepositorioJpaVenta extends JpaRepository<EntidadJpaVenta, Long
      * @param fechaFin the end date
      * @return the list of sales in the date range
      */
+    @EntityGraph(attributePaths = {"items", "items.producto"})
     List<EntidadJpaVenta> findByFechaVentaBetween(LocalDateTime fechaInicio, LocalDateTime fechaFin);
 
     /**
@@ -27,6 +65,7 @@ public interface RepositorioJpaVenta extends JpaRepository<EntidadJpaVenta, Long
      * @param nombreCliente the customer name to search for
      * @return the list of sales for the customer
      */
+    @EntityGraph(attributePaths = {"items", "items.producto"})
     List<EntidadJpaVenta> findByNombreCliente(String nombreCliente);
 
     /**
@@ -35,6 +74,7 @@ public interface RepositorioJpaVenta extends JpaRepository<EntidadJpaVenta, Long
      * @param montoMinimo the minimum total amount
      * @return the list of sales with total amount greater than the minimum
      */
+    @EntityGraph(attributePaths = {"items", "items.producto"})
     List<EntidadJpaVenta> findByMontoTotalGreaterThan(BigDecimal montoMinimo);
 
     /**
@@ -43,5 +83,62 @@ public interface RepositorioJpaVenta extends JpaRepository<EntidadJpaVenta, Long
      * @param metodoPago the payment method to search for
      * @return the list of sales with the payment method
      */
+    @EntityGraph(attributePaths = {"items", "items.producto"})
     List<EntidadJpaVenta> findByMetodoPago(String metodoPago);
+
+    /**
+     * Find the next page of sales ordered by id (keyset pagination).
+     * No fetch join here, so the row limit stays in SQL; items and products
+     * are loaded with batch fetching instead.
+     *
+     * @param id only sales with an id greater than this one are returned
+     * @param limit the maximum number of sales to return
+     * @return the page of sales
+     */
+    List<EntidadJpaVenta> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Sales per day, aggregated in the database.
+     *
+     * @param desde lower bound (inclusive)
+     * @param hasta upper bound (exclusive)
+     * @return one row per day, in date order
+     */
+    @Query("SELECT new org.litethinking.domain.model.supermercado.venta.TotalVentasPorDia("
+            + "CAST(v.fechaVenta AS LocalDate), COUNT(v), SUM(v.montoTotal)) "
+            + "FROM EntidadJpaVenta v "
+            + "WHERE v.fechaVenta >= :desde AND v.fechaVenta < :hasta "
+            + "GROUP BY CAST(v.fechaVenta AS LocalDate) "
+            + "ORDER BY CAST(v.fechaVenta AS LocalDate)")
+    List<TotalVentasPorDia> sumarPorDia(@Param("desde") LocalDateTime desde, @Param("hasta") LocalDateTime hasta);
+
+    /**
+     * Sales per payment method, aggregated in the database.
+     *
+     * @param desde lower bound (inclusive)
+     * @param hasta upper bound (exclusive)
+     * @return one row per payment method, highest amount first
+     */
+    @Query("SELECT new org.litethinking.domain.model.supermercado.venta.TotalVentasPorGrupo("
+            + "v.metodoPago, COUNT(v), SUM(v.montoTotal)) "
+            + "FROM EntidadJpaVenta v "
+            + "WHERE v.fechaVenta >= :desde AND v.fechaVenta < :hasta "
+            + "GROUP BY v.metodoPago "
+            + "ORDER BY SUM(v.montoTotal) DESC")
+    List<TotalVentasPorGrupo> sumarPorMetodoPago(@Param("desde") LocalDateTime desde, @Param("hasta") LocalDateTime hasta);
+
+    /**
+     * Sold items per product category, aggregated in the database.
+     *
+     * @param desde lower bound (inclusive)
+     * @param hasta upper bound (exclusive)
+     * @return one row per category, highest amount first
+     */
+    @Query("SELECT new org.litethinking.domain.model.supermercado.venta.TotalVentasPorGrupo("
+            + "p.categoria, COUNT(DISTINCT v.id), SUM(i.subtotal)) "
+            + "FROM EntidadJpaItemVenta i JOIN i.venta v JOIN i.producto p "
+            + "WHERE v.fechaVenta >= :desde AND v.fechaVenta < :hasta "
+            + "GROUP BY p.categoria "
+            + "ORDER BY SUM(i.subtotal) DESC")
+    List<TotalVentasPorGrupo> sumarPorCategoria(@Param("desde") LocalDateTime desde, @Param("hasta") LocalDateTime hasta);
 }
@@ -0,0 +1,108 @@
+-- Initial schema of the supermarket, matching the JPA entities of the infrastructure module.
+-- Hibernate only validates it (spring.jpa.hibernate.ddl-auto=validate); any change to an entity
+-- needs a new V<n>__*.sql script, never an edit of one already applied.
+
+-- Sequences step by the allocationSize of the entities (50): Hibernate takes a block of ids
+-- per call, so inserts are batched without a round trip per row
+CREATE SEQUENCE cajeros_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE clientes_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE productos_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE inventarios_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE ventas_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE items_venta_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE cambios_productos_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE cajeros (
+    id     BIGINT       NOT NULL,
+    nombre VARCHAR(255) NOT NULL,
+    codigo VARCHAR(255) NOT NULL,
+    turno  VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_cajeros PRIMARY KEY (id),
+    CONSTRAINT uk_cajeros_codigo UNIQUE (codigo)
+);
+CREATE INDEX idx_cajeros_turno ON cajeros (turno);
+
+CREATE TABLE clientes (
+    id        BIGINT       NOT NULL,
+    nombre    VARCHAR(255) NOT NULL,
+    email     VARCHAR(255) NOT NULL,
+    telefono  VARCHAR(255),
+    direccion VARCHAR(255),
+    CONSTRAINT pk_clientes PRIMARY KEY (id),
+    CONSTRAINT uk_clientes_email UNIQUE (email)
+);
+
+CREATE TABLE productos (
+    id            BIGINT         NOT NULL,
+    nombre        VARCHAR(255)   NOT NULL,
+    descripcion   VARCHAR(1000),
+    precio        NUMERIC(38, 2) NOT NULL,
+    categoria     VARCHAR(255),
+    codigo_barras VARCHAR(255),
+    CONSTRAINT pk_productos PRIMARY KEY (id),
+    CONSTRAINT uk_productos_codigo_barras UNIQUE (codigo_barras)
+);
+CREATE INDEX idx_productos_categoria ON productos (categoria);
+CREATE INDEX idx_productos_precio ON productos (precio);
+
+CREATE TABLE inventarios (
+    id                      BIGINT       NOT NULL,
+    producto_id             BIGINT       NOT NULL,
+    cantidad                INTEGER      NOT NULL,
+    stock_minimo            INTEGER,
+    stock_maximo            INTEGER,
+    fecha_ultima_reposicion DATE,
+    ubicacion               VARCHAR(255),
+    CONSTRAINT pk_inventarios PRIMARY KEY (id),
+    CONSTRAINT fk_inventarios_producto FOREIGN KEY (producto_id) REFERENCES productos (id)
+);
+CREATE INDEX idx_inventarios_producto ON inventarios (producto_id);
+CREATE INDEX idx_inventarios_ubicacion ON inventarios (ubicacion);
+
+CREATE TABLE ventas (
+    id             BIGINT         NOT NULL,
+    fecha_venta    TIMESTAMP(6)   NOT NULL,
+    nombre_cliente VARCHAR(255),
+    monto_total    NUMERIC(38, 2) NOT NULL,
+    metodo_pago    VARCHAR(255),
+    CONSTRAINT pk_ventas PRIMARY KEY (id)
+);
+-- Covers the period totals (range on the date, grouped by payment method) without reading the table
+CREATE INDEX idx_ventas_fecha_venta_metodo_pago ON ventas (fecha_venta, metodo_pago, monto_total);
+CREATE INDEX idx_ventas_metodo_pago ON ventas (metodo_pago);
+CREATE INDEX idx_ventas_nombre_cliente ON ventas (nombre_cliente);
+CREATE INDEX idx_ventas_monto_total ON ventas (monto_total);
+
+CREATE TABLE items_venta (
+    id              BIGINT         NOT NULL,
+    producto_id     BIGINT         NOT NULL,
+    cantidad        INTEGER        NOT NULL,
+    precio_unitario NUMERIC(38, 2) NOT NULL,
+    subtotal        NUMERIC(38, 2) NOT NULL,
+    venta_id        BIGINT,
+    CONSTRAINT pk_items_venta PRIMARY KEY (id),
+    CONSTRAINT fk_items_venta_producto FOREIGN KEY (producto_id) REFERENCES productos (id),
+    CONSTRAINT fk_items_venta_venta FOREIGN KEY (venta_id) REFERENCES ventas (id)
+);
+CREATE INDEX idx_items_venta_venta ON items_venta (venta_id);
+CREATE INDEX idx_items_venta_producto ON items_venta (producto_id);
+
+-- No foreign key to productos: the change log keeps the entries of deleted products
+CREATE TABLE cambios_productos (
+    version     BIGINT       NOT NULL,
+    producto_id BIGINT       NOT NULL,
+    eliminado   BOOLEAN      NOT NULL,
+    fecha       TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_cambios_productos PRIMARY KEY (version)
+);
+CREATE INDEX idx_cambios_productos_producto_version ON cambios_productos (producto_id, version);
+
+CREATE TABLE resumen_ventas_diarias (
+    fecha           DATE           NOT NULL,
+    metodo_pago     VARCHAR(255)   NOT NULL,
+    categoria       VARCHAR(255)   NOT NULL,
+    cantidad_ventas BIGINT         NOT NULL,
+    monto_total     NUMERIC(38, 2) NOT NULL,
+    CONSTRAINT pk_resumen_ventas_diarias PRIMARY KEY (fecha, metodo_pago, categoria)
+);
+CREATE INDEX idx_resumen_ventas_diarias_categoria_fecha ON resumen_ventas_diarias (categoria, fecha);
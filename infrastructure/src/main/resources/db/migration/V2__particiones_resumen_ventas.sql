@@ -0,0 +1,33 @@
+-- Sale lines keep the category their product had when the sale entered the rollup, so the sale
+-- leaves it from the same rows after the product changes category
+ALTER TABLE items_venta ADD COLUMN categoria VARCHAR(255);
+UPDATE items_venta i
+SET categoria = COALESCE((SELECT p.categoria FROM productos p WHERE p.id = i.producto_id), 'Sin categoría');
+
+-- The rollup rows are split in 16 partitions (the id of the sale modulo 16), so the checkouts of
+-- the same day and payment method do not all wait on one row. The existing rows are recomputed
+-- from the sales, as they would be by a rebuild
+DROP TABLE resumen_ventas_diarias;
+CREATE TABLE resumen_ventas_diarias (
+    fecha           DATE           NOT NULL,
+    metodo_pago     VARCHAR(255)   NOT NULL,
+    categoria       VARCHAR(255)   NOT NULL,
+    particion       INTEGER        DEFAULT 0 NOT NULL,
+    cantidad_ventas BIGINT         NOT NULL,
+    monto_total     NUMERIC(38, 2) NOT NULL,
+    CONSTRAINT pk_resumen_ventas_diarias PRIMARY KEY (fecha, metodo_pago, categoria, particion)
+);
+CREATE INDEX idx_resumen_ventas_diarias_categoria_fecha ON resumen_ventas_diarias (categoria, fecha);
+
+INSERT INTO resumen_ventas_diarias (fecha, metodo_pago, categoria, particion, cantidad_ventas, monto_total)
+SELECT CAST(v.fecha_venta AS DATE), COALESCE(v.metodo_pago, 'Desconocido'), '*', MOD(v.id, 16),
+       COUNT(*), SUM(v.monto_total)
+FROM ventas v
+GROUP BY CAST(v.fecha_venta AS DATE), COALESCE(v.metodo_pago, 'Desconocido'), MOD(v.id, 16);
+
+INSERT INTO resumen_ventas_diarias (fecha, metodo_pago, categoria, particion, cantidad_ventas, monto_total)
+SELECT CAST(v.fecha_venta AS DATE), COALESCE(v.metodo_pago, 'Desconocido'), i.categoria, MOD(v.id, 16),
+       COUNT(DISTINCT v.id), SUM(i.subtotal)
+FROM items_venta i
+JOIN ventas v ON v.id = i.venta_id
+GROUP BY CAST(v.fecha_venta AS DATE), COALESCE(v.metodo_pago, 'Desconocido'), i.categoria, MOD(v.id, 16);
@@ -0,0 +1,12 @@
+-- Versions of the product change log come from this single row instead of cambios_productos_seq.
+-- Incrementing it locks the row until the product write commits, so versions commit in order
+-- and a rolled back write leaves no gap, whatever the number of application instances
+CREATE TABLE contador_cambios_productos (
+    id             INTEGER NOT NULL,
+    ultima_version BIGINT  NOT NULL,
+    CONSTRAINT pk_contador_cambios_productos PRIMARY KEY (id)
+);
+INSERT INTO contador_cambios_productos (id, ultima_version)
+SELECT 1, COALESCE(MAX(version), 0) FROM cambios_productos;
+
+DROP SEQUENCE cambios_productos_seq;
@@ -0,0 +1,5 @@
+-- Random id of this change log, drawn when the database is created. Versions start again from 0
+-- in a new database, so terminals compare it to tell a reset catalog from one that only moved on
+ALTER TABLE contador_cambios_productos ADD COLUMN epoca VARCHAR(36);
+UPDATE contador_cambios_productos SET epoca = CAST(RANDOM_UUID() AS VARCHAR(36));
+ALTER TABLE contador_cambios_productos ALTER COLUMN epoca SET NOT NULL;
@@ -0,0 +1,4 @@
+-- Key the register draws for each sale. A register that did not get an answer sends the sale
+-- again with the same key, and the unique constraint keeps the second copy out
+ALTER TABLE ventas ADD COLUMN clave_idempotencia VARCHAR(64);
+ALTER TABLE ventas ADD CONSTRAINT uk_ventas_clave_idempotencia UNIQUE (clave_idempotencia);
@@ -0,0 +1,11 @@
+package org.litethinking.infrastructure;
+
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Minimal Spring Boot configuration so slice tests (e.g. @DataJpaTest)
+ * can bootstrap the infrastructure module on its own.
+ */
+@SpringBootApplication
+public class InfrastructureTestApplication {
+}
@@ -0,0 +1,73 @@
+package org.litethinking.infrastructure.persistence;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.metamodel.EntityType;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationState;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the Flyway scripts build the schema the entities expect: the context only starts
+ * if Hibernate validates every table, column and sequence against it, and every index declared
+ * on an entity must exist in the database.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+class EsquemaMigracionesTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void everyMigrationIsApplied() {
+        MigrationInfo[] migraciones = flyway.info().all();
+
+        assertTrue(migraciones.length > 0);
+        for (MigrationInfo migracion : migraciones) {
+            assertEquals(MigrationState.SUCCESS, migracion.getState(), migracion.getScript());
+        }
+        assertEquals(0, flyway.info().pending().length);
+    }
+
+    @Test
+    void everyEntityIndexExistsInTheSchema() {
+        Set<String> indicesEsquema = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT INDEX_NAME FROM INFORMATION_SCHEMA.INDEXES WHERE TABLE_SCHEMA = 'PUBLIC'", String.class));
+
+        List<String> indicesEntidades = entityManager.getMetamodel().getEntities().stream()
+                .map(EntityType::getJavaType)
+                .map(tipo -> tipo.getAnnotation(Table.class))
+                .filter(Objects::nonNull)
+                .flatMap(tabla -> Arrays.stream(tabla.indexes()))
+                .map(Index::name)
+                .toList();
+
+        assertFalse(indicesEntidades.isEmpty());
+        Set<String> faltantes = indicesEntidades.stream()
+                .filter(nombre -> !indicesEsquema.contains(nombre.toUpperCase(Locale.ROOT)))
+                .collect(Collectors.toSet());
+        assertTrue(faltantes.isEmpty(), "Indexes declared on the entities but missing from the migrations: "
+                + faltantes);
+    }
+}
@@ -0,0 +1,124 @@
+package org.litethinking.infrastructure.persistence.adapter.supermercado;
+
+import org.junit.jupiter.api.Test;
+import org.litethinking.domain.model.supermercado.CambioProducto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the change log hands out growing versions, that a version taken by an open
+ * transaction holds back the next one, and that a product written several times is reported
+ * once, with its latest change.
+ */
+@DataJpaTest
+@Import(AdaptadorRepositorioCambioProducto.class)
+class AdaptadorRepositorioCambioProductoTest {
+
+    @Autowired
+    private AdaptadorRepositorioCambioProducto adaptadorRepositorioCambioProducto;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void registerChangeHandsOutGrowingVersions() {
+        assertEquals(0, adaptadorRepositorioCambioProducto.findLastVersion());
+
+        CambioProducto primero = adaptadorRepositorioCambioProducto.registerChange(1L, false);
+        CambioProducto segundo = adaptadorRepositorioCambioProducto.registerChange(2L, false);
+
+        assertTrue(segundo.getVersion() > primero.getVersion());
+        assertEquals(segundo.getVersion(), adaptadorRepositorioCambioProducto.findLastVersion());
+        assertNotNull(primero.getFecha());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void aChangeWaitsUntilTheTransactionOfThePreviousOneEnds() throws Exception {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        CountDownLatch primeroRegistrado = new CountDownLatch(1);
+        CountDownLatch terminarPrimero = new CountDownLatch(1);
+        ExecutorService hilos = Executors.newFixedThreadPool(2);
+        try {
+            Future<Long> primero = hilos.submit(() -> transaccion.execute(estado -> {
+                long version = adaptadorRepositorioCambioProducto.registerChange(1L, false).getVersion();
+                primeroRegistrado.countDown();
+                await(terminarPrimero);
+                return version;
+            }));
+            assertTrue(primeroRegistrado.await(5, TimeUnit.SECONDS));
+            Future<Long> segundo = hilos.submit(() -> transaccion.execute(estado ->
+                    adaptadorRepositorioCambioProducto.registerChange(2L, false).getVersion()));
+
+            // The second change cannot take a version while the first transaction is open
+            assertThrows(TimeoutException.class, () -> segundo.get(300, TimeUnit.MILLISECONDS));
+            terminarPrimero.countDown();
+
+            assertEquals(primero.get(5, TimeUnit.SECONDS) + 1, segundo.get(5, TimeUnit.SECONDS));
+        } finally {
+            terminarPrimero.countDown();
+            hilos.shutdownNow();
+            jdbcTemplate.update("DELETE FROM cambios_productos");
+            jdbcTemplate.update("UPDATE contador_cambios_productos SET ultima_version = 0");
+        }
+    }
+
+    @Test
+    void findLatestAfterKeepsOnlyTheLastChangeOfEachProduct() {
+        CambioProducto creado1 = adaptadorRepositorioCambioProducto.registerChange(1L, false);
+        adaptadorRepositorioCambioProducto.registerChange(2L, false);
+        adaptadorRepositorioCambioProducto.registerChange(1L, false);
+        CambioProducto eliminado2 = adaptadorRepositorioCambioProducto.registerChange(2L, true);
+        CambioProducto creado3 = adaptadorRepositorioCambioProducto.registerChange(3L, false);
+
+        List<CambioProducto> cambios = adaptadorRepositorioCambioProducto.findLatestAfter(0, 10);
+
+        assertEquals(List.of(1L, 2L, 3L), cambios.stream().map(CambioProducto::getProductoId).toList());
+        assertFalse(cambios.get(0).isEliminado());
+        assertTrue(cambios.get(1).isEliminado());
+        assertEquals(eliminado2.getVersion(), cambios.get(1).getVersion());
+
+        // After the first change only what came later is returned
+        List<CambioProducto> despues = adaptadorRepositorioCambioProducto.findLatestAfter(eliminado2.getVersion(), 10);
+        assertEquals(List.of(creado3.getVersion()), despues.stream().map(CambioProducto::getVersion).toList());
+        assertTrue(creado1.getVersion() < cambios.get(0).getVersion());
+    }
+
+    @Test
+    void findLatestAfterHonorsTheLimit() {
+        for (long id = 1; id <= 5; id++) {
+            adaptadorRepositorioCambioProducto.registerChange(id, false);
+        }
+
+        List<CambioProducto> cambios = adaptadorRepositorioCambioProducto.findLatestAfter(0, 3);
+
+        assertEquals(List.of(1L, 2L, 3L), cambios.stream().map(CambioProducto::getProductoId).toList());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.litethinking.infrastructure.persistence.adapter.supermercado;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.litethinking.application.service.supermercado.EventoProductoModificado;
+import org.litethinking.domain.model.supermercado.Producto;
+import org.litethinking.infrastructure.persistence.repository.supermercado.RepositorioJpaProducto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks with real transactions that a checkout lookup made while a product update is still
+ * uncommitted does not leave the old row in the cache once the update commits.
+ */
+@DataJpaTest
+@Import({AdaptadorRepositorioProductoEnCacheCommitTest.Adaptadores.class, AdaptadorRepositorioProductoEnCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AdaptadorRepositorioProductoEnCacheCommitTest {
+
+    @Autowired
+    private AdaptadorRepositorioProductoEnCache cache;
+
+    @Autowired
+    private RepositorioJpaProducto repositorioJpaProducto;
+
+    @Autowired
+    private ApplicationEventPublisher eventos;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        repositorioJpaProducto.deleteAll();
+    }
+
+    @Test
+    void unaLecturaQueSeCruzaConUnaEscrituraSinCommitNoQuedaEnCache() {
+        Producto producto = cache.save(Producto.builder()
+                .nombre("Leche")
+                .precio(new BigDecimal("1.50"))
+                .categoria("Lácteos")
+                .codigoBarras("7501")
+                .build());
+        ExecutorService caja = Executors.newSingleThreadExecutor();
+
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                producto.setPrecio(new BigDecimal("2.00"));
+                cache.save(producto);
+                // Published inside the write, as ServicioProducto does
+                eventos.publishEvent(new EventoProductoModificado(producto.getId(), 1L));
+
+                // A register looks the product up before the commit: it gets the old price
+                assertEquals(new BigDecimal("1.50"), enCaja(caja));
+            });
+
+            assertEquals(new BigDecimal("2.00"), enCaja(caja));
+        } finally {
+            caja.shutdownNow();
+        }
+    }
+
+    // Names the database adapter as component scanning does, for the qualifier of the cache
+    @TestConfiguration
+    static class Adaptadores {
+
+        @Bean
+        AdaptadorRepositorioProducto adaptadorRepositorioProducto(RepositorioJpaProducto repositorioJpaProducto,
+                                                                  EntityManager entityManager) {
+            return new AdaptadorRepositorioProducto(repositorioJpaProducto, entityManager);
+        }
+    }
+
+    // The price a lookup by barcode returns on another thread, outside the transaction of the write
+    private BigDecimal enCaja(ExecutorService caja) {
+        try {
+            return caja.submit(() -> cache.findByCodigoBarras("7501").orElseThrow().getPrecio())
+                    .get(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+}
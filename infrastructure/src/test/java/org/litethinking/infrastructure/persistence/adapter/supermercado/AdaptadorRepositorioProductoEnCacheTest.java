@@ -0,0 +1,164 @@
+package org.litethinking.infrastructure.persistence.adapter.supermercado;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.litethinking.application.service.supermercado.EventoProductoModificado;
+import org.litethinking.domain.model.supermercado.Producto;
+import org.litethinking.domain.repository.supermercado.RepositorioProducto;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Checks the read-through behaviour, the invalidation on writes and the counters
+ * of the product cache, with the database adapter mocked.
+ */
+class AdaptadorRepositorioProductoEnCacheTest {
+
+    @Mock
+    private RepositorioProducto delegado;
+
+    private AdaptadorRepositorioProductoEnCache cache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        cache = new AdaptadorRepositorioProductoEnCache(delegado, 2);
+    }
+
+    @Test
+    void findByCodigoBarrasSoloVaUnaVezALaBaseDeDatos() {
+        when(delegado.findByCodigoBarras("7501")).thenReturn(Optional.of(producto(1L, "Leche", "7501")));
+
+        assertEquals("Leche", cache.findByCodigoBarras("7501").orElseThrow().getNombre());
+        assertEquals("Leche", cache.findByCodigoBarras("7501").orElseThrow().getNombre());
+        // The barcode lookup also fills the id map
+        assertEquals("Leche", cache.findById(1L).orElseThrow().getNombre());
+
+        verify(delegado, times(1)).findByCodigoBarras("7501");
+        verify(delegado, never()).findById(any());
+        assertEquals(1, cache.estadisticas().aciertosPorCodigoBarras());
+        assertEquals(1, cache.estadisticas().fallosPorCodigoBarras());
+    }
+
+    @Test
+    void saveInvalidaElProductoYSuCodigoDeBarras() {
+        when(delegado.findByCodigoBarras("7501")).thenReturn(Optional.of(producto(1L, "Leche", "7501")));
+        cache.findByCodigoBarras("7501");
+
+        Producto actualizado = producto(1L, "Leche deslactosada", "7501");
+        when(delegado.save(actualizado)).thenReturn(actualizado);
+        when(delegado.findByCodigoBarras("7501")).thenReturn(Optional.of(actualizado));
+        cache.save(actualizado);
+
+        assertEquals("Leche deslactosada", cache.findByCodigoBarras("7501").orElseThrow().getNombre());
+        verify(delegado, times(2)).findByCodigoBarras("7501");
+    }
+
+    @Test
+    void unCodigoDeBarrasCambiadoNoDevuelveElProductoViejo() {
+        when(delegado.findById(1L)).thenReturn(Optional.of(producto(1L, "Leche", "7501")));
+        cache.findById(1L);
+
+        Producto actualizado = producto(1L, "Leche", "7502");
+        when(delegado.save(actualizado)).thenReturn(actualizado);
+        cache.save(actualizado);
+        when(delegado.findById(1L)).thenReturn(Optional.of(actualizado));
+        cache.findById(1L);
+
+        when(delegado.findByCodigoBarras("7501")).thenReturn(Optional.empty());
+        assertTrue(cache.findByCodigoBarras("7501").isEmpty());
+    }
+
+    @Test
+    void deleteByIdInvalidaElProducto() {
+        when(delegado.findById(1L)).thenReturn(Optional.of(producto(1L, "Leche", "7501")));
+        cache.findById(1L);
+
+        cache.deleteById(1L);
+        when(delegado.findById(1L)).thenReturn(Optional.empty());
+
+        assertTrue(cache.findById(1L).isEmpty());
+        verify(delegado).deleteById(1L);
+    }
+
+    @Test
+    void desalojaElMenosUsadoAlLlenarse() {
+        when(delegado.findById(1L)).thenReturn(Optional.of(producto(1L, "Leche", "7501")));
+        when(delegado.findById(2L)).thenReturn(Optional.of(producto(2L, "Pan", "7502")));
+        when(delegado.findById(3L)).thenReturn(Optional.of(producto(3L, "Café", "7503")));
+
+        cache.findById(1L);
+        cache.findById(2L);
+        cache.findById(1L);
+        cache.findById(3L);
+
+        AdaptadorRepositorioProductoEnCache.EstadisticasCache estadisticas = cache.estadisticas();
+        assertEquals(1, estadisticas.desalojosPorId());
+        assertEquals(2, estadisticas.productosEnCache());
+
+        // 2 was the least recently used, 1 is still cached
+        cache.findById(1L);
+        cache.findById(2L);
+        verify(delegado, times(1)).findById(1L);
+        verify(delegado, times(2)).findById(2L);
+    }
+
+    @Test
+    void unaLecturaQueSeCruzaConUnSaveNoGuardaLaFilaVieja() {
+        Producto actualizado = producto(1L, "Leche deslactosada", "7501");
+        when(delegado.save(actualizado)).thenReturn(actualizado);
+        // The save lands while the read is at the database and has already got the old row
+        when(delegado.findById(1L)).thenAnswer(invocacion -> {
+            cache.save(actualizado);
+            return Optional.of(producto(1L, "Leche", "7501"));
+        }).thenReturn(Optional.of(actualizado));
+
+        assertEquals("Leche", cache.findById(1L).orElseThrow().getNombre());
+
+        assertEquals("Leche deslactosada", cache.findById(1L).orElseThrow().getNombre());
+        verify(delegado, times(2)).findById(1L);
+    }
+
+    @Test
+    void unaLecturaAntesDelCommitNoQuedaEnCache() {
+        Producto actualizado = producto(1L, "Leche deslactosada", "7501");
+        when(delegado.save(actualizado)).thenReturn(actualizado);
+        cache.save(actualizado);
+
+        // Before the commit the database still returns the old row, and it gets cached
+        when(delegado.findById(1L)).thenReturn(Optional.of(producto(1L, "Leche", "7501")));
+        assertEquals("Leche", cache.findById(1L).orElseThrow().getNombre());
+
+        cache.productoModificado(new EventoProductoModificado(1L, 1L));
+        when(delegado.findById(1L)).thenReturn(Optional.of(actualizado));
+
+        assertEquals("Leche deslactosada", cache.findById(1L).orElseThrow().getNombre());
+    }
+
+    @Test
+    void lasModificacionesDelLlamadorNoAlteranLaCache() {
+        when(delegado.findById(1L)).thenReturn(Optional.of(producto(1L, "Leche", "7501")));
+
+        cache.findById(1L).orElseThrow().setNombre("Modificado");
+
+        assertEquals("Leche", cache.findById(1L).orElseThrow().getNombre());
+    }
+
+    private static Producto producto(Long id, String nombre, String codigoBarras) {
+        return Producto.builder()
+                .id(id)
+                .nombre(nombre)
+                .descripcion(nombre)
+                .precio(new BigDecimal("1.50"))
+                .categoria("Lácteos")
+                .codigoBarras(codigoBarras)
+                .build();
+    }
+}
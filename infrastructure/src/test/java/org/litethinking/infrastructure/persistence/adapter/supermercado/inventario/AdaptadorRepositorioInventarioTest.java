@@ -0,0 +1,153 @@
+package org.litethinking.infrastructure.persistence.adapter.supermercado.inventario;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.litethinking.infrastructure.persistence.entity.supermercado.EntidadJpaProducto;
+import org.litethinking.infrastructure.persistence.entity.supermercado.inventario.EntidadJpaInventario;
+import org.litethinking.infrastructure.persistence.repository.supermercado.RepositorioJpaProducto;
+import org.litethinking.infrastructure.persistence.repository.supermercado.inventario.RepositorioJpaInventario;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the conditional stock decrement, including many registers selling the same product at once.
+ * Runs without the test transaction so every call commits on its own, like real checkouts.
+ */
+@DataJpaTest
+@Import(AdaptadorRepositorioInventario.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AdaptadorRepositorioInventarioTest {
+
+    private static final int STOCK_INICIAL = 50;
+
+    @Autowired
+    private RepositorioJpaProducto repositorioJpaProducto;
+
+    @Autowired
+    private RepositorioJpaInventario repositorioJpaInventario;
+
+    @Autowired
+    private AdaptadorRepositorioInventario adaptadorRepositorioInventario;
+
+    private Long productoId;
+    private Long inventarioId;
+
+    @BeforeEach
+    void setUp() {
+        EntidadJpaProducto producto = repositorioJpaProducto.save(EntidadJpaProducto.builder()
+                .nombre("Leche")
+                .precio(new BigDecimal("1.50"))
+                .categoria("Lácteos")
+                .codigoBarras("HOT-SKU")
+                .build());
+        EntidadJpaInventario inventario = repositorioJpaInventario.save(EntidadJpaInventario.builder()
+                .producto(producto)
+                .cantidad(STOCK_INICIAL)
+                .stockMinimo(5)
+                .stockMaximo(100)
+                .fechaUltimaReposicion(LocalDate.now())
+                .ubicacion("Pasillo 1")
+                .build());
+        productoId = producto.getId();
+        inventarioId = inventario.getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        repositorioJpaInventario.deleteAll();
+        repositorioJpaProducto.deleteAll();
+    }
+
+    @Test
+    void reserveStockTakesStockWhenThereIsEnough() {
+        assertEquals(inventarioId, adaptadorRepositorioInventario.reserveStock(productoId, 20).orElseThrow());
+
+        assertEquals(STOCK_INICIAL - 20, cantidadActual());
+    }
+
+    @Test
+    void reserveStockLeavesStockUntouchedWhenThereIsNotEnough() {
+        assertTrue(adaptadorRepositorioInventario.reserveStock(productoId, STOCK_INICIAL + 1).isEmpty());
+
+        assertEquals(STOCK_INICIAL, cantidadActual());
+    }
+
+    @Test
+    void reserveStockTakesFromOneLocationOfAProductStockedInTwo() {
+        EntidadJpaInventario otraUbicacion = repositorioJpaInventario.save(EntidadJpaInventario.builder()
+                .producto(repositorioJpaProducto.findById(productoId).orElseThrow())
+                .cantidad(10)
+                .stockMinimo(1)
+                .stockMaximo(20)
+                .fechaUltimaReposicion(LocalDate.now())
+                .ubicacion("Bodega")
+                .build());
+
+        // Only the first location has 30 units
+        Long reservado = adaptadorRepositorioInventario.reserveStock(productoId, 30).orElseThrow();
+        assertEquals(inventarioId, reservado);
+        assertEquals(STOCK_INICIAL - 30, cantidadActual());
+        assertEquals(10, repositorioJpaInventario.findById(otraUbicacion.getId()).orElseThrow().getCantidad());
+
+        adaptadorRepositorioInventario.releaseStock(reservado, 30);
+        assertEquals(STOCK_INICIAL, cantidadActual());
+        assertEquals(10, repositorioJpaInventario.findById(otraUbicacion.getId()).orElseThrow().getCantidad());
+    }
+
+    @Test
+    void concurrentReservationsNeverOversell() throws Exception {
+        int cajas = 32;
+        int intentosPorCaja = 4;
+        int cantidadPorVenta = 2;
+        ExecutorService executor = Executors.newFixedThreadPool(cajas);
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Future<Integer>> resultados = new ArrayList<>();
+
+        try {
+            for (int c = 0; c < cajas; c++) {
+                resultados.add(executor.submit(() -> {
+                    salida.await();
+                    int exitosas = 0;
+                    for (int i = 0; i < intentosPorCaja; i++) {
+                        if (adaptadorRepositorioInventario.reserveStock(productoId, cantidadPorVenta).isPresent()) {
+                            exitosas++;
+                        }
+                    }
+                    return exitosas;
+                }));
+            }
+            salida.countDown();
+
+            int ventasExitosas = 0;
+            for (Future<Integer> resultado : resultados) {
+                ventasExitosas += resultado.get(30, TimeUnit.SECONDS);
+            }
+
+            // 128 attempts of 2 units against 50 units: exactly 25 can succeed
+            assertEquals(STOCK_INICIAL / cantidadPorVenta, ventasExitosas);
+            assertEquals(0, cantidadActual());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int cantidadActual() {
+        return repositorioJpaInventario.findById(inventarioId).orElseThrow().getCantidad();
+    }
+}
@@ -0,0 +1,199 @@
+package org.litethinking.infrastructure.persistence.adapter.supermercado.venta;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.litethinking.domain.model.supermercado.Producto;
+import org.litethinking.domain.model.supermercado.venta.ItemVenta;
+import org.litethinking.domain.model.supermercado.venta.TotalVentasPorDia;
+import org.litethinking.domain.model.supermercado.venta.TotalVentasPorGrupo;
+import org.litethinking.domain.model.supermercado.venta.Venta;
+import org.litethinking.infrastructure.persistence.entity.supermercado.EntidadJpaProducto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the daily sales rollup follows every sale write, and that
+ * rebuilding it from the sales gives the same totals.
+ */
+@DataJpaTest
+@Import({AdaptadorRepositorioResumenVentas.class, AdaptadorRepositorioVenta.class})
+class AdaptadorRepositorioResumenVentasTest {
+
+    private static final LocalDate DIA_1 = LocalDate.of(2024, 3, 1);
+    private static final LocalDate DIA_2 = LocalDate.of(2024, 3, 2);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private AdaptadorRepositorioResumenVentas adaptadorRepositorioResumenVentas;
+
+    @Autowired
+    private AdaptadorRepositorioVenta adaptadorRepositorioVenta;
+
+    private Producto leche;
+    private Producto queso;
+    private Producto agua;
+
+    @BeforeEach
+    void setUp() {
+        leche = producto("Leche", "Lácteos", "R001");
+        queso = producto("Queso", "Lácteos", "R002");
+        agua = producto("Agua", "Bebidas", "R003");
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void registerSaleAddsUpPerDayPaymentMethodAndCategory() {
+        registrar(venta(DIA_1.atTime(10, 0), "Efectivo", item(leche, "3.00"), item(agua, "1.00")));
+        registrar(venta(DIA_1.atTime(18, 0), "Tarjeta", item(queso, "5.00")));
+        registrar(venta(DIA_2.atTime(9, 0), "Efectivo", item(agua, "2.00")));
+
+        assertTotalesCompletos();
+    }
+
+    @Test
+    void unregisterSaleTakesTheSaleOutAndDropsEmptyRows() {
+        registrar(venta(DIA_1.atTime(10, 0), "Efectivo", item(leche, "3.00"), item(agua, "1.00")));
+        Venta conTarjeta = registrar(venta(DIA_1.atTime(18, 0), "Tarjeta", item(queso, "5.00")));
+
+        adaptadorRepositorioResumenVentas.unregisterSale(conTarjeta);
+
+        List<TotalVentasPorDia> porDia = adaptadorRepositorioResumenVentas.sumByDia(null, null);
+        assertEquals(1, porDia.size());
+        assertEquals(1L, porDia.get(0).getCantidadVentas());
+        assertMonto("4.00", porDia.get(0).getMontoTotal());
+
+        Map<String, TotalVentasPorGrupo> porMetodo = porGrupo(adaptadorRepositorioResumenVentas.sumByMetodoPago(null, null));
+        assertFalse(porMetodo.containsKey("Tarjeta"));
+
+        Map<String, TotalVentasPorGrupo> porCategoria = porGrupo(adaptadorRepositorioResumenVentas.sumByCategoria(null, null));
+        assertEquals(1L, porCategoria.get("Lácteos").getCantidadVentas());
+        assertMonto("3.00", porCategoria.get("Lácteos").getMontoTotal());
+
+        // Only the rows of the sale left: its total, Lácteos and Bebidas
+        assertEquals(3L, entityManager.getEntityManager()
+                .createQuery("SELECT COUNT(r) FROM EntidadJpaResumenVentaDiaria r", Long.class)
+                .getSingleResult());
+    }
+
+    @Test
+    void unregisterSaleUsesTheCategoryTheSaleWasRegisteredWith() {
+        Venta venta = registrar(venta(DIA_1.atTime(10, 0), "Efectivo", item(leche, "3.00"), item(agua, "1.00")));
+        entityManager.find(EntidadJpaProducto.class, leche.getId()).setCategoria("Refrigerados");
+        entityManager.flush();
+
+        adaptadorRepositorioResumenVentas.unregisterSale(venta);
+
+        assertTrue(adaptadorRepositorioResumenVentas.sumByCategoria(null, null).isEmpty());
+        assertTrue(adaptadorRepositorioResumenVentas.sumByDia(null, null).isEmpty());
+    }
+
+    @Test
+    void rebuildGivesTheSameTotalsAsTheIncrementalUpdates() {
+        // Saved without touching the rollup, like a bulk load would
+        adaptadorRepositorioVenta.save(venta(DIA_1.atTime(10, 0), "Efectivo", item(leche, "3.00"), item(agua, "1.00")));
+        adaptadorRepositorioVenta.save(venta(DIA_1.atTime(18, 0), "Tarjeta", item(queso, "5.00")));
+        adaptadorRepositorioVenta.save(venta(DIA_2.atTime(9, 0), "Efectivo", item(agua, "2.00")));
+        assertTrue(adaptadorRepositorioResumenVentas.sumByDia(null, null).isEmpty());
+
+        int filas = adaptadorRepositorioResumenVentas.rebuild();
+
+        // 3 rows for whole sales (day x payment method) + 4 rows per category
+        assertEquals(7, filas);
+        assertTotalesCompletos();
+    }
+
+    @Test
+    void sumByDiaFiltersByDayRange() {
+        registrar(venta(DIA_1.atTime(10, 0), "Efectivo", item(leche, "3.00")));
+        registrar(venta(DIA_2.atTime(9, 0), "Efectivo", item(agua, "2.00")));
+
+        List<TotalVentasPorDia> porDia = adaptadorRepositorioResumenVentas.sumByDia(DIA_2, DIA_2);
+
+        assertEquals(1, porDia.size());
+        assertEquals(DIA_2, porDia.get(0).getFecha());
+    }
+
+    private void assertTotalesCompletos() {
+        List<TotalVentasPorDia> porDia = adaptadorRepositorioResumenVentas.sumByDia(null, null);
+        assertEquals(2, porDia.size());
+        assertEquals(DIA_1, porDia.get(0).getFecha());
+        assertEquals(2L, porDia.get(0).getCantidadVentas());
+        assertMonto("9.00", porDia.get(0).getMontoTotal());
+        assertEquals(1L, porDia.get(1).getCantidadVentas());
+        assertMonto("2.00", porDia.get(1).getMontoTotal());
+
+        Map<String, TotalVentasPorGrupo> porMetodo = porGrupo(adaptadorRepositorioResumenVentas.sumByMetodoPago(null, null));
+        assertEquals(2L, porMetodo.get("Efectivo").getCantidadVentas());
+        assertMonto("6.00", porMetodo.get("Efectivo").getMontoTotal());
+        assertEquals(1L, porMetodo.get("Tarjeta").getCantidadVentas());
+        assertMonto("5.00", porMetodo.get("Tarjeta").getMontoTotal());
+
+        Map<String, TotalVentasPorGrupo> porCategoria = porGrupo(adaptadorRepositorioResumenVentas.sumByCategoria(null, null));
+        assertEquals(2, porCategoria.size());
+        assertEquals(2L, porCategoria.get("Lácteos").getCantidadVentas());
+        assertMonto("8.00", porCategoria.get("Lácteos").getMontoTotal());
+        assertEquals(2L, porCategoria.get("Bebidas").getCantidadVentas());
+        assertMonto("3.00", porCategoria.get("Bebidas").getMontoTotal());
+    }
+
+    private Venta registrar(Venta venta) {
+        Venta guardada = adaptadorRepositorioVenta.save(venta);
+        adaptadorRepositorioResumenVentas.registerSale(guardada);
+        return guardada;
+    }
+
+    private Producto producto(String nombre, String categoria, String codigoBarras) {
+        EntidadJpaProducto entidad = entityManager.persist(EntidadJpaProducto.builder()
+                .nombre(nombre)
+                .precio(BigDecimal.ONE)
+                .categoria(categoria)
+                .codigoBarras(codigoBarras)
+                .build());
+        // Only the id, like the products of a sale that comes from a DTO
+        return Producto.builder().id(entidad.getId()).build();
+    }
+
+    private static ItemVenta item(Producto producto, String subtotal) {
+        return ItemVenta.builder()
+                .producto(producto)
+                .cantidad(1)
+                .precioUnitario(new BigDecimal(subtotal))
+                .subtotal(new BigDecimal(subtotal))
+                .build();
+    }
+
+    private static Venta venta(LocalDateTime fecha, String metodoPago, ItemVenta... items) {
+        BigDecimal montoTotal = List.of(items).stream()
+                .map(ItemVenta::getSubtotal)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return Venta.builder()
+                .fechaVenta(fecha)
+                .nombreCliente("Cliente")
+                .items(List.of(items))
+                .montoTotal(montoTotal)
+                .metodoPago(metodoPago)
+                .build();
+    }
+
+    private static Map<String, TotalVentasPorGrupo> porGrupo(List<TotalVentasPorGrupo> totales) {
+        return totales.stream().collect(Collectors.toMap(TotalVentasPorGrupo::getGrupo, t -> t));
+    }
+
+    private static void assertMonto(String esperado, BigDecimal actual) {
+        assertEquals(0, new BigDecimal(esperado).compareTo(actual), "Expected " + esperado + " but got " + actual);
+    }
+}
@@ -0,0 +1,231 @@
+package org.litethinking.infrastructure.persistence.adapter.supermercado.venta;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.litethinking.domain.model.supermercado.venta.ItemVenta;
+import org.litethinking.domain.model.supermercado.venta.TotalVentasPorDia;
+import org.litethinking.domain.model.supermercado.venta.TotalVentasPorGrupo;
+import org.litethinking.domain.model.supermercado.venta.Venta;
+import org.litethinking.infrastructure.persistence.entity.supermercado.EntidadJpaProducto;
+import org.litethinking.infrastructure.persistence.entity.supermercado.venta.EntidadJpaItemVenta;
+import org.litethinking.infrastructure.persistence.entity.supermercado.venta.EntidadJpaVenta;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that loading sales with their items and products takes a bounded
+ * number of SQL statements, no matter how many sales or items there are,
+ * and that the sales totals are aggregated by the database in one statement.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(AdaptadorRepositorioVenta.class)
+class AdaptadorRepositorioVentaTest {
+
+    private static final int VENTAS = 20;
+    private static final int ITEMS_POR_VENTA = 3;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private AdaptadorRepositorioVenta adaptadorRepositorioVenta;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        List<EntidadJpaProducto> productos = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            productos.add(entityManager.persist(EntidadJpaProducto.builder()
+                    .nombre("Producto " + i)
+                    .precio(new BigDecimal("10.00"))
+                    .categoria(i % 2 == 0 ? "Lácteos" : "Bebidas")
+                    .codigoBarras("P00" + i)
+                    .build()));
+        }
+
+        for (int v = 0; v < VENTAS; v++) {
+            EntidadJpaVenta venta = EntidadJpaVenta.builder()
+                    .fechaVenta(LocalDateTime.of(2024, 1, 1, 10, 0).plusDays(v))
+                    .nombreCliente(v % 2 == 0 ? "Juan Pérez" : "María López")
+                    .montoTotal(new BigDecimal("30.00"))
+                    .metodoPago(v % 2 == 0 ? "Efectivo" : "Tarjeta")
+                    .build();
+            for (int i = 0; i < ITEMS_POR_VENTA; i++) {
+                venta.addItem(EntidadJpaItemVenta.builder()
+                        .producto(productos.get((v + i) % productos.size()))
+                        .cantidad(1)
+                        .precioUnitario(new BigDecimal("10.00"))
+                        .subtotal(new BigDecimal("10.00"))
+                        .build());
+            }
+            entityManager.persist(venta);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findAllLoadsTheWholeGraphInOneStatement() {
+        List<Venta> ventas = adaptadorRepositorioVenta.findAll();
+
+        assertEquals(VENTAS, ventas.size());
+        assertItemsAndProductsLoaded(ventas);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findByFechaVentaBetweenLoadsTheWholeGraphInOneStatement() {
+        List<Venta> ventas = adaptadorRepositorioVenta.findByFechaVentaBetween(
+                LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 1, 10, 23, 59));
+
+        assertEquals(10, ventas.size());
+        assertItemsAndProductsLoaded(ventas);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findByNombreClienteLoadsTheWholeGraphInOneStatement() {
+        List<Venta> ventas = adaptadorRepositorioVenta.findByNombreCliente("Juan Pérez");
+
+        assertEquals(VENTAS / 2, ventas.size());
+        assertItemsAndProductsLoaded(ventas);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findByMetodoPagoLoadsTheWholeGraphInOneStatement() {
+        List<Venta> ventas = adaptadorRepositorioVenta.findByMetodoPago("Tarjeta");
+
+        assertEquals(VENTAS / 2, ventas.size());
+        assertItemsAndProductsLoaded(ventas);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findByMontoTotalGreaterThanLoadsTheWholeGraphInOneStatement() {
+        List<Venta> ventas = adaptadorRepositorioVenta.findByMontoTotalGreaterThan(new BigDecimal("20.00"));
+
+        assertEquals(VENTAS, ventas.size());
+        assertItemsAndProductsLoaded(ventas);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findByIdempotencyKeyLoadsTheWholeGraphInOneStatement() {
+        entityManager.persist(EntidadJpaVenta.builder()
+                .fechaVenta(LocalDateTime.of(2024, 2, 1, 10, 0))
+                .nombreCliente("Juan Pérez")
+                .montoTotal(new BigDecimal("10.00"))
+                .metodoPago("Efectivo")
+                .claveIdempotencia("clave-1")
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        Venta venta = adaptadorRepositorioVenta.findByIdempotencyKey("clave-1").orElseThrow();
+
+        assertEquals("clave-1", venta.getClaveIdempotencia());
+        assertTrue(adaptadorRepositorioVenta.findByIdempotencyKey("clave-2").isEmpty());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void aSecondSaleWithTheSameIdempotencyKeyIsRefused() {
+        Venta venta = Venta.builder()
+                .fechaVenta(LocalDateTime.of(2024, 2, 1, 10, 0))
+                .nombreCliente("Juan Pérez")
+                .items(List.of())
+                .montoTotal(new BigDecimal("10.00"))
+                .metodoPago("Efectivo")
+                .claveIdempotencia("clave-1")
+                .build();
+        adaptadorRepositorioVenta.save(venta);
+        entityManager.flush();
+
+        adaptadorRepositorioVenta.save(venta);
+        assertThrows(PersistenceException.class, () -> entityManager.flush());
+    }
+
+    @Test
+    void findPageUsesBatchFetchingForItemsAndProducts() {
+        List<Venta> ventas = adaptadorRepositorioVenta.findPage(null, 15);
+
+        assertEquals(15, ventas.size());
+        assertItemsAndProductsLoaded(ventas);
+        // One query for the page, one batch for the items and one batch for the products
+        assertTrue(statistics.getPrepareStatementCount() <= 3,
+                "Expected at most 3 statements but got " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void sumByDiaReturnsOneRowPerDayInTheRange() {
+        List<TotalVentasPorDia> totales = adaptadorRepositorioVenta.sumByDia(
+                LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 1, 4, 0, 0));
+
+        assertEquals(3, totales.size());
+        assertEquals(LocalDate.of(2024, 1, 1), totales.get(0).getFecha());
+        assertEquals(LocalDate.of(2024, 1, 3), totales.get(2).getFecha());
+        assertEquals(1L, totales.get(0).getCantidadVentas());
+        assertEquals(0, new BigDecimal("30.00").compareTo(totales.get(0).getMontoTotal()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void sumByMetodoPagoAddsUpEveryPaymentMethod() {
+        Map<String, TotalVentasPorGrupo> totales = adaptadorRepositorioVenta.sumByMetodoPago(null, null).stream()
+                .collect(Collectors.toMap(TotalVentasPorGrupo::getGrupo, t -> t));
+
+        assertEquals(2, totales.size());
+        assertEquals(10L, totales.get("Efectivo").getCantidadVentas());
+        assertEquals(0, new BigDecimal("300.00").compareTo(totales.get("Efectivo").getMontoTotal()));
+        assertEquals(0, new BigDecimal("300.00").compareTo(totales.get("Tarjeta").getMontoTotal()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void sumByCategoriaAddsUpTheItemSubtotals() {
+        List<TotalVentasPorGrupo> totales = adaptadorRepositorioVenta.sumByCategoria(null, null);
+
+        assertEquals(2, totales.size());
+        // Highest amount first: 3 of the 5 products are Lácteos
+        assertEquals("Lácteos", totales.get(0).getGrupo());
+        assertEquals(0, new BigDecimal("360.00").compareTo(totales.get(0).getMontoTotal()));
+        assertEquals((long) VENTAS, totales.get(0).getCantidadVentas());
+        assertEquals("Bebidas", totales.get(1).getGrupo());
+        assertEquals(0, new BigDecimal("240.00").compareTo(totales.get(1).getMontoTotal()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private void assertItemsAndProductsLoaded(List<Venta> ventas) {
+        for (Venta venta : ventas) {
+            assertEquals(ITEMS_POR_VENTA, venta.getItems().size());
+            for (ItemVenta item : venta.getItems()) {
+                assertNotNull(item.getProducto().getNombre());
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package org.litethinking.infrastructure.persistence.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the pool size derived from the cores, the settings the pools are built with, and that
+ * only the read-only transactions of a method marked with @PoolLectura take their connection
+ * from the read pool.
+ */
+class ConfiguracionPoolConexionesTest {
+
+    @Test
+    void tamanioPoolIsDerivedFromTheCoresUnlessConfigured() {
+        assertEquals(17, ConfiguracionPoolConexiones.tamanioPool(0, 8, 2, 1));
+        assertEquals(20, ConfiguracionPoolConexiones.tamanioPool(20, 8, 2, 1));
+        assertEquals(1, ConfiguracionPoolConexiones.tamanioPool(0, 1, 0, 0));
+    }
+
+    @Test
+    void crearPoolBuildsAFixedSizeTunedPool() throws SQLException {
+        DataSourceProperties propiedades = new DataSourceProperties();
+        propiedades.setUrl("jdbc:h2:mem:pool-conexiones-test");
+
+        try (HikariDataSource pool = ConfiguracionPoolConexiones.crearPool(
+                ConfiguracionPoolConexiones.POOL_ESCRITURA, propiedades, 4, 2000, 30000, 32)) {
+            assertEquals("escritura", pool.getPoolName());
+            assertEquals(4, pool.getMaximumPoolSize());
+            assertEquals(4, pool.getMinimumIdle());
+            assertEquals(2000, pool.getConnectionTimeout());
+            assertEquals(30000, pool.getLeakDetectionThreshold());
+            assertEquals("32", pool.getDataSourceProperties().getProperty("QUERY_CACHE_SIZE"));
+
+            try (Connection conexion = pool.getConnection()) {
+                assertTrue(conexion.isValid(1));
+            }
+        }
+    }
+
+    @Test
+    void markedReadOnlyTransactionsUseTheReadPool() {
+        DataSourceProperties propiedades = new DataSourceProperties();
+        propiedades.setUrl("jdbc:h2:mem:enrutador-test");
+
+        try (HikariDataSource escritura = ConfiguracionPoolConexiones.crearPool(
+                     ConfiguracionPoolConexiones.POOL_ESCRITURA, propiedades, 2, 2000, 0, 8);
+             HikariDataSource lectura = ConfiguracionPoolConexiones.crearPool(
+                     ConfiguracionPoolConexiones.POOL_LECTURA, propiedades, 2, 2000, 0, 8)) {
+            DataSource enrutador = ConfiguracionPoolConexiones.enrutador(escritura, lectura);
+
+            assertEquals(ConfiguracionPoolConexiones.POOL_ESCRITURA, poolUsado(enrutador, false, escritura, lectura));
+            assertEquals(ConfiguracionPoolConexiones.POOL_LECTURA, poolEnLectura(enrutador, true, escritura, lectura));
+            assertEquals(ConfiguracionPoolConexiones.POOL_ESCRITURA, poolEnLectura(enrutador, false, escritura, lectura));
+        }
+    }
+
+    @Test
+    void readOnlyTransactionsOutsideAMarkedMethodUseTheWritePool() {
+        DataSourceProperties propiedades = new DataSourceProperties();
+        propiedades.setUrl("jdbc:h2:mem:enrutador-sin-marca-test");
+
+        try (HikariDataSource escritura = ConfiguracionPoolConexiones.crearPool(
+                     ConfiguracionPoolConexiones.POOL_ESCRITURA, propiedades, 2, 2000, 0, 8);
+             HikariDataSource lectura = ConfiguracionPoolConexiones.crearPool(
+                     ConfiguracionPoolConexiones.POOL_LECTURA, propiedades, 2, 2000, 0, 8)) {
+            DataSource enrutador = ConfiguracionPoolConexiones.enrutador(escritura, lectura);
+
+            assertEquals(ConfiguracionPoolConexiones.POOL_ESCRITURA, poolUsado(enrutador, true, escritura, lectura));
+        }
+    }
+
+    @Test
+    void withoutReadPoolEverythingUsesTheWritePool() {
+        DataSourceProperties propiedades = new DataSourceProperties();
+        propiedades.setUrl("jdbc:h2:mem:enrutador-sin-lectura-test");
+
+        try (HikariDataSource escritura = ConfiguracionPoolConexiones.crearPool(
+                     ConfiguracionPoolConexiones.POOL_ESCRITURA, propiedades, 2, 2000, 0, 8);
+             HikariDataSource lectura = ConfiguracionPoolConexiones.crearPool(
+                     ConfiguracionPoolConexiones.POOL_LECTURA, propiedades, 2, 2000, 0, 8)) {
+            DataSource enrutador = ConfiguracionPoolConexiones.enrutador(escritura, null);
+
+            assertEquals(ConfiguracionPoolConexiones.POOL_ESCRITURA, poolEnLectura(enrutador, true, escritura, lectura));
+        }
+    }
+
+    // The same as poolUsado, inside a method marked with @PoolLectura
+    private static String poolEnLectura(DataSource enrutador, boolean soloLectura,
+                                        HikariDataSource escritura, HikariDataSource lectura) {
+        try {
+            return (String) ConfiguracionPoolConexiones.enPoolLectura(
+                    () -> poolUsado(enrutador, soloLectura, escritura, lectura));
+        } catch (Throwable e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    // Runs a query in a transaction and tells which pool lent the connection it is holding
+    private static String poolUsado(DataSource enrutador, boolean soloLectura,
+                                    HikariDataSource escritura, HikariDataSource lectura) {
+        TransactionTemplate transaccion = new TransactionTemplate(new DataSourceTransactionManager(enrutador));
+        transaccion.setReadOnly(soloLectura);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(enrutador);
+        return transaccion.execute(status -> {
+            assertEquals(1, jdbcTemplate.queryForObject("SELECT 1", Integer.class));
+            if (activas(lectura) == 1 && activas(escritura) == 0) {
+                return lectura.getPoolName();
+            }
+            assertEquals(1, activas(escritura));
+            assertEquals(0, activas(lectura));
+            return escritura.getPoolName();
+        });
+    }
+
+    private static int activas(HikariDataSource pool) {
+        HikariPoolMXBean estado = pool.getHikariPoolMXBean();
+        return estado == null ? 0 : estado.getActiveConnections();
+    }
+}
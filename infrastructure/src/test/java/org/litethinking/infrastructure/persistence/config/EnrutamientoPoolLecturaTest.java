@@ -0,0 +1,104 @@
+package org.litethinking.infrastructure.persistence.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.Test;
+import org.litethinking.application.service.transaccion.PoolLectura;
+import org.litethinking.infrastructure.persistence.repository.supermercado.RepositorioJpaProducto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks with the JpaTransactionManager and the real pools which pool lends the connection of a
+ * JPA query: only the read-only transactions of a {@link PoolLectura} method go to the read pool.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:enrutamiento-pool-lectura;DB_CLOSE_DELAY=-1")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ConfiguracionPoolConexiones.class, EnrutamientoPoolLecturaTest.ConsultasDePrueba.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EnrutamientoPoolLecturaTest {
+
+    @Autowired
+    private ConsultasDePrueba consultas;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void usesTheJpaTransactionManager() {
+        assertInstanceOf(JpaTransactionManager.class, transactionManager);
+    }
+
+    @Test
+    void markedReadOnlyMethodsUseTheReadPool() {
+        assertEquals(ConfiguracionPoolConexiones.POOL_LECTURA, consultas.conMarca());
+    }
+
+    @Test
+    void unmarkedReadOnlyTransactionsUseTheWritePool() {
+        assertEquals(ConfiguracionPoolConexiones.POOL_ESCRITURA, consultas.sinMarca());
+    }
+
+    @Test
+    void markedMethodsThatWriteUseTheWritePool() {
+        assertEquals(ConfiguracionPoolConexiones.POOL_ESCRITURA, consultas.conMarcaSinSoloLectura());
+    }
+
+    static class ConsultasDePrueba {
+
+        private final RepositorioJpaProducto repositorio;
+        private final HikariDataSource escritura;
+        private final HikariDataSource lectura;
+
+        ConsultasDePrueba(RepositorioJpaProducto repositorio,
+                          @Qualifier("poolEscritura") HikariDataSource escritura,
+                          @Qualifier("poolLectura") HikariDataSource lectura) {
+            this.repositorio = repositorio;
+            this.escritura = escritura;
+            this.lectura = lectura;
+        }
+
+        @PoolLectura
+        @Transactional(readOnly = true)
+        public String conMarca() {
+            return poolUsado();
+        }
+
+        // Like the read-only transactions Spring Data opens for the checkout lookups
+        @Transactional(readOnly = true)
+        public String sinMarca() {
+            return poolUsado();
+        }
+
+        @PoolLectura
+        @Transactional
+        public String conMarcaSinSoloLectura() {
+            return poolUsado();
+        }
+
+        // Runs a query and tells which pool lent the connection the transaction is holding
+        private String poolUsado() {
+            repositorio.findAll();
+            if (activas(lectura) == 1 && activas(escritura) == 0) {
+                return lectura.getPoolName();
+            }
+            assertEquals(1, activas(escritura));
+            assertEquals(0, activas(lectura));
+            return escritura.getPoolName();
+        }
+
+        private static int activas(HikariDataSource pool) {
+            HikariPoolMXBean estado = pool.getHikariPoolMXBean();
+            return estado == null ? 0 : estado.getActiveConnections();
+        }
+    }
+}
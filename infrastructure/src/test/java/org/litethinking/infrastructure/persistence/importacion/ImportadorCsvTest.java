@@ -0,0 +1,150 @@
+package org.litethinking.infrastructure.persistence.importacion;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.litethinking.infrastructure.persistence.entity.supermercado.EntidadJpaProducto;
+import org.litethinking.infrastructure.persistence.entity.supermercado.inventario.EntidadJpaInventario;
+import org.litethinking.infrastructure.persistence.repository.supermercado.RepositorioJpaProducto;
+import org.litethinking.infrastructure.persistence.repository.supermercado.inventario.RepositorioJpaInventario;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the bulk seed import: good rows are stored, bad rows are rejected with their line
+ * and do not take the rest of their lote down with them.
+ * Runs without the test transaction, the importer commits one transaction per lote.
+ */
+@DataJpaTest(properties = "app.importacion.filas-por-lote=2")
+@Import(ImportadorCsv.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ImportadorCsvTest {
+
+    @Autowired
+    private ImportadorCsv importadorCsv;
+
+    @Autowired
+    private RepositorioJpaProducto repositorioJpaProducto;
+
+    @Autowired
+    private RepositorioJpaInventario repositorioJpaInventario;
+
+    @AfterEach
+    void tearDown() {
+        repositorioJpaInventario.deleteAll();
+        repositorioJpaProducto.deleteAll();
+    }
+
+    @Test
+    void importarProductosStoresValidRowsAndRejectsTheRest() {
+        ResultadoImportacion resultado = importadorCsv.importarProductos(csv("""
+                id,nombre,descripcion,precio,categoria,codigoBarras
+                1,Leche Entera,"Leche de vaca, 1L",2.50,Lácteos,PRD001
+                2,Pan,Pan integral,no-es-precio,Panadería,PRD002
+                3,Queso,Queso fresco,4.00,Lácteos,PRD001
+                4,Agua,Agua mineral,1.00,Bebidas,PRD004
+                5,Incompleto
+                """));
+
+        assertEquals(5, resultado.filasLeidas());
+        assertEquals(2, resultado.filasImportadas());
+        assertEquals(3, resultado.filasRechazadas());
+        assertEquals(3, resultado.errores().size());
+        assertTrue(resultado.errores().get(0).startsWith("línea 3"));
+
+        Map<String, EntidadJpaProducto> productos = repositorioJpaProducto.findAll().stream()
+                .collect(Collectors.toMap(EntidadJpaProducto::getCodigoBarras, Function.identity()));
+        assertEquals(2, productos.size());
+        assertEquals("Leche de vaca, 1L", productos.get("PRD001").getDescripcion());
+        assertEquals(0, new BigDecimal("2.50").compareTo(productos.get("PRD001").getPrecio()));
+        assertTrue(productos.containsKey("PRD004"));
+    }
+
+    @Test
+    void tieneDatosTellsWhetherTheTableWasAlreadyLoaded() {
+        assertFalse(importadorCsv.tieneDatos("productos"));
+
+        importadorCsv.importarProductos(csv("""
+                id,nombre,descripcion,precio,categoria,codigoBarras
+                1,Leche Entera,Leche de vaca,2.50,Lácteos,PRD001
+                """));
+
+        assertTrue(importadorCsv.tieneDatos("productos"));
+        assertFalse(importadorCsv.tieneDatos("inventario"));
+        assertThrows(IllegalArgumentException.class, () -> importadorCsv.tieneDatos("ventas"));
+    }
+
+    @Test
+    void importarInventarioRejectsRowsOfMissingProducts() {
+        EntidadJpaProducto producto = repositorioJpaProducto.save(EntidadJpaProducto.builder()
+                .nombre("Leche")
+                .precio(new BigDecimal("1.50"))
+                .codigoBarras("INV-001")
+                .build());
+
+        ResultadoImportacion resultado = importadorCsv.importarInventario(csv("""
+                id,producto_id,cantidad,stockMinimo,stockMaximo,fechaUltimaReposicion,ubicacion
+                1,%d,50,10,100,2023-05-15,Almacén A
+                2,%d,30,5,50,2023-05-16,Almacén B
+                """.formatted(producto.getId(), producto.getId() + 1000)));
+
+        assertEquals(1, resultado.filasImportadas());
+        assertEquals(1, resultado.filasRechazadas());
+        assertTrue(resultado.errores().get(0).startsWith("línea 3"));
+
+        List<EntidadJpaInventario> inventarios = repositorioJpaInventario.findAll();
+        assertEquals(1, inventarios.size());
+        assertEquals(50, inventarios.get(0).getCantidad());
+        assertEquals("Almacén A", inventarios.get(0).getUbicacion());
+    }
+
+    @Test
+    void importarInventarioFollowsTheProductIdsOfTheFileWhenALoteIsRetried() {
+        Map<Long, Long> idsProductos = new HashMap<>();
+        // The third row repeats a barcode: its lote fails and is stored again row by row,
+        // so the fourth product does not get the id its position in the file would give it
+        importadorCsv.importarProductos(csv("""
+                id,nombre,descripcion,precio,categoria,codigoBarras
+                1,Leche,Leche entera,2.50,Lácteos,IDS001
+                2,Pan,Pan integral,1.75,Panadería,IDS002
+                3,Queso,Queso fresco,4.00,Lácteos,IDS001
+                4,Agua,Agua mineral,1.00,Bebidas,IDS004
+                """), idsProductos);
+
+        ResultadoImportacion resultado = importadorCsv.importarInventario(csv("""
+                id,producto_id,cantidad,stockMinimo,stockMaximo,fechaUltimaReposicion,ubicacion
+                1,1,10,1,100,2023-05-15,Almacén A
+                2,3,20,1,100,2023-05-15,Almacén A
+                3,4,40,1,100,2023-05-15,Almacén B
+                """), idsProductos);
+
+        assertEquals(2, resultado.filasImportadas());
+        assertEquals(1, resultado.filasRechazadas());
+        assertTrue(resultado.errores().get(0).startsWith("línea 3"));
+
+        Map<String, Integer> cantidadPorCodigo = repositorioJpaInventario.findAll().stream()
+                .collect(Collectors.toMap(
+                        inventario -> repositorioJpaProducto.findById(inventario.getProducto().getId())
+                                .orElseThrow().getCodigoBarras(),
+                        EntidadJpaInventario::getCantidad));
+        assertEquals(Map.of("IDS001", 10, "IDS004", 40), cantidadPorCodigo);
+    }
+
+    private InputStream csv(String contenido) {
+        return new ByteArrayInputStream(contenido.getBytes(StandardCharsets.UTF_8));
+    }
+}
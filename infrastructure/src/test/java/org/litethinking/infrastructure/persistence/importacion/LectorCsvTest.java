@@ -0,0 +1,65 @@
+package org.litethinking.infrastructure.persistence.importacion;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LectorCsvTest {
+
+    @Test
+    void readsPlainRowsAndUtf8Accents() throws IOException {
+        String csv = "id,nombre,codigo,turno\n1,Juan Pérez,CAJ001,Mañana\n";
+        LectorCsv lector = new LectorCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        List<List<String>> filas = leerTodo(lector);
+
+        assertEquals(2, filas.size());
+        assertEquals(List.of("1", "Juan Pérez", "CAJ001", "Mañana"), filas.get(1));
+    }
+
+    @Test
+    void readsQuotedFieldsWithCommasQuotesAndLineBreaks() throws IOException {
+        String csv = "1,\"Leche, entera\",\"Marca \"\"La Vaca\"\"\",\"línea 1\nlínea 2\"\r\n2,Pan,,x\r\n";
+        LectorCsv lector = new LectorCsv(new StringReader(csv));
+
+        assertEquals(List.of("1", "Leche, entera", "Marca \"La Vaca\"", "línea 1\nlínea 2"), lector.siguienteFila());
+        assertEquals(1, lector.getLineaFila());
+        assertEquals(List.of("2", "Pan", "", "x"), lector.siguienteFila());
+        assertEquals(3, lector.getLineaFila());
+        assertNull(lector.siguienteFila());
+    }
+
+    @Test
+    void skipsTheUtf8ByteOrderMarkAndReadsTheLastRowWithoutLineBreak() throws IOException {
+        LectorCsv lector = new LectorCsv(new StringReader("\uFEFFid,nombre\n1,Ana"));
+
+        assertEquals(List.of("id", "nombre"), lector.siguienteFila());
+        assertEquals(List.of("1", "Ana"), lector.siguienteFila());
+        assertNull(lector.siguienteFila());
+    }
+
+    @Test
+    void failsOnAnUnterminatedQuotedField() throws IOException {
+        LectorCsv lector = new LectorCsv(new StringReader("1,ok\n2,\"sin cerrar\n"));
+
+        assertEquals(List.of("1", "ok"), lector.siguienteFila());
+        IOException error = assertThrows(IOException.class, lector::siguienteFila);
+        assertTrue(error.getMessage().contains("line 2"));
+    }
+
+    private List<List<String>> leerTodo(LectorCsv lector) throws IOException {
+        List<List<String>> filas = new ArrayList<>();
+        List<String> fila;
+        while ((fila = lector.siguienteFila()) != null) {
+            filas.add(fila);
+        }
+        return filas;
+    }
+}
@@ -0,0 +1,261 @@
+package org.litethinking.infrastructure.persistence.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.litethinking.infrastructure.persistence.entity.supermercado.EntidadJpaProducto;
+import org.litethinking.infrastructure.persistence.entity.supermercado.venta.EntidadJpaResumenVentaDiaria;
+import org.litethinking.infrastructure.persistence.repository.supermercado.RepositorioJpaCajero;
+import org.litethinking.infrastructure.persistence.repository.supermercado.RepositorioJpaCambioProducto;
+import org.litethinking.infrastructure.persistence.repository.supermercado.RepositorioJpaCliente;
+import org.litethinking.infrastructure.persistence.repository.supermercado.RepositorioJpaProducto;
+import org.litethinking.infrastructure.persistence.repository.supermercado.inventario.RepositorioJpaInventario;
+import org.litethinking.infrastructure.persistence.repository.supermercado.venta.RepositorioJpaResumenVentaDiaria;
+import org.litethinking.infrastructure.persistence.repository.supermercado.venta.RepositorioJpaVenta;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs every RepositorioJpa* query against tables seeded with tens of thousands of rows,
+ * asks H2 for the plan of each SQL statement it sent (EXPLAIN) and fails if any of them
+ * scans a whole table, unless the query is listed in {@link #RECORRIDOS_PERMITIDOS} with the reason.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "org.litethinking.infrastructure.persistence.repository.PlanesConsultasRepositorioJpaTest$CapturaSql")
+class PlanesConsultasRepositorioJpaTest {
+
+    private static final int FILAS = 20_000;
+
+    /** Queries that read a whole table on purpose, and why. */
+    private static final Map<String, String> RECORRIDOS_PERMITIDOS = Map.of(
+            "RepositorioJpaProducto.streamAll", "streams the whole catalog (snapshot, CSV export)",
+            "RepositorioJpaInventario.findBajoStock", "compares two columns of the same row, no index can answer it",
+            "RepositorioJpaInventario.streamLineas", "optional filters ((:ubicacion IS NULL OR ...)); streams the whole inventory when none is given",
+            "RepositorioJpaCliente.findByNombreContaining", "LIKE '%...%' cannot use a b-tree index",
+            "RepositorioJpaResumenVentaDiaria.calcularTotalesDesdeVentas", "rebuilds the rollup from every sale",
+            "RepositorioJpaResumenVentaDiaria.calcularCategoriasDesdeVentas", "rebuilds the rollup from every sold item");
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private RepositorioJpaProducto repositorioJpaProducto;
+
+    @Autowired
+    private RepositorioJpaInventario repositorioJpaInventario;
+
+    @Autowired
+    private RepositorioJpaCajero repositorioJpaCajero;
+
+    @Autowired
+    private RepositorioJpaCliente repositorioJpaCliente;
+
+    @Autowired
+    private RepositorioJpaCambioProducto repositorioJpaCambioProducto;
+
+    @Autowired
+    private RepositorioJpaVenta repositorioJpaVenta;
+
+    @Autowired
+    private RepositorioJpaResumenVentaDiaria repositorioJpaResumenVentaDiaria;
+
+    private final Map<String, List<String>> sqlPorConsulta = new LinkedHashMap<>();
+
+    @Test
+    void noQueryScansAWholeTable() {
+        sembrar();
+
+        // The arguments match few or no rows: only the plans matter here
+        LocalDateTime desde = LocalDateTime.of(2024, 3, 1, 0, 0);
+        LocalDateTime hasta = desde.plusDays(1);
+
+        consulta("RepositorioJpaProducto.findByCategoria", () -> repositorioJpaProducto.findByCategoria("Sin categoria"));
+        consulta("RepositorioJpaProducto.findByPrecioBetween", () -> repositorioJpaProducto.findByPrecioBetween(
+                new BigDecimal("0.10"), new BigDecimal("0.20")));
+        consulta("RepositorioJpaProducto.findByCodigoBarras", () -> repositorioJpaProducto.findByCodigoBarras("P1"));
+        consulta("RepositorioJpaProducto.findByIdGreaterThanOrderByIdAsc",
+                () -> repositorioJpaProducto.findByIdGreaterThanOrderByIdAsc(100L, Limit.of(10)));
+        consulta("RepositorioJpaProducto.streamAll", () -> {
+            try (Stream<EntidadJpaProducto> productos = repositorioJpaProducto.streamAll()) {
+                productos.findFirst();
+            }
+        });
+
+        consulta("RepositorioJpaInventario.findByProducto", () -> repositorioJpaInventario.findByProducto(
+                entityManager.getReference(EntidadJpaProducto.class, 1L)));
+        consulta("RepositorioJpaInventario.findBajoStock", () -> repositorioJpaInventario.findBajoStock());
+        consulta("RepositorioJpaInventario.findByUbicacion", () -> repositorioJpaInventario.findByUbicacion("Bodega"));
+        consulta("RepositorioJpaInventario.streamLineas", () -> {
+            try (var lineas = repositorioJpaInventario.streamLineas("Bodega", false)) {
+                lineas.findFirst();
+            }
+        });
+        consulta("RepositorioJpaInventario.findByIdGreaterThanOrderByIdAsc",
+                () -> repositorioJpaInventario.findByIdGreaterThanOrderByIdAsc(100L, Limit.of(10)));
+        consulta("RepositorioJpaInventario.buscarIdsConStock", () -> repositorioJpaInventario.buscarIdsConStock(-1L, 1));
+        consulta("RepositorioJpaInventario.reservarStock", () -> repositorioJpaInventario.reservarStock(-1L, 1));
+        consulta("RepositorioJpaInventario.liberarStock", () -> repositorioJpaInventario.liberarStock(-1L, 1));
+
+        consulta("RepositorioJpaCajero.findByCodigo", () -> repositorioJpaCajero.findByCodigo("CAJ1"));
+        consulta("RepositorioJpaCajero.findByTurno", () -> repositorioJpaCajero.findByTurno("Nocturno"));
+        consulta("RepositorioJpaCajero.findByIdGreaterThanOrderByIdAsc",
+                () -> repositorioJpaCajero.findByIdGreaterThanOrderByIdAsc(100L, Limit.of(10)));
+
+        consulta("RepositorioJpaCliente.findByEmail", () -> repositorioJpaCliente.findByEmail("cliente1@correo.com"));
+        consulta("RepositorioJpaCliente.findByNombreContaining", () -> repositorioJpaCliente.findByNombreContaining("zz"));
+        consulta("RepositorioJpaCliente.findByIdGreaterThanOrderByIdAsc",
+                () -> repositorioJpaCliente.findByIdGreaterThanOrderByIdAsc(100L, Limit.of(10)));
+
+        consulta("RepositorioJpaCambioProducto.buscarUltimosDespuesDe",
+                () -> repositorioJpaCambioProducto.buscarUltimosDespuesDe(2L * FILAS - 10, PageRequest.of(0, 10)));
+        consulta("RepositorioJpaCambioProducto.buscarUltimaVersion", () -> repositorioJpaCambioProducto.buscarUltimaVersion());
+        consulta("RepositorioJpaCambioProducto.incrementarVersion", () -> repositorioJpaCambioProducto.incrementarVersion());
+        consulta("RepositorioJpaCambioProducto.leerVersion", () -> repositorioJpaCambioProducto.leerVersion());
+        consulta("RepositorioJpaCambioProducto.leerEpoca", () -> repositorioJpaCambioProducto.leerEpoca());
+
+        consulta("RepositorioJpaVenta.findById", () -> repositorioJpaVenta.findById(1L));
+        consulta("RepositorioJpaVenta.findByClaveIdempotencia",
+                () -> repositorioJpaVenta.findByClaveIdempotencia("no-existe"));
+        consulta("RepositorioJpaVenta.findByFechaVentaBetween",
+                () -> repositorioJpaVenta.findByFechaVentaBetween(desde, desde.plusHours(1)));
+        consulta("RepositorioJpaVenta.findByNombreCliente", () -> repositorioJpaVenta.findByNombreCliente("Nadie"));
+        consulta("RepositorioJpaVenta.findByMontoTotalGreaterThan",
+                () -> repositorioJpaVenta.findByMontoTotalGreaterThan(new BigDecimal("100000")));
+        consulta("RepositorioJpaVenta.findByMetodoPago", () -> repositorioJpaVenta.findByMetodoPago("Cheque"));
+        consulta("RepositorioJpaVenta.findByIdGreaterThanOrderByIdAsc",
+                () -> repositorioJpaVenta.findByIdGreaterThanOrderByIdAsc(100L, Limit.of(10)));
+        consulta("RepositorioJpaVenta.sumarPorDia", () -> repositorioJpaVenta.sumarPorDia(desde, hasta));
+        consulta("RepositorioJpaVenta.sumarPorMetodoPago", () -> repositorioJpaVenta.sumarPorMetodoPago(desde, hasta));
+        consulta("RepositorioJpaVenta.sumarPorCategoria", () -> repositorioJpaVenta.sumarPorCategoria(desde, hasta));
+
+        consulta("RepositorioJpaResumenVentaDiaria.fijarCategorias",
+                () -> repositorioJpaResumenVentaDiaria.fijarCategorias(-1L));
+        consulta("RepositorioJpaResumenVentaDiaria.sumarSubtotalesPorCategoria",
+                () -> repositorioJpaResumenVentaDiaria.sumarSubtotalesPorCategoria(1L));
+        consulta("RepositorioJpaResumenVentaDiaria.sumarPorDia", () -> repositorioJpaResumenVentaDiaria.sumarPorDia(
+                desde.toLocalDate(), hasta.toLocalDate()));
+        consulta("RepositorioJpaResumenVentaDiaria.sumarPorMetodoPago",
+                () -> repositorioJpaResumenVentaDiaria.sumarPorMetodoPago(desde.toLocalDate(), hasta.toLocalDate()));
+        consulta("RepositorioJpaResumenVentaDiaria.sumarPorCategoria",
+                () -> repositorioJpaResumenVentaDiaria.sumarPorCategoria(desde.toLocalDate(), hasta.toLocalDate()));
+        consulta("RepositorioJpaResumenVentaDiaria.eliminarSiVacia", () -> repositorioJpaResumenVentaDiaria.eliminarSiVacia(
+                desde.toLocalDate(), "Efectivo", EntidadJpaResumenVentaDiaria.TODAS, 0));
+        consulta("RepositorioJpaResumenVentaDiaria.calcularTotalesDesdeVentas",
+                () -> repositorioJpaResumenVentaDiaria.calcularTotalesDesdeVentas());
+        consulta("RepositorioJpaResumenVentaDiaria.calcularCategoriasDesdeVentas",
+                () -> repositorioJpaResumenVentaDiaria.calcularCategoriasDesdeVentas());
+
+        List<String> recorridos = new ArrayList<>();
+        sqlPorConsulta.forEach((consulta, sentencias) -> {
+            assertFalse(sentencias.isEmpty(), consulta + " sent no SQL");
+            for (String sql : sentencias) {
+                String plan = explicar(sql);
+                if (recorreTabla(plan) && !RECORRIDOS_PERMITIDOS.containsKey(consulta)) {
+                    recorridos.add(consulta + ":\n" + plan);
+                }
+            }
+        });
+        assertTrue(recorridos.isEmpty(), () -> "Queries that scan a whole table:\n\n" + String.join("\n\n", recorridos));
+    }
+
+    private void consulta(String nombre, Runnable ejecutar) {
+        CapturaSql.SENTENCIAS.clear();
+        ejecutar.run();
+        sqlPorConsulta.put(nombre, CapturaSql.SENTENCIAS.stream()
+                .filter(sql -> {
+                    String inicio = sql.stripLeading().toLowerCase(Locale.ROOT);
+                    return inicio.startsWith("select") || inicio.startsWith("update") || inicio.startsWith("delete");
+                })
+                .toList());
+    }
+
+    // A MIN/MAX answered from an index shows "direct lookup" next to the table it reads it from
+    private static boolean recorreTabla(String plan) {
+        return plan.contains(".tableScan") && !plan.contains("direct lookup");
+    }
+
+    private String explicar(String sql) {
+        return entityManager.unwrap(Session.class).doReturningWork(conexion -> {
+            try (PreparedStatement explain = conexion.prepareStatement("EXPLAIN " + sql)) {
+                // Only the plan is needed; the values do not change which index H2 picks
+                int parametros = explain.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parametros; i++) {
+                    explain.setObject(i, null);
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet filas = explain.executeQuery()) {
+                    while (filas.next()) {
+                        plan.append(filas.getString(1)).append('\n');
+                    }
+                }
+                return plan.toString();
+            }
+        });
+    }
+
+    private void sembrar() {
+        ejecutar("INSERT INTO productos (id, nombre, descripcion, precio, categoria, codigo_barras) "
+                + "SELECT X, 'Producto ' || X, NULL, MOD(X, 1000) + 0.99, 'Categoria ' || MOD(X, 50), 'P' || X "
+                + "FROM SYSTEM_RANGE(1, " + FILAS + ")");
+        ejecutar("INSERT INTO inventarios (id, producto_id, cantidad, stock_minimo, stock_maximo, "
+                + "fecha_ultima_reposicion, ubicacion) "
+                + "SELECT X, X, MOD(X, 100) + 1, 5, 200, DATE '2025-01-01', 'Pasillo ' || MOD(X, 40) "
+                + "FROM SYSTEM_RANGE(1, " + FILAS + ")");
+        ejecutar("INSERT INTO cajeros (id, nombre, codigo, turno) "
+                + "SELECT X, 'Cajero ' || X, 'CAJ' || X, CASE MOD(X, 3) WHEN 0 THEN 'Mañana' WHEN 1 THEN 'Tarde' "
+                + "ELSE 'Noche' END FROM SYSTEM_RANGE(1, " + FILAS + ")");
+        ejecutar("INSERT INTO clientes (id, nombre, email, telefono, direccion) "
+                + "SELECT X, 'Cliente ' || X, 'cliente' || X || '@correo.com', NULL, NULL "
+                + "FROM SYSTEM_RANGE(1, " + FILAS + ")");
+        ejecutar("INSERT INTO ventas (id, fecha_venta, nombre_cliente, monto_total, metodo_pago) "
+                + "SELECT X, DATEADD(MINUTE, X * 30, TIMESTAMP '2024-01-01 08:00:00'), 'Cliente ' || MOD(X, 5000), "
+                + "MOD(X, 500) + 0.50, CASE MOD(X, 3) WHEN 0 THEN 'Efectivo' WHEN 1 THEN 'Tarjeta' "
+                + "ELSE 'Transferencia' END FROM SYSTEM_RANGE(1, " + FILAS + ")");
+        ejecutar("INSERT INTO items_venta (id, producto_id, cantidad, precio_unitario, subtotal, venta_id) "
+                + "SELECT X, MOD(X, " + FILAS + ") + 1, 1, 1.00, 1.00, MOD(X, " + FILAS + ") + 1 "
+                + "FROM SYSTEM_RANGE(1, " + 2 * FILAS + ")");
+        ejecutar("INSERT INTO cambios_productos (version, producto_id, eliminado, fecha) "
+                + "SELECT X, MOD(X, " + FILAS + ") + 1, FALSE, TIMESTAMP '2025-01-01 00:00:00' "
+                + "FROM SYSTEM_RANGE(1, " + 2 * FILAS + ")");
+        ejecutar("INSERT INTO resumen_ventas_diarias (fecha, metodo_pago, categoria, por_categoria, cantidad_ventas, monto_total) "
+                + "SELECT DATEADD(DAY, X, DATE '1970-01-01'), 'Efectivo', "
+                + "CASE MOD(X, 2) WHEN 0 THEN '" + EntidadJpaResumenVentaDiaria.TODAS + "' ELSE 'Categoria ' || MOD(X, 50) END, "
+                + "MOD(X, 2) = 1, 1, 1.00 "
+                + "FROM SYSTEM_RANGE(1, " + FILAS + ")");
+    }
+
+    private void ejecutar(String sql) {
+        entityManager.createNativeQuery(sql).executeUpdate();
+    }
+
+    /**
+     * Keeps the SQL Hibernate sends, so each query can be explained as it really runs.
+     */
+    public static class CapturaSql implements StatementInspector {
+
+        static final List<String> SENTENCIAS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            SENTENCIAS.add(sql);
+            return sql;
+        }
+    }
+}
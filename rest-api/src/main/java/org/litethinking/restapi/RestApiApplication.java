@@ -2,6 +2,7 @@ package org.litethinking.restapi;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.litethinking.infrastructure.persistence.config.ConfiguracionPoolConexiones;
 import org.litethinking.restapi.config.DataInitializer;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -15,19 +16,28 @@ import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
  * Main class for the REST API application.
  */
 @SpringBootApplication
-@Import(DataInitializer.class)
+@Import({DataInitializer.class, ConfiguracionPoolConexiones.class})
 @ComponentScan(basePackages = {
+    "org.litethinking.application.service.paginacion",
     "org.litethinking.application.service.supermercado",
     "org.litethinking.application.service.supermercado.impl",
     "org.litethinking.application.service.supermercado.inventario",
     "org.litethinking.application.service.supermercado.inventario.impl",
+    "org.litethinking.application.service.supermercado.venta",
+    "org.litethinking.application.service.supermercado.venta.impl",
     "org.litethinking.restapi.controller.supermercado",
     "org.litethinking.restapi.controller.supermercado.inventario",
+    "org.litethinking.restapi.controller.supermercado.venta",
+    "org.litethinking.restapi.controller.estado",
     "org.litethinking.restapi.config",
+    "org.litethinking.restapi.metricas",
+    "org.litethinking.restapi.catalogo",
     "org.litethinking.domain.model.supermercado",
     "org.litethinking.domain.model.supermercado.inventario",
     "org.litethinking.infrastructure.persistence.adapter.supermercado",
-    "org.litethinking.infrastructure.persistence.adapter.supermercado.inventario"
+    "org.litethinking.infrastructure.persistence.adapter.supermercado.inventario",
+    "org.litethinking.infrastructure.persistence.adapter.supermercado.venta",
+    "org.litethinking.infrastructure.persistence.importacion"
 })
 @EntityScan(basePackages = {
         "org.litethinking.infrastructure.persistence.entity"
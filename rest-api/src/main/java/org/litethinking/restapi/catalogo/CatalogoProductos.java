@@ -0,0 +1,147 @@
+package org.litethinking.restapi.catalogo;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.litethinking.application.service.supermercado.EventoProductoModificado;
+import org.litethinking.application.service.supermercado.ServicioProducto;
+import org.litethinking.shareddto.supermercado.ProductoDto;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The whole product catalog as a gzip-compressed JSON array, built once per catalog change
+ * and shared by every terminal that downloads it.
+ * A product write only bumps the generation; the next request rebuilds the snapshot, and
+ * concurrent requests wait for that single build instead of each serializing the catalog.
+ */
+@Component
+public class CatalogoProductos {
+
+    private static final Logger logger = LogManager.getLogger(CatalogoProductos.class);
+
+    private static final int TAMANIO_BUFFER_GZIP = 64 * 1024;
+
+    private final ServicioProducto servicioProducto;
+    private final ObjectWriter escritorProducto;
+    private final AtomicLong generacion = new AtomicLong();
+    private final ReentrantLock construccion = new ReentrantLock();
+    private volatile Instantanea actual;
+
+    public CatalogoProductos(ServicioProducto servicioProducto, ObjectMapper objectMapper) {
+        this.servicioProducto = servicioProducto;
+        // Flushing after every product would push each one through the deflater on its own
+        this.escritorProducto = objectMapper.writerFor(ProductoDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * The snapshot of the current catalog, built now if a product changed since the last one.
+     */
+    public Instantanea obtener() {
+        Instantanea instantanea = actual;
+        if (instantanea != null && instantanea.generacion() == generacion.get()) {
+            return instantanea;
+        }
+        construccion.lock();
+        try {
+            instantanea = actual;
+            long generacionLeida = generacion.get();
+            if (instantanea == null || instantanea.generacion() != generacionLeida) {
+                // A write during the build bumps the generation, so the next request builds again
+                instantanea = construir(generacionLeida);
+                actual = instantanea;
+            }
+            return instantanea;
+        } finally {
+            construccion.unlock();
+        }
+    }
+
+    // After the commit: a snapshot built before it would miss the change and still be taken as current
+    @TransactionalEventListener(fallbackExecution = true)
+    public void productoModificado(EventoProductoModificado evento) {
+        generacion.incrementAndGet();
+    }
+
+    private Instantanea construir(long generacionLeida) {
+        long inicio = System.nanoTime();
+        // Read before the products, so a change racing with the build is sent again by the delta sync
+        long version = servicioProducto.obtenerVersionCatalogo();
+        String epoca = servicioProducto.obtenerEpocaCatalogo();
+        MessageDigest digest = sha256();
+        ByteArrayOutputStream comprimido = new ByteArrayOutputStream();
+        long[] productos = {0};
+        try (JsonGenerator generador = escritorProducto.getFactory().createGenerator(
+                new DigestOutputStream(new GZIPOutputStream(comprimido, TAMANIO_BUFFER_GZIP), digest))) {
+            generador.writeStartArray();
+            servicioProducto.recorrerTodosLosProductos(producto -> {
+                try {
+                    escritorProducto.writeValue(generador, producto);
+                    productos[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generador.writeEndArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        // The ETag comes from the JSON itself, so it still matches what terminals hold after a restart
+        String hash = HexFormat.of().formatHex(digest.digest(), 0, 16);
+        Instantanea instantanea = new Instantanea(generacionLeida, version, epoca, hash, productos[0],
+                comprimido.toByteArray());
+        logger.info("Product catalog snapshot built at version {}: {} products, {} bytes gzip, in {} ms",
+                version, productos[0], instantanea.gzip().length, (System.nanoTime() - inicio) / 1_000_000);
+        return instantanea;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /**
+     * One build of the catalog.
+     *
+     * @param generacion the catalog generation it was built from
+     * @param version the catalog version it includes, to ask for the changes from
+     * @param epoca the catalog epoch the version belongs to
+     * @param hash hash of the uncompressed JSON, used as the ETag
+     * @param productos the number of products in it
+     * @param gzip the JSON array, gzip-compressed
+     */
+    public record Instantanea(long generacion, long version, String epoca, String hash, long productos, byte[] gzip) {
+
+        /**
+         * The JSON without compression, for clients that do not accept gzip.
+         */
+        public byte[] json() {
+            try (GZIPInputStream entrada = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+                return entrada.readAllBytes();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
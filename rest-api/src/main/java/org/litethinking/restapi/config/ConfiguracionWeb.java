@@ -0,0 +1,23 @@
+package org.litethinking.restapi.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Spring MVC configuration: registers the seed data readiness gate on the API endpoints.
+ */
+@Configuration
+public class ConfiguracionWeb implements WebMvcConfigurer {
+
+    private final InterceptorCargaDatos interceptorCargaDatos;
+
+    public ConfiguracionWeb(InterceptorCargaDatos interceptorCargaDatos) {
+        this.interceptorCargaDatos = interceptorCargaDatos;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(interceptorCargaDatos).addPathPatterns("/api/**");
+    }
+}
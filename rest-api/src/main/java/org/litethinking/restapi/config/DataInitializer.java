@@ -1,207 +1,137 @@
 package org.litethinking.restapi.config;
 
 
-import org.litethinking.application.service.supermercado.ServicioCajero;
-import org.litethinking.application.service.supermercado.ServicioCliente;
-import org.litethinking.application.service.supermercado.ServicioProducto;
-import org.litethinking.application.service.supermercado.inventario.ServicioInventario;
-
-import org.litethinking.application.mapper.InventarioMapper;
-import org.litethinking.shareddto.supermercado.CajeroDto;
-import org.litethinking.shareddto.supermercado.ClienteDto;
-import org.litethinking.shareddto.supermercado.ProductoDto;
-import org.litethinking.shareddto.supermercado.inventario.InventarioDto;
-
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.litethinking.infrastructure.persistence.importacion.ImportadorCsv;
+import org.litethinking.infrastructure.persistence.importacion.ResultadoImportacion;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.task.AsyncTaskExecutor;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.math.BigDecimal;
-import java.nio.charset.StandardCharsets;
-import java.time.LocalDate;
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import static org.litethinking.restapi.config.EstadoCargaDatos.*;
 
 /**
  * Configuration class to initialize data from CSV files.
+ * cajeros, clientes and productos do not depend on each other and load in parallel;
+ * inventario starts as soon as productos is done, since its rows point to products.
+ * With app.importacion.en-segundo-plano the load runs after startup and the API serves
+ * each entity as soon as it is loaded (see {@link InterceptorCargaDatos}).
+ * The work runs on Spring's application task executor, so it uses virtual threads
+ * when spring.threads.virtual.enabled is on.
+ * An entity whose table already has rows (a database kept on disk) is not loaded again.
  */
 @Configuration
 public class DataInitializer {
 
-    private final ServicioCajero servicioCajero;
-    private final ServicioCliente servicioCliente;
-    private final ServicioProducto servicioProducto;
-    private final ServicioInventario servicioInventario;
-
-    public DataInitializer(ServicioCajero servicioCajero, 
-                          ServicioCliente servicioCliente,
-                          ServicioProducto servicioProducto,
-                          ServicioInventario servicioInventario) {
-        this.servicioCajero = servicioCajero;
-        this.servicioCliente = servicioCliente;
-        this.servicioProducto = servicioProducto;
-        this.servicioInventario = servicioInventario;
+    private static final Logger logger = LogManager.getLogger(DataInitializer.class);
+
+    private final ImportadorCsv importadorCsv;
+    private final EstadoCargaDatos estadoCargaDatos;
+    private final AsyncTaskExecutor executor;
+    private final boolean enSegundoPlano;
+    private final boolean omitirSiHayDatos;
+
+    public DataInitializer(ImportadorCsv importadorCsv,
+                           EstadoCargaDatos estadoCargaDatos,
+                           @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) AsyncTaskExecutor executor,
+                           @Value("${app.importacion.en-segundo-plano:false}") boolean enSegundoPlano,
+                           @Value("${app.importacion.omitir-si-hay-datos:true}") boolean omitirSiHayDatos) {
+        this.importadorCsv = importadorCsv;
+        this.estadoCargaDatos = estadoCargaDatos;
+        this.executor = executor;
+        this.enSegundoPlano = enSegundoPlano;
+        this.omitirSiHayDatos = omitirSiHayDatos;
     }
 
     @Bean
     public CommandLineRunner initData() {
         return args -> {
-            loadCajeros();
-            loadClientes();
-            loadProductos();
-            loadInventario();
+            if (enSegundoPlano) {
+                executor.execute(this::cargarDatos);
+                logger.info("Seed data loading in the background, progress at /api/estado/carga-datos");
+            } else {
+                cargarDatos();
+            }
         };
     }
 
-    private void loadCajeros() {
-        try {
-            ClassPathResource resource = new ClassPathResource("data/cajeros.csv");
-            BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8));
-
-            // Skip header
-            String line = reader.readLine();
-            List<CajeroDto> cajeros = new ArrayList<>();
-
-            while ((line = reader.readLine()) != null) {
-                String[] data = line.split(",");
-                CajeroDto cajero = CajeroDto.builder()
-                        .nombre(data[1])
-                        .codigo(data[2])
-                        .turno(data[3])
-                        .build();
-                cajeros.add(cajero);
+    private void cargarDatos() {
+        long inicio = System.nanoTime();
+        CompletableFuture<ResultadoImportacion> cajeros =
+                cargar(CAJEROS, "data/cajeros.csv", importadorCsv::importarCajeros);
+        CompletableFuture<ResultadoImportacion> clientes =
+                cargar(CLIENTES, "data/clientes.csv", importadorCsv::importarClientes);
+        // producto_id in inventario.csv is the id column of productos.csv, not the id the product got
+        Map<Long, Long> idsProductos = new ConcurrentHashMap<>();
+        CompletableFuture<ResultadoImportacion> productos = cargar(PRODUCTOS, "data/productos.csv",
+                entrada -> importadorCsv.importarProductos(entrada, idsProductos));
+        CompletableFuture<ResultadoImportacion> inventario = productos
+                .handle((resultado, error) -> null)
+                // Products loaded by an earlier run left no ids: their ids are taken as they are in the file
+                .thenCompose(ignorado -> cargar(INVENTARIO, "data/inventario.csv", entrada -> idsProductos.isEmpty()
+                        ? importadorCsv.importarInventario(entrada)
+                        : importadorCsv.importarInventario(entrada, idsProductos)));
+
+        List<CompletableFuture<ResultadoImportacion>> cargas = List.of(cajeros, clientes, productos, inventario);
+        long filas = 0;
+        for (CompletableFuture<ResultadoImportacion> carga : cargas) {
+            try {
+                filas += carga.join().filasImportadas();
+            } catch (RuntimeException e) {
+                logger.error("Error loading seed data", e.getCause() != null ? e.getCause() : e);
             }
-
-            reader.close();
-
-            // Save all cajeros
-            for (CajeroDto cajero : cajeros) {
-                servicioCajero.crearCajero(cajero);
-            }
-
-            System.out.println("Loaded " + cajeros.size() + " cajeros from CSV file");
-        } catch (Exception e) {
-            System.err.println("Error loading cajeros: " + e.getMessage());
-            e.printStackTrace();
         }
+        long millis = Math.max(1, (System.nanoTime() - inicio) / 1_000_000);
+        logger.info("Seed data loaded: {} rows in {} ms ({} rows/s)", filas, millis, filas * 1000 / millis);
     }
 
-    private void loadClientes() {
-        try {
-            ClassPathResource resource = new ClassPathResource("data/clientes.csv");
-            BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8));
-
-            // Skip header
-            String line = reader.readLine();
-            List<ClienteDto> clientes = new ArrayList<>();
-
-            while ((line = reader.readLine()) != null) {
-                String[] data = line.split(",");
-                ClienteDto cliente = new ClienteDto(
-                        null,
-                        data[1],
-                        data[2],
-                        data[3],
-                        data[4]
-                );
-                clientes.add(cliente);
+    private CompletableFuture<ResultadoImportacion> cargar(String entidad, String archivo,
+                                                           Function<InputStream, ResultadoImportacion> importacion) {
+        return CompletableFuture.supplyAsync(() -> {
+            estadoCargaDatos.iniciar(entidad);
+            try {
+                ResultadoImportacion resultado = omitirSiHayDatos && importadorCsv.tieneDatos(entidad)
+                        ? omitida(entidad, archivo)
+                        : importar(archivo, importacion);
+                estadoCargaDatos.completar(entidad, resultado);
+                return resultado;
+            } catch (IOException e) {
+                estadoCargaDatos.fallar(entidad, e);
+                throw new UncheckedIOException("Cannot open " + archivo, e);
+            } catch (RuntimeException e) {
+                estadoCargaDatos.fallar(entidad, e);
+                throw e;
             }
-
-            reader.close();
-
-            // Save all clientes
-            for (ClienteDto cliente : clientes) {
-                servicioCliente.crearCliente(cliente);
-            }
-
-            System.out.println("Loaded " + clientes.size() + " clientes from CSV file");
-        } catch (Exception e) {
-            System.err.println("Error loading clientes: " + e.getMessage());
-            e.printStackTrace();
-        }
+        }, executor);
     }
 
-    private void loadProductos() {
-        try {
-            ClassPathResource resource = new ClassPathResource("data/productos.csv");
-            BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8));
-
-            // Skip header
-            String line = reader.readLine();
-            List<ProductoDto> productos = new ArrayList<>();
-
-            while ((line = reader.readLine()) != null) {
-                String[] data = line.split(",");
-                ProductoDto producto = new ProductoDto(
-                        null,
-                        data[1],
-                        data[2],
-                        new BigDecimal(data[3]),
-                        data[4],
-                        data[5]
-                );
-                productos.add(producto);
-            }
-
-            reader.close();
-
-            // Save all productos
-            for (ProductoDto producto : productos) {
-                servicioProducto.crearProducto(producto);
-            }
-
-            System.out.println("Loaded " + productos.size() + " productos from CSV file");
-        } catch (Exception e) {
-            System.err.println("Error loading productos: " + e.getMessage());
-            e.printStackTrace();
+    private ResultadoImportacion importar(String archivo, Function<InputStream, ResultadoImportacion> importacion)
+            throws IOException {
+        try (InputStream entrada = new ClassPathResource(archivo).getInputStream()) {
+            return importacion.apply(entrada);
         }
     }
 
-    private void loadInventario() {
-        try {
-            ClassPathResource resource = new ClassPathResource("data/inventario.csv");
-            BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8));
-
-            // Skip header
-            String line = reader.readLine();
-            List<InventarioDto> inventarios = new ArrayList<>();
-
-            while ((line = reader.readLine()) != null) {
-                String[] data = line.split(",");
-                Long productoId = Long.parseLong(data[1]);
-                ProductoDto producto = servicioProducto.obtenerProductoPorId(productoId)
-                        .orElseThrow(() -> new RuntimeException("Producto not found with id: " + productoId));
-
-                InventarioDto inventario = new InventarioDto(
-                        null,
-                        producto,
-                        Integer.parseInt(data[2]),
-                        Integer.parseInt(data[3]),
-                        Integer.parseInt(data[4]),
-                        LocalDate.parse(data[5]),
-                        data[6]
-                );
-                inventarios.add(inventario);
-            }
-
-            reader.close();
-
-            // Save all inventarios
-            for (InventarioDto inventario : inventarios) {
-                servicioInventario.crearInventario(InventarioMapper.toDomain(inventario));
-            }
-
-            System.out.println("Loaded " + inventarios.size() + " inventarios from CSV file");
-        } catch (Exception e) {
-            System.err.println("Error loading inventarios: " + e.getMessage());
-            e.printStackTrace();
-        }
+    // A database kept on disk is seeded on its first start only, later starts do not depend on its size
+    private ResultadoImportacion omitida(String entidad, String archivo) {
+        logger.info("{} already has data, {} not loaded", entidad, archivo);
+        return new ResultadoImportacion(entidad, 0, 0, 0, List.of(), Duration.ZERO);
     }
 }
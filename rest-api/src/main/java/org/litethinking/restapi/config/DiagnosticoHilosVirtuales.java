@@ -0,0 +1,88 @@
+package org.litethinking.restapi.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Pinning diagnostics for the virtual-thread mode: listens to the JFR jdk.VirtualThreadPinned
+ * event and logs where a virtual thread blocked while holding its carrier (native frames,
+ * class initialization, or a synchronized block on JDKs before 24), in our code or in a driver.
+ * Only active with spring.threads.virtual.enabled and app.hilos-virtuales.diagnostico-pinning.
+ */
+@Component
+@ConditionalOnProperty(name = {"spring.threads.virtual.enabled", "app.hilos-virtuales.diagnostico-pinning"},
+        havingValue = "true")
+public class DiagnosticoHilosVirtuales {
+
+    private static final Logger logger = LogManager.getLogger(DiagnosticoHilosVirtuales.class);
+
+    static final String EVENTO_PINNING = "jdk.VirtualThreadPinned";
+    private static final int MARCOS_EN_LOG = 12;
+
+    private final Duration umbral;
+    private final LongAdder eventosPinning = new LongAdder();
+    private RecordingStream recordingStream;
+
+    public DiagnosticoHilosVirtuales(@Value("${app.hilos-virtuales.umbral-pinning-ms:20}") long umbralMs) {
+        this.umbral = Duration.ofMillis(umbralMs);
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable(EVENTO_PINNING).withThreshold(umbral).withStackTrace();
+        recordingStream.onEvent(EVENTO_PINNING, this::registrar);
+        recordingStream.startAsync();
+        logger.info("Virtual thread pinning diagnostics on, reporting pins longer than {} ms", umbral.toMillis());
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    /**
+     * Number of pinning events seen since startup (over the threshold).
+     */
+    public long getEventosPinning() {
+        return eventosPinning.sum();
+    }
+
+    private void registrar(RecordedEvent evento) {
+        eventosPinning.increment();
+        String motivo = evento.hasField("pinnedReason") ? evento.getString("pinnedReason") : "unknown";
+        String hilo = evento.getThread() != null ? evento.getThread().getJavaName() : "?";
+        logger.warn("Virtual thread {} pinned for {} ms ({}):{}", hilo, evento.getDuration().toMillis(), motivo,
+                pila(evento.getStackTrace()));
+    }
+
+    private static String pila(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return " no stack trace";
+        }
+        return stackTrace.getFrames().stream()
+                .limit(MARCOS_EN_LOG)
+                .map(DiagnosticoHilosVirtuales::marco)
+                .collect(Collectors.joining("\n    at ", "\n    at ", ""));
+    }
+
+    private static String marco(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + (frame.getLineNumber() > 0 ? ":" + frame.getLineNumber() : "");
+    }
+}
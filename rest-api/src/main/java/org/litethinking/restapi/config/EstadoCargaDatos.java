@@ -0,0 +1,70 @@
+package org.litethinking.restapi.config;
+
+import org.litethinking.infrastructure.persistence.importacion.ResultadoImportacion;
+import org.litethinking.shareddto.estado.EstadoCargaDatosDto;
+import org.litethinking.shareddto.estado.EstadoCargaDatosDto.Entidad;
+import org.litethinking.shareddto.estado.EstadoCargaDatosDto.Estado;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Progress of the seed data load, per entity.
+ * Written by the loader threads and read by the readiness gate on every request, so each
+ * entity status is an immutable snapshot swapped atomically.
+ */
+@Component
+public class EstadoCargaDatos {
+
+    public static final String CAJEROS = "cajeros";
+    public static final String CLIENTES = "clientes";
+    public static final String PRODUCTOS = "productos";
+    public static final String INVENTARIO = "inventario";
+
+    private static final List<String> ENTIDADES = List.of(CAJEROS, CLIENTES, PRODUCTOS, INVENTARIO);
+
+    private final Map<String, Entidad> entidades = new ConcurrentHashMap<>();
+
+    public EstadoCargaDatos() {
+        ENTIDADES.forEach(nombre -> entidades.put(nombre,
+                new Entidad(nombre, Estado.PENDIENTE, 0, 0, 0, null, null, null)));
+    }
+
+    public void iniciar(String nombre) {
+        entidades.put(nombre, new Entidad(nombre, Estado.CARGANDO, 0, 0, 0, LocalDateTime.now(), null, null));
+    }
+
+    public void completar(String nombre, ResultadoImportacion resultado) {
+        entidades.computeIfPresent(nombre, (clave, actual) -> new Entidad(nombre, Estado.LISTA,
+                resultado.filasImportadas(), resultado.filasRechazadas(), Math.round(resultado.filasPorSegundo()),
+                actual.inicio(), LocalDateTime.now(), null));
+    }
+
+    public void fallar(String nombre, Throwable error) {
+        entidades.computeIfPresent(nombre, (clave, actual) -> new Entidad(nombre, Estado.FALLIDA,
+                actual.filasImportadas(), actual.filasRechazadas(), 0,
+                actual.inicio(), LocalDateTime.now(), error.getMessage()));
+    }
+
+    /**
+     * Tells whether the given entities finished loading, well or not: a failed load
+     * opens its endpoints too, with the rows that made it, rather than keeping them closed forever.
+     */
+    public boolean terminada(String... nombres) {
+        for (String nombre : nombres) {
+            Estado estado = entidades.get(nombre).estado();
+            if (estado != Estado.LISTA && estado != Estado.FALLIDA) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public EstadoCargaDatosDto estado() {
+        List<Entidad> lista = ENTIDADES.stream().map(entidades::get).toList();
+        return new EstadoCargaDatosDto(terminada(ENTIDADES.toArray(String[]::new)), lista);
+    }
+}
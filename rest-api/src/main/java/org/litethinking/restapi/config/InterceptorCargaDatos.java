@@ -0,0 +1,67 @@
+package org.litethinking.restapi.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.litethinking.restapi.config.EstadoCargaDatos.*;
+
+/**
+ * Readiness gate for the background seed load: an endpoint answers 503 until the
+ * entities it reads are loaded, so products can be served while inventory is still loading.
+ */
+@Component
+public class InterceptorCargaDatos implements HandlerInterceptor {
+
+    static final String REINTENTAR_EN_SEGUNDOS = "5";
+
+    private static final String[] NINGUNA = new String[0];
+
+    private final EstadoCargaDatos estadoCargaDatos;
+
+    public InterceptorCargaDatos(EstadoCargaDatos estadoCargaDatos) {
+        this.estadoCargaDatos = estadoCargaDatos;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        String[] requeridas = entidadesRequeridas(
+                request.getRequestURI().substring(request.getContextPath().length()), request.getMethod());
+        if (estadoCargaDatos.terminada(requeridas)) {
+            return true;
+        }
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader("Retry-After", REINTENTAR_EN_SEGUNDOS);
+        response.setContentType("text/plain");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("Cargando datos iniciales (" + String.join(", ", requeridas)
+                + "), consulte /api/estado/carga-datos");
+        return false;
+    }
+
+    static String[] entidadesRequeridas(String uri, String metodo) {
+        if (uri.startsWith("/api/productos")) {
+            return new String[]{PRODUCTOS};
+        }
+        if (uri.startsWith("/api/inventario")) {
+            return new String[]{PRODUCTOS, INVENTARIO};
+        }
+        if (uri.startsWith("/api/cajeros")) {
+            return new String[]{CAJEROS};
+        }
+        if (uri.startsWith("/api/clientes")) {
+            return new String[]{CLIENTES};
+        }
+        // Reading sales needs no seed data; writing one reserves stock
+        if (uri.startsWith("/api/ventas") && !HttpMethod.GET.matches(metodo)) {
+            return new String[]{PRODUCTOS, INVENTARIO};
+        }
+        return NINGUNA;
+    }
+}
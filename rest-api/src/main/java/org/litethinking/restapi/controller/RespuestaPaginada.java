@@ -0,0 +1,35 @@
+package org.litethinking.restapi.controller;
+
+import org.litethinking.shareddto.paginacion.PaginaDto;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+/**
+ * Arma las respuestas de los listados paginados.
+ * El cuerpo sigue siendo un arreglo JSON; el cursor de la próxima página
+ * va en la cabecera X-Next-Cursor y no se envía en la última página.
+ */
+public final class RespuestaPaginada {
+
+    public static final String CABECERA_SIGUIENTE_CURSOR = "X-Next-Cursor";
+    public static final String CABECERA_TAMANIO_PAGINA = "X-Page-Size";
+
+    private RespuestaPaginada() {
+    }
+
+    /**
+     * Crea una respuesta 200 con los elementos de la página y sus cabeceras de paginación.
+     *
+     * @param pagina la página a devolver
+     * @return la respuesta con el arreglo de elementos
+     */
+    public static <T> ResponseEntity<List<T>> ok(PaginaDto<T> pagina) {
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok()
+                .header(CABECERA_TAMANIO_PAGINA, String.valueOf(pagina.tamanio()));
+        if (pagina.tieneSiguiente()) {
+            respuesta.header(CABECERA_SIGUIENTE_CURSOR, pagina.siguienteCursor());
+        }
+        return respuesta.body(pagina.elementos());
+    }
+}
@@ -0,0 +1,44 @@
+package org.litethinking.restapi.controller.estado;
+
+import org.litethinking.restapi.config.EstadoCargaDatos;
+import org.litethinking.shareddto.estado.EstadoCargaDatosDto;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller exposing the progress of the seed data load.
+ */
+@RestController
+@RequestMapping("/api/estado")
+public class ControladorEstadoCarga {
+
+    private final EstadoCargaDatos estadoCargaDatos;
+
+    public ControladorEstadoCarga(EstadoCargaDatos estadoCargaDatos) {
+        this.estadoCargaDatos = estadoCargaDatos;
+    }
+
+    /**
+     * Load status of every seed entity, with rows imported and rejected.
+     *
+     * @return the status, always 200
+     */
+    @GetMapping("/carga-datos")
+    public ResponseEntity<EstadoCargaDatosDto> obtenerEstadoCarga() {
+        return ResponseEntity.ok(estadoCargaDatos.estado());
+    }
+
+    /**
+     * Readiness probe: 200 once every seed entity is loaded, 503 while loading.
+     *
+     * @return the status, with 200 or 503
+     */
+    @GetMapping("/listo")
+    public ResponseEntity<EstadoCargaDatosDto> listo() {
+        EstadoCargaDatosDto estado = estadoCargaDatos.estado();
+        return ResponseEntity.status(estado.completa() ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE).body(estado);
+    }
+}
@@ -1,6 +1,8 @@
 package org.litethinking.restapi.controller.supermercado;
 
 import org.litethinking.application.service.supermercado.ServicioCajero;
+import org.litethinking.restapi.controller.RespuestaPaginada;
+import org.litethinking.shareddto.paginacion.PaginaDto;
 import org.litethinking.shareddto.supermercado.CajeroDto;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -74,16 +76,25 @@ public class ControladorCajero {
     }
 
     /**
-     * Trae toos los cajeros que hay en el sistema
+     * Trae los cajeros por páginas, ordenaos por ID
      *
-     * @return la lista completa de cajeros
+     * @param cursor el cursor que vino en la página anterior, o na' pa' la primera
+     * @param tamanio cuántos cajeros por página (opcional)
+     * @return la página de cajeros, con el cursor de la próxima en la cabecera X-Next-Cursor
      */
     @GetMapping
-    public ResponseEntity<List<CajeroDto>> obtenerTodosLosCajeros() {
-        log.info("Obteniendo toos los cajeros");
-        List<CajeroDto> cajeros = servicioCajero.obtenerTodosLosCajeros();
-        log.debug("Se encontraron {} cajeros", cajeros.size());
-        return ResponseEntity.ok(cajeros);
+    public ResponseEntity<List<CajeroDto>> obtenerTodosLosCajeros(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanio) {
+        log.info("Obteniendo página de cajeros, cursor: {}", cursor);
+        try {
+            PaginaDto<CajeroDto> pagina = servicioCajero.obtenerPaginaDeCajeros(cursor, tamanio);
+            log.debug("Se encontraron {} cajeros en la página", pagina.elementos().size());
+            return RespuestaPaginada.ok(pagina);
+        } catch (IllegalArgumentException e) {
+            log.warn("Cursor de cajeros inválido: {}", cursor);
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
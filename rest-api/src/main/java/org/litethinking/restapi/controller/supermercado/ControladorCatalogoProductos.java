@@ -0,0 +1,108 @@
+package org.litethinking.restapi.controller.supermercado;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.litethinking.restapi.catalogo.CatalogoProductos;
+import org.litethinking.restapi.catalogo.CatalogoProductos.Instantanea;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controlador REST pa' bajar el catálogo completo de una sola vez, listo pa' las cajas.
+ */
+@RestController
+@RequestMapping("/api/productos/catalogo")
+@Tag(name = "Productos", description = "API para la gestión de productos del supermercado")
+public class ControladorCatalogoProductos {
+
+    static final String CABECERA_TOTAL_PRODUCTOS = "X-Total-Productos";
+    static final String CABECERA_VERSION_CATALOGO = "X-Catalogo-Version";
+    static final String CABECERA_EPOCA_CATALOGO = "X-Catalogo-Epoca";
+
+    private final CatalogoProductos catalogoProductos;
+
+    public ControladorCatalogoProductos(CatalogoProductos catalogoProductos) {
+        this.catalogoProductos = catalogoProductos;
+    }
+
+    /**
+     * Devuelve todos los productos como un arreglo JSON. Si el cliente acepta gzip se manda
+     * tal cual está guardao', sin volver a comprimir; con el ETag de la última descarga
+     * la respuesta es un 304 sin cuerpo. La cabecera X-Catalogo-Version dice desde qué versión
+     * pedir los cambios después, y X-Catalogo-Epoca a qué base de datos pertenece esa versión.
+     *
+     * @param aceptaCodificacion la cabecera Accept-Encoding del cliente
+     * @return el catálogo completo, o 304 si no cambió
+     */
+    @Operation(
+        summary = "Descargar el catálogo completo",
+        description = "Devuelve todos los productos en un solo arreglo JSON, comprimido con gzip si el cliente "
+            + "lo acepta. Enviar el ETag recibido en If-None-Match para obtener 304 si el catálogo no cambió. "
+            + "La cabecera X-Catalogo-Version indica la versión a usar en /api/productos/cambios "
+            + "y X-Catalogo-Epoca la época del catálogo a la que pertenece"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Catálogo completo",
+            content = @Content(mediaType = "application/json")
+        ),
+        @ApiResponse(
+            responseCode = "304",
+            description = "El catálogo no cambió desde el ETag enviado",
+            content = @Content
+        ),
+        @ApiResponse(
+            responseCode = "500",
+            description = "Error interno del servidor",
+            content = @Content
+        )
+    })
+    @GetMapping
+    public ResponseEntity<byte[]> obtenerCatalogo(
+            @Parameter(description = "Codificaciones aceptadas por el cliente")
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String aceptaCodificacion) {
+        Instantanea instantanea = catalogoProductos.obtener();
+        boolean gzip = aceptaGzip(aceptaCodificacion);
+
+        // Each encoding is its own representation, so each one gets its own ETag.
+        // With an ETag on the ResponseEntity, Spring answers If-None-Match with a 304 itself
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(gzip ? instantanea.hash() + "-gzip" : instantanea.hash())
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .header(CABECERA_TOTAL_PRODUCTOS, String.valueOf(instantanea.productos()))
+                .header(CABECERA_VERSION_CATALOGO, String.valueOf(instantanea.version()))
+                .header(CABECERA_EPOCA_CATALOGO, instantanea.epoca());
+        if (gzip) {
+            return respuesta.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(instantanea.gzip());
+        }
+        return respuesta.body(instantanea.json());
+    }
+
+    static boolean aceptaGzip(String aceptaCodificacion) {
+        if (aceptaCodificacion == null) {
+            return false;
+        }
+        for (String codificacion : aceptaCodificacion.split(",")) {
+            String[] partes = codificacion.split(";");
+            String nombre = partes[0].trim();
+            if (nombre.equalsIgnoreCase("gzip") || nombre.equals("*")) {
+                // gzip;q=0 means the client refuses it
+                return partes.length < 2 || !partes[1].replace(" ", "").matches("q=0(\\.0{0,3})?");
+            }
+        }
+        return false;
+    }
+}
@@ -1,6 +1,7 @@
 package org.litethinking.restapi.controller.supermercado;
 
 import org.litethinking.application.service.supermercado.ServicioCliente;
+import org.litethinking.restapi.controller.RespuestaPaginada;
 import org.litethinking.shareddto.supermercado.ClienteDto;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -61,14 +62,21 @@ public class ControladorCliente {
     }
 
     /**
-     * Trae to' los clientes que hay, ¡completo!
+     * Trae los clientes por páginas, ordenaos por ID.
      *
-     * @return la lista con to' los clientes
+     * @param cursor el cursor que vino en la página anterior, o na' pa' la primera
+     * @param tamanio cuántos clientes por página (opcional)
+     * @return la página de clientes, con el cursor de la próxima en la cabecera X-Next-Cursor
      */
     @GetMapping
-    public ResponseEntity<List<ClienteDto>> obtenerTodosLosClientes() {
-        List<ClienteDto> clientes = servicioCliente.obtenerTodosLosClientes();
-        return ResponseEntity.ok(clientes);
+    public ResponseEntity<List<ClienteDto>> obtenerTodosLosClientes(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanio) {
+        try {
+            return RespuestaPaginada.ok(servicioCliente.obtenerPaginaDeClientes(cursor, tamanio));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
@@ -10,13 +10,23 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.litethinking.application.service.supermercado.ServicioProducto;
+import org.litethinking.restapi.controller.RespuestaPaginada;
+import org.litethinking.shareddto.paginacion.PaginaDto;
+import org.litethinking.shareddto.supermercado.CambiosProductosDto;
 import org.litethinking.shareddto.supermercado.ProductoDto;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -159,7 +169,7 @@ public class ControladorProducto {
         try {
             Optional<ProductoDto> producto = servicioProducto.obtenerProductoPorId(id);
             if (producto.isPresent()) {
-                logger.info("Producto encontrado: ID={}, Nombre={}", id, producto.get().nombre());
+                logger.debug("Producto encontrado: ID={}, Nombre={}", id, producto.get().nombre());
                 return ResponseEntity.ok(producto.get());
             } else {
                 logger.warn("Producto no encontrado con ID: {}", id);
@@ -171,9 +181,17 @@ public class ControladorProducto {
         }
     }
 
+    /**
+     * Trae los productos por páginas, ordenaos por ID.
+     *
+     * @param cursor el cursor que vino en la página anterior, o na' pa' la primera
+     * @param tamanio cuántos productos por página (opcional)
+     * @return la página de productos, con el cursor de la próxima en la cabecera X-Next-Cursor
+     */
     @Operation(
         summary = "Obtener todos los productos",
-        description = "Recupera la lista completa de productos disponibles en el sistema"
+        description = "Recupera los productos por páginas ordenadas por ID. El cursor de la siguiente página "
+            + "se devuelve en la cabecera X-Next-Cursor"
     )
     @ApiResponses(value = {
         @ApiResponse(
@@ -184,6 +202,11 @@ public class ControladorProducto {
                 schema = @Schema(implementation = ProductoDto.class)
             )
         ),
+        @ApiResponse(
+            responseCode = "400", 
+            description = "Cursor de paginación inválido",
+            content = @Content
+        ),
         @ApiResponse(
             responseCode = "500", 
             description = "Error interno del servidor",
@@ -191,28 +214,92 @@ public class ControladorProducto {
         )
     })
     @GetMapping
-    public ResponseEntity<List<ProductoDto>> obtenerTodosLosProductos() {
-        logger.debug("Obteniendo lista de todos los productos");
+    public ResponseEntity<List<ProductoDto>> obtenerTodosLosProductos(
+            @Parameter(description = "Cursor devuelto en la página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Cantidad de productos por página")
+            @RequestParam(required = false) Integer tamanio) {
+        logger.debug("Obteniendo página de productos, cursor: {}", cursor);
         try {
-            List<ProductoDto> productos = servicioProducto.obtenerTodosLosProductos();
-            logger.info("Se encontraron {} productos en total", productos.size());
+            PaginaDto<ProductoDto> pagina = servicioProducto.obtenerPaginaDeProductos(cursor, tamanio);
+            List<ProductoDto> productos = pagina.elementos();
+            logger.debug("Se encontraron {} productos en la página", productos.size());
 
-            // Si es necesario, podemos loguear más detalles a nivel de debug
-            if (logger.isDebugEnabled() && !productos.isEmpty()) {
-                logger.debug("Categorías encontradas: {}", 
-                    productos.stream()
+            // Con un Supplier la lista de categorías solo se arma si DEBUG está activo
+            if (!productos.isEmpty()) {
+                logger.debug("Categorías encontradas: {}", () -> productos.stream()
                         .map(ProductoDto::categoria)
                         .distinct()
                         .collect(Collectors.joining(", ")));
             }
 
-            return ResponseEntity.ok(productos);
+            return RespuestaPaginada.ok(pagina);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Cursor de productos inválido: {}", cursor);
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             logger.error("Error al obtener la lista de productos", e);
             throw e;
         }
     }
 
+    /**
+     * Trae solo lo que cambió en el catálogo desde la versión que ya tiene la caja.
+     *
+     * @param desde la última versión que tiene el cliente (la de X-Catalogo-Version o el hasta anterior)
+     * @param tamanio cuántos cambios como máximo (opcional)
+     * @return los productos nuevos o cambiaos' y los ids de los borraos'
+     */
+    @Operation(
+        summary = "Obtener los cambios del catálogo desde una versión",
+        description = "Devuelve los productos creados o actualizados y los IDs de los eliminados después de la "
+            + "versión indicada, una vez por producto. Repetir con desde = hasta mientras hayMas sea verdadero"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Cambios recuperados exitosamente",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = CambiosProductosDto.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Versión inválida",
+            content = @Content
+        ),
+        @ApiResponse(
+            responseCode = "409",
+            description = "La versión es posterior a la del catálogo; hay que descargar el catálogo completo",
+            content = @Content
+        ),
+        @ApiResponse(
+            responseCode = "500",
+            description = "Error interno del servidor",
+            content = @Content
+        )
+    })
+    @GetMapping("/cambios")
+    public ResponseEntity<CambiosProductosDto> obtenerCambios(
+            @Parameter(description = "Última versión del catálogo que tiene el cliente", required = true)
+            @RequestParam long desde,
+            @Parameter(description = "Cantidad máxima de cambios")
+            @RequestParam(required = false) Integer tamanio) {
+        try {
+            CambiosProductosDto cambios = servicioProducto.obtenerCambiosDesde(desde, tamanio);
+            logger.debug("Cambios desde la versión {} hasta la {}: {} actualizados, {} eliminados",
+                    desde, cambios.hasta(), cambios.actualizados().size(), cambios.eliminados().size());
+            return ResponseEntity.ok(cambios);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Versión de catálogo inválida: {}", desde);
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            logger.warn(e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
     /**
      * Borra un producto del sistema, ¡pa' fuera!
      *
@@ -329,6 +416,8 @@ public class ControladorProducto {
 
     /**
      * Genera un archivo CSV con todos los productos.
+     * Las filas se escriben directo a la respuesta a medida que se leen de la base de datos,
+     * así que la memoria no crece con el tamaño del catálogo.
      *
      * @return un archivo CSV con todos los productos
      */
@@ -351,27 +440,50 @@ public class ControladorProducto {
         )
     })
     @GetMapping("/csv")
-    public ResponseEntity<String> generarCsvProductos() {
-        List<ProductoDto> productos = servicioProducto.obtenerTodosLosProductos();
+    public ResponseEntity<StreamingResponseBody> generarCsvProductos() {
+        StreamingResponseBody cuerpo = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            writer.write("id,nombre,descripcion,precio,categoria,codigoBarras\n");
 
-        // Crear el contenido del CSV
-        StringBuilder csv = new StringBuilder();
-        csv.append("id,nombre,descripcion,precio,categoria,codigoBarras\n");
+            long[] filas = {0};
+            try {
+                servicioProducto.recorrerTodosLosProductos(producto -> {
+                    try {
+                        escribirFilaCsv(writer, producto);
+                        filas[0]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                logger.warn("Exportación CSV de productos interrumpida después de {} filas", filas[0]);
+                throw e.getCause();
+            }
 
-        for (ProductoDto producto : productos) {
-            csv.append(producto.id()).append(",")
-               .append(producto.nombre()).append(",")
-               .append(producto.descripcion()).append(",")
-               .append(producto.precio()).append(",")
-               .append(producto.categoria()).append(",")
-               .append(producto.codigoBarras()).append("\n");
-        }
+            writer.flush();
+            logger.info("CSV de productos generado con {} filas", filas[0]);
+        };
 
         // Configurar las cabeceras para la descarga del archivo
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.TEXT_PLAIN);
+        headers.setContentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8));
         headers.setContentDispositionFormData("attachment", "productos.csv");
 
-        return new ResponseEntity<>(csv.toString(), headers, HttpStatus.OK);
+        return new ResponseEntity<>(cuerpo, headers, HttpStatus.OK);
+    }
+
+    private void escribirFilaCsv(Writer writer, ProductoDto producto) throws IOException {
+        writer.write(String.valueOf(producto.id()));
+        writer.write(',');
+        writer.write(String.valueOf(producto.nombre()));
+        writer.write(',');
+        writer.write(String.valueOf(producto.descripcion()));
+        writer.write(',');
+        writer.write(String.valueOf(producto.precio()));
+        writer.write(',');
+        writer.write(String.valueOf(producto.categoria()));
+        writer.write(',');
+        writer.write(String.valueOf(producto.codigoBarras()));
+        writer.write('\n');
     }
 }
@@ -1,15 +1,26 @@
 package org.litethinking.restapi.controller.supermercado.inventario;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.litethinking.application.service.supermercado.inventario.ServicioInventario;
 import org.litethinking.domain.model.supermercado.Producto;
 import org.litethinking.domain.model.supermercado.inventario.Inventario;
+import org.litethinking.domain.model.supermercado.inventario.LineaInventario;
+import org.litethinking.restapi.controller.RespuestaPaginada;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Optional;
@@ -21,6 +32,9 @@ import java.util.Optional;
 @RequestMapping("/api/inventario")
 public class ControladorInventario {
 
+    private static final Logger logger = LogManager.getLogger(ControladorInventario.class);
+    private static final int FILAS_POR_BLOQUE = 1000;
+
     private final ServicioInventario servicioInventario;
 
     public ControladorInventario(ServicioInventario servicioInventario) {
@@ -66,14 +80,21 @@ public class ControladorInventario {
     }
 
     /**
-     * Get all inventory records.
+     * Get a page of inventory records ordered by id.
      *
-     * @return the list of all inventory records
+     * @param cursor the cursor returned with the previous page, or none for the first page
+     * @param tamanio the page size (optional)
+     * @return the page of inventory records; the next cursor goes in the X-Next-Cursor header
      */
     @GetMapping
-    public ResponseEntity<List<Inventario>> obtenerTodoElInventario() {
-        List<Inventario> listaInventario = servicioInventario.obtenerTodoElInventario();
-        return ResponseEntity.ok(listaInventario);
+    public ResponseEntity<List<Inventario>> obtenerTodoElInventario(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanio) {
+        try {
+            return RespuestaPaginada.ok(servicioInventario.obtenerPaginaDeInventario(cursor, tamanio));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
@@ -140,35 +161,74 @@ public class ControladorInventario {
     }
 
     /**
-     * Genera un archivo CSV con todo el inventario.
+     * Genera un archivo CSV con el inventario, uniendo cada registro con su producto.
+     * Los filtros se aplican en la base de datos y las filas se escriben por bloques
+     * directo a la respuesta, así que la memoria no crece con el tamaño del inventario.
      *
-     * @return un archivo CSV con todo el inventario
+     * @param ubicacion solo incluir esta ubicación (opcional)
+     * @param bajoStock solo incluir registros en o por debajo del stock mínimo
+     * @return un archivo CSV con el inventario
      */
     @GetMapping("/csv")
-    public ResponseEntity<String> generarCsvInventario() {
-        List<Inventario> inventarios = servicioInventario.obtenerTodoElInventario();
-
-        // Crear el contenido del CSV
-        StringBuilder csv = new StringBuilder();
-        csv.append("id,producto_id,cantidad,stockMinimo,stockMaximo,fechaUltimaReposicion,ubicacion\n");
-
-        DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE;
-
-        for (Inventario inventario : inventarios) {
-            csv.append(inventario.getId()).append(",")
-               .append(inventario.getProducto().getId()).append(",")
-               .append(inventario.getCantidad()).append(",")
-               .append(inventario.getStockMinimo()).append(",")
-               .append(inventario.getStockMaximo()).append(",")
-               .append(inventario.getFechaUltimaReposicion().format(formatter)).append(",")
-               .append(inventario.getUbicacion()).append("\n");
-        }
+    public ResponseEntity<StreamingResponseBody> generarCsvInventario(
+            @RequestParam(required = false) String ubicacion,
+            @RequestParam(defaultValue = "false") boolean bajoStock) {
+        String filtroUbicacion = (ubicacion == null || ubicacion.isBlank()) ? null : ubicacion;
+
+        StreamingResponseBody cuerpo = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024);
+            writer.write("id,producto_id,cantidad,stockMinimo,stockMaximo,fechaUltimaReposicion,ubicacion,producto_nombre,producto_codigoBarras\n");
+
+            long[] filas = {0};
+            try {
+                servicioInventario.recorrerLineasInventario(filtroUbicacion, bajoStock, linea -> {
+                    try {
+                        escribirFilaCsv(writer, linea);
+                        // Mandar un bloque al cliente cada cierto número de filas, sin esperar al final
+                        if (++filas[0] % FILAS_POR_BLOQUE == 0) {
+                            writer.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                logger.warn("Inventory CSV export aborted after {} rows", filas[0]);
+                throw e.getCause();
+            }
+
+            writer.flush();
+            logger.info("Inventory CSV exported with {} rows", filas[0]);
+        };
 
         // Configurar las cabeceras para la descarga del archivo
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.TEXT_PLAIN);
+        headers.setContentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8));
         headers.setContentDispositionFormData("attachment", "inventario.csv");
 
-        return new ResponseEntity<>(csv.toString(), headers, HttpStatus.OK);
+        return new ResponseEntity<>(cuerpo, headers, HttpStatus.OK);
+    }
+
+    private void escribirFilaCsv(Writer writer, LineaInventario linea) throws IOException {
+        writer.write(String.valueOf(linea.getId()));
+        writer.write(',');
+        writer.write(String.valueOf(linea.getProductoId()));
+        writer.write(',');
+        writer.write(String.valueOf(linea.getCantidad()));
+        writer.write(',');
+        writer.write(String.valueOf(linea.getStockMinimo()));
+        writer.write(',');
+        writer.write(String.valueOf(linea.getStockMaximo()));
+        writer.write(',');
+        if (linea.getFechaUltimaReposicion() != null) {
+            writer.write(linea.getFechaUltimaReposicion().format(DateTimeFormatter.ISO_LOCAL_DATE));
+        }
+        writer.write(',');
+        writer.write(String.valueOf(linea.getUbicacion()));
+        writer.write(',');
+        writer.write(String.valueOf(linea.getProductoNombre()));
+        writer.write(',');
+        writer.write(String.valueOf(linea.getProductoCodigoBarras()));
+        writer.write('\n');
     }
 }
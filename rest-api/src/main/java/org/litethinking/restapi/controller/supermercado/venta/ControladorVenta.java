@@ -3,15 +3,25 @@ package org.litethinking.restapi.controller.supermercado.venta;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.litethinking.application.service.supermercado.venta.ServicioVenta;
+import org.litethinking.restapi.controller.RespuestaPaginada;
+import org.litethinking.restapi.metricas.MetricasVentas;
+import org.litethinking.shareddto.paginacion.PaginaDto;
+import org.litethinking.shareddto.supermercado.venta.ResultadoVentaDto;
+import org.litethinking.shareddto.supermercado.venta.TotalVentasPorDiaDto;
+import org.litethinking.shareddto.supermercado.venta.TotalVentasPorGrupoDto;
 import org.litethinking.shareddto.supermercado.venta.VentaDto;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * REST Controller for Sale operations.
@@ -21,33 +31,98 @@ import java.util.Optional;
 public class ControladorVenta {
 
     private static final Logger logger = LogManager.getLogger(ControladorVenta.class);
+    private static final String CABECERA_CLAVE_IDEMPOTENCIA = "Idempotency-Key";
+    // Length of the clave_idempotencia column
+    private static final int LONGITUD_MAXIMA_CLAVE = 64;
     private final ServicioVenta servicioVenta;
+    private final MetricasVentas metricasVentas;
 
-    public ControladorVenta(ServicioVenta servicioVenta) {
+    public ControladorVenta(ServicioVenta servicioVenta, MetricasVentas metricasVentas) {
         this.servicioVenta = servicioVenta;
+        this.metricasVentas = metricasVentas;
         logger.info("Sale Controller initialized and ready to work");
     }
 
     /**
-     * Creates a new sale.
+     * Creates a new sale. A register that sends the sale with an Idempotency-Key header may send it
+     * again when it got no answer: a key that was already used gets the sale created with it (200)
+     * instead of a second sale.
      *
      * @param ventaDto the sale to create
+     * @param claveIdempotencia the key the register drew for this sale, if any
      * @return the created sale
      */
     @PostMapping
-    public ResponseEntity<VentaDto> crearVenta(@RequestBody VentaDto ventaDto) {
-        logger.info("Creating new sale for customer: {}", ventaDto.nombreCliente());
+    public ResponseEntity<VentaDto> crearVenta(@RequestBody VentaDto ventaDto,
+                                               @RequestHeader(value = CABECERA_CLAVE_IDEMPOTENCIA, required = false)
+                                               String claveIdempotencia) {
+        logger.debug("Creating new sale for customer: {}", ventaDto.nombreCliente());
+        if (claveIdempotencia != null) {
+            if (claveIdempotencia.isBlank() || claveIdempotencia.length() > LONGITUD_MAXIMA_CLAVE) {
+                logger.warn("Invalid idempotency key for customer {}", ventaDto.nombreCliente());
+                metricasVentas.ventaRechazada(MetricasVentas.MOTIVO_INVALIDA, MetricasVentas.ORIGEN_INDIVIDUAL);
+                return ResponseEntity.badRequest().build();
+            }
+            Optional<VentaDto> yaCreada = servicioVenta.obtenerVentaPorClaveIdempotencia(claveIdempotencia);
+            if (yaCreada.isPresent()) {
+                return ventaRepetida(yaCreada.get());
+            }
+        }
         try {
-            VentaDto ventaCreada = servicioVenta.crearVenta(ventaDto);
+            VentaDto ventaCreada = servicioVenta.crearVenta(ventaDto, claveIdempotencia);
             logger.info("Sale created successfully! ID: {}, Customer: {}, Total: ${}", 
                 ventaCreada.id(), ventaCreada.nombreCliente(), ventaCreada.montoTotal());
+            metricasVentas.ventaCreada(ventaCreada, MetricasVentas.ORIGEN_INDIVIDUAL);
             return new ResponseEntity<>(ventaCreada, HttpStatus.CREATED);
+        } catch (IllegalStateException e) {
+            logger.warn("Sale rejected for customer {}: {}", ventaDto.nombreCliente(), e.getMessage());
+            metricasVentas.ventaRechazada(MetricasVentas.MOTIVO_SIN_STOCK, MetricasVentas.ORIGEN_INDIVIDUAL);
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid sale for customer {}: {}", ventaDto.nombreCliente(), e.getMessage());
+            metricasVentas.ventaRechazada(MetricasVentas.MOTIVO_INVALIDA, MetricasVentas.ORIGEN_INDIVIDUAL);
+            return ResponseEntity.badRequest().build();
+        } catch (DataIntegrityViolationException e) {
+            // The same sale sent twice at once: the other request saved it first
+            Optional<VentaDto> yaCreada = claveIdempotencia == null
+                    ? Optional.empty()
+                    : servicioVenta.obtenerVentaPorClaveIdempotencia(claveIdempotencia);
+            if (yaCreada.isPresent()) {
+                return ventaRepetida(yaCreada.get());
+            }
+            logger.error("Error creating sale for customer: {}", ventaDto.nombreCliente(), e);
+            metricasVentas.ventaRechazada(MetricasVentas.MOTIVO_ERROR, MetricasVentas.ORIGEN_INDIVIDUAL);
+            throw e;
         } catch (Exception e) {
             logger.error("Error creating sale for customer: {}", ventaDto.nombreCliente(), e);
+            metricasVentas.ventaRechazada(MetricasVentas.MOTIVO_ERROR, MetricasVentas.ORIGEN_INDIVIDUAL);
             throw e;
         }
     }
 
+    /**
+     * Creates many sales in one call, e.g. the sales a register kept while it was offline.
+     * Every sale gets its own status; a rejected sale does not stop the rest of the batch.
+     *
+     * @param ventasDto the sales to create
+     * @return the outcome of every sale, in the same order as the request
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<ResultadoVentaDto>> crearVentas(@RequestBody List<VentaDto> ventasDto) {
+        if (ventasDto == null || ventasDto.isEmpty()) {
+            logger.warn("Empty sale batch rejected");
+            return ResponseEntity.badRequest().build();
+        }
+        logger.info("Creating batch of {} sales", ventasDto.size());
+        List<ResultadoVentaDto> resultados = servicioVenta.crearVentas(ventasDto);
+        metricasVentas.lote(ventasDto, resultados);
+        long creadas = resultados.stream()
+                .filter(resultado -> resultado.estado() == ResultadoVentaDto.Estado.CREADA)
+                .count();
+        logger.info("Sale batch processed: {} created, {} rejected", creadas, resultados.size() - creadas);
+        return ResponseEntity.ok(resultados);
+    }
+
     /**
      * Updates an existing sale.
      *
@@ -81,7 +156,7 @@ public class ControladorVenta {
         try {
             Optional<VentaDto> venta = servicioVenta.obtenerVentaPorId(id);
             if (venta.isPresent()) {
-                logger.info("Sale found! ID: {}, Customer: {}, Total: ${}", 
+                logger.debug("Sale found! ID: {}, Customer: {}, Total: ${}", 
                     id, venta.get().nombreCliente(), venta.get().montoTotal());
                 return ResponseEntity.ok(venta.get());
             } else {
@@ -95,16 +170,21 @@ public class ControladorVenta {
     }
 
     /**
-     * Gets all sales.
+     * Gets a page of sales ordered by id.
      *
-     * @return the list of all sales
+     * @param cursor the cursor returned with the previous page, or none for the first page
+     * @param tamanio the page size (optional)
+     * @return the page of sales; the next cursor goes in the X-Next-Cursor header
      */
     @GetMapping
-    public ResponseEntity<List<VentaDto>> obtenerTodasLasVentas() {
-        logger.debug("Finding all sales");
+    public ResponseEntity<List<VentaDto>> obtenerTodasLasVentas(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanio) {
+        logger.debug("Finding sales page, cursor: {}", cursor);
         try {
-            List<VentaDto> ventas = servicioVenta.obtenerTodasLasVentas();
-            logger.info("Found {} sales in total", ventas.size());
+            PaginaDto<VentaDto> pagina = servicioVenta.obtenerPaginaDeVentas(cursor, tamanio);
+            List<VentaDto> ventas = pagina.elementos();
+            logger.debug("Found {} sales in page", ventas.size());
 
             // If there are few sales, we can show more details at debug level
             if (logger.isDebugEnabled() && ventas.size() < 10) {
@@ -115,7 +195,10 @@ public class ControladorVenta {
                 }
             }
 
-            return ResponseEntity.ok(ventas);
+            return RespuestaPaginada.ok(pagina);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid sales cursor: {}", cursor);
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             logger.error("Error retrieving the list of sales", e);
             throw e;
@@ -192,21 +275,12 @@ public class ControladorVenta {
             List<VentaDto> ventas = servicioVenta.obtenerVentasEntreFechas(fechaInicio, fechaFin);
             logger.info("Found {} sales between those dates", ventas.size());
 
-            // Calculate the total sold to show in the log
+            // Suppliers: the total and the id list are only built if the level is enabled
             if (!ventas.isEmpty()) {
-                double totalVendido = ventas.stream()
-                    .mapToDouble(v -> v.montoTotal().doubleValue())
-                    .sum();
-                logger.info("Total sold in that period: ${}", totalVendido);
-
-                // Log sale IDs at debug level
-                if (logger.isDebugEnabled()) {
-                    String ventasIds = ventas.stream()
-                        .map(v -> v.id().toString())
-                        .reduce((a, b) -> a + ", " + b)
-                        .orElse("");
-                    logger.debug("Sale IDs found: {}", ventasIds);
-                }
+                logger.info("Total sold in that period: ${}", () -> totalVendido(ventas));
+                logger.debug("Sale IDs found: {}", () -> ventas.stream()
+                        .map(v -> String.valueOf(v.id()))
+                        .collect(Collectors.joining(", ")));
             }
 
             return ResponseEntity.ok(ventas);
@@ -229,12 +303,9 @@ public class ControladorVenta {
             List<VentaDto> ventas = servicioVenta.obtenerVentasPorMetodoPago(metodoPago);
             logger.info("Found {} sales with payment method '{}'", ventas.size(), metodoPago);
 
-            // Calculate the total sold with this payment method
+            // Total computed only if INFO is enabled
             if (!ventas.isEmpty()) {
-                double totalVendido = ventas.stream()
-                    .mapToDouble(v -> v.montoTotal().doubleValue())
-                    .sum();
-                logger.info("Total sold with {}: ${}", metodoPago, totalVendido);
+                logger.info("Total sold with {}: ${}", () -> metodoPago, () -> totalVendido(ventas));
 
                 // Log sale details at debug level
                 if (logger.isDebugEnabled()) {
@@ -252,4 +323,89 @@ public class ControladorVenta {
             throw e;
         }
     }
+
+    /**
+     * Gets the number of sales and amount sold per day, read from the daily sales rollup.
+     *
+     * @param desde the first day, optional
+     * @param hasta the last day (included), optional
+     * @return one total per day with sales
+     */
+    @GetMapping("/analytics/diario")
+    public ResponseEntity<List<TotalVentasPorDiaDto>> obtenerTotalesPorDia(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        logger.info("Computing daily sales totals from {} to {}", desde, hasta);
+        try {
+            return ResponseEntity.ok(servicioVenta.obtenerTotalesPorDia(desde, hasta));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid date range: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Gets the number of sales and amount sold per payment method, read from the daily sales rollup.
+     *
+     * @param desde the first day, optional
+     * @param hasta the last day (included), optional
+     * @return one total per payment method
+     */
+    @GetMapping("/analytics/metodos-pago")
+    public ResponseEntity<List<TotalVentasPorGrupoDto>> obtenerTotalesPorMetodoPago(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        logger.info("Computing sales totals per payment method from {} to {}", desde, hasta);
+        try {
+            return ResponseEntity.ok(servicioVenta.obtenerTotalesPorMetodoPago(desde, hasta));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid date range: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Gets the amount sold per product category, read from the daily sales rollup.
+     *
+     * @param desde the first day, optional
+     * @param hasta the last day (included), optional
+     * @return one total per category
+     */
+    @GetMapping("/analytics/categorias")
+    public ResponseEntity<List<TotalVentasPorGrupoDto>> obtenerTotalesPorCategoria(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        logger.info("Computing sales totals per category from {} to {}", desde, hasta);
+        try {
+            return ResponseEntity.ok(servicioVenta.obtenerTotalesPorCategoria(desde, hasta));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid date range: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Computes the daily sales rollup again from all the sales.
+     *
+     * @return the number of rollup rows
+     */
+    @PostMapping("/analytics/reconstruir")
+    public ResponseEntity<Integer> reconstruirResumenVentas() {
+        logger.info("Rebuilding the daily sales rollup");
+        int filas = servicioVenta.reconstruirResumenVentas();
+        logger.info("Daily sales rollup rebuilt with {} rows", filas);
+        return ResponseEntity.ok(filas);
+    }
+
+    private ResponseEntity<VentaDto> ventaRepetida(VentaDto venta) {
+        logger.info("Sale {} sent again by the register, returning it instead of creating it twice", venta.id());
+        return ResponseEntity.ok(venta);
+    }
+
+    private static BigDecimal totalVendido(List<VentaDto> ventas) {
+        return ventas.stream()
+                .map(VentaDto::montoTotal)
+                .filter(monto -> monto != null)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
 }
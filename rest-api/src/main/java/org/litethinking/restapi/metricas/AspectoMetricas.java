@@ -0,0 +1,74 @@
+package org.litethinking.restapi.metricas;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times every public method of the services (Servicio*Impl) and of the repository adapters
+ * (Adaptador*), so the latency of each layer shows up next to the endpoint latency
+ * (http.server.requests) without attaching a profiler.
+ * One timer per class and method, tagged with the layer and the exception thrown, if any.
+ * The timers are kept once registered, so a call only looks its timer up in a map.
+ */
+@Aspect
+@Component
+public class AspectoMetricas {
+
+    static final String METRICA = "supermercado.llamadas";
+    static final String CAPA_SERVICIO = "servicio";
+    static final String CAPA_REPOSITORIO = "repositorio";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Llamada, Timer> timers = new ConcurrentHashMap<>();
+
+    public AspectoMetricas(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * org.litethinking.application.service..*Impl.*(..))")
+    public Object medirServicio(ProceedingJoinPoint joinPoint) throws Throwable {
+        return medir(joinPoint, CAPA_SERVICIO);
+    }
+
+    @Around("execution(public * org.litethinking.infrastructure.persistence.adapter..Adaptador*.*(..))")
+    public Object medirRepositorio(ProceedingJoinPoint joinPoint) throws Throwable {
+        return medir(joinPoint, CAPA_REPOSITORIO);
+    }
+
+    private Object medir(ProceedingJoinPoint joinPoint, String capa) throws Throwable {
+        Timer.Sample muestra = Timer.start(meterRegistry);
+        String excepcion = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            excepcion = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            muestra.stop(timers.computeIfAbsent(
+                    new Llamada(capa, joinPoint.getTarget().getClass(), joinPoint.getSignature().getName(), excepcion),
+                    this::registrar));
+        }
+    }
+
+    private Timer registrar(Llamada llamada) {
+        return Timer.builder(METRICA)
+                .description("Duration of service and repository adapter calls")
+                .tag("capa", llamada.capa())
+                .tag("clase", ClassUtils.getUserClass(llamada.clase()).getSimpleName())
+                .tag("metodo", llamada.metodo())
+                .tag("exception", llamada.excepcion())
+                .register(meterRegistry);
+    }
+
+    // The tags of a timer, with the target class instead of its name so the key is cheap to build
+    private record Llamada(String capa, Class<?> clase, String metodo, String excepcion) {
+    }
+}
@@ -0,0 +1,71 @@
+package org.litethinking.restapi.metricas;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.litethinking.infrastructure.persistence.adapter.supermercado.AdaptadorRepositorioProductoEnCache;
+import org.litethinking.infrastructure.persistence.adapter.supermercado.AdaptadorRepositorioProductoEnCache.EstadisticasCache;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publishes the product cache statistics with the usual Micrometer cache meter names
+ * (cache.gets, cache.evictions, cache.size), one series per index: by id and by barcode.
+ * Nothing is registered when the cache is disabled (app.cache.productos.habilitada=false).
+ */
+@Component
+public class MetricasCacheProductos implements MeterBinder {
+
+    private static final String CACHE = "productos";
+
+    private final ObjectProvider<AdaptadorRepositorioProductoEnCache> cache;
+
+    public MetricasCacheProductos(ObjectProvider<AdaptadorRepositorioProductoEnCache> cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        cache.ifAvailable(adaptador -> {
+            registrar(registry, adaptador, "id",
+                    EstadisticasCache::aciertosPorId, EstadisticasCache::fallosPorId,
+                    EstadisticasCache::desalojosPorId, EstadisticasCache::productosEnCache);
+            registrar(registry, adaptador, "codigo_barras",
+                    EstadisticasCache::aciertosPorCodigoBarras, EstadisticasCache::fallosPorCodigoBarras,
+                    EstadisticasCache::desalojosPorCodigoBarras, EstadisticasCache::codigosBarrasEnCache);
+        });
+    }
+
+    private void registrar(MeterRegistry registry, AdaptadorRepositorioProductoEnCache adaptador, String indice,
+                           ToDoubleFunction<EstadisticasCache> aciertos, ToDoubleFunction<EstadisticasCache> fallos,
+                           ToDoubleFunction<EstadisticasCache> desalojos, ToDoubleFunction<EstadisticasCache> tamanio) {
+        FunctionCounter.builder("cache.gets", adaptador, a -> aciertos.applyAsDouble(a.estadisticas()))
+                .tags("cache", CACHE, "indice", indice, "result", "hit")
+                .description("Product cache lookups answered from memory")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", adaptador, a -> fallos.applyAsDouble(a.estadisticas()))
+                .tags("cache", CACHE, "indice", indice, "result", "miss")
+                .description("Product cache lookups that went to the database")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", adaptador, a -> desalojos.applyAsDouble(a.estadisticas()))
+                .tags("cache", CACHE, "indice", indice)
+                .description("Entries evicted from the product cache")
+                .register(registry);
+        Gauge.builder("cache.size", adaptador, a -> tamanio.applyAsDouble(a.estadisticas()))
+                .tags("cache", CACHE, "indice", indice)
+                .description("Entries in the product cache")
+                .register(registry);
+        Gauge.builder("cache.hit.ratio", adaptador, a -> {
+                    EstadisticasCache estadisticas = a.estadisticas();
+                    double hits = aciertos.applyAsDouble(estadisticas);
+                    double total = hits + fallos.applyAsDouble(estadisticas);
+                    return total == 0 ? 0 : hits / total;
+                })
+                .tags("cache", CACHE, "indice", indice)
+                .description("Share of product cache lookups answered from memory since startup")
+                .register(registry);
+    }
+}
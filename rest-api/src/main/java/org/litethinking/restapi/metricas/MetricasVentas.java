@@ -0,0 +1,97 @@
+package org.litethinking.restapi.metricas;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.litethinking.shareddto.supermercado.venta.ResultadoVentaDto;
+import org.litethinking.shareddto.supermercado.venta.VentaDto;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Business metrics of the checkout: items per created sale and rejected sales by reason,
+ * stock reservation failures among them.
+ * The counters of every origin and reason are registered up front, so a sale only increments one.
+ */
+@Component
+public class MetricasVentas {
+
+    static final String ITEMS_POR_VENTA = "ventas.items";
+    static final String VENTAS_CREADAS = "ventas.creadas";
+    static final String VENTAS_RECHAZADAS = "ventas.rechazadas";
+
+    public static final String MOTIVO_SIN_STOCK = "sin_stock";
+    public static final String MOTIVO_INVALIDA = "invalida";
+    public static final String MOTIVO_ERROR = "error";
+
+    public static final String ORIGEN_INDIVIDUAL = "individual";
+    public static final String ORIGEN_LOTE = "lote";
+
+    private static final List<String> MOTIVOS = List.of(MOTIVO_SIN_STOCK, MOTIVO_INVALIDA, MOTIVO_ERROR);
+    private static final List<String> ORIGENES = List.of(ORIGEN_INDIVIDUAL, ORIGEN_LOTE);
+
+    private final DistributionSummary itemsPorVenta;
+    // By origin
+    private final Map<String, Counter> creadas = new HashMap<>();
+    // By reason, then by origin
+    private final Map<String, Map<String, Counter>> rechazadas = new HashMap<>();
+
+    public MetricasVentas(MeterRegistry meterRegistry) {
+        for (String origen : ORIGENES) {
+            creadas.put(origen, Counter.builder(VENTAS_CREADAS)
+                    .description("Sales created")
+                    .tag("origen", origen)
+                    .register(meterRegistry));
+            for (String motivo : MOTIVOS) {
+                rechazadas.computeIfAbsent(motivo, m -> new HashMap<>()).put(origen, Counter.builder(VENTAS_RECHAZADAS)
+                        .description("Sales rejected, by reason")
+                        .tag("motivo", motivo)
+                        .tag("origen", origen)
+                        .register(meterRegistry));
+            }
+        }
+        this.itemsPorVenta = DistributionSummary.builder(ITEMS_POR_VENTA)
+                .description("Items per created sale")
+                .baseUnit("items")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(500.0)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param origen one of the ORIGEN_* constants
+     */
+    public void ventaCreada(VentaDto venta, String origen) {
+        creadas.get(origen).increment();
+        itemsPorVenta.record(venta.items() != null ? venta.items().size() : 0);
+    }
+
+    /**
+     * @param motivo one of the MOTIVO_* constants
+     * @param origen one of the ORIGEN_* constants
+     */
+    public void ventaRechazada(String motivo, String origen) {
+        rechazadas.get(motivo).get(origen).increment();
+    }
+
+    /**
+     * Records every sale of a batch with its own outcome.
+     *
+     * @param ventas     the sales of the request
+     * @param resultados the outcome of every sale, in the same order
+     */
+    public void lote(List<VentaDto> ventas, List<ResultadoVentaDto> resultados) {
+        for (ResultadoVentaDto resultado : resultados) {
+            switch (resultado.estado()) {
+                case CREADA -> ventaCreada(ventas.get(resultado.indice()), ORIGEN_LOTE);
+                case SIN_STOCK -> ventaRechazada(MOTIVO_SIN_STOCK, ORIGEN_LOTE);
+                case INVALIDA -> ventaRechazada(MOTIVO_INVALIDA, ORIGEN_LOTE);
+                case ERROR -> ventaRechazada(MOTIVO_ERROR, ORIGEN_LOTE);
+            }
+        }
+    }
+}
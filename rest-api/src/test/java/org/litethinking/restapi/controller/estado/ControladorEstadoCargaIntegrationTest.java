@@ -0,0 +1,109 @@
+package org.litethinking.restapi.controller.estado;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.litethinking.application.service.supermercado.ServicioProducto;
+import org.litethinking.application.service.supermercado.inventario.ServicioInventario;
+import org.litethinking.infrastructure.persistence.importacion.ResultadoImportacion;
+import org.litethinking.restapi.config.EstadoCargaDatos;
+import org.litethinking.restapi.config.InterceptorCargaDatos;
+import org.litethinking.restapi.controller.supermercado.ControladorProducto;
+import org.litethinking.restapi.controller.supermercado.inventario.ControladorInventario;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class ControladorEstadoCargaIntegrationTest {
+
+    @Mock
+    private ServicioProducto servicioProducto;
+
+    @Mock
+    private ServicioInventario servicioInventario;
+
+    private EstadoCargaDatos estadoCargaDatos;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        estadoCargaDatos = new EstadoCargaDatos();
+        mockMvc = MockMvcBuilders.standaloneSetup(
+                        new ControladorEstadoCarga(estadoCargaDatos),
+                        new ControladorProducto(servicioProducto),
+                        new ControladorInventario(servicioInventario))
+                .addInterceptors(new InterceptorCargaDatos(estadoCargaDatos))
+                .build();
+    }
+
+    @Test
+    public void testEstadoCargaAntesDeEmpezar() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/estado/carga-datos"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.completa", is(false)))
+                .andExpect(jsonPath("$.entidades", hasSize(4)))
+                .andExpect(jsonPath("$.entidades[*].estado", everyItem(is("PENDIENTE"))));
+
+        mockMvc.perform(get("/api/estado/listo"))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    public void testProductosDisponiblesMientrasCargaElInventario() throws Exception {
+        // Given
+        estadoCargaDatos.iniciar(EstadoCargaDatos.PRODUCTOS);
+
+        // When & Then
+        mockMvc.perform(get("/api/productos/1"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists("Retry-After"));
+
+        // Given
+        estadoCargaDatos.completar(EstadoCargaDatos.PRODUCTOS, resultado(EstadoCargaDatos.PRODUCTOS, 120));
+        estadoCargaDatos.iniciar(EstadoCargaDatos.INVENTARIO);
+
+        // When & Then
+        mockMvc.perform(get("/api/productos/1"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/inventario/1"))
+                .andExpect(status().isServiceUnavailable());
+        mockMvc.perform(get("/api/estado/carga-datos"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.completa", is(false)))
+                .andExpect(jsonPath("$.entidades[2].nombre", is("productos")))
+                .andExpect(jsonPath("$.entidades[2].estado", is("LISTA")))
+                .andExpect(jsonPath("$.entidades[2].filasImportadas", is(120)))
+                .andExpect(jsonPath("$.entidades[3].estado", is("CARGANDO")));
+    }
+
+    @Test
+    public void testListoCuandoTodoEstaCargado() throws Exception {
+        // Given
+        for (String entidad : List.of(EstadoCargaDatos.CAJEROS, EstadoCargaDatos.CLIENTES,
+                EstadoCargaDatos.PRODUCTOS, EstadoCargaDatos.INVENTARIO)) {
+            estadoCargaDatos.iniciar(entidad);
+            estadoCargaDatos.completar(entidad, resultado(entidad, 10));
+        }
+
+        // When & Then
+        mockMvc.perform(get("/api/estado/listo"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.completa", is(true)));
+        mockMvc.perform(get("/api/inventario/1"))
+                .andExpect(status().isNotFound());
+    }
+
+    private ResultadoImportacion resultado(String entidad, long filas) {
+        return new ResultadoImportacion(entidad, filas, filas, 0, List.of(), Duration.ofMillis(100));
+    }
+}
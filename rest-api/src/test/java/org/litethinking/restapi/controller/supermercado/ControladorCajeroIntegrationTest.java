@@ -3,6 +3,7 @@ package org.litethinking.restapi.controller.supermercado;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 //import org.litethinking.domain.model.supermercado.Cajero;
+import org.litethinking.shareddto.paginacion.PaginaDto;
 import org.litethinking.shareddto.supermercado.CajeroDto;
 import org.litethinking.application.service.supermercado.ServicioCajero;
 import org.mockito.InjectMocks;
@@ -56,11 +57,12 @@ public class ControladorCajeroIntegrationTest {
                 .build();
         List<CajeroDto> cajeros = Arrays.asList(cajero1, cajero2);
 
-        when(servicioCajero.obtenerTodosLosCajeros()).thenReturn(cajeros);
+        when(servicioCajero.obtenerPaginaDeCajeros(null, null)).thenReturn(new PaginaDto<>(cajeros, "Mg", 2));
 
         // When & Then
         mockMvc.perform(get("/api/cajeros"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "Mg"))
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$", hasSize(2)))
                 .andExpect(jsonPath("$[0].id", is(1)))
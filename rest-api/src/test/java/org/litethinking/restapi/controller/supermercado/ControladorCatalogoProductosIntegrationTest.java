@@ -0,0 +1,146 @@
+package org.litethinking.restapi.controller.supermercado;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.litethinking.application.service.supermercado.EventoProductoModificado;
+import org.litethinking.application.service.supermercado.ServicioProducto;
+import org.litethinking.restapi.catalogo.CatalogoProductos;
+import org.litethinking.shareddto.supermercado.ProductoDto;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class ControladorCatalogoProductosIntegrationTest {
+
+    @Mock
+    private ServicioProducto servicioProducto;
+
+    private CatalogoProductos catalogoProductos;
+
+    private MockMvc mockMvc;
+
+    private List<ProductoDto> productos;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        productos = List.of(
+                new ProductoDto(1L, "Producto 1", "Descripción 1", new BigDecimal("10.99"), "Categoría 1", "P001"),
+                new ProductoDto(2L, "Producto 2", "Descripción 2", new BigDecimal("20.99"), "Categoría 2", "P002"));
+        doAnswer(invocation -> {
+            Consumer<ProductoDto> consumidor = invocation.getArgument(0);
+            productos.forEach(consumidor);
+            return null;
+        }).when(servicioProducto).recorrerTodosLosProductos(any());
+        when(servicioProducto.obtenerVersionCatalogo()).thenReturn(7L);
+        when(servicioProducto.obtenerEpocaCatalogo()).thenReturn("epoca-1");
+
+        catalogoProductos = new CatalogoProductos(servicioProducto, new ObjectMapper());
+        mockMvc = MockMvcBuilders.standaloneSetup(new ControladorCatalogoProductos(catalogoProductos)).build();
+    }
+
+    @Test
+    public void testObtenerCatalogoComprimido() throws Exception {
+        // When
+        MvcResult result = mockMvc.perform(get("/api/productos/catalogo")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.ETAG, endsWith("-gzip\"")))
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT_ENCODING)))
+                .andExpect(header().string(ControladorCatalogoProductos.CABECERA_TOTAL_PRODUCTOS, "2"))
+                .andExpect(header().string(ControladorCatalogoProductos.CABECERA_VERSION_CATALOGO, "7"))
+                .andExpect(header().string(ControladorCatalogoProductos.CABECERA_EPOCA_CATALOGO, "epoca-1"))
+                .andReturn();
+
+        // Then
+        byte[] json;
+        try (GZIPInputStream entrada = new GZIPInputStream(
+                new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            json = entrada.readAllBytes();
+        }
+        ProductoDto[] leidos = new ObjectMapper().readValue(json, ProductoDto[].class);
+        assertEquals(productos, List.of(leidos));
+    }
+
+    @Test
+    public void testObtenerCatalogoSinGzip() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/productos/catalogo")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].nombre", is("Producto 1")))
+                .andExpect(jsonPath("$[1].codigoBarras", is("P002")));
+    }
+
+    @Test
+    public void testCatalogoNoModificado() throws Exception {
+        // Given
+        String etag = mockMvc.perform(get("/api/productos/catalogo")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When & Then
+        mockMvc.perform(get("/api/productos/catalogo")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+
+        // The catalog is serialized once for both requests
+        verify(servicioProducto, times(1)).recorrerTodosLosProductos(any());
+    }
+
+    @Test
+    public void testCatalogoSeReconstruyeTrasUnCambio() throws Exception {
+        // Given
+        String etag = mockMvc.perform(get("/api/productos/catalogo"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        productos = List.of(
+                new ProductoDto(1L, "Producto 1", "Descripción 1", new BigDecimal("9.99"), "Categoría 1", "P001"));
+
+        // When
+        catalogoProductos.productoModificado(new EventoProductoModificado(1L, 1L));
+
+        // Then
+        mockMvc.perform(get("/api/productos/catalogo")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].precio", is(9.99)));
+        verify(servicioProducto, times(2)).recorrerTodosLosProductos(any());
+    }
+
+    @Test
+    public void testAceptaGzip() {
+        assertTrue(ControladorCatalogoProductos.aceptaGzip("gzip"));
+        assertTrue(ControladorCatalogoProductos.aceptaGzip("deflate, GZIP;q=0.8"));
+        assertTrue(ControladorCatalogoProductos.aceptaGzip("*"));
+        assertFalse(ControladorCatalogoProductos.aceptaGzip(null));
+        assertFalse(ControladorCatalogoProductos.aceptaGzip("identity"));
+        assertFalse(ControladorCatalogoProductos.aceptaGzip("gzip; q=0.0"));
+    }
+}
@@ -2,6 +2,7 @@ package org.litethinking.restapi.controller.supermercado;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.litethinking.shareddto.paginacion.PaginaDto;
 import org.litethinking.shareddto.supermercado.ClienteDto;
 import org.litethinking.application.service.supermercado.ServicioCliente;
 import org.mockito.InjectMocks;
@@ -57,11 +58,12 @@ public class ControladorClienteIntegrationTest {
         );
         List<ClienteDto> clientes = Arrays.asList(cliente1, cliente2);
 
-        when(servicioCliente.obtenerTodosLosClientes()).thenReturn(clientes);
+        when(servicioCliente.obtenerPaginaDeClientes(null, null)).thenReturn(new PaginaDto<>(clientes, "Mg", 2));
 
         // When & Then
         mockMvc.perform(get("/api/clientes"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "Mg"))
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$", hasSize(2)))
                 .andExpect(jsonPath("$[0].id", is(1)))
@@ -2,6 +2,8 @@ package org.litethinking.restapi.controller.supermercado;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.litethinking.shareddto.paginacion.PaginaDto;
+import org.litethinking.shareddto.supermercado.CambiosProductosDto;
 import org.litethinking.shareddto.supermercado.ProductoDto;
 import org.litethinking.application.service.supermercado.ServicioProducto;
 import org.mockito.InjectMocks;
@@ -9,16 +11,19 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -46,11 +51,12 @@ public class ControladorProductoIntegrationTest {
         ProductoDto producto2 = new ProductoDto(2L, "Producto 2", "Descripción 2", new BigDecimal("20.99"), "Categoría 2", "P002");
         List<ProductoDto> productos = Arrays.asList(producto1, producto2);
 
-        when(servicioProducto.obtenerTodosLosProductos()).thenReturn(productos);
+        when(servicioProducto.obtenerPaginaDeProductos(null, null)).thenReturn(new PaginaDto<>(productos, "Mg", 2));
 
         // When & Then
         mockMvc.perform(get("/api/productos"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "Mg"))
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$", hasSize(2)))
                 .andExpect(jsonPath("$[0].id", is(1)))
@@ -140,6 +146,34 @@ public class ControladorProductoIntegrationTest {
                 .andExpect(status().isNoContent());
     }
 
+    @Test
+    public void testObtenerCambios() throws Exception {
+        // Given
+        ProductoDto producto = new ProductoDto(1L, "Producto 1", "Descripción 1", new BigDecimal("9.99"), "Categoría 1", "P001");
+
+        when(servicioProducto.obtenerCambiosDesde(10L, null))
+                .thenReturn(new CambiosProductosDto("epoca-1", 10L, 14L, false, List.of(producto), List.of(7L)));
+        when(servicioProducto.obtenerCambiosDesde(-1L, null)).thenThrow(new IllegalArgumentException());
+
+        // When & Then
+        mockMvc.perform(get("/api/productos/cambios").param("desde", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.epoca", is("epoca-1")))
+                .andExpect(jsonPath("$.desde", is(10)))
+                .andExpect(jsonPath("$.hasta", is(14)))
+                .andExpect(jsonPath("$.hayMas", is(false)))
+                .andExpect(jsonPath("$.actualizados", hasSize(1)))
+                .andExpect(jsonPath("$.actualizados[0].precio", is(9.99)))
+                .andExpect(jsonPath("$.eliminados[0]", is(7)));
+
+        mockMvc.perform(get("/api/productos/cambios").param("desde", "-1"))
+                .andExpect(status().isBadRequest());
+
+        when(servicioProducto.obtenerCambiosDesde(99L, null)).thenThrow(new IllegalStateException("Versión futura"));
+        mockMvc.perform(get("/api/productos/cambios").param("desde", "99"))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     public void testObtenerProductosPorCategoria() throws Exception {
         // Given
@@ -182,4 +216,32 @@ public class ControladorProductoIntegrationTest {
         mockMvc.perform(get("/api/productos/codigo-barras/P999"))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    public void testGenerarCsvProductos() throws Exception {
+        // Given
+        ProductoDto producto1 = new ProductoDto(1L, "Producto 1", "Descripción 1", new BigDecimal("10.99"), "Categoría 1", "P001");
+        ProductoDto producto2 = new ProductoDto(2L, "Producto 2", "Descripción 2", new BigDecimal("20.99"), "Categoría 2", "P002");
+
+        doAnswer(invocation -> {
+            Consumer<ProductoDto> consumidor = invocation.getArgument(0);
+            consumidor.accept(producto1);
+            consumidor.accept(producto2);
+            return null;
+        }).when(servicioProducto).recorrerTodosLosProductos(any());
+
+        // When
+        MvcResult resultado = mockMvc.perform(get("/api/productos/csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", containsString("productos.csv")))
+                .andExpect(content().string(
+                        "id,nombre,descripcion,precio,categoria,codigoBarras\n"
+                                + "1,Producto 1,Descripción 1,10.99,Categoría 1,P001\n"
+                                + "2,Producto 2,Descripción 2,20.99,Categoría 2,P002\n"));
+    }
 }
@@ -5,11 +5,14 @@ import org.junit.jupiter.api.Test;
 import org.litethinking.application.service.supermercado.inventario.ServicioInventario;
 import org.litethinking.domain.model.supermercado.Producto;
 import org.litethinking.domain.model.supermercado.inventario.Inventario;
+import org.litethinking.domain.model.supermercado.inventario.LineaInventario;
+import org.litethinking.shareddto.paginacion.PaginaDto;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.math.BigDecimal;
@@ -17,10 +20,15 @@ import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -80,11 +88,12 @@ public class ControladorInventarioIntegrationTest {
 
         List<Inventario> inventarios = Arrays.asList(inventario1, inventario2);
 
-        when(servicioInventario.obtenerTodoElInventario()).thenReturn(inventarios);
+        when(servicioInventario.obtenerPaginaDeInventario(null, null)).thenReturn(new PaginaDto<>(inventarios, "Mg", 2));
 
         // When & Then
         mockMvc.perform(get("/api/inventario"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "Mg"))
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$", hasSize(2)))
                 .andExpect(jsonPath("$[0].id", is(1)))
@@ -294,4 +303,47 @@ public class ControladorInventarioIntegrationTest {
                 .andExpect(jsonPath("$.stockMaximo", is(20)))
                 .andExpect(jsonPath("$.ubicacion", is("Pasillo 1")));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGenerarCsvInventarioConFiltros() throws Exception {
+        // Given
+        LineaInventario linea = new LineaInventario(1L, 7L, "Producto 7", "P007", 3, 5, 20,
+                LocalDate.of(2024, 1, 15), "Pasillo 1");
+
+        doAnswer(invocation -> {
+            Consumer<LineaInventario> consumidor = invocation.getArgument(2);
+            consumidor.accept(linea);
+            return null;
+        }).when(servicioInventario).recorrerLineasInventario(eq("Pasillo 1"), eq(true), any());
+
+        // When
+        MvcResult resultado = mockMvc.perform(get("/api/inventario/csv")
+                        .param("ubicacion", "Pasillo 1")
+                        .param("bajoStock", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", containsString("inventario.csv")))
+                .andExpect(content().string(
+                        "id,producto_id,cantidad,stockMinimo,stockMaximo,fechaUltimaReposicion,ubicacion,producto_nombre,producto_codigoBarras\n"
+                                + "1,7,3,5,20,2024-01-15,Pasillo 1,Producto 7,P007\n"));
+    }
+
+    @Test
+    public void testGenerarCsvInventarioSinFiltros() throws Exception {
+        // When
+        MvcResult resultado = mockMvc.perform(get("/api/inventario/csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().string(
+                        "id,producto_id,cantidad,stockMinimo,stockMaximo,fechaUltimaReposicion,ubicacion,producto_nombre,producto_codigoBarras\n"));
+        verify(servicioInventario).recorrerLineasInventario(isNull(), eq(false), any());
+    }
+}
@@ -1,18 +1,27 @@
 package org.litethinking.restapi.controller.supermercado.venta;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.litethinking.application.service.supermercado.venta.ServicioVenta;
+import org.litethinking.restapi.metricas.MetricasVentas;
+import org.litethinking.shareddto.paginacion.PaginaDto;
 import org.litethinking.shareddto.supermercado.venta.ItemVentaDto;
+import org.litethinking.shareddto.supermercado.venta.ResultadoVentaDto;
+import org.litethinking.shareddto.supermercado.venta.TotalVentasPorDiaDto;
+import org.litethinking.shareddto.supermercado.venta.TotalVentasPorGrupoDto;
 import org.litethinking.shareddto.supermercado.venta.VentaDto;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
@@ -21,8 +30,13 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -32,6 +46,11 @@ public class ControladorVentaIntegrationTest {
     @Mock
     private ServicioVenta servicioVenta;
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private MetricasVentas metricasVentas = new MetricasVentas(meterRegistry);
+
     @InjectMocks
     private ControladorVenta controladorVenta;
 
@@ -53,11 +72,12 @@ public class ControladorVentaIntegrationTest {
         VentaDto venta2 = new VentaDto(2L, fechaVenta2, "María López", new ArrayList<>(), new BigDecimal("200.00"), "Tarjeta");
         List<VentaDto> ventas = Arrays.asList(venta1, venta2);
 
-        when(servicioVenta.obtenerTodasLasVentas()).thenReturn(ventas);
+        when(servicioVenta.obtenerPaginaDeVentas(null, null)).thenReturn(new PaginaDto<>(ventas, "Mg", 2));
 
         // When & Then
         mockMvc.perform(get("/api/ventas"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "Mg"))
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$", hasSize(2)))
                 .andExpect(jsonPath("$[0].id", is(1)))
@@ -70,6 +90,19 @@ public class ControladorVentaIntegrationTest {
                 .andExpect(jsonPath("$[1].metodoPago", is("Tarjeta")));
     }
 
+    @Test
+    public void testObtenerTodasLasVentasConCursorInvalido() throws Exception {
+        // Given
+        when(servicioVenta.obtenerPaginaDeVentas("no-es-un-cursor", 10))
+                .thenThrow(new IllegalArgumentException("Cursor de paginación inválido: no-es-un-cursor"));
+
+        // When & Then
+        mockMvc.perform(get("/api/ventas")
+                        .param("cursor", "no-es-un-cursor")
+                        .param("tamanio", "10"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void testObtenerVentaPorId() throws Exception {
         // Given
@@ -99,7 +132,7 @@ public class ControladorVentaIntegrationTest {
         LocalDateTime fechaVenta = LocalDateTime.now();
         VentaDto venta = new VentaDto(1L, fechaVenta, "Juan Pérez", new ArrayList<>(), new BigDecimal("100.00"), "Efectivo");
 
-        when(servicioVenta.crearVenta(any(VentaDto.class))).thenReturn(venta);
+        when(servicioVenta.crearVenta(any(VentaDto.class), any())).thenReturn(venta);
 
         // When & Then
         mockMvc.perform(post("/api/ventas")
@@ -114,6 +147,125 @@ public class ControladorVentaIntegrationTest {
                 .andExpect(jsonPath("$.metodoPago", is("Efectivo")));
     }
 
+    @Test
+    public void testCrearVentaSinStockSuficiente() throws Exception {
+        // Given
+        when(servicioVenta.crearVenta(any(VentaDto.class), any()))
+                .thenThrow(new IllegalStateException("No hay suficiente inventario para el producto con ID: 1. Solicitado: 5"));
+
+        // When & Then
+        mockMvc.perform(post("/api/ventas")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nombreCliente\":\"Juan Pérez\",\"items\":[],\"montoTotal\":100.00,\"metodoPago\":\"Efectivo\"}"))
+                .andExpect(status().isConflict());
+        assertEquals(1.0, meterRegistry.get("ventas.rechazadas").tag("motivo", MetricasVentas.MOTIVO_SIN_STOCK)
+                .tag("origen", MetricasVentas.ORIGEN_INDIVIDUAL).counter().count());
+    }
+
+    @Test
+    public void testCrearVentaRepetidaDevuelveLaYaCreada() throws Exception {
+        // Given
+        VentaDto venta = new VentaDto(1L, LocalDateTime.now(), "Juan Pérez", new ArrayList<>(), new BigDecimal("100.00"), "Efectivo");
+
+        when(servicioVenta.obtenerVentaPorClaveIdempotencia("clave-1")).thenReturn(Optional.of(venta));
+
+        // When & Then
+        mockMvc.perform(post("/api/ventas")
+                .header("Idempotency-Key", "clave-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nombreCliente\":\"Juan Pérez\",\"items\":[],\"montoTotal\":100.00,\"metodoPago\":\"Efectivo\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(1)));
+        verify(servicioVenta, never()).crearVenta(any(VentaDto.class), any());
+        assertEquals(0.0, meterRegistry.get("ventas.creadas").tag("origen", MetricasVentas.ORIGEN_INDIVIDUAL)
+                .counter().count());
+    }
+
+    @Test
+    public void testCrearVentaConClaveGuardaLaClave() throws Exception {
+        // Given
+        VentaDto venta = new VentaDto(1L, LocalDateTime.now(), "Juan Pérez", new ArrayList<>(), new BigDecimal("100.00"), "Efectivo");
+
+        when(servicioVenta.obtenerVentaPorClaveIdempotencia("clave-1")).thenReturn(Optional.empty());
+        when(servicioVenta.crearVenta(any(VentaDto.class), eq("clave-1"))).thenReturn(venta);
+
+        // When & Then
+        mockMvc.perform(post("/api/ventas")
+                .header("Idempotency-Key", "clave-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nombreCliente\":\"Juan Pérez\",\"items\":[],\"montoTotal\":100.00,\"metodoPago\":\"Efectivo\"}"))
+                .andExpect(status().isCreated());
+        verify(servicioVenta).crearVenta(any(VentaDto.class), eq("clave-1"));
+    }
+
+    @Test
+    public void testCrearVentaRepetidaALaVezDevuelveLaQueGanó() throws Exception {
+        // Given: the other request with the same key committed between the lookup and the insert
+        VentaDto venta = new VentaDto(1L, LocalDateTime.now(), "Juan Pérez", new ArrayList<>(), new BigDecimal("100.00"), "Efectivo");
+
+        when(servicioVenta.obtenerVentaPorClaveIdempotencia("clave-1"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(venta));
+        when(servicioVenta.crearVenta(any(VentaDto.class), eq("clave-1")))
+                .thenThrow(new DataIntegrityViolationException("uk_ventas_clave_idempotencia"));
+
+        // When & Then
+        mockMvc.perform(post("/api/ventas")
+                .header("Idempotency-Key", "clave-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nombreCliente\":\"Juan Pérez\",\"items\":[],\"montoTotal\":100.00,\"metodoPago\":\"Efectivo\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(1)));
+    }
+
+    @Test
+    public void testCrearVentaConClaveDemasiadoLarga() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/ventas")
+                .header("Idempotency-Key", "x".repeat(65))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nombreCliente\":\"Juan Pérez\",\"items\":[],\"montoTotal\":100.00,\"metodoPago\":\"Efectivo\"}"))
+                .andExpect(status().isBadRequest());
+        verify(servicioVenta, never()).crearVenta(any(VentaDto.class), any());
+    }
+
+    @Test
+    public void testCrearVentasEnLote() throws Exception {
+        // Given
+        List<ResultadoVentaDto> resultados = Arrays.asList(
+                new ResultadoVentaDto(0, 10L, ResultadoVentaDto.Estado.CREADA, null),
+                new ResultadoVentaDto(1, null, ResultadoVentaDto.Estado.SIN_STOCK,
+                        "No hay suficiente inventario para el producto con ID: 1. Solicitado: 5"));
+
+        when(servicioVenta.crearVentas(anyList())).thenReturn(resultados);
+
+        // When & Then
+        mockMvc.perform(post("/api/ventas/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"nombreCliente\":\"Juan Pérez\",\"items\":[],\"montoTotal\":100.00,\"metodoPago\":\"Efectivo\"},"
+                        + "{\"nombreCliente\":\"María López\",\"items\":[],\"montoTotal\":200.00,\"metodoPago\":\"Tarjeta\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].indice", is(0)))
+                .andExpect(jsonPath("$[0].id", is(10)))
+                .andExpect(jsonPath("$[0].estado", is("CREADA")))
+                .andExpect(jsonPath("$[1].indice", is(1)))
+                .andExpect(jsonPath("$[1].estado", is("SIN_STOCK")));
+        assertEquals(1.0, meterRegistry.get("ventas.creadas").tag("origen", MetricasVentas.ORIGEN_LOTE).counter().count());
+        assertEquals(1.0, meterRegistry.get("ventas.rechazadas").tag("motivo", MetricasVentas.MOTIVO_SIN_STOCK)
+                .tag("origen", MetricasVentas.ORIGEN_LOTE).counter().count());
+        assertEquals(1L, meterRegistry.get("ventas.items").summary().count());
+    }
+
+    @Test
+    public void testCrearVentasEnLoteVacio() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/ventas/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void testActualizarVenta() throws Exception {
         // Given
@@ -227,4 +379,71 @@ public class ControladorVentaIntegrationTest {
                 .andExpect(jsonPath("$[1].montoTotal", is(200.00)))
                 .andExpect(jsonPath("$[1].metodoPago", is("Tarjeta")));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testObtenerTotalesPorDia() throws Exception {
+        // Given
+        LocalDate desde = LocalDate.of(2024, 1, 1);
+        LocalDate hasta = LocalDate.of(2024, 1, 2);
+        when(servicioVenta.obtenerTotalesPorDia(desde, hasta)).thenReturn(Arrays.asList(
+                new TotalVentasPorDiaDto(desde, 3L, new BigDecimal("300.10")),
+                new TotalVentasPorDiaDto(hasta, 1L, new BigDecimal("0.20"))));
+
+        // When & Then
+        mockMvc.perform(get("/api/ventas/analytics/diario")
+                        .param("desde", "2024-01-01")
+                        .param("hasta", "2024-01-02"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].cantidadVentas", is(3)))
+                .andExpect(jsonPath("$[0].montoTotal", is(300.10)))
+                .andExpect(jsonPath("$[1].montoTotal", is(0.20)));
+    }
+
+    @Test
+    public void testObtenerTotalesPorCategoriaYMetodoPago() throws Exception {
+        // Given
+        when(servicioVenta.obtenerTotalesPorCategoria(null, null)).thenReturn(Arrays.asList(
+                new TotalVentasPorGrupoDto("Lácteos", 5L, new BigDecimal("120.50")),
+                new TotalVentasPorGrupoDto("Bebidas", 2L, new BigDecimal("40.00"))));
+        when(servicioVenta.obtenerTotalesPorMetodoPago(null, null)).thenReturn(List.of(
+                new TotalVentasPorGrupoDto("Efectivo", 4L, new BigDecimal("160.50"))));
+
+        // When & Then
+        mockMvc.perform(get("/api/ventas/analytics/categorias"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].grupo", is("Lácteos")))
+                .andExpect(jsonPath("$[0].montoTotal", is(120.50)));
+
+        mockMvc.perform(get("/api/ventas/analytics/metodos-pago"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].grupo", is("Efectivo")))
+                .andExpect(jsonPath("$[0].cantidadVentas", is(4)));
+    }
+
+    @Test
+    public void testObtenerTotalesConRangoInvalido() throws Exception {
+        // Given
+        when(servicioVenta.obtenerTotalesPorDia(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1)))
+                .thenThrow(new IllegalArgumentException("La fecha desde es posterior a la fecha hasta"));
+
+        // When & Then
+        mockMvc.perform(get("/api/ventas/analytics/diario")
+                        .param("desde", "2024-02-01")
+                        .param("hasta", "2024-01-01"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testReconstruirResumenVentas() throws Exception {
+        // Given
+        when(servicioVenta.reconstruirResumenVentas()).thenReturn(42);
+
+        // When & Then
+        mockMvc.perform(post("/api/ventas/analytics/reconstruir"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("42"));
+    }
+}
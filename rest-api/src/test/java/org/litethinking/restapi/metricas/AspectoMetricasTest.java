@@ -0,0 +1,87 @@
+package org.litethinking.restapi.metricas;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.litethinking.application.service.paginacion.Paginador;
+import org.litethinking.application.service.supermercado.ServicioCajero;
+import org.litethinking.application.service.supermercado.impl.ServicioCajeroImpl;
+import org.litethinking.domain.repository.supermercado.RepositorioCajero;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+public class AspectoMetricasTest {
+
+    @Mock
+    private RepositorioCajero repositorioCajero;
+
+    @Mock
+    private Paginador paginador;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ServicioCajero servicioCajero;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new ServicioCajeroImpl(repositorioCajero, paginador));
+        proxyFactory.addAspect(new AspectoMetricas(meterRegistry));
+        servicioCajero = proxyFactory.getProxy();
+    }
+
+    @Test
+    public void testMideLasLlamadasAlServicio() {
+        // Given
+        when(repositorioCajero.findById(1L)).thenReturn(Optional.empty());
+
+        // When
+        servicioCajero.obtenerCajeroPorId(1L);
+        servicioCajero.obtenerCajeroPorId(1L);
+
+        // Then
+        Timer timer = meterRegistry.get(AspectoMetricas.METRICA)
+                .tag("capa", AspectoMetricas.CAPA_SERVICIO)
+                .tag("clase", "ServicioCajeroImpl")
+                .tag("metodo", "obtenerCajeroPorId")
+                .tag("exception", "none")
+                .timer();
+        assertEquals(2, timer.count());
+    }
+
+    @Test
+    public void testEtiquetaLaExcepcion() {
+        // Given
+        when(repositorioCajero.findById(7L)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> servicioCajero.actualizarCajero(7L, null));
+        Timer timer = meterRegistry.get(AspectoMetricas.METRICA)
+                .tag("metodo", "actualizarCajero")
+                .tag("exception", "IllegalArgumentException")
+                .timer();
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    public void testRegistraUnSoloTimerPorMetodo() {
+        // Given
+        when(repositorioCajero.findById(1L)).thenReturn(Optional.empty());
+
+        // When
+        servicioCajero.obtenerCajeroPorId(1L);
+        Timer primero = meterRegistry.get(AspectoMetricas.METRICA).tag("metodo", "obtenerCajeroPorId").timer();
+        servicioCajero.obtenerCajeroPorId(1L);
+
+        // Then
+        assertSame(primero, meterRegistry.get(AspectoMetricas.METRICA).tag("metodo", "obtenerCajeroPorId").timer());
+        assertEquals(1, meterRegistry.getMeters().size());
+    }
+}
@@ -0,0 +1,43 @@
+package org.litethinking.shareddto.estado;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO with the progress of the seed data load.
+ * This is an immutable record class; completa is true once every entity finished loading.
+ */
+public record EstadoCargaDatosDto(
+    boolean completa,
+    List<Entidad> entidades
+) {
+    /**
+     * Load progress of one entity (one CSV file).
+     * filasPorSegundo, inicio, fin and error stay empty until they are known.
+     */
+    public record Entidad(
+        String nombre,
+        Estado estado,
+        long filasImportadas,
+        long filasRechazadas,
+        long filasPorSegundo,
+        LocalDateTime inicio,
+        LocalDateTime fin,
+        String error
+    ) {
+    }
+
+    /**
+     * Load status of an entity.
+     */
+    public enum Estado {
+        /** Not started yet. */
+        PENDIENTE,
+        /** Rows are being imported; its endpoints answer 503. */
+        CARGANDO,
+        /** Loaded; its endpoints are open. */
+        LISTA,
+        /** The load stopped with an error; its endpoints are open with whatever was stored. */
+        FALLIDA
+    }
+}
@@ -0,0 +1,22 @@
+package org.litethinking.shareddto.paginacion;
+
+import java.util.List;
+
+/**
+ * DTO for a page of results obtained with keyset (cursor) pagination.
+ * This is an immutable record class; siguienteCursor is null on the last page.
+ */
+public record PaginaDto<T>(
+    List<T> elementos,
+    String siguienteCursor,
+    int tamanio
+) {
+    /**
+     * Tells whether there is another page after this one.
+     *
+     * @return true if siguienteCursor is present
+     */
+    public boolean tieneSiguiente() {
+        return siguienteCursor != null;
+    }
+}
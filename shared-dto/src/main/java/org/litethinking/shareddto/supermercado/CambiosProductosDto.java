@@ -0,0 +1,21 @@
+package org.litethinking.shareddto.supermercado;
+
+import java.util.List;
+
+/**
+ * DTO with the catalog changes after a version, for terminals that keep a local copy.
+ * This is an immutable record class; each product shows up once, with its latest change:
+ * in actualizados if it was created or updated, in eliminados if it was deleted.
+ * Ask again with desde = hasta while hayMas is true. The versions only mean something within
+ * one epoca: a different epoca than the one the copy was built from means the catalog was
+ * recreated, and the whole catalog has to be downloaded again.
+ */
+public record CambiosProductosDto(
+    String epoca,
+    long desde,
+    long hasta,
+    boolean hayMas,
+    List<ProductoDto> actualizados,
+    List<Long> eliminados
+) {
+}
@@ -0,0 +1,26 @@
+package org.litethinking.shareddto.supermercado.venta;
+
+/**
+ * DTO with the outcome of one sale inside a batch.
+ * This is an immutable record class; indice is the position of the sale in the request.
+ */
+public record ResultadoVentaDto(
+    int indice,
+    Long id,
+    Estado estado,
+    String mensaje
+) {
+    /**
+     * Status of a sale inside a batch.
+     */
+    public enum Estado {
+        /** The sale was saved. */
+        CREADA,
+        /** Not enough stock for one of its products; nothing was saved for this sale. */
+        SIN_STOCK,
+        /** The sale data was not valid. */
+        INVALIDA,
+        /** The sale could not be saved because its chunk failed. */
+        ERROR
+    }
+}
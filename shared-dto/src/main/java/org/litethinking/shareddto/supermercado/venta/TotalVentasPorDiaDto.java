@@ -0,0 +1,16 @@
+package org.litethinking.shareddto.supermercado.venta;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * DTO with the sales of one day.
+ * This is an immutable record class used by the sales analytics endpoints.
+ */
+public record TotalVentasPorDiaDto(
+    LocalDate fecha,
+    Long cantidadVentas,
+    BigDecimal montoTotal
+) {
+    // Records automatically provide getters, equals, hashCode, and toString methods
+}
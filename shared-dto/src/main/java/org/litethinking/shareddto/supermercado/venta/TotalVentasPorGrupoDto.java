@@ -0,0 +1,15 @@
+package org.litethinking.shareddto.supermercado.venta;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO with the sales of one group (a category, a payment method...).
+ * This is an immutable record class used by the sales analytics endpoints.
+ */
+public record TotalVentasPorGrupoDto(
+    String grupo,
+    Long cantidadVentas,
+    BigDecimal montoTotal
+) {
+    // Records automatically provide getters, equals, hashCode, and toString methods
+}